@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 public class TomcatServer {
     
     private Embedded server;
+    private StandardContext context;
     private int port;
     private boolean isRunning;
 
@@ -55,9 +56,9 @@ public class TomcatServer {
         Host localHost = server.createHost("localhost", appBase);
         localHost.setAutoDeploy(false);
 
-        StandardContext rootContext = (StandardContext) server.createContext(contextPath, "webapp");
-        rootContext.setDefaultWebXml("web.xml");
-        localHost.addChild(rootContext);
+        context = (StandardContext) server.createContext(contextPath, "webapp");
+        context.setDefaultWebXml("web.xml");
+        localHost.addChild(context);
 
         Engine engine = server.createEngine();
         engine.setDefaultHost(localHost.getName());
@@ -106,4 +107,8 @@ public class TomcatServer {
         return isRunning;
     }
 
+    public RedissonSessionManager getManager() {
+        return (RedissonSessionManager) context.getManager();
+    }
+
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.apache.http.cookie.Cookie;
 import org.apache.http.impl.client.BasicCookieStore;
 import org.junit.Assert;
 import org.junit.Test;
+import org.redisson.api.RMap;
 
 public class RedissonSessionManagerTest {
 
@@ -119,20 +120,172 @@ public class RedissonSessionManagerTest {
         server.stop();
     }
     
+    @Test
+    public void testUpdateTwoServers_readRedis() throws Exception {
+        testUpdateTwoServers("REDIS", "DEFAULT");
+    }
+
+    @Test
+    public void testUpdateTwoServers_readRedis_afterRequest() throws Exception {
+        testUpdateTwoServers("REDIS", "AFTER_REQUEST");
+    }
+
+    private void testUpdateTwoServers(String readMode, String updateMode) throws Exception {
+        TomcatServer server1 = new TomcatServer("myapp", 8080, "/src/test/");
+        server1.start();
+        server1.getManager().setReadMode(readMode);
+        server1.getManager().setUpdateMode(updateMode);
+        
+        TomcatServer server2 = new TomcatServer("myapp", 8081, "/src/test/");
+        server2.start();
+        server2.getManager().setReadMode(readMode);
+        server2.getManager().setUpdateMode(updateMode);
+
+        Executor executor = Executor.newInstance();
+        BasicCookieStore cookieStore = new BasicCookieStore();
+        executor.use(cookieStore);
+        
+        write(8080, executor, "test", "1");
+        read(8081, executor, "test", "1");
+        // session is cached by first server, but changes are read from Redis
+        write(8081, executor, "test", "2");
+        read(8080, executor, "test", "2");
+        remove(8081, executor, "test", "null");
+        read(8080, executor, "test", "null");
+        
+        Executor.closeIdleConnections();
+        server1.stop();
+        server2.stop();
+    }
+
+    @Test
+    public void testUpdateTwoServers_readMemory() throws Exception {
+        testUpdateTwoServersMemory("DEFAULT");
+    }
+
+    @Test
+    public void testUpdateTwoServers_readMemory_afterRequest() throws Exception {
+        testUpdateTwoServersMemory("AFTER_REQUEST");
+    }
+
+    private void testUpdateTwoServersMemory(String updateMode) throws Exception {
+        TomcatServer server1 = new TomcatServer("myapp", 8080, "/src/test/");
+        server1.start();
+        server1.getManager().setReadMode("MEMORY");
+        server1.getManager().setUpdateMode(updateMode);
+        
+        TomcatServer server2 = new TomcatServer("myapp", 8081, "/src/test/");
+        server2.start();
+        server2.getManager().setReadMode("MEMORY");
+        server2.getManager().setUpdateMode(updateMode);
+
+        Executor executor = Executor.newInstance();
+        BasicCookieStore cookieStore = new BasicCookieStore();
+        executor.use(cookieStore);
+        
+        write(8080, executor, "test", "1");
+        // session is loaded from Redis by second server
+        read(8081, executor, "test", "1");
+        write(8081, executor, "test", "2");
+        // first server reads session cached in memory
+        read(8080, executor, "test", "1");
+        
+        Executor.closeIdleConnections();
+        server1.stop();
+        server2.stop();
+    }
+
+    @Test
+    public void testAfterRequestDeferredWrite() throws Exception {
+        TomcatServer server = new TomcatServer("myapp", 8080, "/src/test/");
+        server.start();
+        RedissonSessionManager manager = server.getManager();
+        manager.setUpdateMode("AFTER_REQUEST");
+        
+        RedissonSession session = (RedissonSession) manager.createSession(null);
+        RMap<String, Object> map = manager.getMap(session.getId());
+        session.setAttribute("test", "1234");
+        Assert.assertNull(map.get("test"));
+        
+        // changes are written by UpdateValve
+        session.flush();
+        Assert.assertEquals("1234", map.get("test"));
+        
+        session.setAttribute("test", "4321");
+        session.removeAttribute("test");
+        Assert.assertEquals("1234", map.get("test"));
+        
+        session.endAccess();
+        Assert.assertEquals("1234", map.get("test"));
+        
+        session.flush();
+        Assert.assertNull(map.get("test"));
+        
+        server.stop();
+    }
+
+    @Test
+    public void testDefaultUpdateWritesImmediately() throws Exception {
+        TomcatServer server = new TomcatServer("myapp", 8080, "/src/test/");
+        server.start();
+        RedissonSessionManager manager = server.getManager();
+        
+        RedissonSession session = (RedissonSession) manager.createSession(null);
+        RMap<String, Object> map = manager.getMap(session.getId());
+        session.setAttribute("test", "1234");
+        Assert.assertEquals("1234", map.get("test"));
+        
+        session.removeAttribute("test");
+        Assert.assertNull(map.get("test"));
+        
+        server.stop();
+    }
+    
+    @Test
+    public void testExpiredSessionNotRestored() throws Exception {
+        TomcatServer server = new TomcatServer("myapp", 8080, "/src/test/");
+        server.start();
+        RedissonSessionManager manager = server.getManager();
+        manager.setReadMode("REDIS");
+        
+        RedissonSession session = (RedissonSession) manager.createSession(null);
+        session.setAttribute("test", "1234");
+        Assert.assertSame(session, manager.findSession(session.getId()));
+        
+        // session has been expired in Redis
+        manager.getMap(session.getId()).delete();
+        Assert.assertNull(manager.findSession(session.getId()));
+        Assert.assertFalse(manager.getMap(session.getId()).isExists());
+        
+        server.stop();
+    }
+    
     private void write(Executor executor, String key, String value) throws IOException, ClientProtocolException {
-        String url = "http://localhost:8080/myapp/write?key=" + key + "&value=" + value;
+        write(8080, executor, key, value);
+    }
+    
+    private void write(int port, Executor executor, String key, String value) throws IOException, ClientProtocolException {
+        String url = "http://localhost:" + port + "/myapp/write?key=" + key + "&value=" + value;
         String response = executor.execute(Request.Get(url)).returnContent().asString();
         Assert.assertEquals("OK", response);
     }
     
     private void read(Executor executor, String key, String value) throws IOException, ClientProtocolException {
-        String url = "http://localhost:8080/myapp/read?key=" + key;
+        read(8080, executor, key, value);
+    }
+    
+    private void read(int port, Executor executor, String key, String value) throws IOException, ClientProtocolException {
+        String url = "http://localhost:" + port + "/myapp/read?key=" + key;
         String response = executor.execute(Request.Get(url)).returnContent().asString();
         Assert.assertEquals(value, response);
     }
 
     private void remove(Executor executor, String key, String value) throws IOException, ClientProtocolException {
-        String url = "http://localhost:8080/myapp/remove?key=" + key;
+        remove(8080, executor, key, value);
+    }
+    
+    private void remove(int port, Executor executor, String key, String value) throws IOException, ClientProtocolException {
+        String url = "http://localhost:" + port + "/myapp/remove?key=" + key;
         String response = executor.execute(Request.Get(url)).returnContent().asString();
         Assert.assertEquals(value, response);
     }
@@ -144,7 +297,11 @@ public class RedissonSessionManagerTest {
     }
 
     private void recreate(Executor executor, String key, String value) throws IOException, ClientProtocolException {
-        String url = "http://localhost:8080/myapp/recreate?key=" + key + "&value=" + value;
+        recreate(8080, executor, key, value);
+    }
+    
+    private void recreate(int port, Executor executor, String key, String value) throws IOException, ClientProtocolException {
+        String url = "http://localhost:" + port + "/myapp/recreate?key=" + key + "&value=" + value;
         String response = executor.execute(Request.Get(url)).returnContent().asString();
         Assert.assertEquals("OK", response);
     }
@@ -4,6 +4,7 @@ import java.net.MalformedURLException;
 
 import javax.servlet.ServletException;
 
+import org.apache.catalina.Context;
 import org.apache.catalina.LifecycleException;
 import org.apache.catalina.startup.Tomcat;
 import org.slf4j.Logger;
@@ -12,6 +13,7 @@ import org.slf4j.LoggerFactory;
 public class TomcatServer {
     
     private Tomcat tomcat = new Tomcat();
+    private Context context;
     private int port;
     private boolean isRunning;
 
@@ -30,7 +32,7 @@ public class TomcatServer {
         tomcat.setPort(port);
         tomcat.getHost().setAppBase(".");
 
-        tomcat.addWebapp(contextPath, appBase + "webapp");
+        context = tomcat.addWebapp(contextPath, appBase + "webapp");
     }
 
     /**
@@ -62,4 +64,8 @@ public class TomcatServer {
         return isRunning;
     }
 
+    public RedissonSessionManager getManager() {
+        return (RedissonSessionManager) context.getManager();
+    }
+
 }
\ No newline at end of file
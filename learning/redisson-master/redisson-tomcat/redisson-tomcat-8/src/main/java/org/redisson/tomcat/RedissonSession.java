@@ -17,13 +17,17 @@ package org.redisson.tomcat;
 
 import java.lang.reflect.Field;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.catalina.session.StandardSession;
+import org.redisson.api.RBatch;
 import org.redisson.api.RMap;
+import org.redisson.api.RMapAsync;
+import org.redisson.tomcat.RedissonSessionManager.UpdateMode;
 
 /**
  * Redisson Session object for Apache Tomcat
@@ -37,9 +41,15 @@ public class RedissonSession extends StandardSession {
     private final Map<String, Object> attrs;
     private RMap<String, Object> map;
     
+    private final UpdateMode updateMode;
+    // changes collected during request in AFTER_REQUEST update mode
+    private Map<String, Object> updatedAttributes = new HashMap<String, Object>();
+    private Set<String> removedAttributes = new HashSet<String>();
+    
     public RedissonSession(RedissonSessionManager manager) {
         super(manager);
         this.redissonManager = manager;
+        this.updateMode = manager.getUpdateModeValue();
         
         try {
             Field attr = StandardSession.class.getDeclaredField("attributes");
@@ -66,7 +76,7 @@ public class RedissonSession extends StandardSession {
             newMap.put("session:creationTime", creationTime);
             newMap.put("session:lastAccessedTime", lastAccessedTime);
             newMap.put("session:thisAccessedTime", thisAccessedTime);
-            map.putAll(newMap);
+            putAll(newMap);
         }
     }
     
@@ -78,8 +88,8 @@ public class RedissonSession extends StandardSession {
             Map<String, Object> newMap = new HashMap<String, Object>(2);
             newMap.put("session:lastAccessedTime", lastAccessedTime);
             newMap.put("session:thisAccessedTime", thisAccessedTime);
-            map.putAll(newMap);
-            if (getMaxInactiveInterval() >= 0) {
+            putAll(newMap);
+            if (updateMode == UpdateMode.DEFAULT && getMaxInactiveInterval() >= 0) {
                 map.expire(getMaxInactiveInterval(), TimeUnit.SECONDS);
             }
         }
@@ -90,8 +100,8 @@ public class RedissonSession extends StandardSession {
         super.setMaxInactiveInterval(interval);
         
         if (map != null) {
-            map.fastPut("session:maxInactiveInterval", maxInactiveInterval);
-            if (maxInactiveInterval >= 0) {
+            fastPut("session:maxInactiveInterval", maxInactiveInterval);
+            if (updateMode == UpdateMode.DEFAULT && maxInactiveInterval >= 0) {
                 map.expire(getMaxInactiveInterval(), TimeUnit.SECONDS);
             }
         }
@@ -102,7 +112,7 @@ public class RedissonSession extends StandardSession {
         super.setValid(isValid);
         
         if (map != null) {
-            map.fastPut("session:isValid", isValid);
+            fastPut("session:isValid", isValid);
         }
     }
     
@@ -111,7 +121,7 @@ public class RedissonSession extends StandardSession {
         super.setNew(isNew);
         
         if (map != null) {
-            map.fastPut("session:isNew", isNew);
+            fastPut("session:isNew", isNew);
         }
     }
     
@@ -120,8 +130,15 @@ public class RedissonSession extends StandardSession {
         boolean oldValue = isNew;
         super.endAccess();
 
-        if (isNew != oldValue) {
-            map.fastPut("session:isNew", isNew);
+        if (map == null) {
+            return;
+        }
+        
+        // access time is written by UpdateValve in AFTER_REQUEST update mode
+        if (updateMode == UpdateMode.DEFAULT) {
+            if (isNew != oldValue) {
+                map.fastPut("session:isNew", isNew);
+            }
         }
     }
     
@@ -130,7 +147,7 @@ public class RedissonSession extends StandardSession {
         super.setAttribute(name, value, notify);
         
         if (map != null && value != null) {
-            map.fastPut(name, value);
+            fastPut(name, value);
         }
     }
     
@@ -139,10 +156,81 @@ public class RedissonSession extends StandardSession {
         super.removeAttributeInternal(name, notify);
         
         if (map != null) {
-            map.fastRemove(name);
+            if (updateMode == UpdateMode.DEFAULT) {
+                map.fastRemove(name);
+            } else {
+                synchronized (this) {
+                    updatedAttributes.remove(name);
+                    removedAttributes.add(name);
+                }
+            }
         }
     }
     
+    private void fastPut(String name, Object value) {
+        if (updateMode == UpdateMode.DEFAULT) {
+            map.fastPut(name, value);
+        } else {
+            synchronized (this) {
+                removedAttributes.remove(name);
+                updatedAttributes.put(name, value);
+            }
+        }
+    }
+    
+    private void putAll(Map<String, Object> values) {
+        if (updateMode == UpdateMode.DEFAULT) {
+            map.putAll(values);
+        } else {
+            synchronized (this) {
+                removedAttributes.removeAll(values.keySet());
+                updatedAttributes.putAll(values);
+            }
+        }
+    }
+    
+    /**
+     * Writes changes collected during request along with access time 
+     * and refreshes session ttl using single batch.
+     * Invoked before {@link #endAccess()}, so access time is written 
+     * as it's updated by request end.
+     */
+    public void flush() {
+        long time = System.currentTimeMillis();
+        Map<String, Object> newMap = new HashMap<String, Object>(3);
+        newMap.put("session:lastAccessedTime", time);
+        newMap.put("session:thisAccessedTime", time);
+        newMap.put("session:isNew", false);
+        putAll(newMap);
+        
+        Map<String, Object> updated;
+        Set<String> removed;
+        synchronized (this) {
+            updated = updatedAttributes;
+            removed = removedAttributes;
+            updatedAttributes = new HashMap<String, Object>();
+            removedAttributes = new HashSet<String>();
+        }
+        
+        if (!isValid) {
+            // session has been deleted from Redis
+            return;
+        }
+        
+        RBatch batch = redissonManager.getRedisson().createBatch();
+        RMapAsync<String, Object> batchMap = batch.getMap(map.getName());
+        if (!removed.isEmpty()) {
+            batchMap.fastRemoveAsync(removed.toArray(new String[removed.size()]));
+        }
+        if (!updated.isEmpty()) {
+            batchMap.putAllAsync(updated);
+        }
+        if (maxInactiveInterval >= 0) {
+            batchMap.expireAsync(getMaxInactiveInterval(), TimeUnit.SECONDS);
+        }
+        batch.execute();
+    }
+    
     public void save() {
         Map<String, Object> newMap = new HashMap<String, Object>();
         newMap.put("session:creationTime", creationTime);
@@ -156,16 +244,30 @@ public class RedissonSession extends StandardSession {
             newMap.put(entry.getKey(), entry.getValue());
         }
         
-        map.putAll(newMap);
+        synchronized (this) {
+            updatedAttributes = new HashMap<String, Object>();
+            removedAttributes = new HashSet<String>();
+        }
         
+        RBatch batch = redissonManager.getRedisson().createBatch();
+        RMapAsync<String, Object> batchMap = batch.getMap(map.getName());
+        batchMap.putAllAsync(newMap);
         if (maxInactiveInterval >= 0) {
-            map.expire(getMaxInactiveInterval(), TimeUnit.SECONDS);
+            batchMap.expireAsync(getMaxInactiveInterval(), TimeUnit.SECONDS);
         }
+        batch.execute();
     }
     
-    public void load() {
-        Set<Entry<String, Object>> entrySet = map.readAllEntrySet();
-        for (Entry<String, Object> entry : entrySet) {
+    /**
+     * Loads session state stored in Redis.
+     * 
+     * @param values - session state
+     */
+    public void load(Map<String, Object> values) {
+        // attribute could be removed through another Tomcat instance
+        attrs.keySet().retainAll(values.keySet());
+        
+        for (Entry<String, Object> entry : values.entrySet()) {
             if ("session:creationTime".equals(entry.getKey())) {
                 creationTime = (Long) entry.getValue();
             } else if ("session:lastAccessedTime".equals(entry.getKey())) {
@@ -179,7 +281,8 @@ public class RedissonSession extends StandardSession {
             } else if ("session:isNew".equals(entry.getKey())) {
                 isNew = (Boolean) entry.getValue();
             } else {
-                setAttribute(entry.getKey(), entry.getValue(), false);
+                // value is already stored in Redis
+                attrs.put(entry.getKey(), entry.getValue());
             }
         }
     }
@@ -17,6 +17,7 @@ package org.redisson.tomcat;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 
 import org.apache.catalina.LifecycleException;
 import org.apache.catalina.LifecycleState;
@@ -37,10 +38,44 @@ import org.redisson.config.Config;
  */
 public class RedissonSessionManager extends ManagerBase {
 
+    public enum ReadMode {
+        
+        /**
+         * Session attributes are loaded from Redis once per request.
+         * Changes made through other Tomcat instances are visible to each request.
+         */
+        REDIS,
+        
+        /**
+         * Session attributes are loaded from Redis once 
+         * and then read from local session object.
+         */
+        MEMORY
+        
+    }
+    
+    public enum UpdateMode {
+        
+        /**
+         * Each session change is written to Redis immediately.
+         */
+        DEFAULT,
+        
+        /**
+         * Session changes are collected during request and written 
+         * to Redis in single batch along with ttl refresh once request has been finished.
+         */
+        AFTER_REQUEST
+        
+    }
+    
     private final Log log = LogFactory.getLog(RedissonSessionManager.class);
     
     private RedissonClient redisson;
     private String configPath;
+    private ReadMode readMode = ReadMode.MEMORY;
+    private UpdateMode updateMode = UpdateMode.DEFAULT;
+    private final UpdateValve updateValve = new UpdateValve(this);
     
     public void setConfigPath(String configPath) {
         this.configPath = configPath;
@@ -50,6 +85,46 @@ public class RedissonSessionManager extends ManagerBase {
         return configPath;
     }
     
+    /**
+     * Defines session attributes read mode. 
+     * <code>REDIS</code> or <code>MEMORY</code> values are supported.
+     * <p>
+     * Default is <code>MEMORY</code>
+     * 
+     * @param readMode - read mode
+     */
+    public void setReadMode(String readMode) {
+        this.readMode = ReadMode.valueOf(readMode);
+    }
+    
+    public String getReadMode() {
+        return readMode.toString();
+    }
+    
+    ReadMode getReadModeValue() {
+        return readMode;
+    }
+    
+    /**
+     * Defines session attributes update mode. 
+     * <code>DEFAULT</code> or <code>AFTER_REQUEST</code> values are supported.
+     * <p>
+     * Default is <code>DEFAULT</code>
+     * 
+     * @param updateMode - update mode
+     */
+    public void setUpdateMode(String updateMode) {
+        this.updateMode = UpdateMode.valueOf(updateMode);
+    }
+    
+    public String getUpdateMode() {
+        return updateMode.toString();
+    }
+    
+    UpdateMode getUpdateModeValue() {
+        return updateMode;
+    }
+    
     @Override
     public String getName() {
         return RedissonSessionManager.class.getSimpleName();
@@ -89,14 +164,27 @@ public class RedissonSessionManager extends ManagerBase {
     @Override
     public Session findSession(String id) throws IOException {
         Session result = super.findSession(id);
-        if (result == null && id != null) {
-            RedissonSession session = (RedissonSession) createEmptySession();
-            session.setId(id);
-            session.load();
-            return session;
+        if (id == null || (result != null && readMode == ReadMode.MEMORY)) {
+            return result;
         }
         
-        return result;
+        Map<String, Object> values = getMap(id).readAllMap();
+        if (values.isEmpty()) {
+            // session has been expired or invalidated through another Tomcat instance
+            if (result != null) {
+                super.remove(result);
+            }
+            return null;
+        }
+        
+        RedissonSession session = (RedissonSession) result;
+        if (session == null) {
+            session = (RedissonSession) createEmptySession();
+            session.setId(id);
+        }
+        // attributes could be changed through another Tomcat instance
+        session.load(values);
+        return session;
     }
     
     @Override
@@ -137,6 +225,8 @@ public class RedissonSessionManager extends ManagerBase {
             throw new LifecycleException(e);
         }
         
+        getContext().getPipeline().addValve(updateValve);
+        
         setState(LifecycleState.STARTING);
     }
 
@@ -146,6 +236,8 @@ public class RedissonSessionManager extends ManagerBase {
         
         setState(LifecycleState.STOPPING);
         
+        getContext().getPipeline().removeValve(updateValve);
+        
         try {
             if (redisson != null) {
                 redisson.shutdown();
@@ -27,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.redisson.api.RBlockingQueue;
 import org.redisson.api.RFuture;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.RemoteInvocationOptions;
 import org.redisson.api.annotation.RRemoteAsync;
@@ -37,6 +38,7 @@ import org.redisson.command.CommandExecutor;
 import org.redisson.executor.RemotePromise;
 import org.redisson.misc.RPromise;
 import org.redisson.remote.RRemoteServiceResponse;
+import org.redisson.remote.ResponseQueue;
 import org.redisson.remote.RemoteServiceAck;
 import org.redisson.remote.RemoteServiceAckTimeoutException;
 import org.redisson.remote.RemoteServiceCancelRequest;
@@ -48,6 +50,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBufUtil;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.internal.ThreadLocalRandom;
@@ -101,6 +105,21 @@ public abstract class BaseRemoteService {
         return "{" + name + ":" + remoteInterface.getName() + "}";
     }
 
+    protected String getCancelTopicName(Class<?> remoteInterface) {
+        return "{" + name + ":" + remoteInterface.getName() + "}:cancel";
+    }
+    
+    private ResponseQueue getResponseQueue() {
+        return commandExecutor.getConnectionManager().getResponseQueues().get(name, getCodec());
+    }
+    
+    private String getSharedResponseQueueName(RemoteInvocationOptions options) {
+        if (options.isSharedResponseQueueUsed()) {
+            return getResponseQueue().getName();
+        }
+        return null;
+    }
+
     protected Codec getCodec() {
         if (codec != null) {
             return codec;
@@ -187,7 +206,7 @@ public abstract class BaseRemoteService {
                 final RBlockingQueue<RemoteServiceRequest> requestQueue = redisson.getBlockingQueue(requestQueueName,
                         getCodec());
                 final RemoteServiceRequest request = new RemoteServiceRequest(requestId, method.getName(), getMethodSignatures(method), args,
-                        optionsCopy, System.currentTimeMillis());
+                        optionsCopy, System.currentTimeMillis(), getSharedResponseQueueName(optionsCopy));
 
                 final RemotePromise<Object> result = new RemotePromise<Object>(commandExecutor.getConnectionManager().newPromise()) {
 
@@ -243,7 +262,7 @@ public abstract class BaseRemoteService {
                         }
 
                         String canceRequestName = getCancelRequestQueueName(remoteInterface, requestId);
-                        cancelExecution(optionsCopy, responseName, request, mayInterruptIfRunning, canceRequestName, this);
+                        cancelExecution(remoteInterface, optionsCopy, responseName, request, mayInterruptIfRunning, canceRequestName, this);
 
                         awaitUninterruptibly(60, TimeUnit.SECONDS);
                         return isCancelled();
@@ -252,6 +271,16 @@ public abstract class BaseRemoteService {
 
                 result.setRequestId(requestId);
                 
+                if (optionsCopy.isSharedResponseQueueUsed()) {
+                    registerResponses(optionsCopy, requestId);
+                    result.addListener(new FutureListener<Object>() {
+                        @Override
+                        public void operationComplete(Future<Object> future) throws Exception {
+                            unregisterResponses(requestId);
+                        }
+                    });
+                }
+                
                 RFuture<Boolean> addFuture = addAsync(requestQueue, request, result);
                 addFuture.addListener(new FutureListener<Boolean>() {
 
@@ -263,20 +292,20 @@ public abstract class BaseRemoteService {
                         }
 
                         if (optionsCopy.isAckExpected()) {
-                            final RBlockingQueue<RemoteServiceAck> responseQueue = redisson.getBlockingQueue(responseName, getCodec());
-                            RFuture<RemoteServiceAck> ackFuture = responseQueue.pollAsync(optionsCopy.getAckTimeoutInMillis(), TimeUnit.MILLISECONDS);
-                            ackFuture.addListener(new FutureListener<RemoteServiceAck>() {
+                            RFuture<RRemoteServiceResponse> ackFuture = pollResponseAsync(optionsCopy, responseName, 
+                                                                            requestId, true, optionsCopy.getAckTimeoutInMillis());
+                            ackFuture.addListener(new FutureListener<RRemoteServiceResponse>() {
                                 @Override
-                                public void operationComplete(Future<RemoteServiceAck> future) throws Exception {
+                                public void operationComplete(Future<RRemoteServiceResponse> future) throws Exception {
                                     if (!future.isSuccess()) {
                                         result.tryFailure(future.cause());
                                         return;
                                     }
 
-                                    RemoteServiceAck ack = future.getNow();
+                                    RRemoteServiceResponse ack = future.getNow();
                                     if (ack == null) {
                                         RFuture<RemoteServiceAck> ackFutureAttempt = 
-                                                                    tryPollAckAgainAsync(optionsCopy, responseQueue, ackName);
+                                                                    tryPollAckAgainAsync(optionsCopy, responseName, ackName);
                                         ackFutureAttempt.addListener(new FutureListener<RemoteServiceAck>() {
 
                                             @Override
@@ -341,9 +370,8 @@ public abstract class BaseRemoteService {
             return;
         }
         
-        RBlockingQueue<RRemoteServiceResponse> responseQueue = redisson.getBlockingQueue(responseName, getCodec());
-        RFuture<RRemoteServiceResponse> responseFuture = responseQueue
-                .pollAsync(optionsCopy.getExecutionTimeoutInMillis(), TimeUnit.MILLISECONDS);
+        RFuture<RRemoteServiceResponse> responseFuture = pollResponseAsync(optionsCopy, responseName, 
+                                        request.getRequestId(), false, optionsCopy.getExecutionTimeoutInMillis());
         responseFuture.addListener(new FutureListener<RRemoteServiceResponse>() {
             
             @Override
@@ -402,73 +430,60 @@ public abstract class BaseRemoteService {
                 RBlockingQueue<RemoteServiceRequest> requestQueue = redisson.getBlockingQueue(requestQueueName,
                         getCodec());
                 RemoteServiceRequest request = new RemoteServiceRequest(requestId, method.getName(), getMethodSignatures(method), args, optionsCopy,
-                        System.currentTimeMillis());
-                requestQueue.add(request);
-
-                RBlockingQueue<RRemoteServiceResponse> responseQueue = null;
-                if (optionsCopy.isAckExpected() || optionsCopy.isResultExpected()) {
-                    String responseName = getResponseQueueName(remoteInterface, requestId);
-                    responseQueue = redisson.getBlockingQueue(responseName, getCodec());
+                        System.currentTimeMillis(), getSharedResponseQueueName(optionsCopy));
+                if (optionsCopy.isSharedResponseQueueUsed()) {
+                    registerResponses(optionsCopy, requestId);
                 }
-
-                // poll for the ack only if expected
-                if (optionsCopy.isAckExpected()) {
-                    String ackName = getAckName(remoteInterface, requestId);
-                    RemoteServiceAck ack = (RemoteServiceAck) responseQueue.poll(optionsCopy.getAckTimeoutInMillis(),
-                            TimeUnit.MILLISECONDS);
-                    if (ack == null) {
-                        ack = tryPollAckAgain(optionsCopy, responseQueue, ackName);
+                
+                try {
+                    requestQueue.add(request);
+    
+                    String responseName = getResponseQueueName(remoteInterface, requestId);
+    
+                    // poll for the ack only if expected
+                    if (optionsCopy.isAckExpected()) {
+                        String ackName = getAckName(remoteInterface, requestId);
+                        RRemoteServiceResponse ack = commandExecutor.get(pollResponseAsync(optionsCopy, responseName, 
+                                                                requestId, true, optionsCopy.getAckTimeoutInMillis()));
                         if (ack == null) {
-                            throw new RemoteServiceAckTimeoutException("No ACK response after "
-                                    + optionsCopy.getAckTimeoutInMillis() + "ms for request: " + request);
+                            ack = commandExecutor.get(tryPollAckAgainAsync(optionsCopy, responseName, ackName));
+                            if (ack == null) {
+                                throw new RemoteServiceAckTimeoutException("No ACK response after "
+                                        + optionsCopy.getAckTimeoutInMillis() + "ms for request: " + request);
+                            }
                         }
+                        redisson.getBucket(ackName).delete();
                     }
-                    redisson.getBucket(ackName).delete();
-                }
-
-                // poll for the response only if expected
-                if (optionsCopy.isResultExpected()) {
-                    RemoteServiceResponse response = (RemoteServiceResponse) responseQueue
-                            .poll(optionsCopy.getExecutionTimeoutInMillis(), TimeUnit.MILLISECONDS);
-                    if (response == null) {
-                        throw new RemoteServiceTimeoutException("No response1 after "
-                                + optionsCopy.getExecutionTimeoutInMillis() + "ms for request: " + request);
+    
+                    // poll for the response only if expected
+                    if (optionsCopy.isResultExpected()) {
+                        RemoteServiceResponse response = (RemoteServiceResponse) commandExecutor.get(pollResponseAsync(optionsCopy, 
+                                                responseName, requestId, false, optionsCopy.getExecutionTimeoutInMillis()));
+                        if (response == null) {
+                            throw new RemoteServiceTimeoutException("No response1 after "
+                                    + optionsCopy.getExecutionTimeoutInMillis() + "ms for request: " + request);
+                        }
+                        if (response.getError() != null) {
+                            throw response.getError();
+                        }
+                        return response.getResult();
                     }
-                    if (response.getError() != null) {
-                        throw response.getError();
+    
+                    return null;
+                } finally {
+                    if (optionsCopy.isSharedResponseQueueUsed()) {
+                        unregisterResponses(requestId);
                     }
-                    return response.getResult();
                 }
-
-                return null;
             }
 
         };
         return (T) Proxy.newProxyInstance(remoteInterface.getClassLoader(), new Class[] { remoteInterface }, handler);
     }
 
-    private RemoteServiceAck tryPollAckAgain(RemoteInvocationOptions optionsCopy,
-            RBlockingQueue<? extends RRemoteServiceResponse> responseQueue, String ackName)
-            throws InterruptedException {
-        RFuture<Boolean> ackClientsFuture = commandExecutor.evalWriteAsync(ackName, LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                    "if redis.call('setnx', KEYS[1], 1) == 1 then " 
-                        + "redis.call('pexpire', KEYS[1], ARGV[1]);"
-                        + "return 0;" 
-                    + "end;" 
-                    + "redis.call('del', KEYS[1]);" 
-                    + "return 1;",
-                Arrays.<Object> asList(ackName), optionsCopy.getAckTimeoutInMillis());
-
-        ackClientsFuture.sync();
-        if (ackClientsFuture.getNow()) {
-            return (RemoteServiceAck) responseQueue.poll();
-        }
-        return null;
-    }
-
-    private RFuture<RemoteServiceAck> tryPollAckAgainAsync(RemoteInvocationOptions optionsCopy,
-            final RBlockingQueue<RemoteServiceAck> responseQueue, String ackName)
-            throws InterruptedException {
+    private RFuture<RemoteServiceAck> tryPollAckAgainAsync(final RemoteInvocationOptions optionsCopy,
+            String responseName, String ackName) {
+        final RBlockingQueue<RemoteServiceAck> responseQueue = redisson.getBlockingQueue(responseName, getCodec());
         final RPromise<RemoteServiceAck> promise = commandExecutor.getConnectionManager().newPromise();
         RFuture<Boolean> ackClientsFuture = commandExecutor.evalWriteAsync(ackName, LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                     "if redis.call('setnx', KEYS[1], 1) == 1 then " 
@@ -487,6 +502,12 @@ public abstract class BaseRemoteService {
                 }
 
                 if (future.getNow()) {
+                    if (optionsCopy.isSharedResponseQueueUsed()) {
+                        // ack has been sent by worker, no need to wait for it in shared queue
+                        promise.trySuccess(new RemoteServiceAck());
+                        return;
+                    }
+                    
                     RFuture<RemoteServiceAck> pollFuture = responseQueue.pollAsync();
                     pollFuture.addListener(new FutureListener<RemoteServiceAck>() {
                         @Override
@@ -513,6 +534,64 @@ public abstract class BaseRemoteService {
         ThreadLocalRandom.current().nextBytes(id);
         return ByteBufUtil.hexDump(id);
     }
+    
+    /**
+     * Registers expected responses before request is sent, 
+     * so response delivered through shared queue can't be missed.
+     * 
+     * @param options - invocation options
+     * @param requestId - request id
+     */
+    private void registerResponses(RemoteInvocationOptions options, String requestId) {
+        ResponseQueue responseQueue = getResponseQueue();
+        if (options.isAckExpected()) {
+            responseQueue.register(requestId, true);
+        }
+        if (options.isResultExpected()) {
+            responseQueue.register(requestId, false);
+        }
+    }
+    
+    private void unregisterResponses(String requestId) {
+        ResponseQueue responseQueue = getResponseQueue();
+        responseQueue.unregister(requestId, true);
+        responseQueue.unregister(requestId, false);
+    }
+    
+    /**
+     * Polls ack or result from request's own queue or from shared response queue.
+     * 
+     * @return response or <code>null</code> if it hasn't been received during timeout
+     */
+    private RFuture<RRemoteServiceResponse> pollResponseAsync(RemoteInvocationOptions options, String responseName, 
+            final String requestId, final boolean ack, long timeout) {
+        if (!options.isSharedResponseQueueUsed()) {
+            RBlockingQueue<RRemoteServiceResponse> responseQueue = redisson.getBlockingQueue(responseName, getCodec());
+            return responseQueue.pollAsync(timeout, TimeUnit.MILLISECONDS);
+        }
+        
+        final ResponseQueue responseQueue = getResponseQueue();
+        final RPromise<RRemoteServiceResponse> promise = responseQueue.register(requestId, ack);
+        if (promise.isDone()) {
+            responseQueue.unregister(requestId, ack, promise);
+            return promise;
+        }
+        
+        final Timeout timeoutTask = commandExecutor.getConnectionManager().newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout timeout) throws Exception {
+                promise.trySuccess(null);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+        promise.addListener(new FutureListener<RRemoteServiceResponse>() {
+            @Override
+            public void operationComplete(Future<RRemoteServiceResponse> future) throws Exception {
+                timeoutTask.cancel();
+                responseQueue.unregister(requestId, ack, promise);
+            }
+        });
+        return promise;
+    }
 
     protected RFuture<Boolean> addAsync(RBlockingQueue<RemoteServiceRequest> requestQueue, RemoteServiceRequest request,
             RemotePromise<Object> result) {
@@ -525,11 +604,18 @@ public abstract class BaseRemoteService {
         return requestQueue.remove(request);
     }
 
-    private void cancelExecution(RemoteInvocationOptions optionsCopy, String responseName,
+    private void cancelExecution(Class<?> remoteInterface, RemoteInvocationOptions optionsCopy, String responseName,
             RemoteServiceRequest request, boolean mayInterruptIfRunning, String canceRequestName, RemotePromise<Object> remotePromise) {
-        RBlockingQueue<RemoteServiceCancelRequest> cancelRequestQueue = redisson.getBlockingQueue(canceRequestName, getCodec());
-        cancelRequestQueue.putAsync(new RemoteServiceCancelRequest(mayInterruptIfRunning));
-        cancelRequestQueue.expireAsync(60, TimeUnit.SECONDS);
+        if (optionsCopy.isSharedResponseQueueUsed()) {
+            // cancel response should be registered before it could be received
+            getResponseQueue().register(request.getRequestId(), false);
+            RTopic<RemoteServiceCancelRequest> cancelTopic = redisson.getTopic(getCancelTopicName(remoteInterface), getCodec());
+            cancelTopic.publishAsync(new RemoteServiceCancelRequest(request.getRequestId(), mayInterruptIfRunning));
+        } else {
+            RBlockingQueue<RemoteServiceCancelRequest> cancelRequestQueue = redisson.getBlockingQueue(canceRequestName, getCodec());
+            cancelRequestQueue.putAsync(new RemoteServiceCancelRequest(mayInterruptIfRunning));
+            cancelRequestQueue.expireAsync(60, TimeUnit.SECONDS);
+        }
         
         // subscribe for async result if it's not expected before
         if (!optionsCopy.isResultExpected()) {
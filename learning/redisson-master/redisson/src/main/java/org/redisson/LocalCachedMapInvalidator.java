@@ -0,0 +1,189 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.redisson.RedissonLocalCachedMap.CacheKey;
+import org.redisson.api.RFuture;
+import org.redisson.command.CommandAsyncExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+
+/**
+ * Collects invalidated keys of {@link RedissonLocalCachedMap} during batch window 
+ * and publishes them as single message. Whole cache clearing message 
+ * is published instead if amount of distinct keys exceeds threshold.
+ * <p>
+ * Keys of failed message are returned to next batch, 
+ * pending keys are published on Redisson shutdown.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class LocalCachedMapInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalCachedMapInvalidator.class);
+    
+    private static final long RETRY_INTERVAL = 1000;
+    
+    private final RedissonLocalCachedMap<?, ?> map;
+    private final CommandAsyncExecutor commandExecutor;
+    private final byte[] instanceId;
+    private final long batchWindow;
+    private final int threshold;
+    
+    private final Runnable shutdownListener = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+    
+    private Set<CacheKey> keys = new HashSet<CacheKey>();
+    private boolean clear;
+    private boolean scheduled;
+    
+    public LocalCachedMapInvalidator(RedissonLocalCachedMap<?, ?> map, CommandAsyncExecutor commandExecutor, byte[] instanceId, long batchWindow, int threshold) {
+        this.map = map;
+        this.commandExecutor = commandExecutor;
+        this.instanceId = instanceId;
+        this.batchWindow = batchWindow;
+        this.threshold = threshold;
+    }
+    
+    public void add(byte[]... keyHashes) {
+        synchronized (this) {
+            if (!clear) {
+                for (byte[] keyHash : keyHashes) {
+                    keys.add(new CacheKey(keyHash));
+                }
+                checkThreshold();
+            }
+            
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        
+        schedule(batchWindow);
+    }
+
+    private void checkThreshold() {
+        if (keys.size() > threshold) {
+            clear = true;
+            keys = new HashSet<CacheKey>();
+        }
+    }
+    
+    private void schedule(long delay) {
+        // pending keys should be published even if Redisson is shutdown before timeout
+        commandExecutor.getConnectionManager().addShutdownListener(shutdownListener);
+        commandExecutor.getConnectionManager().newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout timeout) throws Exception {
+                flush();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Returns keys of failed message to pending keys, so they are published with next batch.
+     */
+    private void retry(Set<CacheKey> batch, boolean clearBatch) {
+        synchronized (this) {
+            if (clearBatch) {
+                clear = true;
+                keys = new HashSet<CacheKey>();
+            } else if (!clear) {
+                keys.addAll(batch);
+                checkThreshold();
+            }
+            
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        
+        schedule(Math.max(batchWindow, RETRY_INTERVAL));
+    }
+    
+    /**
+     * Drops collected keys. Used once whole cache clearing message has been published.
+     */
+    public synchronized void reset() {
+        keys = new HashSet<CacheKey>();
+        clear = false;
+    }
+    
+    /**
+     * Publishes collected keys immediately.
+     */
+    public void flush() {
+        final Set<CacheKey> batch;
+        final boolean clearBatch;
+        synchronized (this) {
+            batch = keys;
+            clearBatch = clear;
+            keys = new HashSet<CacheKey>();
+            clear = false;
+            scheduled = false;
+            commandExecutor.getConnectionManager().removeShutdownListener(shutdownListener);
+        }
+        
+        byte[] msg;
+        if (clearBatch) {
+            msg = RedissonLocalCachedMap.encodeClear(instanceId);
+        } else if (!batch.isEmpty()) {
+            byte[][] keyHashes = new byte[batch.size()][];
+            int i = 0;
+            for (CacheKey key : batch) {
+                keyHashes[i++] = key.getKeyHash();
+            }
+            msg = RedissonLocalCachedMap.encodeInvalidate(instanceId, keyHashes);
+        } else {
+            return;
+        }
+        
+        RFuture<Void> future = map.publishInvalidationAsync(msg);
+        future.addListener(new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (future.isSuccess()) {
+                    return;
+                }
+                
+                if (commandExecutor.getConnectionManager().isShuttingDown()) {
+                    log.error("Can't publish invalidation message of " + map.getName(), future.cause());
+                    return;
+                }
+                
+                log.warn("Can't publish invalidation message of " + map.getName() + ". It will be retried", future.cause());
+                retry(batch, clearBatch);
+            }
+        });
+    }
+    
+}
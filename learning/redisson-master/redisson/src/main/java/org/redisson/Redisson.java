@@ -21,6 +21,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.redisson.api.ClusterNodesGroup;
 import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.NearCacheOptions;
 import org.redisson.api.Node;
 import org.redisson.api.NodesGroup;
 import org.redisson.api.RAtomicDouble;
@@ -78,6 +79,7 @@ import org.redisson.connection.ConnectionManager;
 import org.redisson.eviction.EvictionScheduler;
 import org.redisson.liveobject.provider.ResolverProvider;
 import org.redisson.misc.RedissonObjectFactory;
+import org.redisson.pubsub.FairQueuePubSub;
 import org.redisson.pubsub.SemaphorePubSub;
 
 import io.netty.util.internal.PlatformDependent;
@@ -107,6 +109,7 @@ public class Redisson implements RedissonClient {
     protected final SemaphorePubSub semaphorePubSub = new SemaphorePubSub();
 
     protected final UUID id = UUID.randomUUID();
+    protected final FairQueuePubSub fairQueuePubSub = new FairQueuePubSub(id);
 
     protected Redisson(Config config) {
         this.config = config;
@@ -211,6 +214,18 @@ public class Redisson implements RedissonClient {
         return new RedissonBucket<V>(codec, connectionManager.getCommandExecutor(), name);
     }
 
+    @Override
+    public <V> RBucket<V> getBucket(String name, NearCacheOptions options) {
+        return new RedissonNearCachedBucket<V>(connectionManager.getCommandExecutor(), name, 
+                connectionManager.getNearCacheManager().getCache(name, options));
+    }
+
+    @Override
+    public <V> RBucket<V> getBucket(String name, Codec codec, NearCacheOptions options) {
+        return new RedissonNearCachedBucket<V>(codec, connectionManager.getCommandExecutor(), name, 
+                connectionManager.getNearCacheManager().getCache(name, options));
+    }
+
     @Override
     public RBuckets getBuckets() {
         return new RedissonBuckets(this, connectionManager.getCommandExecutor());
@@ -321,6 +336,30 @@ public class Redisson implements RedissonClient {
         return new RedissonMap<K, V>(id, codec, connectionManager.getCommandExecutor(), name, this);
     }
 
+    @Override
+    public <K, V> RMap<K, V> getMap(String name, NearCacheOptions options) {
+        return new RedissonNearCachedMap<K, V>(id, connectionManager.getCommandExecutor(), name, this, 
+                connectionManager.getNearCacheManager().getCache(name, options));
+    }
+
+    @Override
+    public <K, V> RMap<K, V> getMap(String name, Codec codec, NearCacheOptions options) {
+        return new RedissonNearCachedMap<K, V>(id, codec, connectionManager.getCommandExecutor(), name, this, 
+                connectionManager.getNearCacheManager().getCache(name, options));
+    }
+
+    @Override
+    public <K, V> RMapCache<K, V> getMapCache(String name, NearCacheOptions options) {
+        return new RedissonNearCachedMapCache<K, V>(id, evictionScheduler, connectionManager.getCommandExecutor(), name, this, 
+                connectionManager.getNearCacheManager().getCache(name, options));
+    }
+
+    @Override
+    public <K, V> RMapCache<K, V> getMapCache(String name, Codec codec, NearCacheOptions options) {
+        return new RedissonNearCachedMapCache<K, V>(id, codec, evictionScheduler, connectionManager.getCommandExecutor(), name, this, 
+                connectionManager.getNearCacheManager().getCache(name, options));
+    }
+
     @Override
     public RLock getLock(String name) {
         return new RedissonLock(connectionManager.getCommandExecutor(), name, id);
@@ -434,12 +473,12 @@ public class Redisson implements RedissonClient {
 
     @Override
     public <V> RBlockingFairQueue<V> getBlockingFairQueue(String name) {
-        return new RedissonBlockingFairQueue<V>(connectionManager.getCommandExecutor(), name, semaphorePubSub, id, this);
+        return new RedissonBlockingFairQueue<V>(connectionManager.getCommandExecutor(), name, fairQueuePubSub, this);
     }
     
     @Override
     public <V> RBlockingFairQueue<V> getBlockingFairQueue(String name, Codec codec) {
-        return new RedissonBlockingFairQueue<V>(codec, connectionManager.getCommandExecutor(), name, semaphorePubSub, id, this);
+        return new RedissonBlockingFairQueue<V>(codec, connectionManager.getCommandExecutor(), name, fairQueuePubSub, this);
     }
     
     @Override
@@ -447,7 +486,8 @@ public class Redisson implements RedissonClient {
         if (destinationQueue == null) {
             throw new NullPointerException();
         }
-        return new RedissonDelayedQueue<V>(queueTransferService, destinationQueue.getCodec(), connectionManager.getCommandExecutor(), destinationQueue.getName());
+        return new RedissonDelayedQueue<V>(queueTransferService, destinationQueue.getCodec(), connectionManager.getCommandExecutor(), destinationQueue.getName(), 
+                config.getDelayedQueueTransferBatchSize());
     }
     
     @Override
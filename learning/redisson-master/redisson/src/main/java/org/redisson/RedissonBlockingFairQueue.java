@@ -16,8 +16,6 @@
 package org.redisson;
 
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -32,7 +30,7 @@ import org.redisson.client.codec.StringCodec;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandExecutor;
 import org.redisson.misc.RPromise;
-import org.redisson.pubsub.SemaphorePubSub;
+import org.redisson.pubsub.FairQueuePubSub;
 
 import io.netty.util.Timeout;
 import io.netty.util.TimerTask;
@@ -48,103 +46,120 @@ public class RedissonBlockingFairQueue<V> extends RedissonBlockingQueue<V> imple
 
     public static final long TIMEOUT_SECONDS = 30;
     
-    private final UUID id;
     private final AtomicInteger instances = new AtomicInteger();
-    private final SemaphorePubSub semaphorePubSub;
+    private final FairQueuePubSub pubSub;
     
-    protected RedissonBlockingFairQueue(CommandExecutor commandExecutor, String name, SemaphorePubSub semaphorePubSub, UUID id, RedissonClient redisson) {
+    protected RedissonBlockingFairQueue(CommandExecutor commandExecutor, String name, FairQueuePubSub pubSub, RedissonClient redisson) {
         super(commandExecutor, name, redisson);
-        this.semaphorePubSub = semaphorePubSub;
-        this.id = id;
+        this.pubSub = pubSub;
         instances.incrementAndGet();
     }
 
-    protected RedissonBlockingFairQueue(Codec codec, CommandExecutor commandExecutor, String name, SemaphorePubSub semaphorePubSub, UUID id, RedissonClient redisson) {
+    protected RedissonBlockingFairQueue(Codec codec, CommandExecutor commandExecutor, String name, FairQueuePubSub pubSub, RedissonClient redisson) {
         super(codec, commandExecutor, name, redisson);
-        this.semaphorePubSub = semaphorePubSub;
-        this.id = id;
+        this.pubSub = pubSub;
         instances.incrementAndGet();
     }
     
-    private String getIdsListName() {
-        return suffixName(getName(), "list");
+    private String getConsumersName() {
+        return suffixName(getName(), "consumers");
     }
     
-    private String getTimeoutName() {
-        return suffixName(getName(), "timeout");
+    private String getTimeoutsName() {
+        return suffixName(getName(), "timeouts");
     }
     
     private String getChannelName() {
-        return suffixName(getName(), getCurrentId() + ":channel");
+        return suffixName(getName(), "channel");
     }
     
     private RedissonLockEntry getEntry() {
-        return semaphorePubSub.getEntry(getName());
+        return pubSub.getEntry(getName());
     }
 
     private RFuture<RedissonLockEntry> subscribe() {
-        return semaphorePubSub.subscribe(getName(), getChannelName(), commandExecutor.getConnectionManager());
+        return pubSub.subscribe(getName(), getChannelName(), commandExecutor.getConnectionManager());
     }
 
     private void unsubscribe(RFuture<RedissonLockEntry> future) {
-        semaphorePubSub.unsubscribe(future.getNow(), getName(), getChannelName(), commandExecutor.getConnectionManager());
+        pubSub.unsubscribe(future.getNow(), getName(), getChannelName(), commandExecutor.getConnectionManager());
     }
     
     @Override
     public RFuture<Boolean> deleteAsync() {
-        return commandExecutor.writeAsync(getName(), RedisCommands.DEL_OBJECTS, getName(), getIdsListName(), getTimeoutName());
+        return commandExecutor.writeAsync(getName(), RedisCommands.DEL_OBJECTS, getName(), getConsumersName(), getTimeoutsName());
     }
     
     private Long tryAcquire() {
         return get(tryAcquireAsync());
     }
     
+    /**
+     * Consumers are stored in sorted set ordered by arrival sequence 
+     * and their timeouts are stored in hash. Each call refreshes consumer heartbeat, 
+     * consumer at the head of set gets <code>TIMEOUT_SECONDS</code> to take its turn.
+     * Head which missed its turn or stopped sending heartbeats is removed.
+     * Consumer whose turn has come is notified through channel shared by all consumers.
+     * 
+     * @return <code>null</code> if it's turn of current consumer, 
+     *         otherwise time in milliseconds left for the turn of head consumer
+     */
     private RFuture<Long> tryAcquireAsync() {
-        long timeout = System.currentTimeMillis() + TIMEOUT_SECONDS*1000; 
+        long currentTime = System.currentTimeMillis();
+        long heartbeatTimeout = currentTime + TIMEOUT_SECONDS*2*1000;
+        long turnTimeout = currentTime + TIMEOUT_SECONDS*1000;
         
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
-
-                  "local timeout = redis.call('get', KEYS[3]);"
-                + "if timeout ~= false and tonumber(timeout) <= tonumber(ARGV[3]) then "
-                    + "redis.call('lpop', KEYS[2]); "
-                    + "local nextValue = redis.call('lindex', KEYS[2], 0); "
-                    + "if nextValue ~= false and nextValue ~= ARGV[1] then "
-                        + "redis.call('set', KEYS[3], ARGV[2]);"
-                        + "redis.call('publish', '{' .. KEYS[1] .. '}:' .. nextValue .. ':channel', 1);"
+                  notificationScript("local now = tonumber(ARGV[3]); "
+                + "redis.call('hset', KEYS[2], ARGV[1], ARGV[2]); "
+                + "if redis.call('zscore', KEYS[1], ARGV[1]) == false then "
+                    + "local last = redis.call('zrange', KEYS[1], -1, -1, 'withscores'); "
+                    + "local score = 0; "
+                    + "if #last > 0 then "
+                        + "score = tonumber(last[2]) + 1; "
                     + "end; "
+                    + "redis.call('zadd', KEYS[1], score, ARGV[1]); "
                 + "end; "
 
-                + "local items = redis.call('lrange', KEYS[2], 0, -1) " 
-                + "local found = false; " 
-                + "for i=1,#items do " 
-                   + "if items[i] == ARGV[1] then " 
-                      + "found = true; "  
-                      + "break;" 
-                   + "end; " 
+                + "local head = redis.call('zrange', KEYS[1], 0, 0)[1]; "
+                + "local timeout = tonumber(redis.call('hget', KEYS[2], head) or 0); "
+                + "while timeout <= now do "
+                    + "redis.call('zrem', KEYS[1], head); "
+                    + "redis.call('hdel', KEYS[2], head); "
+                    + "head = redis.call('zrange', KEYS[1], 0, 0)[1]; "
+                    + "timeout = tonumber(redis.call('hget', KEYS[2], head) or 0); "
+                    + "if head ~= ARGV[1] and timeout > now then "
+                        + "timeout = tonumber(ARGV[4]); "
+                        + "redis.call('hset', KEYS[2], head, ARGV[4]); "
+                        + "redis.call('publish', KEYS[3], head); "
+                    + "end; "
                 + "end; "
-                
-                + "if found == false then "
-                    + "redis.call('lpush', KEYS[2], ARGV[1]); "
+
+                + "if head ~= ARGV[1] then "
+                    + "return timeout - now; "
                 + "end; "
-                    
-                + "local value = redis.call('lindex', KEYS[2], 0); "
-                + "if value == ARGV[1] then "
-                    + "redis.call('set', KEYS[3], ARGV[2]);"
-                    + "local size = redis.call('llen', KEYS[2]); "
-                    + "if size > 1 then "
-                        + "redis.call('lpop', KEYS[2]);"
-                        + "redis.call('rpush', KEYS[2], value);"
-                        + "local nextValue = redis.call('lindex', KEYS[2], 0); "
-                        + "redis.call('publish', '{' .. KEYS[1] .. '}:' .. nextValue .. ':channel', 1);"
+
+                + "if redis.call('zcard', KEYS[1]) > 1 then "
+                    + "local last = redis.call('zrange', KEYS[1], -1, -1, 'withscores'); "
+                    + "redis.call('zadd', KEYS[1], tonumber(last[2]) + 1, ARGV[1]); "
+                    + "local nextValue = redis.call('zrange', KEYS[1], 0, 0)[1]; "
+                    + "while nextValue ~= ARGV[1] and tonumber(redis.call('hget', KEYS[2], nextValue) or 0) <= now do "
+                        + "redis.call('zrem', KEYS[1], nextValue); "
+                        + "redis.call('hdel', KEYS[2], nextValue); "
+                        + "nextValue = redis.call('zrange', KEYS[1], 0, 0)[1]; "
+                    + "end; "
+                    + "if nextValue ~= ARGV[1] then "
+                        + "redis.call('hset', KEYS[2], nextValue, ARGV[4]); "
+                        + "redis.call('publish', KEYS[3], nextValue); "
                     + "end; "
-                    + "return nil;"
-                + "end;"
-                + "return tonumber(timeout) - tonumber(ARGV[3]);",
-                  Arrays.<Object>asList(getName(), getIdsListName(), getTimeoutName()), getCurrentId(), timeout, System.currentTimeMillis());
+                + "end; "
+                + "return nil;"),
+                  Arrays.<Object>asList(getConsumersName(), getTimeoutsName(), getChannelName()), 
+                  getCurrentId(), heartbeatTimeout, currentTime, turnTimeout);
     }
 
     private String getCurrentId() {
-        return id.toString();
+        return String.valueOf(pubSub.getConsumerId());
     }
 
     
@@ -175,10 +190,9 @@ public class RedissonBlockingFairQueue<V> extends RedissonBlockingQueue<V> imple
     public void destroy() {
         if (instances.decrementAndGet() == 0) {
             get(commandExecutor.evalWriteAsync(getName(), StringCodec.INSTANCE, RedisCommands.EVAL_VOID_WITH_VALUES,
-                    "for i = 1, #ARGV, 1 do "
-                        + "redis.call('lrem', KEYS[1], 0, ARGV[i]);"
-                    +"end; ",
-            Collections.<Object>singletonList(getIdsListName()), getCurrentId()));
+                    "redis.call('zrem', KEYS[1], ARGV[1]); "
+                  + "redis.call('hdel', KEYS[2], ARGV[1]); ",
+            Arrays.<Object>asList(getConsumersName(), getTimeoutsName()), getCurrentId()));
         }
     }
     
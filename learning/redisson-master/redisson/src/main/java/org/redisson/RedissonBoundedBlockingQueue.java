@@ -176,7 +176,7 @@ public class RedissonBoundedBlockingQueue<V> extends RedissonQueue<V> implements
 
         String channelName = RedissonSemaphore.getChannelName(getSemaphoreName());
         return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_BOOLEAN_WITH_VALUES_6,
-                        "local count = 0; " +
+                        notificationScript("local count = 0; " +
                         "for i = 1, #ARGV, 1 do "
                             + "if redis.call('lrem', KEYS[1], 0, ARGV[i]) == 1 then "
                             + "count = count + 1; "
@@ -187,7 +187,7 @@ public class RedissonBoundedBlockingQueue<V> extends RedissonQueue<V> implements
                             + "redis.call('publish', KEYS[3], value); "
                             + "return 1;"
                         + "end;"
-                       + "return 0 ",
+                       + "return 0 "),
                        Arrays.<Object>asList(getName(), getSemaphoreName(), channelName), c.toArray());
     }
     
@@ -195,12 +195,12 @@ public class RedissonBoundedBlockingQueue<V> extends RedissonQueue<V> implements
     public RFuture<V> pollAsync() {
         String channelName = RedissonSemaphore.getChannelName(getSemaphoreName());
         return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_OBJECT,
-                "local res = redis.call('lpop', KEYS[1]);"
+                notificationScript("local res = redis.call('lpop', KEYS[1]);"
                 + "if res ~= false then " +
                     "local value = redis.call('incrby', KEYS[2], ARGV[1]); " +
                     "redis.call('publish', KEYS[3], value); "
                 + "end;"
-                + "return res;",
+                + "return res;"),
                 Arrays.<Object>asList(getName(), getSemaphoreName(), channelName), 1);
     }
     
@@ -282,13 +282,13 @@ public class RedissonBoundedBlockingQueue<V> extends RedissonQueue<V> implements
         
         String channelName = RedissonSemaphore.getChannelName(getSemaphoreName());
         return commandExecutor.evalWriteAsync(getName(), codec, new RedisCommand<Object>("EVAL", new ListDrainToDecoder((Collection<Object>)c)),
-              "local vals = redis.call('lrange', KEYS[1], 0, -1); " +
+              notificationScript("local vals = redis.call('lrange', KEYS[1], 0, -1); " +
               "redis.call('del', KEYS[1]); " +
               "if #vals > 0 then "
               + "local value = redis.call('incrby', KEYS[2], #vals); " +
                 "redis.call('publish', KEYS[3], value); "
             + "end; " +
-              "return vals", 
+              "return vals"), 
               Arrays.<Object>asList(getName(), getSemaphoreName(), channelName));
     }
     
@@ -310,27 +310,27 @@ public class RedissonBoundedBlockingQueue<V> extends RedissonQueue<V> implements
         String channelName = RedissonSemaphore.getChannelName(getSemaphoreName());
         
         return commandExecutor.evalWriteAsync(getName(), codec, new RedisCommand<Object>("EVAL", new ListDrainToDecoder((Collection<Object>)c)),
-                "local elemNum = math.min(ARGV[1], redis.call('llen', KEYS[1])) - 1;" +
+                notificationScript("local elemNum = math.min(ARGV[1], redis.call('llen', KEYS[1])) - 1;" +
                         "local vals = redis.call('lrange', KEYS[1], 0, elemNum); " +
                         "redis.call('ltrim', KEYS[1], elemNum + 1, -1); " +
                         "if #vals > 0 then "
                         + "local value = redis.call('incrby', KEYS[2], #vals); " +
                           "redis.call('publish', KEYS[3], value); "
                       + "end; " +
-                        "return vals",
+                        "return vals"),
                         Arrays.<Object>asList(getName(), getSemaphoreName(), channelName), maxElements);
     }
     
     public RFuture<Boolean> trySetCapacityAsync(int capacity) {
         String channelName = RedissonSemaphore.getChannelName(getSemaphoreName());
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "local value = redis.call('get', KEYS[1]); " +
+                notificationScript("local value = redis.call('get', KEYS[1]); " +
                 "if (value == false) then "
                     + "redis.call('set', KEYS[1], ARGV[1]); "
                     + "redis.call('publish', KEYS[2], ARGV[1]); "
                     + "return 1;"
                 + "end;"
-                + "return 0;",
+                + "return 0;"),
                 Arrays.<Object>asList(getSemaphoreName(), channelName), capacity);
     }
     
@@ -342,12 +342,12 @@ public class RedissonBoundedBlockingQueue<V> extends RedissonQueue<V> implements
     public void clear() {
         String channelName = RedissonSemaphore.getChannelName(getSemaphoreName());
         commandExecutor.evalWrite(getName(), codec, RedisCommands.EVAL_BOOLEAN,
-              "local len = redis.call('llen', KEYS[1]); " +
+              notificationScript("local len = redis.call('llen', KEYS[1]); " +
               "if len > 0 then "
               + "redis.call('del', KEYS[1]); "
               + "local value = redis.call('incrby', KEYS[2], len); " +
                 "redis.call('publish', KEYS[3], value); "
-            + "end; ", 
+            + "end; "), 
               Arrays.<Object>asList(getName(), getSemaphoreName(), channelName));
 
     }
@@ -19,21 +19,23 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.redisson.api.RBucket;
 import org.redisson.api.RBuckets;
 import org.redisson.api.RFuture;
+import org.redisson.client.RedisException;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.DelegateDecoderCodec;
-import org.redisson.client.protocol.RedisCommand;
-import org.redisson.client.protocol.RedisCommand.ValueType;
+import org.redisson.client.codec.LongCodec;
 import org.redisson.client.protocol.RedisCommands;
+import org.redisson.command.CommandBatchService;
 import org.redisson.command.CommandExecutor;
-import org.redisson.connection.decoder.MapGetAllDecoder;
 
 public class RedissonBuckets implements RBuckets {
 
@@ -54,7 +56,7 @@ public class RedissonBuckets implements RBuckets {
 
     @Override
     public <V> List<RBucket<V>> find(String pattern) {
-        Collection<String> keys = commandExecutor.get(commandExecutor.<List<String>, String>readAllAsync(RedisCommands.KEYS, pattern));
+        Collection<String> keys = commandExecutor.get(new RedissonKeys(commandExecutor).scanKeysAsync(pattern, 1000));
         List<RBucket<V>> buckets = new ArrayList<RBucket<V>>(keys.size());
         for (String key : keys) {
             if(key == null) {
@@ -67,13 +69,42 @@ public class RedissonBuckets implements RBuckets {
 
     @Override
     public <V> Map<String, V> get(String... keys) {
-        if (keys.length == 0) {
-            return Collections.emptyMap();
-        }
+        return commandExecutor.get(this.<V>getAsync(Arrays.asList(keys)));
+    }
 
-        RedisCommand<Map<Object, Object>> command = new RedisCommand<Map<Object, Object>>("MGET", new MapGetAllDecoder(Arrays.<Object>asList(keys), 0), ValueType.OBJECTS);
-        RFuture<Map<String, V>> future = commandExecutor.readAsync(keys[0], new DelegateDecoderCodec(codec), command, keys);
-        return commandExecutor.get(future);
+    @Override
+    public <V> RFuture<Map<String, V>> getAsync(final Collection<String> keys) {
+        return commandExecutor.readBatchedAsync(new DelegateDecoderCodec(codec), RedisCommands.MGET, new SlotKeysCallback<List<Object>, Map<String, V>>() {
+            
+            private final Map<String, Object> values = new ConcurrentHashMap<String, Object>();
+            
+            @Override
+            public Object[] createParams(List<String> slotKeys) {
+                return slotKeys.toArray();
+            }
+            
+            @Override
+            public void onSlotResult(List<String> slotKeys, List<Object> result) {
+                for (int i = 0; i < slotKeys.size(); i++) {
+                    Object value = result.get(i);
+                    if (value != null) {
+                        values.put(slotKeys.get(i), value);
+                    }
+                }
+            }
+            
+            @Override
+            public Map<String, V> onFinish() {
+                Map<String, V> result = new LinkedHashMap<String, V>(values.size());
+                for (String key : keys) {
+                    V value = (V) values.get(key);
+                    if (value != null) {
+                        result.put(key, value);
+                    }
+                }
+                return result;
+            }
+        }, keys.toArray(new String[keys.size()]));
     }
 
     @Override
@@ -82,17 +113,77 @@ public class RedissonBuckets implements RBuckets {
             return false;
         }
 
-        List<Object> params = new ArrayList<Object>(buckets.size());
-        for (Entry<String, ?> entry : buckets.entrySet()) {
-            params.add(entry.getKey());
-            try {
-                params.add(codec.getValueEncoder().encode(entry.getValue()));
-            } catch (IOException e) {
-                throw new IllegalArgumentException(e);
+        Map<String, Object> params = encode(buckets);
+        Map<Integer, List<String>> slot2keys = new HashMap<Integer, List<String>>();
+        for (String key : params.keySet()) {
+            int slot = commandExecutor.getConnectionManager().calcSlot(key);
+            List<String> slotKeys = slot2keys.get(slot);
+            if (slotKeys == null) {
+                slotKeys = new ArrayList<String>();
+                slot2keys.put(slot, slotKeys);
             }
+            slotKeys.add(key);
         }
-
-        return commandExecutor.write(params.get(0).toString(), RedisCommands.MSETNX, params.toArray());
+        
+        if (slot2keys.size() == 1) {
+            List<String> keys = slot2keys.values().iterator().next();
+            return commandExecutor.write(keys.get(0), codec, RedisCommands.MSETNX, toParams(keys, params));
+        }
+        
+        // MSETNX commands of all slots belonged to the same node are sent in single batch
+        CommandBatchService batch = new CommandBatchService(commandExecutor.getConnectionManager());
+        Map<List<String>, RFuture<Boolean>> futures = new HashMap<List<String>, RFuture<Boolean>>();
+        for (List<String> keys : slot2keys.values()) {
+            RFuture<Boolean> future = batch.writeAsync(keys.get(0), codec, RedisCommands.MSETNX, toParams(keys, params));
+            futures.put(keys, future);
+        }
+        
+        RedisException error = null;
+        try {
+            batch.execute();
+        } catch (RedisException e) {
+            error = e;
+        }
+        
+        List<List<String>> writtenKeys = new ArrayList<List<String>>();
+        for (Entry<List<String>, RFuture<Boolean>> entry : futures.entrySet()) {
+            if (entry.getValue().isSuccess() && entry.getValue().getNow()) {
+                writtenKeys.add(entry.getKey());
+            }
+        }
+        if (error == null && writtenKeys.size() == futures.size()) {
+            return true;
+        }
+        
+        // MSETNX is atomic only within slot, so values set in other slots are removed
+        rollback(writtenKeys, params);
+        if (error != null) {
+            throw error;
+        }
+        return false;
+    }
+    
+    private void rollback(List<List<String>> writtenKeys, Map<String, Object> params) {
+        if (writtenKeys.isEmpty()) {
+            return;
+        }
+        
+        CommandBatchService batch = new CommandBatchService(commandExecutor.getConnectionManager());
+        for (List<String> keys : writtenKeys) {
+            List<Object> values = new ArrayList<Object>(keys.size());
+            for (String key : keys) {
+                values.add(params.get(key));
+            }
+            // value could be changed by other client
+            batch.evalWriteAsync(keys.get(0), LongCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                    "for i = 1, #KEYS do "
+                        + "if redis.call('get', KEYS[i]) == ARGV[i] then "
+                            + "redis.call('del', KEYS[i]); "
+                        + "end; "
+                    + "end; ",
+                    new ArrayList<Object>(keys), values.toArray());
+        }
+        batch.execute();
     }
 
     @Override
@@ -101,17 +192,45 @@ public class RedissonBuckets implements RBuckets {
             return;
         }
 
-        List<Object> params = new ArrayList<Object>(buckets.size());
+        final Map<String, Object> params = encode(buckets);
+        RFuture<Void> future = commandExecutor.writeBatchedAsync(codec, RedisCommands.MSET, new SlotKeysCallback<Void, Void>() {
+            
+            @Override
+            public Object[] createParams(List<String> keys) {
+                return toParams(keys, params);
+            }
+            
+            @Override
+            public void onSlotResult(List<String> keys, Void result) {
+            }
+            
+            @Override
+            public Void onFinish() {
+                return null;
+            }
+        }, params.keySet().toArray(new String[params.size()]));
+        commandExecutor.get(future);
+    }
+
+    private Map<String, Object> encode(Map<String, ?> buckets) {
+        Map<String, Object> params = new LinkedHashMap<String, Object>(buckets.size());
         for (Entry<String, ?> entry : buckets.entrySet()) {
-            params.add(entry.getKey());
             try {
-                params.add(codec.getValueEncoder().encode(entry.getValue()));
+                params.put(entry.getKey(), codec.getValueEncoder().encode(entry.getValue()));
             } catch (IOException e) {
                 throw new IllegalArgumentException(e);
             }
         }
+        return params;
+    }
 
-        commandExecutor.write(params.get(0).toString(), RedisCommands.MSET, params.toArray());
+    private Object[] toParams(List<String> keys, Map<String, Object> encodedValues) {
+        List<Object> params = new ArrayList<Object>(keys.size()*2);
+        for (String key : keys) {
+            params.add(key);
+            params.add(encodedValues.get(key));
+        }
+        return params.toArray();
     }
 
 }
@@ -121,9 +121,9 @@ public class RedissonCountDownLatch extends RedissonObject implements RCountDown
     @Override
     public RFuture<Void> countDownAsync() {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                        "local v = redis.call('decr', KEYS[1]);" +
+                        notificationScript("local v = redis.call('decr', KEYS[1]);" +
                         "if v <= 0 then redis.call('del', KEYS[1]) end;" +
-                        "if v == 0 then redis.call('publish', KEYS[2], ARGV[1]) end;",
+                        "if v == 0 then redis.call('publish', KEYS[2], ARGV[1]) end;"),
                     Arrays.<Object>asList(getName(), getChannelName()), zeroCountMessage);
     }
 
@@ -153,25 +153,25 @@ public class RedissonCountDownLatch extends RedissonObject implements RCountDown
     @Override
     public RFuture<Boolean> trySetCountAsync(long count) {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "if redis.call('exists', KEYS[1]) == 0 then "
+                notificationScript("if redis.call('exists', KEYS[1]) == 0 then "
                     + "redis.call('set', KEYS[1], ARGV[2]); "
                     + "redis.call('publish', KEYS[2], ARGV[1]); "
                     + "return 1 "
                 + "else "
                     + "return 0 "
-                + "end",
+                + "end"),
                 Arrays.<Object>asList(getName(), getChannelName()), newCountMessage, count);
     }
 
     @Override
     public RFuture<Boolean> deleteAsync() {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "if redis.call('del', KEYS[1]) == 1 then "
+                notificationScript("if redis.call('del', KEYS[1]) == 1 then "
                     + "redis.call('publish', KEYS[2], ARGV[1]); "
                     + "return 1 "
                 + "else "
                     + "return 0 "
-                + "end",
+                + "end"),
                 Arrays.<Object>asList(getName(), getChannelName()), newCountMessage);
     }
 
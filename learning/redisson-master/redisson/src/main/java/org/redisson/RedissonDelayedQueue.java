@@ -15,11 +15,14 @@
  */
 package org.redisson;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 
@@ -39,6 +42,10 @@ import org.redisson.command.CommandAsyncExecutor;
 import io.netty.util.internal.ThreadLocalRandom;
 
 /**
+ * Elements are stored in two sorted sets. 
+ * Timeout set is ordered by transfer time and 
+ * order set keeps insertion order of elements using sequence number as score. 
+ * Thus both transfer and removal of element take O(log(N)) time.
  * 
  * @author Nikita Koksharov
  *
@@ -46,11 +53,60 @@ import io.netty.util.internal.ThreadLocalRandom;
  */
 public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelayedQueue<V> {
 
-    private static final RedisCommand<Void> EVAL_OFFER = new RedisCommand<Void>("EVAL", new VoidReplayConvertor(), 9);
+    private static final RedisCommand<Void> EVAL_OFFER = new RedisCommand<Void>("EVAL", new VoidReplayConvertor(), 11);
+    
+    /**
+     * Moves elements stored by previous versions in list to order set
+     * ahead of its elements. Executed only once per queue, 
+     * completion is marked by marker key.
+     * 
+     * @param list - list key
+     * @param orderSet - order set key
+     * @param marker - marker key
+     * @return script
+     */
+    private static String migrateScript(String list, String orderSet, String marker) {
+        return "if redis.call('exists', " + marker + ") == 0 then "
+                  + "local items = redis.call('lrange', " + list + ", 0, -1); "
+                  + "if #items > 0 then "
+                      + "local base = 0; "
+                      + "local first = redis.call('zrange', " + orderSet + ", 0, 0, 'WITHSCORES'); "
+                      + "if first[2] ~= nil then "
+                          + "base = tonumber(first[2]) - 1 - #items; "
+                      + "end; "
+                      + "for i, v in ipairs(items) do "
+                          + "redis.call('zadd', " + orderSet + ", base + i, v); "
+                      + "end; "
+                      + "redis.call('del', " + list + "); "
+                  + "end; "
+                  + "redis.call('set', " + marker + ", 1); "
+              + "end; ";
+    }
+    
+    // reads elements of list not migrated yet followed by elements of order set into items variable.
+    // KEYS[1] - order set, KEYS[2] - list, KEYS[3] - marker
+    private static final String READ_ITEMS_SCRIPT = 
+                "local items = {}; "
+              + "if redis.call('exists', KEYS[3]) == 0 then "
+                  + "items = redis.call('lrange', KEYS[2], 0, -1); "
+              + "end; "
+              + "local ordered = redis.call('zrange', KEYS[1], 0, -1); "
+              + "for i, v in ipairs(ordered) do "
+                  + "table.insert(items, v); "
+              + "end; ";
+    
+    // calculates sequence number for new element. KEYS[4] - order set
+    private static final String NEXT_SEQUENCE_SCRIPT = 
+                "local seq = 0; "
+              + "local last = redis.call('zrange', KEYS[4], -1, -1, 'WITHSCORES'); "
+              + "if last[2] ~= nil then "
+                  + "seq = tonumber(last[2]); "
+              + "end; ";
     
     private final QueueTransferService queueTransferService;
     
-    protected RedissonDelayedQueue(QueueTransferService queueTransferService, Codec codec, final CommandAsyncExecutor commandExecutor, String name) {
+    protected RedissonDelayedQueue(QueueTransferService queueTransferService, Codec codec, final CommandAsyncExecutor commandExecutor, String name, 
+            final int transferBatchSize) {
         super(codec, commandExecutor, name);
         
         QueueTransferTask task = new QueueTransferTask(commandExecutor.getConnectionManager()) {
@@ -58,14 +114,18 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
             @Override
             protected RFuture<Long> pushTaskAsync() {
                 return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
-                        "local expiredValues = redis.call('zrangebyscore', KEYS[2], 0, ARGV[1], 'limit', 0, ARGV[2]); "
+                        migrateScript("KEYS[3]", "KEYS[4]", "KEYS[5]")
+                      + "local expiredValues = redis.call('zrangebyscore', KEYS[2], 0, ARGV[1], 'limit', 0, ARGV[2]); "
                       + "if #expiredValues > 0 then "
                           + "for i, v in ipairs(expiredValues) do "
                               + "local randomId, value = struct.unpack('dLc0', v);"
                               + "redis.call('rpush', KEYS[1], value);"
-                              + "redis.call('lrem', KEYS[3], 1, v);"
                           + "end; "
-                          + "redis.call('zrem', KEYS[2], unpack(expiredValues));"
+                          + "for i = 1, #expiredValues, 5000 do "
+                              + "local j = math.min(i + 4999, #expiredValues); "
+                              + "redis.call('zrem', KEYS[2], unpack(expiredValues, i, j));"
+                              + "redis.call('zrem', KEYS[4], unpack(expiredValues, i, j));"
+                          + "end; "
                       + "end; "
                         // get startTime from scheduler queue head task
                       + "local v = redis.call('zrange', KEYS[2], 0, 0, 'WITHSCORES'); "
@@ -73,8 +133,8 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
                          + "return v[2]; "
                       + "end "
                       + "return nil;",
-                      Arrays.<Object>asList(getName(), getTimeoutSetName(), getQueueName()), 
-                      System.currentTimeMillis(), 100);
+                      Arrays.<Object>asList(getName(), getTimeoutSetName(), getQueueName(), getOrderSetName(), getMarkerName()), 
+                      System.currentTimeMillis(), transferBatchSize);
             }
             
             @Override
@@ -100,6 +160,14 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
         return prefixName("redisson_delay_queue_timeout", getName());
     }
 
+    private String getOrderSetName() {
+        return prefixName("redisson_delay_queue_order", getName());
+    }
+
+    private String getMarkerName() {
+        return prefixName("redisson_delay_queue_migrated", getName());
+    }
+
     public void offer(V e, long delay, TimeUnit timeUnit) {
         get(offerAsync(e, delay, timeUnit));
     }
@@ -110,19 +178,65 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
      
         long randomId = ThreadLocalRandom.current().nextLong();
         return commandExecutor.evalWriteAsync(getName(), codec, EVAL_OFFER,
-                "local value = struct.pack('dLc0', tonumber(ARGV[2]), string.len(ARGV[3]), ARGV[3]);" 
+                migrateScript("KEYS[3]", "KEYS[4]", "KEYS[6]")
+              + NEXT_SEQUENCE_SCRIPT
+              + "local value = struct.pack('dLc0', tonumber(ARGV[2]), string.len(ARGV[3]), ARGV[3]);" 
               + "redis.call('zadd', KEYS[2], ARGV[1], value);"
-              + "redis.call('rpush', KEYS[3], value);"
+              + "redis.call('zadd', KEYS[4], seq + 1, value);"
               // if new object added to queue head when publish its startTime 
               // to all scheduler workers 
               + "local v = redis.call('zrange', KEYS[2], 0, 0); "
               + "if v[1] == value then "
-                 + "redis.call('publish', KEYS[4], ARGV[1]); "
+                 + "redis.call('publish', KEYS[5], ARGV[1]); "
               + "end;"
                  ,
-              Arrays.<Object>asList(getName(), getTimeoutSetName(), getQueueName(), getChannelName()), 
+              Arrays.<Object>asList(getName(), getTimeoutSetName(), getQueueName(), getOrderSetName(), getChannelName(), getMarkerName()), 
               timeout, randomId, e);
     }
+    
+    @Override
+    public void offerAll(Map<V, Long> elements, TimeUnit timeUnit) {
+        get(offerAllAsync(elements, timeUnit));
+    }
+    
+    @Override
+    public RFuture<Void> offerAllAsync(Map<V, Long> elements, TimeUnit timeUnit) {
+        if (elements.isEmpty()) {
+            return newSucceededFuture(null);
+        }
+        
+        long currentTime = System.currentTimeMillis();
+        List<Object> params = new ArrayList<Object>(elements.size()*3);
+        try {
+            for (Entry<V, Long> entry : elements.entrySet()) {
+                long timeout = currentTime + timeUnit.toMillis(entry.getValue());
+                params.add(timeout);
+                params.add(ThreadLocalRandom.current().nextLong());
+                params.add(codec.getValueEncoder().encode(entry.getKey()));
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+        
+        return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_VOID,
+                migrateScript("KEYS[3]", "KEYS[4]", "KEYS[6]")
+              + NEXT_SEQUENCE_SCRIPT
+              + "local head = redis.call('zrange', KEYS[2], 0, 0); "
+              + "for i = 1, #ARGV, 3 do "
+                  + "local value = struct.pack('dLc0', tonumber(ARGV[i+1]), string.len(ARGV[i+2]), ARGV[i+2]);" 
+                  + "redis.call('zadd', KEYS[2], ARGV[i], value);"
+                  + "seq = seq + 1; "
+                  + "redis.call('zadd', KEYS[4], seq, value);"
+              + "end; "
+              // if queue head has been changed when publish its startTime 
+              // to all scheduler workers 
+              + "local v = redis.call('zrange', KEYS[2], 0, 0, 'WITHSCORES'); "
+              + "if v[1] ~= head[1] then "
+                 + "redis.call('publish', KEYS[5], v[2]); "
+              + "end;",
+              Arrays.<Object>asList(getName(), getTimeoutSetName(), getQueueName(), getOrderSetName(), getChannelName(), getMarkerName()), 
+              params.toArray());
+    }
 
     @Override
     public boolean add(V e) {
@@ -179,24 +293,25 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
 
     V getValue(int index) {
         return (V)get(commandExecutor.evalReadAsync(getName(), codec, RedisCommands.EVAL_OBJECT,
-                "local v = redis.call('lindex', KEYS[1], ARGV[1]); "
-              + "if v ~= false then "
+                READ_ITEMS_SCRIPT
+              + "local v = items[tonumber(ARGV[1]) + 1]; "
+              + "if v ~= nil then "
                   + "local randomId, value = struct.unpack('dLc0', v);"
                   + "return value; "
               + "end "
               + "return nil;",
-              Arrays.<Object>asList(getQueueName()), index));
+              Arrays.<Object>asList(getOrderSetName(), getQueueName(), getMarkerName()), index));
     }
     
     void remove(int index) {
         get(commandExecutor.evalWriteAsync(getName(), null, RedisCommands.EVAL_VOID,
-                "local v = redis.call('lindex', KEYS[1], ARGV[1]);" + 
-                "if v ~= false then " + 
-                   "local randomId, value = struct.unpack('dLc0', v);" + 
-                   "redis.call('lrem', KEYS[1], 1, v);" + 
-                   "redis.call('zrem', KEYS[2], v);" +
+                migrateScript("KEYS[3]", "KEYS[1]", "KEYS[4]") +
+                "local v = redis.call('zrange', KEYS[1], ARGV[1], ARGV[1]);" + 
+                "if v[1] ~= nil then " + 
+                   "redis.call('zrem', KEYS[1], v[1]);" + 
+                   "redis.call('zrem', KEYS[2], v[1]);" +
                 "end; ",
-                Arrays.<Object>asList(getQueueName(), getTimeoutSetName()), index));
+                Arrays.<Object>asList(getOrderSetName(), getTimeoutSetName(), getQueueName(), getMarkerName()), index));
     }
     
     @Override
@@ -266,14 +381,14 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
     @Override
     public RFuture<List<V>> readAllAsync() {
         return commandExecutor.evalReadAsync(getName(), codec, RedisCommands.EVAL_LIST,
-                "local result = {}; " +
-                "local items = redis.call('lrange', KEYS[1], 0, -1); "
+                READ_ITEMS_SCRIPT
+              + "local result = {}; "
               + "for i, v in ipairs(items) do "
                    + "local randomId, value = struct.unpack('dLc0', v); "
                    + "table.insert(result, value);"
               + "end; "
               + "return result; ",
-           Collections.<Object>singletonList(getQueueName()));
+           Arrays.<Object>asList(getOrderSetName(), getQueueName(), getMarkerName()));
     }
 
     @Override
@@ -287,19 +402,19 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
     }
 
     protected RFuture<Boolean> removeAsync(Object o, int count) {
-        return commandExecutor.evalWriteAsync(getName(), codec, new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 5),
-                "local s = redis.call('llen', KEYS[1]);" +
-                "for i = 0, s-1, 1 do "
-                    + "local v = redis.call('lindex', KEYS[1], i);"
+        return commandExecutor.evalWriteAsync(getName(), codec, new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 7),
+                migrateScript("KEYS[3]", "KEYS[1]", "KEYS[4]") +
+                "local items = redis.call('zrange', KEYS[1], 0, -1);" +
+                "for i, v in ipairs(items) do "
                     + "local randomId, value = struct.unpack('dLc0', v);"
                     + "if ARGV[1] == value then "
                         + "redis.call('zrem', KEYS[2], v);"
-                        + "redis.call('lrem', KEYS[1], 1, v);"
+                        + "redis.call('zrem', KEYS[1], v);"
                         + "return 1;"
                     + "end; "
                + "end;" +
                "return 0;",
-        Arrays.<Object>asList(getQueueName(), getTimeoutSetName()), o);
+        Arrays.<Object>asList(getOrderSetName(), getTimeoutSetName(), getQueueName(), getMarkerName()), o);
     }
 
     @Override
@@ -308,10 +423,9 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
             return newSucceededFuture(true);
         }
 
-        return commandExecutor.evalReadAsync(getName(), codec, RedisCommands.EVAL_BOOLEAN_WITH_VALUES,
-                "local s = redis.call('llen', KEYS[1]);" +
-                "for i = 0, s-1, 1 do "
-                    + "local v = redis.call('lindex', KEYS[1], i);"
+        return commandExecutor.evalReadAsync(getName(), codec, RedisCommands.EVAL_BOOLEAN_WITH_VALUES_6,
+                READ_ITEMS_SCRIPT +
+                "for i, v in ipairs(items) do "
                     + "local randomId, value = struct.unpack('dLc0', v);"
                     
                     + "for j = 1, #ARGV, 1 do "
@@ -321,7 +435,7 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
                     + "end; "
                + "end;" +
                "return #ARGV == 0 and 1 or 0;",
-                Collections.<Object>singletonList(getQueueName()), c.toArray());
+                Arrays.<Object>asList(getOrderSetName(), getQueueName(), getMarkerName()), c.toArray());
     }
 
     @Override
@@ -340,28 +454,24 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
             return newSucceededFuture(false);
         }
 
-        return commandExecutor.evalWriteAsync(getName(), codec, new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 5, ValueType.OBJECTS),
+        return commandExecutor.evalWriteAsync(getName(), codec, new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 7, ValueType.OBJECTS),
+                migrateScript("KEYS[3]", "KEYS[1]", "KEYS[4]") +
                 "local result = 0;" + 
-                "local s = redis.call('llen', KEYS[1]);" + 
-                "local i = 0;" +
-                "while i < s do "
-                    + "local v = redis.call('lindex', KEYS[1], i);"
+                "local items = redis.call('zrange', KEYS[1], 0, -1);" + 
+                "for i, v in ipairs(items) do "
                     + "local randomId, value = struct.unpack('dLc0', v);"
                     
                     + "for j = 1, #ARGV, 1 do "
                         + "if value == ARGV[j] then "
                             + "result = 1; "
-                            + "i = i - 1; "
-                            + "s = s - 1; "
                             + "redis.call('zrem', KEYS[2], v);"
-                            + "redis.call('lrem', KEYS[1], 0, v); "
+                            + "redis.call('zrem', KEYS[1], v); "
                             + "break; "
                         + "end; "
                     + "end; "
-                    + "i = i + 1;"
                + "end; " 
                + "return result;",
-               Arrays.<Object>asList(getQueueName(), getTimeoutSetName()), c.toArray());
+               Arrays.<Object>asList(getOrderSetName(), getTimeoutSetName(), getQueueName(), getMarkerName()), c.toArray());
     }
 
     @Override
@@ -380,9 +490,10 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
             return deleteAsync();
         }
 
-        return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_BOOLEAN_WITH_VALUES,
+        return commandExecutor.evalWriteAsync(getName(), codec, new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 7, ValueType.OBJECTS),
+                     migrateScript("KEYS[3]", "KEYS[1]", "KEYS[4]") +
                      "local changed = 0; " +
-                     "local items = redis.call('lrange', KEYS[1], 0, -1); "
+                     "local items = redis.call('zrange', KEYS[1], 0, -1); "
                    + "local i = 1; "
                    + "while i <= #items do "
                         + "local randomId, element = struct.unpack('dLc0', items[i]); "
@@ -394,13 +505,14 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
                             + "end; "
                         + "end; "
                         + "if isInAgrs == false then "
-                            + "redis.call('LREM', KEYS[1], 0, items[i]) "
+                            + "redis.call('zrem', KEYS[1], items[i]); "
+                            + "redis.call('zrem', KEYS[2], items[i]); "
                             + "changed = 1; "
                         + "end; "
                         + "i = i + 1; "
                    + "end; "
                    + "return changed; ",
-                Collections.<Object>singletonList(getQueueName()), c.toArray());
+                Arrays.<Object>asList(getOrderSetName(), getTimeoutSetName(), getQueueName(), getMarkerName()), c.toArray());
     }  
 
     @Override
@@ -410,32 +522,40 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
     
     @Override
     public RFuture<Boolean> deleteAsync() {
-        return commandExecutor.writeAsync(getName(), RedisCommands.DEL_OBJECTS, getQueueName(), getTimeoutSetName());
+        return commandExecutor.writeAsync(getName(), RedisCommands.DEL_OBJECTS, getQueueName(), getOrderSetName(), getTimeoutSetName(), getMarkerName());
     }
 
     @Override
     public RFuture<V> peekAsync() {
         return commandExecutor.evalReadAsync(getName(), codec, RedisCommands.EVAL_OBJECT,
-                "local v = redis.call('lindex', KEYS[1], 0); "
+                "local v = false; "
+              + "if redis.call('exists', KEYS[3]) == 0 then "
+                  + "v = redis.call('lindex', KEYS[2], 0); "
+              + "end; "
+              + "if v == false then "
+                  + "v = redis.call('zrange', KEYS[1], 0, 0)[1]; "
+              + "end; "
               + "if v ~= nil then "
                   + "local randomId, value = struct.unpack('dLc0', v);"
                   + "return value; "
               + "end "
               + "return nil;",
-              Arrays.<Object>asList(getQueueName()));
+              Arrays.<Object>asList(getOrderSetName(), getQueueName(), getMarkerName()));
     }
 
     @Override
     public RFuture<V> pollAsync() {
         return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_OBJECT,
-                  "local v = redis.call('lpop', KEYS[1]); "
-                + "if v ~= nil then "
-                    + "redis.call('zrem', KEYS[2], v); "
-                    + "local randomId, value = struct.unpack('dLc0', v);"
+                  migrateScript("KEYS[3]", "KEYS[1]", "KEYS[4]")
+                + "local v = redis.call('zrange', KEYS[1], 0, 0); "
+                + "if v[1] ~= nil then "
+                    + "redis.call('zrem', KEYS[1], v[1]); "
+                    + "redis.call('zrem', KEYS[2], v[1]); "
+                    + "local randomId, value = struct.unpack('dLc0', v[1]);"
                     + "return value; "
                 + "end "
                 + "return nil;",
-                Arrays.<Object>asList(getQueueName(), getTimeoutSetName()));
+                Arrays.<Object>asList(getOrderSetName(), getTimeoutSetName(), getQueueName(), getMarkerName()));
     }
 
     @Override
@@ -446,35 +566,42 @@ public class RedissonDelayedQueue<V> extends RedissonExpirable implements RDelay
     @Override
     public RFuture<V> pollLastAndOfferFirstToAsync(String queueName) {
         return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_OBJECT,
-                "local v = redis.call('rpop', KEYS[1]); "
-              + "if v ~= nil then "
-                  + "redis.call('zrem', KEYS[2], v); "
-                  + "local randomId, value = struct.unpack('dLc0', v);"
+                migrateScript("KEYS[4]", "KEYS[1]", "KEYS[5]")
+              + "local v = redis.call('zrange', KEYS[1], -1, -1); "
+              + "if v[1] ~= nil then "
+                  + "redis.call('zrem', KEYS[1], v[1]); "
+                  + "redis.call('zrem', KEYS[2], v[1]); "
+                  + "local randomId, value = struct.unpack('dLc0', v[1]);"
                   + "redis.call('lpush', KEYS[3], value); "
                   + "return value; "
               + "end "
               + "return nil;",
-              Arrays.<Object>asList(getQueueName(), getTimeoutSetName(), queueName));
+              Arrays.<Object>asList(getOrderSetName(), getTimeoutSetName(), queueName, getQueueName(), getMarkerName()));
     }
 
     @Override
     public RFuture<Boolean> containsAsync(Object o) {
-        return commandExecutor.evalReadAsync(getName(), codec, new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 4),
-                        "local s = redis.call('llen', KEYS[1]);" +
-                        "for i = 0, s-1, 1 do "
-                            + "local v = redis.call('lindex', KEYS[1], i);"
+        return commandExecutor.evalReadAsync(getName(), codec, new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 6),
+                        READ_ITEMS_SCRIPT +
+                        "for i, v in ipairs(items) do "
                             + "local randomId, value = struct.unpack('dLc0', v);"
                             + "if ARGV[1] == value then "
                                 + "return 1;"
                             + "end; "
                        + "end;" +
                        "return 0;",
-                Collections.<Object>singletonList(getQueueName()), o);
+                Arrays.<Object>asList(getOrderSetName(), getQueueName(), getMarkerName()), o);
     }
 
     @Override
     public RFuture<Integer> sizeAsync() {
-        return commandExecutor.readAsync(getName(), codec, RedisCommands.LLEN_INT, getQueueName());
+        return commandExecutor.evalReadAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_INTEGER,
+                "local size = redis.call('zcard', KEYS[1]); "
+              + "if redis.call('exists', KEYS[3]) == 0 then "
+                  + "size = size + redis.call('llen', KEYS[2]); "
+              + "end; "
+              + "return size; ",
+              Arrays.<Object>asList(getOrderSetName(), getQueueName(), getMarkerName()));
     }
 
     @Override
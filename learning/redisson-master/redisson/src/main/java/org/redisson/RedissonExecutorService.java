@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -50,11 +51,13 @@ import org.redisson.api.RedissonClient;
 import org.redisson.api.RemoteInvocationOptions;
 import org.redisson.api.annotation.RInject;
 import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.ByteArrayCodec;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.LongCodec;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandExecutor;
 import org.redisson.connection.ConnectionManager;
+import org.redisson.executor.BatchExecutorRemoteService;
 import org.redisson.executor.ExecutorRemoteService;
 import org.redisson.executor.RedissonScheduledFuture;
 import org.redisson.executor.RemoteExecutorService;
@@ -62,11 +65,13 @@ import org.redisson.executor.RemoteExecutorServiceAsync;
 import org.redisson.executor.RemoteExecutorServiceImpl;
 import org.redisson.executor.RemotePromise;
 import org.redisson.executor.ScheduledExecutorRemoteService;
+import org.redisson.misc.Hash;
 import org.redisson.misc.RPromise;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBufUtil;
+import io.netty.util.CharsetUtil;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.internal.PlatformDependent;
 import io.netty.util.internal.ThreadLocalRandom;
@@ -95,6 +100,7 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     private final String workersChannelName;
     private final String workersSemaphoreName;
     private final String workersCounterName;
+    private final String classBodiesName;
     
     private final String tasksCounterName;
     private final String statusName;
@@ -107,9 +113,15 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     private final RemoteExecutorServiceAsync asyncScheduledServiceAtFixed;
     private final RemoteExecutorServiceAsync asyncService;
     private final RemoteExecutorServiceAsync asyncServiceWithoutResult;
+    private final RemoteExecutorServiceAsync asyncBatchService;
+    private final BatchExecutorRemoteService batchRemoteService;
     private final ScheduledExecutorRemoteService scheduledRemoteService;
     
     private final Map<Class<?>, byte[]> class2bytes = PlatformDependent.newConcurrentHashMap();
+    private final Map<Class<?>, String> class2hash = PlatformDependent.newConcurrentHashMap();
+    private final Map<String, byte[]> classBodies = PlatformDependent.newConcurrentHashMap();
+    private final ConcurrentMap<String, Boolean> uploadingClassBodies = PlatformDependent.newConcurrentHashMap();
+    private final ConcurrentMap<String, Boolean> uploadedClassBodies = PlatformDependent.newConcurrentHashMap();
 
     private final String name;
     private final String requestQueueName;
@@ -135,6 +147,7 @@ public class RedissonExecutorService implements RScheduledExecutorService {
         workersChannelName = objectName + ":workers-channel";
         workersSemaphoreName = objectName + ":workers-semaphore";
         workersCounterName = objectName + ":workers-counter";
+        classBodiesName = objectName + ":class-bodies";
         
         remoteService = redisson.getRemoteService(name, codec);
         workersTopic = redisson.getTopic(workersChannelName);
@@ -143,9 +156,23 @@ public class RedissonExecutorService implements RScheduledExecutorService {
         remoteService.setTerminationTopicName(terminationTopic.getChannelNames().get(0));
         remoteService.setTasksCounterName(tasksCounterName);
         remoteService.setStatusName(statusName);
+        remoteService.setClassBodiesName(classBodiesName);
+        remoteService.setClassBodies(classBodies);
+        remoteService.setUploadedClassBodies(uploadedClassBodies);
         asyncService = remoteService.get(RemoteExecutorServiceAsync.class, RemoteInvocationOptions.defaults().noAck().expectResultWithin(1, TimeUnit.DAYS));
         asyncServiceWithoutResult = remoteService.get(RemoteExecutorServiceAsync.class, RemoteInvocationOptions.defaults().noAck().noResult());
         
+        batchRemoteService = new BatchExecutorRemoteService(codec, redisson, name, commandExecutor);
+        batchRemoteService.setTerminationTopicName(terminationTopic.getChannelNames().get(0));
+        batchRemoteService.setTasksCounterName(tasksCounterName);
+        batchRemoteService.setStatusName(statusName);
+        batchRemoteService.setClassBodiesName(classBodiesName);
+        batchRemoteService.setClassBodies(classBodies);
+        batchRemoteService.setUploadedClassBodies(uploadedClassBodies);
+        // results of batched tasks are delivered through single response queue
+        asyncBatchService = batchRemoteService.get(RemoteExecutorServiceAsync.class, 
+                RemoteInvocationOptions.defaults().noAck().expectResultWithin(1, TimeUnit.DAYS).useSharedResponseQueue());
+        
         scheduledRemoteService = new ScheduledExecutorRemoteService(codec, redisson, name, commandExecutor);
         scheduledRemoteService.setTerminationTopicName(terminationTopic.getChannelNames().get(0));
         scheduledRemoteService.setTasksCounterName(tasksCounterName);
@@ -222,6 +249,7 @@ public class RedissonExecutorService implements RScheduledExecutorService {
         service.setSchedulerTasksName(schedulerTasksName);
         service.setSchedulerChannelName(schedulerChannelName);
         service.setSchedulerQueueName(schedulerQueueName);
+        service.setClassBodiesName(classBodiesName);
         
         remoteService.register(RemoteExecutorService.class, service, workers, executor);
         workersGroupListenerId = workersTopic.addListener(new MessageListener<String>() {
@@ -236,9 +264,10 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     @Override
     public void execute(Runnable task) {
         check(task);
-        byte[] classBody = getClassBody(task);
+        String classBodyHash = getClassBodyHash(task);
+        byte[] classBody = getClassBody(task, classBodyHash);
         byte[] state = encode(task);
-        RemotePromise<Void> promise = (RemotePromise<Void>)asyncServiceWithoutResult.executeRunnable(task.getClass().getName(), classBody, state);
+        RemotePromise<Void> promise = (RemotePromise<Void>)asyncServiceWithoutResult.executeRunnable(task.getClass().getName(), classBodyHash, classBody, state);
         execute(promise);
     }
     
@@ -264,8 +293,54 @@ public class RedissonExecutorService implements RScheduledExecutorService {
         }
     }
 
-    private byte[] getClassBody(Object task) {
+    private String getClassBodyHash(Object task) {
         Class<?> c = task.getClass();
+        String classBodyHash = class2hash.get(c);
+        if (classBodyHash == null) {
+            byte[] classBody = loadClassBody(c);
+            classBodyHash = Hash.hashToBase64(classBody);
+            classBodies.put(classBodyHash, classBody);
+            class2hash.put(c, classBodyHash);
+        }
+        return classBodyHash;
+    }
+    
+    /**
+     * Returns class body if it's not uploaded to Redis yet, 
+     * otherwise returns <code>null</code> and workers use class body stored in Redis. 
+     * Upload is started on first invocation for each class. Task is sent again with 
+     * class body if it has been deleted from Redis since upload.
+     * <p>
+     * Scheduled tasks always carry class body, because they could be executed 
+     * long after the upload.
+     * 
+     * @param task - task object
+     * @param classBodyHash - class body hash
+     * @return class body or <code>null</code>
+     */
+    private byte[] getClassBody(Object task, final String classBodyHash) {
+        if (uploadedClassBodies.containsKey(classBodyHash)) {
+            return null;
+        }
+        
+        byte[] classBody = loadClassBody(task.getClass());
+        if (uploadingClassBodies.putIfAbsent(classBodyHash, Boolean.TRUE) == null) {
+            RFuture<Boolean> future = commandExecutor.writeAsync(classBodiesName, ByteArrayCodec.INSTANCE, RedisCommands.HSET, 
+                                            classBodiesName, classBodyHash.getBytes(CharsetUtil.UTF_8), classBody);
+            future.addListener(new FutureListener<Boolean>() {
+                @Override
+                public void operationComplete(io.netty.util.concurrent.Future<Boolean> future) throws Exception {
+                    if (future.isSuccess()) {
+                        uploadedClassBodies.put(classBodyHash, Boolean.TRUE);
+                    }
+                    uploadingClassBodies.remove(classBodyHash);
+                }
+            });
+        }
+        return classBody;
+    }
+    
+    private byte[] loadClassBody(Class<?> c) {
         byte[] classBody = class2bytes.get(c);
         if (classBody == null) {
             String className = c.getName();
@@ -317,7 +392,8 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     public RFuture<Boolean> deleteAsync() {
         final RPromise<Boolean> result = connectionManager.newPromise();
         RFuture<Long> deleteFuture = redisson.getKeys().deleteAsync(
-                requestQueueName, statusName, tasksCounterName, schedulerQueueName, schedulerTasksName);
+                requestQueueName, statusName, tasksCounterName, schedulerQueueName, schedulerTasksName, classBodiesName);
+        uploadedClassBodies.clear();
         deleteFuture.addListener(new FutureListener<Long>() {
             @Override
             public void operationComplete(io.netty.util.concurrent.Future<Long> future) throws Exception {
@@ -393,13 +469,60 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     
     public <T> RFuture<T> submitAsync(Callable<T> task) {
         check(task);
-        byte[] classBody = getClassBody(task);
+        String classBodyHash = getClassBodyHash(task);
+        byte[] classBody = getClassBody(task, classBodyHash);
         byte[] state = encode(task);
-        RemotePromise<T> result = (RemotePromise<T>) asyncService.executeCallable(task.getClass().getName(), classBody, state);
+        RemotePromise<T> result = (RemotePromise<T>) asyncService.executeCallable(task.getClass().getName(), classBodyHash, classBody, state);
         addListener(result);
         return result;
     }
 
+    @Override
+    public <T> List<RFuture<T>> submitAll(Collection<? extends Callable<T>> tasks) {
+        List<RFuture<T>> futures = submitAllAsync(tasks);
+        if (!futures.isEmpty()) {
+            execute((RemotePromise<T>) futures.get(0));
+        }
+        return futures;
+    }
+    
+    @Override
+    public <T> List<RFuture<T>> submitAllAsync(Collection<? extends Callable<T>> tasks) {
+        if (tasks == null) {
+            throw new NullPointerException();
+        }
+        for (Callable<T> task : tasks) {
+            check(task);
+        }
+        
+        List<Object[]> taskParams = new ArrayList<Object[]>(tasks.size());
+        for (Callable<T> task : tasks) {
+            String classBodyHash = getClassBodyHash(task);
+            byte[] classBody = getClassBody(task, classBodyHash);
+            byte[] state = encode(task);
+            taskParams.add(new Object[] {task.getClass().getName(), classBodyHash, classBody, state});
+        }
+        
+        List<RFuture<T>> futures = new ArrayList<RFuture<T>>(tasks.size());
+        boolean collected = false;
+        batchRemoteService.startBatch();
+        try {
+            for (Object[] params : taskParams) {
+                RemotePromise<T> result = (RemotePromise<T>) asyncBatchService.executeCallable((String) params[0], (String) params[1], (byte[]) params[2], (byte[]) params[3]);
+                addListener(result);
+                futures.add(result);
+            }
+            collected = true;
+        } finally {
+            if (!collected) {
+                // batch shouldn't stay bound to thread after failure
+                batchRemoteService.cancelBatch();
+            }
+        }
+        batchRemoteService.executeAddAsync();
+        return futures;
+    }
+
     private <T> void addListener(final RemotePromise<T> result) {
         result.getAddFuture().addListener(new FutureListener<Boolean>() {
 
@@ -467,9 +590,10 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     @Override
     public RFuture<?> submitAsync(Runnable task) {
         check(task);
-        byte[] classBody = getClassBody(task);
+        String classBodyHash = getClassBodyHash(task);
+        byte[] classBody = getClassBody(task, classBodyHash);
         byte[] state = encode(task);
-        RemotePromise<Void> result = (RemotePromise<Void>) asyncService.executeRunnable(task.getClass().getName(), classBody, state);
+        RemotePromise<Void> result = (RemotePromise<Void>) asyncService.executeRunnable(task.getClass().getName(), classBodyHash, classBody, state);
         addListener(result);
         return result;
     }
@@ -484,10 +608,11 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     @Override
     public RScheduledFuture<?> scheduleAsync(Runnable task, long delay, TimeUnit unit) {
         check(task);
-        byte[] classBody = getClassBody(task);
+        String classBodyHash = getClassBodyHash(task);
+        byte[] classBody = loadClassBody(task.getClass());
         byte[] state = encode(task);
         long startTime = System.currentTimeMillis() + unit.toMillis(delay);
-        RemotePromise<Void> result = (RemotePromise<Void>) asyncScheduledService.scheduleRunnable(task.getClass().getName(), classBody, state, startTime);
+        RemotePromise<Void> result = (RemotePromise<Void>) asyncScheduledService.scheduleRunnable(task.getClass().getName(), classBodyHash, classBody, state, startTime);
         addListener(result);
         return new RedissonScheduledFuture<Void>(result, startTime);
     }
@@ -502,10 +627,11 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     @Override
     public <V> RScheduledFuture<V> scheduleAsync(Callable<V> task, long delay, TimeUnit unit) {
         check(task);
-        byte[] classBody = getClassBody(task);
+        String classBodyHash = getClassBodyHash(task);
+        byte[] classBody = loadClassBody(task.getClass());
         byte[] state = encode(task);
         long startTime = System.currentTimeMillis() + unit.toMillis(delay);
-        RemotePromise<V> result = (RemotePromise<V>) asyncScheduledService.scheduleCallable(task.getClass().getName(), classBody, state, startTime);
+        RemotePromise<V> result = (RemotePromise<V>) asyncScheduledService.scheduleCallable(task.getClass().getName(), classBodyHash, classBody, state, startTime);
         addListener(result);
         return new RedissonScheduledFuture<V>(result, startTime);
     }
@@ -520,10 +646,11 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     @Override
     public RScheduledFuture<?> scheduleAtFixedRateAsync(Runnable task, long initialDelay, long period, TimeUnit unit) {
         check(task);
-        byte[] classBody = getClassBody(task);
+        String classBodyHash = getClassBodyHash(task);
+        byte[] classBody = loadClassBody(task.getClass());
         byte[] state = encode(task);
         long startTime = System.currentTimeMillis() + unit.toMillis(initialDelay);
-        RemotePromise<Void> result = (RemotePromise<Void>) asyncScheduledServiceAtFixed.scheduleAtFixedRate(task.getClass().getName(), classBody, state, startTime, unit.toMillis(period));
+        RemotePromise<Void> result = (RemotePromise<Void>) asyncScheduledServiceAtFixed.scheduleAtFixedRate(task.getClass().getName(), classBodyHash, classBody, state, startTime, unit.toMillis(period));
         addListener(result);
         return new RedissonScheduledFuture<Void>(result, startTime);
     }
@@ -538,11 +665,12 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     @Override
     public RScheduledFuture<?> scheduleAsync(Runnable task, CronSchedule cronSchedule) {
         check(task);
-        byte[] classBody = getClassBody(task);
+        String classBodyHash = getClassBodyHash(task);
+        byte[] classBody = loadClassBody(task.getClass());
         byte[] state = encode(task);
         final Date startDate = cronSchedule.getExpression().getNextValidTimeAfter(new Date());
         long startTime = startDate.getTime();
-        RemotePromise<Void> result = (RemotePromise<Void>) asyncScheduledServiceAtFixed.schedule(task.getClass().getName(), classBody, state, startTime, cronSchedule.getExpression().getCronExpression());
+        RemotePromise<Void> result = (RemotePromise<Void>) asyncScheduledServiceAtFixed.schedule(task.getClass().getName(), classBodyHash, classBody, state, startTime, cronSchedule.getExpression().getCronExpression());
         addListener(result);
         return new RedissonScheduledFuture<Void>(result, startTime) {
             public long getDelay(TimeUnit unit) {
@@ -561,10 +689,11 @@ public class RedissonExecutorService implements RScheduledExecutorService {
     @Override
     public RScheduledFuture<?> scheduleWithFixedDelayAsync(Runnable task, long initialDelay, long delay, TimeUnit unit) {
         check(task);
-        byte[] classBody = getClassBody(task);
+        String classBodyHash = getClassBodyHash(task);
+        byte[] classBody = loadClassBody(task.getClass());
         byte[] state = encode(task);
         long startTime = System.currentTimeMillis() + unit.toMillis(initialDelay);
-        RemotePromise<Void> result = (RemotePromise<Void>) asyncScheduledServiceAtFixed.scheduleWithFixedDelay(task.getClass().getName(), classBody, state, startTime, unit.toMillis(delay));
+        RemotePromise<Void> result = (RemotePromise<Void>) asyncScheduledServiceAtFixed.scheduleWithFixedDelay(task.getClass().getName(), classBodyHash, classBody, state, startTime, unit.toMillis(delay));
         addListener(result);
         return new RedissonScheduledFuture<Void>(result, startTime);
     }
@@ -704,10 +833,7 @@ public class RedissonExecutorService implements RScheduledExecutorService {
         List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
         boolean done = false;
         try {
-            for (Callable<T> t : tasks) {
-                Future<T> future = submit(t);
-                futures.add(future);
-            }
+            futures.addAll(submitAll(tasks));
             for (Future<T> f : futures) {
                 if (!f.isDone()) {
                     try {
@@ -740,24 +866,11 @@ public class RedissonExecutorService implements RScheduledExecutorService {
         try {
             long lastTime = System.currentTimeMillis();
 
-            for (Callable<T> task : tasks) {
-                Future<T> future = submit(task);
-                futures.add(future);
-                
-                long now = System.currentTimeMillis();
-                millis -= now - lastTime;
-                lastTime = now;
-                if (millis <= 0) {
-                    int remainFutures = tasks.size() - futures.size();
-                    for (int i = 0; i < remainFutures; i++) {
-                        RPromise<T> cancelledFuture = connectionManager.newPromise();
-                        cancelledFuture.cancel(true);
-                        futures.add(cancelledFuture);
-                        
-                    }
-                    return futures;
-                }
-            }
+            futures.addAll(submitAll(tasks));
+            
+            long now = System.currentTimeMillis();
+            millis -= now - lastTime;
+            lastTime = now;
 
             for (Future<T> f : futures) {
                 if (!f.isDone()) {
@@ -770,7 +883,7 @@ public class RedissonExecutorService implements RScheduledExecutorService {
                     } catch (TimeoutException toe) {
                         return futures;
                     }
-                    long now = System.currentTimeMillis();
+                    now = System.currentTimeMillis();
                     millis -= now - lastTime;
                     lastTime = now;
                 }
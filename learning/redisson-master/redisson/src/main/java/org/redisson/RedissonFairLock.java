@@ -176,7 +176,7 @@ public class RedissonFairLock extends RedissonLock implements RLock {
     @Override
     protected RFuture<Boolean> unlockInnerAsync(long threadId) {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                // remove stale threads
+                notificationScript(// remove stale threads
                 "while true do "
                 + "local firstThreadId2 = redis.call('lindex', KEYS[2], 0);"
                 + "if firstThreadId2 == false then "
@@ -212,7 +212,7 @@ public class RedissonFairLock extends RedissonLock implements RLock {
                 "if nextThreadId ~= false then " +
                     "redis.call('publish', KEYS[4] .. ':' .. nextThreadId, ARGV[1]); " +
                 "end; " +
-                "return 1; ",
+                "return 1; "),
                 Arrays.<Object>asList(getName(), getThreadsQueueName(), getTimeoutSetName(), getChannelName()), 
                 LockPubSub.unlockMessage, internalLockLeaseTime, getLockName(threadId), System.currentTimeMillis());
     }
@@ -231,7 +231,7 @@ public class RedissonFairLock extends RedissonLock implements RLock {
     public RFuture<Boolean> forceUnlockAsync() {
         cancelExpirationRenewal();
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                // remove stale threads
+                notificationScript(// remove stale threads
                 "while true do "
                 + "local firstThreadId2 = redis.call('lindex', KEYS[2], 0);"
                 + "if firstThreadId2 == false then "
@@ -254,7 +254,7 @@ public class RedissonFairLock extends RedissonLock implements RLock {
                     "end; " + 
                     "return 1; " + 
                 "end; " + 
-                "return 0;",
+                "return 0;"),
                 Arrays.<Object>asList(getName(), getThreadsQueueName(), getTimeoutSetName(), getChannelName()), 
                 LockPubSub.unlockMessage, System.currentTimeMillis());
     }
@@ -19,12 +19,11 @@ import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -39,7 +38,6 @@ import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.decoder.ListScanResult;
 import org.redisson.client.protocol.decoder.ScanObjectEntry;
 import org.redisson.command.CommandAsyncExecutor;
-import org.redisson.command.CommandBatchService;
 import org.redisson.connection.MasterSlaveEntry;
 import org.redisson.misc.CompositeIterable;
 import org.redisson.misc.RPromise;
@@ -138,18 +136,7 @@ public class RedissonKeys implements RKeys {
     
     @Override
     public RFuture<Long> touchAsync(String... names) {
-        return commandExecutor.writeAllAsync(RedisCommands.TOUCH_LONG, new SlotCallback<Long, Long>() {
-            AtomicLong results = new AtomicLong();
-            @Override
-            public void onSlotResult(Long result) {
-                results.addAndGet(result);
-            }
-
-            @Override
-            public Long onFinish() {
-                return results.get();
-            }
-        }, names);
+        return commandExecutor.writeBatchedAsync(StringCodec.INSTANCE, RedisCommands.TOUCH_LONG, new KeysCountCallback(), names);
     }
     
     @Override
@@ -159,18 +146,7 @@ public class RedissonKeys implements RKeys {
     
     @Override
     public RFuture<Long> countExistsAsync(String... names) {
-        return commandExecutor.readAllAsync(RedisCommands.EXISTS_LONG, new SlotCallback<Long, Long>() {
-            AtomicLong results = new AtomicLong();
-            @Override
-            public void onSlotResult(Long result) {
-                results.addAndGet(result);
-            }
-
-            @Override
-            public Long onFinish() {
-                return results.get();
-            }
-        }, names);
+        return commandExecutor.readBatchedAsync(StringCodec.INSTANCE, RedisCommands.EXISTS_LONG, new KeysCountCallback(), names);
     }
 
     
@@ -276,55 +252,55 @@ public class RedissonKeys implements RKeys {
     
     @Override
     public RFuture<Long> deleteAsync(String ... keys) {
-        if (!commandExecutor.getConnectionManager().isClusterMode()) {
-            return commandExecutor.writeAsync(null, RedisCommands.DEL, keys);
-        }
+        return commandExecutor.writeBatchedAsync(StringCodec.INSTANCE, RedisCommands.DEL, new KeysCountCallback(), keys);
+    }
 
-        Map<MasterSlaveEntry, List<String>> range2key = new HashMap<MasterSlaveEntry, List<String>>();
-        for (String key : keys) {
-            int slot = commandExecutor.getConnectionManager().calcSlot(key);
-            for (MasterSlaveEntry entry : commandExecutor.getConnectionManager().getEntrySet()) {
-                List<String> list = range2key.get(entry);
-                if (list == null) {
-                    list = new ArrayList<String>();
-                    range2key.put(entry, list);
-                }
-                list.add(key);
-            }
+    /**
+     * Scans keys matched by pattern on all master nodes in parallel.
+     * Unlike <code>KEYS</code> command it doesn't block Redis for the whole keyspace traverse.
+     * 
+     * @param pattern - pattern of key
+     * @param count - amount of keys loaded per <code>SCAN</code> invocation
+     * @return found keys
+     */
+    RFuture<Collection<String>> scanKeysAsync(String pattern, int count) {
+        final RPromise<Collection<String>> result = commandExecutor.getConnectionManager().newPromise();
+        final Set<String> keys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        Set<MasterSlaveEntry> entries = commandExecutor.getConnectionManager().getEntrySet();
+        final AtomicInteger executed = new AtomicInteger(entries.size());
+        for (MasterSlaveEntry entry : entries) {
+            scanKeys(entry, null, 0, pattern, count, keys, executed, result);
         }
+        return result;
+    }
 
-        final RPromise<Long> result = commandExecutor.getConnectionManager().newPromise();
-        final AtomicReference<Throwable> failed = new AtomicReference<Throwable>();
-        final AtomicLong count = new AtomicLong();
-        final AtomicLong executed = new AtomicLong(range2key.size());
-        FutureListener<List<?>> listener = new FutureListener<List<?>>() {
+    private void scanKeys(final MasterSlaveEntry entry, InetSocketAddress client, long startPos, final String pattern, final int count, 
+            final Set<String> keys, final AtomicInteger executed, final RPromise<Collection<String>> result) {
+        RFuture<ListScanResult<String>> f = commandExecutor.readAsync(client, entry, StringCodec.INSTANCE, RedisCommands.SCAN, startPos, "MATCH", pattern, "COUNT", count);
+        f.addListener(new FutureListener<ListScanResult<String>>() {
             @Override
-            public void operationComplete(Future<List<?>> future) throws Exception {
-                if (future.isSuccess()) {
-                    List<Long> result = (List<Long>) future.get();
-                    for (Long res : result) {
-                        count.addAndGet(res);
-                    }
-                } else {
-                    failed.set(future.cause());
+            public void operationComplete(Future<ListScanResult<String>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+                if (result.isDone()) {
+                    return;
                 }
 
-                checkExecution(result, failed, count, executed);
-            }
-        };
+                ListScanResult<String> res = future.getNow();
+                keys.addAll(res.getValues());
+                if (res.getPos() != 0) {
+                    // cursor is valid only for the same node
+                    scanKeys(entry, res.getRedisClient(), res.getPos(), pattern, count, keys, executed, result);
+                    return;
+                }
 
-        for (Entry<MasterSlaveEntry, List<String>> entry : range2key.entrySet()) {
-            // executes in batch due to CROSSLOT error
-            CommandBatchService executorService = new CommandBatchService(commandExecutor.getConnectionManager());
-            for (String key : entry.getValue()) {
-                executorService.writeAsync(entry.getKey(), null, RedisCommands.DEL, key);
+                if (executed.decrementAndGet() == 0) {
+                    result.trySuccess(keys);
+                }
             }
-
-            RFuture<List<?>> future = executorService.executeAsync();
-            future.addListener(listener);
-        }
-
-        return result;
+        });
     }
 
     @Override
@@ -368,6 +344,30 @@ public class RedissonKeys implements RKeys {
         return commandExecutor.writeAllAsync(RedisCommands.FLUSHALL);
     }
 
+    /**
+     * Sums results of multi-key command executed per slot
+     */
+    private static class KeysCountCallback implements SlotKeysCallback<Long, Long> {
+
+        private final AtomicLong results = new AtomicLong();
+
+        @Override
+        public Object[] createParams(List<String> keys) {
+            return keys.toArray();
+        }
+
+        @Override
+        public void onSlotResult(List<String> keys, Long result) {
+            results.addAndGet(result);
+        }
+
+        @Override
+        public Long onFinish() {
+            return results.get();
+        }
+
+    }
+
     private void checkExecution(final RPromise<Long> result, final AtomicReference<Throwable> failed,
             final AtomicLong count, final AtomicLong executed) {
         if (executed.decrementAndGet() == 0) {
@@ -40,14 +40,14 @@ public class RedissonListMultimapCache<K, V> extends RedissonListMultimap<K, V>
     
     RedissonListMultimapCache(UUID id, EvictionScheduler evictionScheduler, CommandAsyncExecutor connectionManager, String name) {
         super(id, connectionManager, name);
-        evictionScheduler.scheduleCleanMultimap(name, getTimeoutSetName());
-        baseCache = new RedissonMultimapCache<K>(connectionManager, name, codec, getTimeoutSetName());
+        evictionScheduler.scheduleCleanListMultimap(name);
+        baseCache = new RedissonMultimapCache<K>(connectionManager, name, codec, getTimeoutSetName(), EvictionScheduler.LIST_MULTIMAP_CACHE);
     }
 
     RedissonListMultimapCache(UUID id, EvictionScheduler evictionScheduler, Codec codec, CommandAsyncExecutor connectionManager, String name) {
         super(id, codec, connectionManager, name);
-        evictionScheduler.scheduleCleanMultimap(name, getTimeoutSetName());
-        baseCache = new RedissonMultimapCache<K>(connectionManager, name, codec, getTimeoutSetName());
+        evictionScheduler.scheduleCleanListMultimap(name);
+        baseCache = new RedissonMultimapCache<K>(connectionManager, name, codec, getTimeoutSetName(), EvictionScheduler.LIST_MULTIMAP_CACHE);
     }
 
     public RFuture<Boolean> containsKeyAsync(Object key) {
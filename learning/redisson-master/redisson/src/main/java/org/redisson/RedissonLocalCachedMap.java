@@ -16,6 +16,7 @@
 package org.redisson;
 
 import java.io.Serializable;
+import java.net.InetSocketAddress;
 import java.math.BigDecimal;
 import java.util.AbstractCollection;
 import java.util.AbstractMap;
@@ -31,35 +32,51 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.redisson.api.LocalCachedMapOptions;
 import org.redisson.api.LocalCachedMapOptions.EvictionPolicy;
+import org.redisson.api.LocalCachedMapOptions.ReconnectionStrategy;
 import org.redisson.api.RFuture;
 import org.redisson.api.RLocalCachedMap;
 import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
 import org.redisson.api.listener.MessageListener;
 import org.redisson.cache.Cache;
 import org.redisson.cache.LFUCacheMap;
 import org.redisson.cache.LRUCacheMap;
 import org.redisson.cache.NoneCacheMap;
+import org.redisson.cache.SegmentedLRUCacheMap;
 import org.redisson.cache.SoftCacheMap;
+import org.redisson.cache.TinyLFUCacheMap;
+import org.redisson.client.codec.ByteArrayCodec;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.MapScanCodec;
 import org.redisson.client.codec.StringCodec;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.RedisCommand.ValueType;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.convertor.NumberConvertor;
+import org.redisson.client.protocol.decoder.MapScanResult;
+import org.redisson.client.protocol.decoder.ObjectListReplayDecoder;
 import org.redisson.client.protocol.decoder.ObjectMapEntryReplayDecoder;
 import org.redisson.client.protocol.decoder.ObjectMapReplayDecoder;
 import org.redisson.client.protocol.decoder.ObjectSetReplayDecoder;
+import org.redisson.client.protocol.decoder.ScanObjectEntry;
 import org.redisson.command.CommandAsyncExecutor;
 import org.redisson.misc.Hash;
 import org.redisson.misc.RPromise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
+import io.netty.util.internal.PlatformDependent;
 import io.netty.util.internal.ThreadLocalRandom;
 
 /**
@@ -71,26 +88,55 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
 
     public static class LocalCachedMapClear implements Serializable {
         
+        private byte[] excludedId;
+        private long version;
+        
+        public LocalCachedMapClear() {
+        }
+        
+        public LocalCachedMapClear(byte[] excludedId, long version) {
+            this.excludedId = excludedId;
+            this.version = version;
+        }
+        
+        public byte[] getExcludedId() {
+            return excludedId;
+        }
+        
+        public long getVersion() {
+            return version;
+        }
+        
     }
     
     public static class LocalCachedMapInvalidate implements Serializable {
         
         private byte[] excludedId;
         private List<byte[]> keyHashes;
+        private long version;
 
         public LocalCachedMapInvalidate() {
         }
         
         public LocalCachedMapInvalidate(byte[] excludedId, byte[]... keyHash) {
+            this(excludedId, 0, keyHash);
+        }
+        
+        public LocalCachedMapInvalidate(byte[] excludedId, long version, byte[]... keyHash) {
             super();
             this.keyHashes = Arrays.asList(keyHash);
             this.excludedId = excludedId;
+            this.version = version;
         }
         
         public byte[] getExcludedId() {
             return excludedId;
         }
         
+        public long getVersion() {
+            return version;
+        }
+        
         public Collection<byte[]> getKeyHashes() {
             return keyHashes;
         }
@@ -188,11 +234,36 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
     private static final RedisCommand<Object> EVAL_PUT = new RedisCommand<Object>("EVAL", -1, ValueType.OBJECT, ValueType.MAP_VALUE);
     private static final RedisCommand<Object> EVAL_REMOVE = new RedisCommand<Object>("EVAL", -1, ValueType.OBJECT, ValueType.MAP_VALUE);
     
+    private static final Logger log = LoggerFactory.getLogger(RedissonLocalCachedMap.class);
+    
+    private static final RedisCommand<List<Object>> EVAL_CHANGES = new RedisCommand<List<Object>>("EVAL", new ObjectListReplayDecoder<Object>());
+    
+    private static final byte CLEAR_MESSAGE = 0;
+    private static final byte INVALIDATE_MESSAGE = 1;
+    private static final int HASH_LENGTH = 16;
+    private static final int VERSION_LENGTH = 8;
+    private static final int PRELOAD_BATCH_SIZE = 1000;
+    
+    private static final ConcurrentMap<String, String> SCRIPTS = PlatformDependent.newConcurrentHashMap();
+    
     private byte[] instanceId;
     private RTopic<Object> invalidationTopic;
     private Cache<CacheKey, CacheValue> cache;
     private int invalidateEntryOnChange;
     private int invalidationListenerId;
+    private int invalidationBatchThreshold;
+    private LocalCachedMapInvalidator invalidator;
+    private int statusListenerId;
+    private ReconnectionStrategy reconnectionStrategy;
+    private int changeLogSize;
+    private String versionName;
+    private String changeLogName;
+    private int cacheSize;
+    // last change log version received by this instance
+    private final AtomicLong lastVersion = new AtomicLong(-1);
+    // incremented before each cache change made by this instance 
+    // and on each invalidation received from other instances
+    private final AtomicLong changes = new AtomicLong();
 
     protected RedissonLocalCachedMap(UUID id, CommandAsyncExecutor commandExecutor, String name, LocalCachedMapOptions options, RedissonClient redisson) {
         super(id, commandExecutor, name, redisson);
@@ -207,34 +278,317 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
     private void init(UUID id, String name, LocalCachedMapOptions options) {
         instanceId = generateId();
         
+        invalidationBatchThreshold = options.getInvalidationBatchThreshold();
+        reconnectionStrategy = options.getReconnectionStrategy();
+        if (reconnectionStrategy == ReconnectionStrategy.LOAD) {
+            changeLogSize = options.getChangeLogSize();
+        }
+        versionName = suffixName(name, "version");
+        changeLogName = suffixName(name, "changelog");
+        cacheSize = options.getCacheSize();
         if (options.isInvalidateEntryOnChange()) {
-            invalidateEntryOnChange = 1;
+            if (options.getInvalidationBatchWindowInMillis() > 0) {
+                invalidator = new LocalCachedMapInvalidator(this, commandExecutor, instanceId, 
+                                        options.getInvalidationBatchWindowInMillis(), invalidationBatchThreshold);
+            } else {
+                invalidateEntryOnChange = 1;
+            }
         }
 
         cache = createCache(options);
 
-        invalidationTopic = new RedissonTopic<Object>(commandExecutor, suffixName(name, "topic"));
+        invalidationTopic = new RedissonTopic<Object>(ByteArrayCodec.INSTANCE, commandExecutor, suffixName(name, "topic"));
         if (options.isInvalidateEntryOnChange()) {
             invalidationListenerId = invalidationTopic.addListener(new MessageListener<Object>() {
                 @Override
-                public void onMessage(String channel, Object msg) {
+                public void onMessage(String channel, Object message) {
+                    Object msg = decodeMessage((byte[]) message);
                     if (msg instanceof LocalCachedMapClear) {
-                        cache.clear();
+                        LocalCachedMapClear clearMsg = (LocalCachedMapClear)msg;
+                        if (!Arrays.equals(clearMsg.getExcludedId(), instanceId)) {
+                            changes.incrementAndGet();
+                            cache.clear();
+                        }
+                        updateVersion(clearMsg.getVersion());
                     }
                     if (msg instanceof LocalCachedMapInvalidate) {
                         LocalCachedMapInvalidate invalidateMsg = (LocalCachedMapInvalidate)msg;
                         if (!Arrays.equals(invalidateMsg.getExcludedId(), instanceId)) {
+                            changes.incrementAndGet();
                             for (byte[] keyHash : invalidateMsg.getKeyHashes()) {
                                 CacheKey key = new CacheKey(keyHash);
                                 cache.remove(key);
                             }
                         }
+                        updateVersion(invalidateMsg.getVersion());
                     }
                 }
             });
+            
+            if (reconnectionStrategy != ReconnectionStrategy.NONE) {
+                statusListenerId = invalidationTopic.addListener(new BaseStatusListener() {
+                    @Override
+                    public void onSubscribe(String channel) {
+                        // invalidation messages could be lost during reconnection
+                        if (reconnectionStrategy == ReconnectionStrategy.CLEAR) {
+                            changes.incrementAndGet();
+                            cache.clear();
+                        }
+                        if (reconnectionStrategy == ReconnectionStrategy.LOAD) {
+                            loadChanges();
+                        }
+                    }
+                });
+                if (reconnectionStrategy == ReconnectionStrategy.LOAD) {
+                    loadChanges();
+                }
+            }
+        }
+        
+        if (options.isPreloadOnStart()) {
+            preloadCacheAsync();
+        }
+    }
+    
+    private void updateVersion(long version) {
+        while (true) {
+            long currentVersion = lastVersion.get();
+            if (currentVersion >= version) {
+                return;
+            }
+            if (lastVersion.compareAndSet(currentVersion, version)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Invalidates entries changed after last received version. 
+     * Whole cache is cleared if change log doesn't cover this period.
+     * Only current version is loaded during first invocation.
+     */
+    private void loadChanges() {
+        final long version = lastVersion.get();
+        RFuture<List<Object>> future = commandExecutor.evalReadAsync(getName(), ByteArrayCodec.INSTANCE, EVAL_CHANGES,
+                "local v = tonumber(redis.call('hget', KEYS[1], 'version') or '0'); "
+              + "local last = tonumber(ARGV[1]); "
+              + "if last < 0 then "
+                  + "return {v, 0}; "
+              + "end; "
+              + "local cleared = tonumber(redis.call('hget', KEYS[1], 'cleared') or '0'); "
+              + "local trimmed = tonumber(redis.call('hget', KEYS[1], 'trimmed') or '0'); "
+              + "if v < last or cleared > last or trimmed > last then "
+                  + "return {v, 1}; "
+              + "end; "
+              + "local result = {v, 0}; "
+              + "for i, keyHash in ipairs(redis.call('zrangebyscore', KEYS[2], '(' .. ARGV[1], '+inf')) do "
+                  + "table.insert(result, keyHash); "
+              + "end; "
+              + "return result;",
+              Arrays.<Object>asList(versionName, changeLogName), version);
+        
+        future.addListener(new FutureListener<List<Object>>() {
+            @Override
+            public void operationComplete(Future<List<Object>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    log.error("Can't load changes of " + getName(), future.cause());
+                    return;
+                }
+                
+                List<Object> result = future.getNow();
+                if (version >= 0) {
+                    changes.incrementAndGet();
+                    if ((Long) result.get(1) == 1) {
+                        cache.clear();
+                    } else {
+                        for (Object keyHash : result.subList(2, result.size())) {
+                            cache.remove(new CacheKey((byte[]) keyHash));
+                        }
+                    }
+                }
+                updateVersion((Long) result.get(0));
+            }
+        });
+    }
+    
+    /**
+     * Replaces publishing of invalidation message in script with function 
+     * which also appends message version and maintains change log 
+     * if {@link ReconnectionStrategy#LOAD} strategy is used.
+     * <p>
+     * Script should pass map name, channel name, version name and change log name as keys.
+     * 
+     * @param script - lua script
+     * @return lua script
+     */
+    private String invalidationScript(String script) {
+        String key = changeLogSize + ":" + script;
+        String result = SCRIPTS.get(key);
+        if (result == null) {
+            result = "local function redisson_invalidate(msg) "
+                        + "local v = 0; "
+                        + "if " + changeLogSize + " > 0 then "
+                            + "v = redis.call('hincrby', KEYS[3], 'version', 1); "
+                            + "if string.byte(msg, 1) == " + CLEAR_MESSAGE + " then "
+                                + "redis.call('del', KEYS[4]); "
+                                + "redis.call('hset', KEYS[3], 'cleared', v); "
+                            + "else "
+                                + "for i = " + (2 + HASH_LENGTH) + ", #msg, " + HASH_LENGTH + " do "
+                                    + "redis.call('zadd', KEYS[4], v, string.sub(msg, i, i + " + (HASH_LENGTH - 1) + ")); "
+                                + "end; "
+                                + "local n = redis.call('zcard', KEYS[4]) - " + changeLogSize + "; "
+                                + "if n > 0 then "
+                                    + "local trimmed = redis.call('zrange', KEYS[4], n - 1, n - 1, 'withscores'); "
+                                    + "redis.call('hset', KEYS[3], 'trimmed', trimmed[2]); "
+                                    + "redis.call('zremrangebyrank', KEYS[4], 0, n - 1); "
+                                + "end; "
+                            + "end; "
+                        + "end; "
+                        + "local version = ''; "
+                        + "for i = " + (VERSION_LENGTH - 1) + ", 0, -1 do "
+                            + "version = version .. string.char(math.floor(v / 2^(8*i)) % 256); "
+                        + "end; "
+                        + "redis.call('publish', KEYS[2], msg .. version); "
+                   + "end; "
+                   + script.replace("redis.call('publish', KEYS[2], ", "redisson_invalidate(");
+            SCRIPTS.putIfAbsent(key, result);
         }
+        return result;
+    }
+    
+    private List<Object> invalidationKeys() {
+        return Arrays.<Object>asList(getName(), invalidationTopic.getChannelNames().get(0), versionName, changeLogName);
+    }
+    
+    /**
+     * Publishes invalidation message to other instances.
+     * 
+     * @param msg - invalidation message
+     * @return void
+     */
+    RFuture<Void> publishInvalidationAsync(byte[] msg) {
+        return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                invalidationScript("redis.call('publish', KEYS[2], ARGV[1]); "),
+                invalidationKeys(), msg);
+    }
+    
+    @Override
+    public void preloadCache() {
+        get(preloadCacheAsync());
+    }
+    
+    @Override
+    public RFuture<Void> preloadCacheAsync() {
+        RPromise<Void> result = newPromise();
+        preloadCache(null, 0, result);
+        return result;
+    }
+    
+    private void preloadCache(InetSocketAddress client, long startPos, final RPromise<Void> result) {
+        final long changesBefore = changes.get();
+        RFuture<MapScanResult<ScanObjectEntry, ScanObjectEntry>> future = commandExecutor.readAsync(client, getName(), 
+                new MapScanCodec(codec), RedisCommands.HSCAN, getName(), startPos, "COUNT", PRELOAD_BATCH_SIZE);
+        future.addListener(new FutureListener<MapScanResult<ScanObjectEntry, ScanObjectEntry>>() {
+            @Override
+            public void operationComplete(Future<MapScanResult<ScanObjectEntry, ScanObjectEntry>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+                
+                MapScanResult<ScanObjectEntry, ScanObjectEntry> res = future.getNow();
+                // entries could be changed by this or other instance during loading
+                if (changes.get() == changesBefore) {
+                    List<CacheKey> loadedKeys = new ArrayList<CacheKey>(res.getMap().size());
+                    for (Entry<ScanObjectEntry, ScanObjectEntry> entry : res.getMap().entrySet()) {
+                        ByteBuf keyBuf = entry.getKey().getBuf();
+                        byte[] encodedKey = new byte[keyBuf.readableBytes()];
+                        keyBuf.getBytes(keyBuf.readerIndex(), encodedKey);
+                        CacheKey cacheKey = toCacheKey(encodedKey);
+                        cache.put(cacheKey, new CacheValue(entry.getKey().getObj(), entry.getValue().getObj()));
+                        loadedKeys.add(cacheKey);
+                    }
+                    
+                    // change made while page was applied could be overwritten by older value, 
+                    // so loaded entries are dropped and will be read from Redis on demand
+                    if (changes.get() != changesBefore) {
+                        for (CacheKey cacheKey : loadedKeys) {
+                            cache.remove(cacheKey);
+                        }
+                    }
+                }
+                
+                if (res.getPos() == 0 
+                        || (cacheSize > 0 && cache.size() >= cacheSize)) {
+                    result.trySuccess(null);
+                    return;
+                }
+                
+                preloadCache(res.getRedisClient(), res.getPos(), result);
+            }
+        });
     }
 
+    /**
+     * Encodes invalidation message as 
+     * <code>type(1 byte) excludedId(16 bytes) keyHash(16 bytes)*</code>.
+     * Script appends <code>version(8 bytes)</code> to message before publishing.
+     * 
+     * @param excludedId - id of instance which shouldn't handle message
+     * @param keyHashes - hashes of invalidated keys
+     * @return message
+     */
+    static byte[] encodeInvalidate(byte[] excludedId, byte[]... keyHashes) {
+        ByteBuf buf = Unpooled.buffer(1 + excludedId.length + keyHashes.length*HASH_LENGTH);
+        buf.writeByte(INVALIDATE_MESSAGE);
+        buf.writeBytes(excludedId);
+        for (byte[] keyHash : keyHashes) {
+            buf.writeBytes(keyHash);
+        }
+        return buf.array();
+    }
+    
+    static byte[] encodeClear(byte[] excludedId) {
+        ByteBuf buf = Unpooled.buffer(1 + excludedId.length);
+        buf.writeByte(CLEAR_MESSAGE);
+        buf.writeBytes(excludedId);
+        return buf.array();
+    }
+    
+    static Object decodeMessage(byte[] message) {
+        ByteBuf buf = Unpooled.wrappedBuffer(message);
+        byte type = buf.readByte();
+        byte[] excludedId = new byte[HASH_LENGTH];
+        buf.readBytes(excludedId);
+        long version = buf.getLong(buf.writerIndex() - VERSION_LENGTH);
+        if (type == CLEAR_MESSAGE) {
+            return new LocalCachedMapClear(excludedId, version);
+        }
+        
+        byte[][] keyHashes = new byte[(buf.readableBytes() - VERSION_LENGTH) / HASH_LENGTH][];
+        for (int i = 0; i < keyHashes.length; i++) {
+            keyHashes[i] = new byte[HASH_LENGTH];
+            buf.readBytes(keyHashes[i]);
+        }
+        return new LocalCachedMapInvalidate(excludedId, version, keyHashes);
+    }
+    
+    private <T> RFuture<T> addToInvalidationBatch(RFuture<T> future, final byte[]... keyHashes) {
+        if (invalidator == null) {
+            return future;
+        }
+        
+        future.addListener(new FutureListener<T>() {
+            @Override
+            public void operationComplete(Future<T> future) throws Exception {
+                if (future.isSuccess()) {
+                    invalidator.add(keyHashes);
+                }
+            }
+        });
+        return future;
+    }
+    
     protected Cache<CacheKey, CacheValue> createCache(LocalCachedMapOptions options) {
         if (options.getEvictionPolicy() == EvictionPolicy.NONE) {
             return new NoneCacheMap<CacheKey, CacheValue>(options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
@@ -245,6 +599,12 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         if (options.getEvictionPolicy() == EvictionPolicy.LFU) {
             return new LFUCacheMap<CacheKey, CacheValue>(options.getCacheSize(), options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
         }
+        if (options.getEvictionPolicy() == EvictionPolicy.SLRU) {
+            return new SegmentedLRUCacheMap<CacheKey, CacheValue>(options.getCacheSize(), options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
+        }
+        if (options.getEvictionPolicy() == EvictionPolicy.TINY_LFU) {
+            return new TinyLFUCacheMap<CacheKey, CacheValue>(options.getCacheSize(), options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
+        }
         if (options.getEvictionPolicy() == EvictionPolicy.SOFT) {
             return new SoftCacheMap<CacheKey, CacheValue>(options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
         }
@@ -325,17 +685,19 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         
         byte[] mapKey = encodeMapKey(key);
         CacheKey cacheKey = toCacheKey(mapKey);
-        byte[] msg = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
+        byte[] msg = encodeInvalidate(instanceId, cacheKey.getKeyHash());
         CacheValue cacheValue = new CacheValue(key, value);
+        changes.incrementAndGet();
         cache.put(cacheKey, cacheValue);
-        return commandExecutor.evalWriteAsync(getName(), codec, EVAL_PUT,
-                  "local v = redis.call('hget', KEYS[1], ARGV[1]); "
+        RFuture<V> future = commandExecutor.evalWriteAsync(getName(), codec, EVAL_PUT,
+                  invalidationScript("local v = redis.call('hget', KEYS[1], ARGV[1]); "
                 + "if redis.call('hset', KEYS[1], ARGV[1], ARGV[2]) == 0 and ARGV[4] == '1' then "
                     + "redis.call('publish', KEYS[2], ARGV[3]); "
                 + "end; "
-                + "return v; ",
-                Arrays.<Object>asList(getName(), invalidationTopic.getChannelNames().get(0)), 
+                + "return v; "),
+                invalidationKeys(), 
                 mapKey, encodeMapValue(value), msg, invalidateEntryOnChange);
+        return addToInvalidationBatch(future, cacheKey.getKeyHash());
     }
 
     @Override
@@ -350,19 +712,21 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         byte[] encodedKey = encodeMapKey(key);
         byte[] encodedValue = encodeMapValue(value);
         CacheKey cacheKey = toCacheKey(encodedKey);
-        byte[] msg = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
+        byte[] msg = encodeInvalidate(instanceId, cacheKey.getKeyHash());
         CacheValue cacheValue = new CacheValue(key, value);
+        changes.incrementAndGet();
         cache.put(cacheKey, cacheValue);
-        return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_BOOLEAN,
-                  "if redis.call('hset', KEYS[1], ARGV[1], ARGV[2]) == 0 then "
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_BOOLEAN,
+                  invalidationScript("if redis.call('hset', KEYS[1], ARGV[1], ARGV[2]) == 0 then "
                   + "if ARGV[4] == '1' then "
                       + "redis.call('publish', KEYS[2], ARGV[3]); "
                   + "end;"
                   + "return 0; "
                 + "end; "
-                + "return 1; ",
-                Arrays.<Object>asList(getName(), invalidationTopic.getChannelNames().get(0)), 
+                + "return 1; "),
+                invalidationKeys(), 
                 encodedKey, encodedValue, msg, invalidateEntryOnChange);
+        return addToInvalidationBatch(future, cacheKey.getKeyHash());
     }
     
     @Override
@@ -370,6 +734,12 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         if (invalidationListenerId != 0) {
             invalidationTopic.removeListener(invalidationListenerId);
         }
+        if (statusListenerId != 0) {
+            invalidationTopic.removeListener(statusListenerId);
+        }
+        if (invalidator != null) {
+            invalidator.flush();
+        }
     }
 
     @Override
@@ -380,16 +750,18 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
 
         byte[] keyEncoded = encodeMapKey(key);
         CacheKey cacheKey = toCacheKey(keyEncoded);
-        byte[] msgEncoded = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
+        byte[] msgEncoded = encodeInvalidate(instanceId, cacheKey.getKeyHash());
+        changes.incrementAndGet();
         cache.remove(cacheKey);
-        return commandExecutor.evalWriteAsync(getName(), codec, EVAL_REMOVE,
-                "local v = redis.call('hget', KEYS[1], ARGV[1]); "
+        RFuture<V> future = commandExecutor.evalWriteAsync(getName(), codec, EVAL_REMOVE,
+                invalidationScript("local v = redis.call('hget', KEYS[1], ARGV[1]); "
                 + "if redis.call('hdel', KEYS[1], ARGV[1]) == 1 and ARGV[3] == '1' then "
                     + "redis.call('publish', KEYS[2], ARGV[2]); "
                 + "end; "
-                + "return v",
-                Arrays.<Object>asList(getName(), invalidationTopic.getChannelNames().get(0)), 
+                + "return v"),
+                invalidationKeys(), 
                 keyEncoded, msgEncoded, invalidateEntryOnChange);
+        return addToInvalidationBatch(future, cacheKey.getKeyHash());
     }
 
     @Override
@@ -399,56 +771,75 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         }
 
         if (invalidateEntryOnChange == 1) {
-            List<Object> params = new ArrayList<Object>(keys.length*2);
+            List<Object> params = new ArrayList<Object>(keys.length*2 + 1);
+            params.add(encodeInvalidate(instanceId));
             for (K k : keys) {
                 byte[] keyEncoded = encodeMapKey(k);
                 params.add(keyEncoded);
                 
                 CacheKey cacheKey = toCacheKey(keyEncoded);
+                changes.incrementAndGet();
                 cache.remove(cacheKey);
-                byte[] msgEncoded = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
-                params.add(msgEncoded);
+                params.add(cacheKey.getKeyHash());
             }
             
+            // hashes of removed keys are sent in single message
             return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_LONG,
-                      "local counter = 0; " + 
-                      "for j = 1, #ARGV, 2 do " 
-                          + "if redis.call('hdel', KEYS[1], ARGV[j]) == 1 then "
-                              + "redis.call('publish', KEYS[2], ARGV[j+1]); "
-                              + "counter = counter + 1;"
-                          + "end;"
+                      invalidationScript("local counter = 0; "
+                    + "local msg = {ARGV[1]}; "
+                    + "for j = 2, #ARGV, 2 do " 
+                        + "if redis.call('hdel', KEYS[1], ARGV[j]) == 1 then "
+                            + "table.insert(msg, ARGV[j+1]); "
+                            + "counter = counter + 1;"
+                        + "end;"
                     + "end;"
-                    + "return counter;",
-                    Arrays.<Object>asList(getName(), invalidationTopic.getChannelNames().get(0)), 
+                    + "if counter > 0 then "
+                        + "redis.call('publish', KEYS[2], table.concat(msg)); "
+                    + "end; "
+                    + "return counter;"),
+                    invalidationKeys(), 
                     params.toArray());            
         }
 
         List<Object> params = new ArrayList<Object>(keys.length + 1);
         params.add(getName());
-        for (K k : keys) {
-            byte[] keyEncoded = encodeMapKey(k);
+        byte[][] hashes = new byte[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            byte[] keyEncoded = encodeMapKey(keys[i]);
             params.add(keyEncoded);
             
             CacheKey cacheKey = toCacheKey(keyEncoded);
+            changes.incrementAndGet();
             cache.remove(cacheKey);
+            hashes[i] = cacheKey.getKeyHash();
         }
 
-        return commandExecutor.writeAsync(getName(), codec, RedisCommands.HDEL, params.toArray());
+        RFuture<Long> future = commandExecutor.writeAsync(getName(), codec, RedisCommands.HDEL, params.toArray());
+        return addToInvalidationBatch(future, hashes);
     }
 
     
     @Override
     public RFuture<Boolean> deleteAsync() {
+        changes.incrementAndGet();
         cache.clear();
-        byte[] msgEncoded = encode(new LocalCachedMapClear());
+        if (invalidator != null) {
+            // clear message makes pending invalidations redundant
+            invalidator.reset();
+        }
+        byte[] msgEncoded = encodeClear(instanceId);
+        int publish = invalidateEntryOnChange;
+        if (invalidator != null) {
+            publish = 1;
+        }
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "if redis.call('del', KEYS[1]) == 1 and ARGV[2] == '1' then "
+                invalidationScript("if redis.call('del', KEYS[1]) == 1 and ARGV[2] == '1' then "
                 + "redis.call('publish', KEYS[2], ARGV[1]); "
                 + "return 1;" 
               + "end; "
-              + "return 0;",
-              Arrays.<Object>asList(getName(), invalidationTopic.getChannelNames().get(0)), 
-              msgEncoded, invalidateEntryOnChange);
+              + "return 0;"),
+              invalidationKeys(), 
+              msgEncoded, publish);
     }
 
     @Override
@@ -733,6 +1124,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             byte[] mapKey = encodeMapKey(entry.getKey());
             CacheKey cacheKey = toCacheKey(mapKey);
             CacheValue cacheValue = new CacheValue(entry.getKey(), entry.getValue());
+            changes.incrementAndGet();
             cache.put(cacheKey, cacheValue);
         }
     }
@@ -758,18 +1150,24 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             i++;
         }
         
-        byte[] msgEncoded = encode(new LocalCachedMapInvalidate(instanceId, hashes));
+        byte[] msgEncoded;
+        if (hashes.length > invalidationBatchThreshold) {
+            msgEncoded = encodeClear(instanceId);
+        } else {
+            msgEncoded = encodeInvalidate(instanceId, hashes);
+        }
         params.add(msgEncoded);
 
         final RPromise<Void> result = newPromise();
         RFuture<Void> future = commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_VOID,
-                "redis.call('hmset', KEYS[1], unpack(ARGV, 3, tonumber(ARGV[2]) + 2));"
+                invalidationScript("redis.call('hmset', KEYS[1], unpack(ARGV, 3, tonumber(ARGV[2]) + 2));"
               + "if ARGV[1] == '1' then "
 //                  + "for i = tonumber(ARGV[2]) + 3, #ARGV, 1 do "
                       + "redis.call('publish', KEYS[2], ARGV[#ARGV]); "
 //                  + "end; "
-              + "end;",
-                Arrays.<Object>asList(getName(), invalidationTopic.getChannelNames().get(0)), params.toArray());
+              + "end;"),
+                invalidationKeys(), params.toArray());
+        addToInvalidationBatch(future, hashes);
 
         future.addListener(new FutureListener<Void>() {
             @Override
@@ -789,16 +1187,17 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
     public RFuture<V> addAndGetAsync(final K key, Number value) {
         final byte[] keyState = encodeMapKey(key);
         CacheKey cacheKey = toCacheKey(keyState);
-        byte[] msg = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
+        byte[] msg = encodeInvalidate(instanceId, cacheKey.getKeyHash());
         
         RFuture<V> future = commandExecutor.evalWriteAsync(getName(), StringCodec.INSTANCE, new RedisCommand<Object>("EVAL", new NumberConvertor(value.getClass())),
-                "local result = redis.call('HINCRBYFLOAT', KEYS[1], ARGV[1], ARGV[2]); "
+                invalidationScript("local result = redis.call('HINCRBYFLOAT', KEYS[1], ARGV[1], ARGV[2]); "
               + "if ARGV[3] == '1' then "
                   + "redis.call('publish', KEYS[2], ARGV[4]); "
               + "end; "
-              + "return result; ",
-              Arrays.<Object>asList(getName(), invalidationTopic.getChannelNames().get(0)), 
+              + "return result; "),
+              invalidationKeys(), 
               keyState, new BigDecimal(value.toString()).toPlainString(), invalidateEntryOnChange, msg);
+        addToInvalidationBatch(future, cacheKey.getKeyHash());
 
         future.addListener(new FutureListener<V>() {
             @Override
@@ -810,6 +1209,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 V value = future.getNow();
                 if (value != null) {
                     CacheKey cacheKey = toCacheKey(keyState);
+                    changes.incrementAndGet();
                     cache.put(cacheKey, new CacheValue(key, value));
                 }
             }
@@ -829,6 +1229,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 
                 if (future.getNow()) {
                     CacheKey cacheKey = toCacheKey(key);
+                    changes.incrementAndGet();
                     cache.put(cacheKey, new CacheValue(key, value));
                 }
             }
@@ -904,6 +1305,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 
                 for (java.util.Map.Entry<K, V> entry : future.getNow().entrySet()) {
                     CacheKey cacheKey = toCacheKey(entry.getKey());
+                    changes.incrementAndGet();
                     cache.put(cacheKey, new CacheValue(entry.getKey(), entry.getValue()));
                 }
                 result.putAll(future.getNow());
@@ -935,6 +1337,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 
                 for (java.util.Map.Entry<K, V> entry : future.getNow()) {
                     CacheKey cacheKey = toCacheKey(entry.getKey());
+                    changes.incrementAndGet();
                     cache.put(cacheKey, new CacheValue(entry.getKey(), entry.getValue()));
                 }
                 result.addAll(future.getNow());
@@ -973,10 +1376,10 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         final byte[] keyState = encodeMapKey(key);
         byte[] valueState = encodeMapValue(value);
         final CacheKey cacheKey = toCacheKey(keyState);
-        byte[] msg = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
+        byte[] msg = encodeInvalidate(instanceId, cacheKey.getKeyHash());
         
         RFuture<V> future = commandExecutor.evalWriteAsync(getName(key), codec, RedisCommands.EVAL_MAP_VALUE,
-                "if redis.call('hexists', KEYS[1], ARGV[1]) == 1 then "
+                invalidationScript("if redis.call('hexists', KEYS[1], ARGV[1]) == 1 then "
                     + "local v = redis.call('hget', KEYS[1], ARGV[1]); "
                     + "redis.call('hset', KEYS[1], ARGV[1], ARGV[2]); "
                     + "if ARGV[3] == '1' then "
@@ -985,9 +1388,10 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                     + "return v; "
                 + "else "
                     + "return nil; "
-                + "end",
-                Arrays.<Object>asList(getName(key), invalidationTopic.getChannelNames().get(0)), 
+                + "end"),
+                invalidationKeys(), 
                 keyState, valueState, invalidateEntryOnChange, msg);
+        addToInvalidationBatch(future, cacheKey.getKeyHash());
         
         future.addListener(new FutureListener<V>() {
             @Override
@@ -998,6 +1402,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 
                 if (future.getNow() != null) {
                     CacheKey cacheKey = toCacheKey(key);
+                    changes.incrementAndGet();
                     cache.put(cacheKey, new CacheValue(key, value));
                 }
             }
@@ -1012,10 +1417,10 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         byte[] oldValueState = encodeMapValue(oldValue);
         byte[] newValueState = encodeMapValue(newValue);
         final CacheKey cacheKey = toCacheKey(keyState);
-        byte[] msg = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
+        byte[] msg = encodeInvalidate(instanceId, cacheKey.getKeyHash());
         
         RFuture<Boolean> future = commandExecutor.evalWriteAsync(getName(key), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "if redis.call('hget', KEYS[1], ARGV[1]) == ARGV[2] then "
+                invalidationScript("if redis.call('hget', KEYS[1], ARGV[1]) == ARGV[2] then "
                     + "redis.call('hset', KEYS[1], ARGV[1], ARGV[3]); "
                     + "if ARGV[4] == '1' then "
                         + "redis.call('publish', KEYS[2], ARGV[5]); "
@@ -1023,9 +1428,10 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                     + "return 1; "
                 + "else "
                     + "return 0; "
-                + "end",
-                Arrays.<Object>asList(getName(key), invalidationTopic.getChannelNames().get(0)), 
+                + "end"),
+                invalidationKeys(), 
                 keyState, oldValueState, newValueState, invalidateEntryOnChange, msg);
+        addToInvalidationBatch(future, cacheKey.getKeyHash());
         
         future.addListener(new FutureListener<Boolean>() {
             @Override
@@ -1035,6 +1441,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 }
                 
                 if (future.getNow()) {
+                    changes.incrementAndGet();
                     cache.put(cacheKey, new CacheValue(key, newValue));
                 }
             }
@@ -1048,19 +1455,20 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         final byte[] keyState = encodeMapKey(key);
         byte[] valueState = encodeMapValue(value);
         final CacheKey cacheKey = toCacheKey(keyState);
-        byte[] msg = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
+        byte[] msg = encodeInvalidate(instanceId, cacheKey.getKeyHash());
         
         RFuture<Boolean> future = commandExecutor.evalWriteAsync(getName(key), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "if redis.call('hget', KEYS[1], ARGV[1]) == ARGV[2] then "
+                invalidationScript("if redis.call('hget', KEYS[1], ARGV[1]) == ARGV[2] then "
                     + "if ARGV[3] == '1' then "
                         + "redis.call('publish', KEYS[2], ARGV[4]); "
                     + "end; "
                     + "return redis.call('hdel', KEYS[1], ARGV[1]) "
                 + "else "
                     + "return 0 "
-                + "end",
-            Arrays.<Object>asList(getName(key), invalidationTopic.getChannelNames().get(0)), 
+                + "end"),
+            invalidationKeys(), 
             keyState, valueState, invalidateEntryOnChange, msg);
+        addToInvalidationBatch(future, cacheKey.getKeyHash());
 
         future.addListener(new FutureListener<Boolean>() {
             @Override
@@ -1070,6 +1478,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 }
                 
                 if (future.getNow()) {
+                    changes.incrementAndGet();
                     cache.remove(cacheKey);
                 }
             }
@@ -1089,6 +1498,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 
                 if (future.getNow() == null) {
                     CacheKey cacheKey = toCacheKey(key);
+                    changes.incrementAndGet();
                     cache.put(cacheKey, new CacheValue(key, value));
                 }
             }
@@ -15,10 +15,11 @@
  */
 package org.redisson;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -33,6 +34,7 @@ import org.redisson.client.protocol.RedisStrictCommand;
 import org.redisson.command.CommandExecutor;
 import org.redisson.misc.RPromise;
 import org.redisson.pubsub.LockPubSub;
+import org.redisson.renewal.RenewalListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,7 +42,6 @@ import io.netty.util.Timeout;
 import io.netty.util.TimerTask;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
-import io.netty.util.internal.PlatformDependent;
 
 /**
  * Distributed implementation of {@link java.util.concurrent.locks.Lock}
@@ -57,7 +58,6 @@ public class RedissonLock extends RedissonExpirable implements RLock {
     private static final Logger log = LoggerFactory.getLogger(RedissonLock.class);
     
     public static final long LOCK_EXPIRATION_INTERVAL_SECONDS = 30;
-    private static final ConcurrentMap<String, Timeout> expirationRenewalMap = PlatformDependent.newConcurrentHashMap();
     protected long internalLockLeaseTime = TimeUnit.SECONDS.toMillis(LOCK_EXPIRATION_INTERVAL_SECONDS);
 
     final UUID id;
@@ -194,51 +194,23 @@ public class RedissonLock extends RedissonExpirable implements RLock {
         return get(tryLockAsync());
     }
 
-    private void scheduleExpirationRenewal(final long threadId) {
-        if (expirationRenewalMap.containsKey(getEntryName())) {
-            return;
-        }
-
-        Timeout task = commandExecutor.getConnectionManager().newTimeout(new TimerTask() {
+    private void scheduleExpirationRenewal(long threadId) {
+        commandExecutor.getConnectionManager().getLockRenewalScheduler().schedule(getEntryName(), 
+                getName(), getLockName(threadId), internalLockLeaseTime, new RenewalListener() {
             @Override
-            public void run(Timeout timeout) throws Exception {
-                
-                RFuture<Boolean> future = commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                        "if (redis.call('hexists', KEYS[1], ARGV[2]) == 1) then " +
-                            "redis.call('pexpire', KEYS[1], ARGV[1]); " +
-                            "return 1; " +
-                        "end; " +
-                        "return 0;",
-                          Collections.<Object>singletonList(getName()), internalLockLeaseTime, getLockName(threadId));
-                
-                future.addListener(new FutureListener<Boolean>() {
-                    @Override
-                    public void operationComplete(Future<Boolean> future) throws Exception {
-                        expirationRenewalMap.remove(getEntryName());
-                        if (!future.isSuccess()) {
-                            log.error("Can't update lock " + getName() + " expiration", future.cause());
-                            return;
-                        }
-                        
-                        if (future.getNow()) {
-                            // reschedule itself
-                            scheduleExpirationRenewal(threadId);
-                        }
-                    }
-                });
+            public void onLeaseLost() {
+                log.warn("Lock " + getName() + " isn't held by client anymore. Lease renewal stopped");
             }
-        }, internalLockLeaseTime / 3, TimeUnit.MILLISECONDS);
-
-        if (expirationRenewalMap.putIfAbsent(getEntryName(), task) != null) {
-            task.cancel();
-        }
+            
+            @Override
+            public void onRenewalFailed(Throwable cause) {
+                log.error("Can't update lock " + getName() + " expiration", cause);
+            }
+        });
     }
 
     void cancelExpirationRenewal() {
-        Timeout task = expirationRenewalMap.remove(getEntryName());
-        if (task != null) {
-            task.cancel();
-        }
+        commandExecutor.getConnectionManager().getLockRenewalScheduler().cancel(getEntryName());
     }
 
     <T> RFuture<T> tryLockInnerAsync(long leaseTime, TimeUnit unit, long threadId, RedisStrictCommand<T> command) {
@@ -259,6 +231,67 @@ public class RedissonLock extends RedissonExpirable implements RLock {
                     Collections.<Object>singletonList(getName()), internalLockLeaseTime, getLockName(threadId));
     }
     
+    /**
+     * Tries to acquire locks located in the same slot using single script. 
+     * Each lock is acquired independently.
+     * 
+     * @param locks - locks of the same Redisson instance and slot
+     * @param leaseTime - lease time in milliseconds or <code>-1</code> to use lock watchdog
+     * @param threadId - owner thread id
+     * @return list of acquisition results in the same order as locks
+     */
+    static RFuture<List<Boolean>> tryLockAllAsync(final List<RedissonLock> locks, final long leaseTime, final long threadId) {
+        long lease = leaseTime;
+        if (leaseTime == -1) {
+            lease = TimeUnit.SECONDS.toMillis(LOCK_EXPIRATION_INTERVAL_SECONDS);
+        }
+        
+        List<Object> keys = new ArrayList<Object>(locks.size());
+        List<Object> params = new ArrayList<Object>(locks.size() + 1);
+        params.add(lease);
+        for (RedissonLock lock : locks) {
+            lock.internalLockLeaseTime = lease;
+            keys.add(lock.getName());
+            params.add(lock.getLockName(threadId));
+        }
+        
+        RedissonLock firstLock = locks.get(0);
+        final RPromise<List<Boolean>> result = firstLock.newPromise();
+        RFuture<List<Object>> future = firstLock.commandExecutor.evalWriteAsync(firstLock.getName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                "local result = {}; " +
+                "for i = 1, #KEYS do " +
+                    "if (redis.call('exists', KEYS[i]) == 0) or (redis.call('hexists', KEYS[i], ARGV[i+1]) == 1) then " +
+                        "redis.call('hincrby', KEYS[i], ARGV[i+1], 1); " +
+                        "redis.call('pexpire', KEYS[i], ARGV[1]); " +
+                        "result[i] = 1; " +
+                    "else " +
+                        "result[i] = 0; " +
+                    "end; " +
+                "end; " +
+                "return result;",
+                keys, params.toArray());
+        future.addListener(new FutureListener<List<Object>>() {
+            @Override
+            public void operationComplete(Future<List<Object>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+                
+                List<Boolean> acquired = new ArrayList<Boolean>(locks.size());
+                for (int i = 0; i < locks.size(); i++) {
+                    boolean lockAcquired = (Long) future.getNow().get(i) == 1;
+                    if (lockAcquired && leaseTime == -1) {
+                        locks.get(i).scheduleExpirationRenewal(threadId);
+                    }
+                    acquired.add(lockAcquired);
+                }
+                result.trySuccess(acquired);
+            }
+        });
+        return result;
+    }
+    
     private void acquireFailed(long threadId) {
         get(acquireFailedAsync(threadId));
     }
@@ -396,12 +429,12 @@ public class RedissonLock extends RedissonExpirable implements RLock {
     public RFuture<Boolean> forceUnlockAsync() {
         cancelExpirationRenewal();
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "if (redis.call('del', KEYS[1]) == 1) then "
+                notificationScript("if (redis.call('del', KEYS[1]) == 1) then "
                 + "redis.call('publish', KEYS[2], ARGV[1]); "
                 + "return 1 "
                 + "else "
                 + "return 0 "
-                + "end",
+                + "end"),
                 Arrays.<Object>asList(getName(), getChannelName()), LockPubSub.unlockMessage);
     }
 
@@ -441,7 +474,7 @@ public class RedissonLock extends RedissonExpirable implements RLock {
 
     protected RFuture<Boolean> unlockInnerAsync(long threadId) {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "if (redis.call('exists', KEYS[1]) == 0) then " +
+                notificationScript("if (redis.call('exists', KEYS[1]) == 0) then " +
                     "redis.call('publish', KEYS[2], ARGV[1]); " +
                     "return 1; " +
                 "end;" +
@@ -457,7 +490,7 @@ public class RedissonLock extends RedissonExpirable implements RLock {
                     "redis.call('publish', KEYS[2], ARGV[1]); " +
                     "return 1; "+
                 "end; " +
-                "return nil;",
+                "return nil;"),
                 Arrays.<Object>asList(getName(), getChannelName()), LockPubSub.unlockMessage, internalLockLeaseTime, getLockName(threadId));
 
     }
@@ -62,7 +62,7 @@ import io.netty.util.concurrent.FutureListener;
  * If key/value/entry expired then it doesn't returns and clean task runs asynchronous.
  * Clean task deletes removes 100 expired entries at once.
  * In addition there is {@link org.redisson.eviction.EvictionScheduler}. This scheduler
- * deletes expired entries in time interval between 5 seconds to 2 hours.</p>
+ * deletes expired entries within a few seconds after expiration.</p>
  *
  * <p>If eviction is not required then it's better to use {@link org.redisson.RedissonMap} object.</p>
  *
@@ -80,8 +80,8 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
     static final RedisCommand<Void> EVAL_HMSET = new RedisCommand<Void>("EVAL", new VoidReplayConvertor(), 4, ValueType.MAP);
     private static final RedisCommand<Object> EVAL_REMOVE = new RedisCommand<Object>("EVAL", 4, ValueType.MAP_KEY, ValueType.MAP_VALUE);
     private static final RedisCommand<Boolean> EVAL_REMOVE_VALUE = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 5, ValueType.MAP);
-    private static final RedisCommand<Object> EVAL_PUT_TTL = new RedisCommand<Object>("EVAL", 9, ValueType.MAP, ValueType.MAP_VALUE);
-    private static final RedisCommand<Boolean> EVAL_FAST_PUT_TTL = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 9, ValueType.MAP, ValueType.MAP_VALUE);
+    private static final RedisCommand<Object> EVAL_PUT_TTL = new RedisCommand<Object>("EVAL", 10, ValueType.MAP, ValueType.MAP_VALUE);
+    private static final RedisCommand<Boolean> EVAL_FAST_PUT_TTL = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 10, ValueType.MAP, ValueType.MAP_VALUE);
     private static final RedisCommand<Object> EVAL_GET_TTL = new RedisCommand<Object>("EVAL", 7, ValueType.MAP_KEY, ValueType.MAP_VALUE);
     private static final RedisCommand<Boolean> EVAL_CONTAINS_KEY = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 7, ValueType.MAP_KEY);
     static final RedisCommand<Boolean> EVAL_CONTAINS_VALUE = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 7, ValueType.MAP_VALUE);
@@ -97,12 +97,12 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
     
     public RedissonMapCache(UUID id, EvictionScheduler evictionScheduler, CommandAsyncExecutor commandExecutor, String name, RedissonClient redisson) {
         super(id, commandExecutor, name, redisson);
-        evictionScheduler.schedule(getName(), getTimeoutSetName(), getIdleSetName());
+        evictionScheduler.scheduleMapCache(getName());
     }
 
     public RedissonMapCache(UUID id, Codec codec, EvictionScheduler evictionScheduler, CommandAsyncExecutor commandExecutor, String name, RedissonClient redisson) {
         super(id, codec, commandExecutor, name, redisson);
-        evictionScheduler.schedule(getName(), getTimeoutSetName(), getIdleSetName());
+        evictionScheduler.scheduleMapCache(getName());
     }
 
     @Override
@@ -272,9 +272,11 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
                       "if redis.call('hexists', KEYS[1], ARGV[4]) == 0 then "
                         + "if tonumber(ARGV[1]) > 0 then "
                             + "redis.call('zadd', KEYS[2], ARGV[1], ARGV[4]); "
+                            + EvictionScheduler.updateIndexScript(EvictionScheduler.MAP_CACHE, "KEYS[4]", "KEYS[1]", "ARGV[1]")
                         + "end; "
                         + "if tonumber(ARGV[2]) > 0 then "
                             + "redis.call('zadd', KEYS[3], ARGV[2], ARGV[4]); "
+                            + EvictionScheduler.updateIndexScript(EvictionScheduler.MAP_CACHE, "KEYS[4]", "KEYS[1]", "ARGV[2]")
                         + "end; "
                         + "local value = struct.pack('dLc0', ARGV[3], string.len(ARGV[5]), ARGV[5]); "
                         + "redis.call('hset', KEYS[1], ARGV[4], value); "
@@ -287,7 +289,8 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
                         + "local t, val = struct.unpack('dLc0', value); "
                         + "return val; "
                     + "end",
-                Arrays.<Object>asList(getName(key), getTimeoutSetNameByKey(key), getIdleSetNameByKey(key)), ttlTimeout, maxIdleTimeout, maxIdleDelta, key, value);
+                Arrays.<Object>asList(getName(key), getTimeoutSetNameByKey(key), getIdleSetNameByKey(key), getExpirationIndexName(key)), 
+                ttlTimeout, maxIdleTimeout, maxIdleDelta, key, value);
     }
 
     @Override
@@ -425,17 +428,20 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
         return commandExecutor.evalWriteAsync(getName(key), codec, EVAL_FAST_PUT_TTL,
                   "if tonumber(ARGV[1]) > 0 then "
                     + "redis.call('zadd', KEYS[2], ARGV[1], ARGV[4]); "
+                    + EvictionScheduler.updateIndexScript(EvictionScheduler.MAP_CACHE, "KEYS[4]", "KEYS[1]", "ARGV[1]")
                 + "else "
                     + "redis.call('zrem', KEYS[2], ARGV[4]); "
                 + "end; "
                 + "if tonumber(ARGV[2]) > 0 then "
                     + "redis.call('zadd', KEYS[3], ARGV[2], ARGV[4]); "
+                    + EvictionScheduler.updateIndexScript(EvictionScheduler.MAP_CACHE, "KEYS[4]", "KEYS[1]", "ARGV[2]")
                 + "else "
                     + "redis.call('zrem', KEYS[3], ARGV[4]); "
                 + "end; "
                 + "local value = struct.pack('dLc0', ARGV[3], string.len(ARGV[5]), ARGV[5]); " +
                   "return redis.call('hset', KEYS[1], ARGV[4], value); ",
-                Arrays.<Object>asList(getName(key), getTimeoutSetNameByKey(key), getIdleSetNameByKey(key)), ttlTimeout, maxIdleTimeout, maxIdleDelta, key, value);
+                Arrays.<Object>asList(getName(key), getTimeoutSetNameByKey(key), getIdleSetNameByKey(key), getExpirationIndexName(key)), 
+                ttlTimeout, maxIdleTimeout, maxIdleDelta, key, value);
     }
 
     @Override
@@ -484,11 +490,13 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
                   "local v = redis.call('hget', KEYS[1], ARGV[4]); "
                 + "if tonumber(ARGV[1]) > 0 then "
                     + "redis.call('zadd', KEYS[2], ARGV[1], ARGV[4]); "
+                    + EvictionScheduler.updateIndexScript(EvictionScheduler.MAP_CACHE, "KEYS[4]", "KEYS[1]", "ARGV[1]")
                 + "else "
                     + "redis.call('zrem', KEYS[2], ARGV[4]); "
                 + "end; "
                 + "if tonumber(ARGV[2]) > 0 then "
                     + "redis.call('zadd', KEYS[3], ARGV[2], ARGV[4]); "
+                    + EvictionScheduler.updateIndexScript(EvictionScheduler.MAP_CACHE, "KEYS[4]", "KEYS[1]", "ARGV[2]")
                 + "else "
                     + "redis.call('zrem', KEYS[3], ARGV[4]); "
                 + "end; "
@@ -499,7 +507,8 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
                 + "end; "
                 + "local t, val = struct.unpack('dLc0', v); "
                 + "return val",
-                Arrays.<Object>asList(getName(key), getTimeoutSetNameByKey(key), getIdleSetNameByKey(key)), ttlTimeout, maxIdleTimeout, maxIdleDelta, key, value);
+                Arrays.<Object>asList(getName(key), getTimeoutSetNameByKey(key), getIdleSetNameByKey(key), getExpirationIndexName(key)), 
+                ttlTimeout, maxIdleTimeout, maxIdleDelta, key, value);
     }
 
     String getTimeoutSetNameByKey(Object key) {
@@ -526,6 +535,10 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
         return prefixName("redisson__idle__set", getName());
     }
 
+    String getExpirationIndexName(Object key) {
+        return EvictionScheduler.getIndexName(commandExecutor.getConnectionManager(), getName(key));
+    }
+
 
     @Override
     public RFuture<V> removeAsync(K key) {
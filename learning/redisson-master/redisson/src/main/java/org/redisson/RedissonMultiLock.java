@@ -18,11 +18,14 @@ package org.redisson;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.ListIterator;
-import java.util.Queue;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 
@@ -30,6 +33,7 @@ import org.redisson.api.RFuture;
 import org.redisson.api.RLock;
 
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
 import io.netty.util.internal.ThreadLocalRandom;
 
 /**
@@ -134,7 +138,11 @@ public class RedissonMultiLock implements Lock {
     public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
         long newLeaseTime = -1;
         if (leaseTime != -1) {
-            newLeaseTime = waitTime*2;
+            if (waitTime == -1) {
+                newLeaseTime = unit.toMillis(leaseTime);
+            } else {
+                newLeaseTime = unit.toMillis(waitTime)*2;
+            }
         }
         
         long time = System.currentTimeMillis();
@@ -142,70 +150,181 @@ public class RedissonMultiLock implements Lock {
         if (waitTime != -1) {
             remainTime = unit.toMillis(waitTime);
         }
-        int failedLocksLimit = failedLocksLimit();
-        List<RLock> lockedLocks = new ArrayList<RLock>(locks.size());
-        for (ListIterator<RLock> iterator = locks.listIterator(); iterator.hasNext();) {
-            RLock lock = iterator.next();
-            boolean lockAcquired;
-            try {
-                if (waitTime == -1 && leaseTime == -1) {
-                    lockAcquired = lock.tryLock();
-                } else {
-                    long awaitTime = unit.convert(remainTime, TimeUnit.MILLISECONDS);
-                    lockAcquired = lock.tryLock(awaitTime, newLeaseTime, unit);
-                }
-            } catch (Exception e) {
-                lockAcquired = false;
+        
+        while (true) {
+            List<RLock> lockedLocks = tryLockAll(remainTime, newLeaseTime);
+            if (Thread.interrupted()) {
+                unlockInnerAsync(lockedLocks);
+                throw new InterruptedException();
             }
             
-            if (lockAcquired) {
-                lockedLocks.add(lock);
-            } else {
-                if (locks.size() - lockedLocks.size() == failedLocksLimit()) {
-                    break;
-                }
-
-                if (failedLocksLimit == 0) {
-                    unlockInner(lockedLocks);
-                    if (waitTime == -1 && leaseTime == -1) {
-                        return false;
+            if (locks.size() - lockedLocks.size() <= failedLocksLimit()) {
+                if (leaseTime != -1) {
+                    List<RFuture<Boolean>> futures = new ArrayList<RFuture<Boolean>>(lockedLocks.size());
+                    for (RLock rLock : lockedLocks) {
+                        RFuture<Boolean> future = rLock.expireAsync(unit.toMillis(leaseTime), TimeUnit.MILLISECONDS);
+                        futures.add(future);
                     }
-                    failedLocksLimit = failedLocksLimit();
-                    lockedLocks.clear();
-                    // reset iterator
-                    while (iterator.hasPrevious()) {
-                        iterator.previous();
+                    
+                    for (RFuture<Boolean> rFuture : futures) {
+                        rFuture.syncUninterruptibly();
                     }
-                } else {
-                    failedLocksLimit--;
                 }
+                return true;
             }
             
-            if (remainTime != -1) {
-                remainTime -= (System.currentTimeMillis() - time);
-                time = System.currentTimeMillis();
-                if (remainTime <= 0) {
-                    unlockInner(lockedLocks);
-                    return false;
-                }
+            unlockInnerAsync(lockedLocks);
+            if (remainTime == -1) {
+                return false;
+            }
+            
+            remainTime -= System.currentTimeMillis() - time;
+            time = System.currentTimeMillis();
+            if (remainTime <= 0) {
+                return false;
             }
         }
-
-        if (leaseTime != -1) {
-            List<RFuture<Boolean>> futures = new ArrayList<RFuture<Boolean>>(lockedLocks.size());
-            for (RLock rLock : lockedLocks) {
-                RFuture<Boolean> future = rLock.expireAsync(unit.toMillis(leaseTime), TimeUnit.MILLISECONDS);
-                futures.add(future);
+    }
+    
+    /**
+     * Tries to acquire all locks concurrently. 
+     * Locks of the same Redisson instance and slot are tried first by single script, 
+     * then failed locks wait for release during remaining time.
+     * 
+     * @param waitTime - wait time in milliseconds or <code>-1</code>
+     * @param leaseTime - lease time in milliseconds or <code>-1</code>
+     * @return acquired locks
+     * @throws InterruptedException - if the thread is interrupted, 
+     *                                locks acquired so far are released
+     */
+    private List<RLock> tryLockAll(long waitTime, long leaseTime) throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+        long threadId = Thread.currentThread().getId();
+        
+        Map<List<Object>, List<RedissonLock>> groups = new HashMap<List<Object>, List<RedissonLock>>();
+        for (RLock lock : locks) {
+            if (lock.getClass() != RedissonLock.class) {
+                continue;
             }
             
-            for (RFuture<Boolean> rFuture : futures) {
-                rFuture.syncUninterruptibly();
+            RedissonLock redissonLock = (RedissonLock) lock;
+            int slot = redissonLock.commandExecutor.getConnectionManager().calcSlot(redissonLock.getName());
+            List<Object> key = Arrays.<Object>asList(redissonLock.commandExecutor, slot);
+            List<RedissonLock> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<RedissonLock>();
+                groups.put(key, group);
             }
+            group.add(redissonLock);
         }
         
-        return true;
+        Map<List<RedissonLock>, RFuture<List<Boolean>>> groupFutures = new HashMap<List<RedissonLock>, RFuture<List<Boolean>>>();
+        Set<RLock> groupedLocks = new HashSet<RLock>();
+        for (List<RedissonLock> group : groups.values()) {
+            if (group.size() > 1) {
+                groupFutures.put(group, RedissonLock.tryLockAllAsync(group, leaseTime, threadId));
+                groupedLocks.addAll(group);
+            }
+        }
+        
+        Map<RLock, RFuture<Boolean>> futures = new LinkedHashMap<RLock, RFuture<Boolean>>();
+        for (RLock lock : locks) {
+            if (!groupedLocks.contains(lock)) {
+                futures.put(lock, tryLockAsync(lock, waitTime, leaseTime));
+            }
+        }
+        
+        List<RLock> lockedLocks = new ArrayList<RLock>(locks.size());
+        List<RLock> failedLocks = new ArrayList<RLock>();
+        try {
+            for (Entry<List<RedissonLock>, RFuture<List<Boolean>>> entry : groupFutures.entrySet()) {
+                RFuture<List<Boolean>> future = entry.getValue();
+                future.await();
+                for (int i = 0; i < entry.getKey().size(); i++) {
+                    RedissonLock lock = entry.getKey().get(i);
+                    if (future.isSuccess() && future.getNow().get(i)) {
+                        lockedLocks.add(lock);
+                    } else {
+                        failedLocks.add(lock);
+                    }
+                }
+            }
+    
+            if (waitTime != -1) {
+                long remainTime = waitTime - (System.currentTimeMillis() - startTime);
+                if (remainTime > 0) {
+                    for (RLock lock : failedLocks) {
+                        futures.put(lock, tryLockAsync(lock, remainTime, leaseTime));
+                    }
+                }
+            }
+            
+            for (Entry<RLock, RFuture<Boolean>> entry : futures.entrySet()) {
+                RFuture<Boolean> future = entry.getValue();
+                future.await();
+                if (future.isSuccess() && future.getNow()) {
+                    lockedLocks.add(entry.getKey());
+                }
+            }
+        } catch (InterruptedException e) {
+            // pending attempts could acquire locks after interruption
+            for (Entry<List<RedissonLock>, RFuture<List<Boolean>>> entry : groupFutures.entrySet()) {
+                unlockAcquiredAsync(entry.getKey(), entry.getValue(), threadId);
+            }
+            for (Entry<RLock, RFuture<Boolean>> entry : futures.entrySet()) {
+                unlockAcquiredAsync(entry.getKey(), entry.getValue(), threadId);
+            }
+            throw e;
+        }
+        return lockedLocks;
+    }
+    
+    private void unlockAcquiredAsync(final List<RedissonLock> group, RFuture<List<Boolean>> future, final long threadId) {
+        future.addListener(new FutureListener<List<Boolean>>() {
+            @Override
+            public void operationComplete(Future<List<Boolean>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    return;
+                }
+                
+                for (int i = 0; i < group.size(); i++) {
+                    if (future.getNow().get(i)) {
+                        group.get(i).unlockAsync(threadId);
+                    }
+                }
+            }
+        });
+    }
+    
+    private void unlockAcquiredAsync(final RLock lock, RFuture<Boolean> future, final long threadId) {
+        future.addListener(new FutureListener<Boolean>() {
+            @Override
+            public void operationComplete(Future<Boolean> future) throws Exception {
+                if (!future.isSuccess() || !future.getNow()) {
+                    return;
+                }
+                
+                if (lock instanceof RedissonLock) {
+                    ((RedissonLock) lock).unlockAsync(threadId);
+                } else {
+                    lock.forceUnlockAsync();
+                }
+            }
+        });
+    }
+    
+    private RFuture<Boolean> tryLockAsync(RLock lock, long waitTime, long leaseTime) {
+        if (waitTime == -1 && leaseTime == -1) {
+            return lock.tryLockAsync();
+        }
+        return lock.tryLockAsync(waitTime, leaseTime, TimeUnit.MILLISECONDS);
+    }
+    
+    protected void unlockInnerAsync(Collection<RLock> locks) {
+        for (RLock lock : locks) {
+            lock.unlockAsync();
+        }
     }
-
 
     @Override
     public void unlock() {
@@ -226,12 +345,4 @@ public class RedissonMultiLock implements Lock {
         throw new UnsupportedOperationException();
     }
 
-    protected boolean isLockFailed(Future<Boolean> future) {
-        return !future.isSuccess();
-    }
-
-    protected boolean isAllLocksAcquired(AtomicReference<RLock> lockedLockHolder, AtomicReference<Throwable> failed, Queue<RLock> lockedLocks) {
-        return lockedLockHolder.get() == null && failed.get() == null;
-    }
-
 }
@@ -26,21 +26,24 @@ import org.redisson.client.protocol.RedisCommand.ValueType;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.convertor.BooleanReplayConvertor;
 import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.eviction.EvictionScheduler;
 
 public class RedissonMultimapCache<K> {
 
-    private static final RedisCommand<Boolean> EVAL_EXPIRE_KEY = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 6, ValueType.MAP_KEY);
+    private static final RedisCommand<Boolean> EVAL_EXPIRE_KEY = new RedisCommand<Boolean>("EVAL", new BooleanReplayConvertor(), 7, ValueType.MAP_KEY);
     
     private final CommandAsyncExecutor commandExecutor;
     private final String name;
     private final Codec codec;
     private final String timeoutSetName;
+    private final String evictionType;
     
-    public RedissonMultimapCache(CommandAsyncExecutor commandExecutor, String name, Codec codec, String timeoutSetName) {
+    public RedissonMultimapCache(CommandAsyncExecutor commandExecutor, String name, Codec codec, String timeoutSetName, String evictionType) {
         this.commandExecutor = commandExecutor;
         this.name = name;
         this.codec = codec;
         this.timeoutSetName = timeoutSetName;
+        this.evictionType = evictionType;
     }
 
     public RFuture<Boolean> expireKeyAsync(K key, long timeToLive, TimeUnit timeUnit) {
@@ -49,7 +52,8 @@ public class RedissonMultimapCache<K> {
         return commandExecutor.evalWriteAsync(name, codec, EVAL_EXPIRE_KEY,
                 "if redis.call('hexists', KEYS[1], ARGV[2]) == 1 then "
                     + "if tonumber(ARGV[1]) > 0 then "
-                        + "redis.call('zadd', KEYS[2], ARGV[1], ARGV[2]); " +
+                        + "redis.call('zadd', KEYS[2], ARGV[1], ARGV[2]); "
+                        + EvictionScheduler.updateIndexScript(evictionType, "KEYS[3]", "KEYS[1]", "ARGV[1]") +
                       "else " +
                           "redis.call('zrem', KEYS[2], ARGV[2]); "
                     + "end; "
@@ -57,7 +61,8 @@ public class RedissonMultimapCache<K> {
               + "else "
                 + "return 0; "
               + "end",
-            Arrays.<Object>asList(name, timeoutSetName), ttlTimeout, key);
+            Arrays.<Object>asList(name, timeoutSetName, EvictionScheduler.getIndexName(commandExecutor.getConnectionManager(), name)), 
+            ttlTimeout, key);
     }
     
     public RFuture<Boolean> deleteAsync() {
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.util.concurrent.TimeUnit;
+
+import org.redisson.api.RFuture;
+import org.redisson.cache.NearCache;
+import org.redisson.client.codec.Codec;
+import org.redisson.command.CommandAsyncExecutor;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+
+/**
+ * Bucket with near cache. Hot value is served from local memory 
+ * and invalidated on each change made through near cached bucket.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <V> value type
+ */
+public class RedissonNearCachedBucket<V> extends RedissonBucket<V> {
+
+    private final NearCache nearCache;
+    
+    protected RedissonNearCachedBucket(CommandAsyncExecutor commandExecutor, String name, NearCache nearCache) {
+        super(commandExecutor, name);
+        this.nearCache = nearCache;
+    }
+
+    protected RedissonNearCachedBucket(Codec codec, CommandAsyncExecutor commandExecutor, String name, NearCache nearCache) {
+        super(codec, commandExecutor, name);
+        this.nearCache = nearCache;
+    }
+
+    @Override
+    public RFuture<V> getAsync() {
+        Object cachedValue = nearCache.get(null, codec);
+        if (cachedValue != null) {
+            return newSucceededFuture((V) cachedValue);
+        }
+        
+        final long version = nearCache.getVersion();
+        RFuture<V> future = super.getAsync();
+        future.addListener(new FutureListener<V>() {
+            @Override
+            public void operationComplete(Future<V> future) throws Exception {
+                if (!future.isSuccess()) {
+                    return;
+                }
+                
+                V value = future.getNow();
+                if (value != null && nearCache.shouldCache(null, version)) {
+                    nearCache.put(null, codec, value, encode(value).length, version);
+                }
+            }
+        });
+        return future;
+    }
+    
+    @Override
+    public RFuture<Boolean> compareAndSetAsync(V expect, V update) {
+        return nearCache.invalidate(super.compareAndSetAsync(expect, update));
+    }
+    
+    @Override
+    public RFuture<V> getAndSetAsync(V newValue) {
+        return nearCache.invalidate(super.getAndSetAsync(newValue));
+    }
+    
+    @Override
+    public RFuture<Void> setAsync(V value) {
+        return nearCache.invalidate(super.setAsync(value));
+    }
+    
+    @Override
+    public RFuture<Void> setAsync(V value, long timeToLive, TimeUnit timeUnit) {
+        return nearCache.invalidate(super.setAsync(value, timeToLive, timeUnit));
+    }
+    
+    @Override
+    public RFuture<Boolean> trySetAsync(V value) {
+        return nearCache.invalidate(super.trySetAsync(value));
+    }
+    
+    @Override
+    public RFuture<Boolean> trySetAsync(V value, long timeToLive, TimeUnit timeUnit) {
+        return nearCache.invalidate(super.trySetAsync(value, timeToLive, timeUnit));
+    }
+    
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        return nearCache.invalidate(super.deleteAsync());
+    }
+    
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit) {
+        return nearCache.invalidate(super.expireAsync(timeToLive, timeUnit));
+    }
+    
+    @Override
+    public RFuture<Boolean> expireAtAsync(long timestamp) {
+        return nearCache.invalidate(super.expireAtAsync(timestamp));
+    }
+    
+    @Override
+    public RFuture<Void> renameAsync(String newName) {
+        return nearCache.invalidate(super.renameAsync(newName));
+    }
+    
+    @Override
+    public RFuture<Boolean> renamenxAsync(String newName) {
+        return nearCache.invalidate(super.renamenxAsync(newName));
+    }
+    
+    @Override
+    public RFuture<Boolean> moveAsync(int database) {
+        return nearCache.invalidate(super.moveAsync(database));
+    }
+    
+    @Override
+    public RFuture<Void> migrateAsync(String host, int port, int database) {
+        return nearCache.invalidate(super.migrateAsync(host, port, database));
+    }
+    
+}
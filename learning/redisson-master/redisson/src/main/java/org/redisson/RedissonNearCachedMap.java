@@ -0,0 +1,191 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+import org.redisson.cache.NearCache;
+import org.redisson.client.codec.Codec;
+import org.redisson.command.CommandAsyncExecutor;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+
+/**
+ * Map with near cache. Values of hot keys are served from local memory 
+ * and invalidated on each change made through near cached map.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class RedissonNearCachedMap<K, V> extends RedissonMap<K, V> {
+
+    private final NearCache nearCache;
+    
+    protected RedissonNearCachedMap(UUID id, CommandAsyncExecutor commandExecutor, String name, RedissonClient redisson, NearCache nearCache) {
+        super(id, commandExecutor, name, redisson);
+        this.nearCache = nearCache;
+    }
+
+    protected RedissonNearCachedMap(UUID id, Codec codec, CommandAsyncExecutor commandExecutor, String name, RedissonClient redisson, NearCache nearCache) {
+        super(id, codec, commandExecutor, name, redisson);
+        this.nearCache = nearCache;
+    }
+    
+    private byte[] keyHash(Object key) {
+        if (key == null) {
+            throw new NullPointerException("map key can't be null");
+        }
+        return NearCache.hashKey(encodeMapKey(key));
+    }
+    
+    private List<byte[]> keyHashes(Iterable<?> keys) {
+        List<byte[]> result = new ArrayList<byte[]>();
+        for (Object key : keys) {
+            result.add(keyHash(key));
+        }
+        return result;
+    }
+
+    @Override
+    public RFuture<V> getAsync(K key) {
+        final byte[] keyHash = keyHash(key);
+        Object cachedValue = nearCache.get(keyHash, codec);
+        if (cachedValue != null) {
+            return newSucceededFuture((V) cachedValue);
+        }
+        
+        final long version = nearCache.getVersion();
+        RFuture<V> future = super.getAsync(key);
+        future.addListener(new FutureListener<V>() {
+            @Override
+            public void operationComplete(Future<V> future) throws Exception {
+                if (!future.isSuccess()) {
+                    return;
+                }
+                
+                V value = future.getNow();
+                if (value != null && nearCache.shouldCache(keyHash, version)) {
+                    nearCache.put(keyHash, codec, value, encodeMapValue(value).length, version);
+                }
+            }
+        });
+        return future;
+    }
+    
+    @Override
+    public RFuture<Void> putAllAsync(Map<? extends K, ? extends V> map) {
+        return nearCache.invalidate(keyHashes(map.keySet()), super.putAllAsync(map));
+    }
+    
+    @Override
+    public RFuture<V> putIfAbsentAsync(K key, V value) {
+        return nearCache.invalidate(keyHash(key), super.putIfAbsentAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<Boolean> fastPutIfAbsentAsync(K key, V value) {
+        return nearCache.invalidate(keyHash(key), super.fastPutIfAbsentAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<Boolean> removeAsync(Object key, Object value) {
+        return nearCache.invalidate(keyHash(key), super.removeAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<Boolean> replaceAsync(K key, V oldValue, V newValue) {
+        return nearCache.invalidate(keyHash(key), super.replaceAsync(key, oldValue, newValue));
+    }
+    
+    @Override
+    public RFuture<V> replaceAsync(K key, V value) {
+        return nearCache.invalidate(keyHash(key), super.replaceAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<V> putAsync(K key, V value) {
+        return nearCache.invalidate(keyHash(key), super.putAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<V> removeAsync(K key) {
+        return nearCache.invalidate(keyHash(key), super.removeAsync(key));
+    }
+    
+    @Override
+    public RFuture<Boolean> fastPutAsync(K key, V value) {
+        return nearCache.invalidate(keyHash(key), super.fastPutAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<Long> fastRemoveAsync(K ... keys) {
+        List<byte[]> keyHashes = new ArrayList<byte[]>(keys.length);
+        for (K key : keys) {
+            keyHashes.add(keyHash(key));
+        }
+        return nearCache.invalidate(keyHashes, super.fastRemoveAsync(keys));
+    }
+    
+    @Override
+    public RFuture<V> addAndGetAsync(K key, Number value) {
+        return nearCache.invalidate(keyHash(key), super.addAndGetAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        return nearCache.invalidate(super.deleteAsync());
+    }
+    
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit) {
+        return nearCache.invalidate(super.expireAsync(timeToLive, timeUnit));
+    }
+    
+    @Override
+    public RFuture<Boolean> expireAtAsync(long timestamp) {
+        return nearCache.invalidate(super.expireAtAsync(timestamp));
+    }
+    
+    @Override
+    public RFuture<Void> renameAsync(String newName) {
+        return nearCache.invalidate(super.renameAsync(newName));
+    }
+    
+    @Override
+    public RFuture<Boolean> renamenxAsync(String newName) {
+        return nearCache.invalidate(super.renamenxAsync(newName));
+    }
+    
+    @Override
+    public RFuture<Boolean> moveAsync(int database) {
+        return nearCache.invalidate(super.moveAsync(database));
+    }
+    
+    @Override
+    public RFuture<Void> migrateAsync(String host, int port, int database) {
+        return nearCache.invalidate(super.migrateAsync(host, port, database));
+    }
+    
+}
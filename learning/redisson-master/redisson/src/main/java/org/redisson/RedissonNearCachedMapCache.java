@@ -0,0 +1,279 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+import org.redisson.cache.NearCache;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommand.ValueType;
+import org.redisson.client.protocol.decoder.ObjectListReplayDecoder;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.eviction.EvictionScheduler;
+import org.redisson.misc.RPromise;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+
+/**
+ * Map cache with near cache. Values of hot keys are served from local memory 
+ * and invalidated on each change made through near cached map.
+ * <p>
+ * Cached value isn't served after entry expiration date 
+ * and after entry max idle time elapsed since its last read from Redis, 
+ * because reads served from near cache don't update entry idle time.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class RedissonNearCachedMapCache<K, V> extends RedissonMapCache<K, V> {
+
+    private static final RedisCommand<List<Object>> EVAL_GET_WITH_EXPIRE_DATE = 
+            new RedisCommand<List<Object>>("EVAL", new ObjectListReplayDecoder<Object>(), 7, ValueType.MAP_KEY, ValueType.MAP_VALUE);
+    
+    private final NearCache nearCache;
+    
+    protected RedissonNearCachedMapCache(UUID id, EvictionScheduler evictionScheduler, CommandAsyncExecutor commandExecutor, 
+            String name, RedissonClient redisson, NearCache nearCache) {
+        super(id, evictionScheduler, commandExecutor, name, redisson);
+        this.nearCache = nearCache;
+    }
+
+    protected RedissonNearCachedMapCache(UUID id, Codec codec, EvictionScheduler evictionScheduler, CommandAsyncExecutor commandExecutor, 
+            String name, RedissonClient redisson, NearCache nearCache) {
+        super(id, codec, evictionScheduler, commandExecutor, name, redisson);
+        this.nearCache = nearCache;
+    }
+    
+    private byte[] keyHash(Object key) {
+        if (key == null) {
+            throw new NullPointerException("map key can't be null");
+        }
+        return NearCache.hashKey(encodeMapKey(key));
+    }
+    
+    private List<byte[]> keyHashes(Iterable<?> keys) {
+        List<byte[]> result = new ArrayList<byte[]>();
+        for (Object key : keys) {
+            result.add(keyHash(key));
+        }
+        return result;
+    }
+
+    @Override
+    public RFuture<V> getAsync(K key) {
+        final byte[] keyHash = keyHash(key);
+        Object cachedValue = nearCache.get(keyHash, codec);
+        if (cachedValue != null) {
+            return newSucceededFuture((V) cachedValue);
+        }
+        
+        final long version = nearCache.getVersion();
+        RFuture<List<Object>> future = commandExecutor.evalWriteAsync(getName(key), codec, EVAL_GET_WITH_EXPIRE_DATE,
+                   "local value = redis.call('hget', KEYS[1], ARGV[2]); "
+                 + "if value == false then "
+                     + "return {}; "
+                 + "end; "
+                 + "local t, val = struct.unpack('dLc0', value); "
+                 + "local expireDate = 92233720368547758; " +
+                   "local expireDateScore = redis.call('zscore', KEYS[2], ARGV[2]); "
+                 + "if expireDateScore ~= false then "
+                     + "expireDate = tonumber(expireDateScore) "
+                 + "end; "
+                 + "local cacheExpireDate = expireDate; "
+                 + "if t ~= 0 then "
+                     + "local expireIdle = redis.call('zscore', KEYS[3], ARGV[2]); "
+                     + "if expireIdle ~= false then "
+                         + "if tonumber(expireIdle) > tonumber(ARGV[1]) then "
+                             + "local value = struct.pack('dLc0', t, string.len(val), val); "
+                             + "redis.call('hset', KEYS[1], ARGV[2], value); "
+                             + "redis.call('zadd', KEYS[3], t + tonumber(ARGV[1]), ARGV[2]); "
+                         + "end; "
+                         + "expireDate = math.min(expireDate, tonumber(expireIdle)) "
+                     + "end; "
+                     // near cache reads don't update idle time
+                     + "cacheExpireDate = math.min(cacheExpireDate, t + tonumber(ARGV[1])); "
+                 + "end; "
+                 + "if expireDate <= tonumber(ARGV[1]) then "
+                     + "return {}; "
+                 + "end; "
+                 + "if cacheExpireDate == 92233720368547758 then "
+                     + "cacheExpireDate = 0; "
+                 + "end; "
+                 + "return {val, cacheExpireDate}; ",
+                Arrays.<Object>asList(getName(key), getTimeoutSetNameByKey(key), getIdleSetNameByKey(key)), System.currentTimeMillis(), key);
+
+        final RPromise<V> result = newPromise();
+        future.addListener(new FutureListener<List<Object>>() {
+            @Override
+            public void operationComplete(Future<List<Object>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+                
+                List<Object> res = future.getNow();
+                if (res.isEmpty()) {
+                    result.trySuccess(null);
+                    return;
+                }
+                
+                V value = (V) res.get(0);
+                long expireDate = (Long) res.get(1);
+                if (nearCache.shouldCache(keyHash, version)) {
+                    nearCache.put(keyHash, codec, value, encodeMapValue(value).length, version, expireDate);
+                }
+                result.trySuccess(value);
+            }
+        });
+        return result;
+    }
+    
+    @Override
+    public RFuture<Void> putAllAsync(Map<? extends K, ? extends V> map) {
+        return nearCache.invalidate(keyHashes(map.keySet()), super.putAllAsync(map));
+    }
+    
+    @Override
+    public RFuture<V> putIfAbsentAsync(K key, V value) {
+        return nearCache.invalidate(keyHash(key), super.putIfAbsentAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<V> putIfAbsentAsync(K key, V value, long ttl, TimeUnit ttlUnit) {
+        return nearCache.invalidate(keyHash(key), super.putIfAbsentAsync(key, value, ttl, ttlUnit));
+    }
+    
+    @Override
+    public RFuture<V> putIfAbsentAsync(K key, V value, long ttl, TimeUnit ttlUnit, long maxIdleTime, TimeUnit maxIdleUnit) {
+        return nearCache.invalidate(keyHash(key), super.putIfAbsentAsync(key, value, ttl, ttlUnit, maxIdleTime, maxIdleUnit));
+    }
+    
+    @Override
+    public RFuture<Boolean> fastPutIfAbsentAsync(K key, V value) {
+        return nearCache.invalidate(keyHash(key), super.fastPutIfAbsentAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<Boolean> removeAsync(Object key, Object value) {
+        return nearCache.invalidate(keyHash(key), super.removeAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<Boolean> replaceAsync(K key, V oldValue, V newValue) {
+        return nearCache.invalidate(keyHash(key), super.replaceAsync(key, oldValue, newValue));
+    }
+    
+    @Override
+    public RFuture<V> replaceAsync(K key, V value) {
+        return nearCache.invalidate(keyHash(key), super.replaceAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<V> putAsync(K key, V value) {
+        return nearCache.invalidate(keyHash(key), super.putAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<V> putAsync(K key, V value, long ttl, TimeUnit ttlUnit) {
+        return nearCache.invalidate(keyHash(key), super.putAsync(key, value, ttl, ttlUnit));
+    }
+    
+    @Override
+    public RFuture<V> putAsync(K key, V value, long ttl, TimeUnit ttlUnit, long maxIdleTime, TimeUnit maxIdleUnit) {
+        return nearCache.invalidate(keyHash(key), super.putAsync(key, value, ttl, ttlUnit, maxIdleTime, maxIdleUnit));
+    }
+    
+    @Override
+    public RFuture<V> removeAsync(K key) {
+        return nearCache.invalidate(keyHash(key), super.removeAsync(key));
+    }
+    
+    @Override
+    public RFuture<Boolean> fastPutAsync(K key, V value) {
+        return nearCache.invalidate(keyHash(key), super.fastPutAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<Boolean> fastPutAsync(K key, V value, long ttl, TimeUnit ttlUnit) {
+        return nearCache.invalidate(keyHash(key), super.fastPutAsync(key, value, ttl, ttlUnit));
+    }
+    
+    @Override
+    public RFuture<Boolean> fastPutAsync(K key, V value, long ttl, TimeUnit ttlUnit, long maxIdleTime, TimeUnit maxIdleUnit) {
+        return nearCache.invalidate(keyHash(key), super.fastPutAsync(key, value, ttl, ttlUnit, maxIdleTime, maxIdleUnit));
+    }
+    
+    @Override
+    public RFuture<Long> fastRemoveAsync(K ... keys) {
+        List<byte[]> keyHashes = new ArrayList<byte[]>(keys.length);
+        for (K key : keys) {
+            keyHashes.add(keyHash(key));
+        }
+        return nearCache.invalidate(keyHashes, super.fastRemoveAsync(keys));
+    }
+    
+    @Override
+    public RFuture<V> addAndGetAsync(K key, Number value) {
+        return nearCache.invalidate(keyHash(key), super.addAndGetAsync(key, value));
+    }
+    
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        return nearCache.invalidate(super.deleteAsync());
+    }
+    
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit) {
+        return nearCache.invalidate(super.expireAsync(timeToLive, timeUnit));
+    }
+    
+    @Override
+    public RFuture<Boolean> expireAtAsync(long timestamp) {
+        return nearCache.invalidate(super.expireAtAsync(timestamp));
+    }
+    
+    @Override
+    public RFuture<Void> renameAsync(String newName) {
+        return nearCache.invalidate(super.renameAsync(newName));
+    }
+    
+    @Override
+    public RFuture<Boolean> renamenxAsync(String newName) {
+        return nearCache.invalidate(super.renamenxAsync(newName));
+    }
+    
+    @Override
+    public RFuture<Boolean> moveAsync(int database) {
+        return nearCache.invalidate(super.moveAsync(database));
+    }
+    
+    @Override
+    public RFuture<Void> migrateAsync(String host, int port, int database) {
+        return nearCache.invalidate(super.migrateAsync(host, port, database));
+    }
+    
+}
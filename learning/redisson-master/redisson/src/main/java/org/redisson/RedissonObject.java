@@ -77,6 +77,17 @@ public abstract class RedissonObject implements RObject {
         return commandExecutor.getConnectionManager().newSucceededFuture(result);
     }
 
+    /**
+     * Script publishes waiters notifications through shared channels 
+     * if <code>notificationShards</code> setting is used.
+     * 
+     * @param script - lua script
+     * @return lua script
+     */
+    protected String notificationScript(String script) {
+        return commandExecutor.getConnectionManager().getNotificationShards().script(script);
+    }
+
     @Override
     public String getName() {
         return name;
@@ -409,7 +409,7 @@ public class RedissonPermitExpirableSemaphore extends RedissonExpirable implemen
 
         String id = generateId();
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_STRING_DATA, 
-                  "local expiredIds = redis.call('zrangebyscore', KEYS[2], 0, ARGV[4], 'limit', 0, ARGV[1]); " +
+                  notificationScript("local expiredIds = redis.call('zrangebyscore', KEYS[2], 0, ARGV[4], 'limit', 0, ARGV[1]); " +
                   "if #expiredIds > 0 then " +
                       "redis.call('zrem', KEYS[2], unpack(expiredIds)); " +
                       "local value = redis.call('incrby', KEYS[1], #expiredIds); " + 
@@ -427,7 +427,7 @@ public class RedissonPermitExpirableSemaphore extends RedissonExpirable implemen
                   "if v[1] ~= nil and v[2] ~= ARGV[5] then " + 
                       "return ':' .. tostring(v[2]); " + 
                   "end " +
-                  "return nil;",
+                  "return nil;"),
                   Arrays.<Object>asList(getName(), timeoutName, getChannelName()), permits, timeoutDate, id, System.currentTimeMillis(), nonExpirableTimeout);
     }
 
@@ -619,13 +619,13 @@ public class RedissonPermitExpirableSemaphore extends RedissonExpirable implemen
         }
 
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "local removed = redis.call('zrem', KEYS[3], ARGV[1]);" + 
+                notificationScript("local removed = redis.call('zrem', KEYS[3], ARGV[1]);" + 
                 "if tonumber(removed) ~= 1 then " + 
                     "return 0;" + 
                 "end;" +
                 "local value = redis.call('incrby', KEYS[1], ARGV[2]); " +
                 "redis.call('publish', KEYS[2], value); " + 
-                "return 1;",
+                "return 1;"),
                 Arrays.<Object>asList(getName(), getChannelName(), timeoutName), permitId, 1);
     }
     
@@ -663,7 +663,7 @@ public class RedissonPermitExpirableSemaphore extends RedissonExpirable implemen
     @Override
     public RFuture<Integer> availablePermitsAsync() {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_INTEGER, 
-                "local expiredIds = redis.call('zrangebyscore', KEYS[2], 0, ARGV[1], 'limit', 0, -1); " +
+                notificationScript("local expiredIds = redis.call('zrangebyscore', KEYS[2], 0, ARGV[1], 'limit', 0, -1); " +
                 "if #expiredIds > 0 then " +
                     "redis.call('zrem', KEYS[2], unpack(expiredIds)); " +
                     "local value = redis.call('incrby', KEYS[1], #expiredIds); " + 
@@ -673,7 +673,7 @@ public class RedissonPermitExpirableSemaphore extends RedissonExpirable implemen
                     "return value; " +
                 "end; " +
                 "local ret = redis.call('get', KEYS[1]); " + 
-                "return ret == false and 0 or ret;",
+                "return ret == false and 0 or ret;"),
                 Arrays.<Object>asList(getName(), timeoutName, getChannelName()), System.currentTimeMillis());
     }
 
@@ -685,13 +685,13 @@ public class RedissonPermitExpirableSemaphore extends RedissonExpirable implemen
     @Override
     public RFuture<Boolean> trySetPermitsAsync(int permits) {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "local value = redis.call('get', KEYS[1]); " +
+                notificationScript("local value = redis.call('get', KEYS[1]); " +
                 "if (value == false or value == 0) then "
                     + "redis.call('set', KEYS[1], ARGV[1]); "
                     + "redis.call('publish', KEYS[2], ARGV[1]); "
                     + "return 1;"
                 + "end;"
-                + "return 0;",
+                + "return 0;"),
                 Arrays.<Object>asList(getName(), getChannelName()), permits);
     }
 
@@ -703,14 +703,14 @@ public class RedissonPermitExpirableSemaphore extends RedissonExpirable implemen
     @Override
     public RFuture<Void> addPermitsAsync(int permits) {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_VOID,
-                "local value = redis.call('get', KEYS[1]); " +
+                notificationScript("local value = redis.call('get', KEYS[1]); " +
                 "if (value == false) then "
                   + "value = 0;"
               + "end;"
               + "redis.call('set', KEYS[1], tonumber(value) + tonumber(ARGV[1])); "
               + "if tonumber(ARGV[1]) > 0 then "
                   + "redis.call('publish', KEYS[2], ARGV[1]); "
-              + "end;",
+              + "end;"),
                 Arrays.<Object>asList(getName(), getChannelName()), permits);
     }
 
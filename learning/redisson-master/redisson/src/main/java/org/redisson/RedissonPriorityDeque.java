@@ -27,6 +27,10 @@ import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.convertor.VoidReplayConvertor;
 import org.redisson.client.protocol.decoder.ListFirstObjectDecoder;
 import org.redisson.command.CommandExecutor;
+import org.redisson.misc.RPromise;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
 
 /**
  * Distributed and concurrent implementation of {@link java.util.Queue}
@@ -56,6 +60,9 @@ public class RedissonPriorityDeque<V> extends RedissonPriorityQueue<V> implement
 
 //    @Override
     public RFuture<Void> addFirstAsync(V e) {
+        if (storage != null) {
+            return addSortedAsync(e);
+        }
         return commandExecutor.writeAsync(getName(), codec, RedisCommands.LPUSH_VOID, getName(), e);
     }
 
@@ -66,12 +73,35 @@ public class RedissonPriorityDeque<V> extends RedissonPriorityQueue<V> implement
 
 //    @Override
     public RFuture<Void> addLastAsync(V e) {
+        if (storage != null) {
+            return addSortedAsync(e);
+        }
         return commandExecutor.writeAsync(getName(), codec, RPUSH_VOID, getName(), e);
     }
 
 
+    private RFuture<Void> addSortedAsync(V e) {
+        final RPromise<Void> result = newPromise();
+        addAsync(e).addListener(new FutureListener<Boolean>() {
+            @Override
+            public void operationComplete(Future<Boolean> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+                result.trySuccess(null);
+            }
+        });
+        return result;
+    }
+
     @Override
     public Iterator<V> descendingIterator() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.iterator(true);
+        }
+        
         return new Iterator<V>() {
 
             private int currentIndex = size();
@@ -108,6 +138,10 @@ public class RedissonPriorityDeque<V> extends RedissonPriorityQueue<V> implement
 
 //    @Override
     public RFuture<V> getLastAsync() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.peekLastAsync();
+        }
         return commandExecutor.readAsync(getName(), codec, LRANGE_SINGLE, getName(), -1, -1);
     }
 
@@ -127,6 +161,9 @@ public class RedissonPriorityDeque<V> extends RedissonPriorityQueue<V> implement
 
 //    @Override
     public RFuture<Boolean> offerFirstAsync(V e) {
+        if (storage != null) {
+            return addAsync(e);
+        }
         return commandExecutor.writeAsync(getName(), codec, RedisCommands.LPUSH_BOOLEAN, getName(), e);
     }
 
@@ -142,7 +179,7 @@ public class RedissonPriorityDeque<V> extends RedissonPriorityQueue<V> implement
 
 //    @Override
     public RFuture<V> peekFirstAsync() {
-        return getAsync(0);
+        return peekAsync();
     }
 
     @Override
@@ -172,6 +209,10 @@ public class RedissonPriorityDeque<V> extends RedissonPriorityQueue<V> implement
 
 //    @Override
     public RFuture<V> pollLastAsync() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.pollLastAsync();
+        }
         return commandExecutor.writeAsync(getName(), codec, RedisCommands.RPOP, getName());
     }
 
@@ -218,7 +259,7 @@ public class RedissonPriorityDeque<V> extends RedissonPriorityQueue<V> implement
 
 //    @Override
     public RFuture<V> removeLastAsync() {
-        return commandExecutor.writeAsync(getName(), codec, RedisCommands.RPOP, getName());
+        return pollLastAsync();
     }
 
     @Override
@@ -25,15 +25,20 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.NoSuchElementException;
 
 import org.redisson.api.RBucket;
 import org.redisson.api.RFuture;
+import org.redisson.api.RList;
 import org.redisson.api.RLock;
 import org.redisson.api.RPriorityQueue;
+import org.redisson.api.SortKeyComparator;
+import org.redisson.api.SortOrder;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.StringCodec;
 import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.convertor.Convertor;
 import org.redisson.command.CommandExecutor;
 
 /**
@@ -86,6 +91,7 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
     }
 
     private Comparator<? super V> comparator = NaturalComparator.NATURAL_ORDER;
+    volatile SortKeyStorage<V> storage;
 
     CommandExecutor commandExecutor;
     
@@ -126,7 +132,7 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
                 }
 
                 Class<?> clazz = Class.forName(className);
-                comparator = (Comparator<V>) clazz.newInstance();
+                setComparator((Comparator<V>) clazz.newInstance());
             }
         } catch (IllegalStateException e) {
             throw e;
@@ -135,6 +141,15 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
         }
     }
 
+    private void setComparator(Comparator<? super V> comparator) {
+        this.comparator = comparator;
+        if (comparator instanceof SortKeyComparator) {
+            storage = new SortKeyStorage<V>(codec, commandExecutor, getName(), (SortKeyComparator<? super V>) comparator);
+        } else {
+            storage = null;
+        }
+    }
+    
     // TODO cache result
     private static String calcClassSign(String name) {
         try {
@@ -162,9 +177,188 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
 
     @Override
     public RFuture<List<V>> readAllAsync() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.readAllAsync(RedisCommands.ZRANGE);
+        }
         return commandExecutor.readAsync(getName(), codec, RedisCommands.LRANGE, getName(), 0, -1);
     }
     
+    @Override
+    public RFuture<Integer> sizeAsync() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.sizeAsync();
+        }
+        return super.sizeAsync();
+    }
+    
+    @Override
+    public Iterator<V> iterator() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.iterator(false);
+        }
+        return super.iterator();
+    }
+
+    /**
+     * Index based and bulk list operations can't be applied 
+     * to values stored in sorted set by {@link SortKeyComparator}
+     */
+    private void checkListStorage() {
+        if (storage != null) {
+            throw new UnsupportedOperationException("This operation is not supported by queue with SortKeyComparator");
+        }
+    }
+
+    @Override
+    public RFuture<V> getAsync(int index) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.getAsync(index);
+        }
+        return super.getAsync(index);
+    }
+
+    @Override
+    public RFuture<V> setAsync(int index, V element) {
+        checkListStorage();
+        return super.setAsync(index, element);
+    }
+
+    @Override
+    public RFuture<Void> fastSetAsync(int index, V element) {
+        checkListStorage();
+        return super.fastSetAsync(index, element);
+    }
+
+    @Override
+    public RFuture<Boolean> addAllAsync(int index, Collection<? extends V> coll) {
+        checkListStorage();
+        return super.addAllAsync(index, coll);
+    }
+
+    @Override
+    public RFuture<V> removeAsync(long index) {
+        checkListStorage();
+        return super.removeAsync(index);
+    }
+
+    @Override
+    public RFuture<Void> fastRemoveAsync(long index) {
+        checkListStorage();
+        return super.fastRemoveAsync(index);
+    }
+
+    @Override
+    public <R> RFuture<R> indexOfAsync(Object o, Convertor<R> convertor) {
+        checkListStorage();
+        return super.indexOfAsync(o, convertor);
+    }
+
+    @Override
+    public RFuture<Integer> lastIndexOfAsync(Object o) {
+        checkListStorage();
+        return super.lastIndexOfAsync(o);
+    }
+
+    @Override
+    public <R> RFuture<R> lastIndexOfAsync(Object o, Convertor<R> convertor) {
+        checkListStorage();
+        return super.lastIndexOfAsync(o, convertor);
+    }
+
+    @Override
+    public RFuture<Void> trimAsync(int fromIndex, int toIndex) {
+        checkListStorage();
+        return super.trimAsync(fromIndex, toIndex);
+    }
+
+    @Override
+    public ListIterator<V> listIterator(int ind) {
+        checkListStorage();
+        return super.listIterator(ind);
+    }
+
+    @Override
+    public RList<V> subList(int fromIndex, int toIndex) {
+        checkListStorage();
+        return super.subList(fromIndex, toIndex);
+    }
+
+    @Override
+    public RFuture<Integer> addAfterAsync(V elementToFind, V element) {
+        checkListStorage();
+        return super.addAfterAsync(elementToFind, element);
+    }
+
+    @Override
+    public RFuture<Integer> addBeforeAsync(V elementToFind, V element) {
+        checkListStorage();
+        return super.addBeforeAsync(elementToFind, element);
+    }
+
+    @Override
+    public RFuture<Boolean> containsAllAsync(Collection<?> c) {
+        checkListStorage();
+        return super.containsAllAsync(c);
+    }
+
+    @Override
+    public RFuture<Boolean> addAllAsync(Collection<? extends V> c) {
+        checkListStorage();
+        return super.addAllAsync(c);
+    }
+
+    @Override
+    public RFuture<Boolean> removeAllAsync(Collection<?> c) {
+        checkListStorage();
+        return super.removeAllAsync(c);
+    }
+
+    @Override
+    public RFuture<Boolean> retainAllAsync(Collection<?> c) {
+        checkListStorage();
+        return super.retainAllAsync(c);
+    }
+
+    @Override
+    public RFuture<List<V>> readSortAsync(SortOrder order) {
+        checkListStorage();
+        return super.readSortAsync(order);
+    }
+
+    @Override
+    public RFuture<List<V>> readSortAsync(SortOrder order, int offset, int count) {
+        checkListStorage();
+        return super.readSortAsync(order, offset, count);
+    }
+
+    @Override
+    public RFuture<List<V>> readSortAsync(String byPattern, SortOrder order) {
+        checkListStorage();
+        return super.readSortAsync(byPattern, order);
+    }
+
+    @Override
+    public RFuture<List<V>> readSortAsync(String byPattern, SortOrder order, int offset, int count) {
+        checkListStorage();
+        return super.readSortAsync(byPattern, order, offset, count);
+    }
+
+    @Override
+    public <T> RFuture<Collection<T>> readSortAsync(String byPattern, List<String> getPatterns, SortOrder order, int offset, int count) {
+        checkListStorage();
+        return super.readSortAsync(byPattern, getPatterns, order, offset, count);
+    }
+
+    @Override
+    public RFuture<Integer> sortToAsync(String destName, String byPattern, List<String> getPatterns, SortOrder order, int offset, int count) {
+        checkListStorage();
+        return super.sortToAsync(destName, byPattern, getPatterns, order, offset, count);
+    }
+    
     @Override
     public boolean offer(V e) {
         return add(e);
@@ -177,15 +371,47 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
     
     @Override
     public boolean contains(final Object o) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return get(storage.containsAsync(o));
+        }
         return binarySearch((V)o, codec).getIndex() >= 0;
     }
+    
+    @Override
+    public RFuture<Boolean> containsAsync(Object o) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.containsAsync(o);
+        }
+        return super.containsAsync(o);
+    }
 
+    @Override
+    public RFuture<Boolean> addAsync(V e) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.addAsync(e, false);
+        }
+        return super.addAsync(e);
+    }
+    
     @Override
     public boolean add(V value) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return get(storage.addAsync(value, false));
+        }
+        
         lock.lock();
         
         try {
             checkComparator();
+            
+            storage = this.storage;
+            if (storage != null) {
+                return get(storage.addAsync(value, false));
+            }
     
             BinarySearchResult<V> res = binarySearch(value, codec);
             int index = 0;
@@ -224,11 +450,21 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
 
     @Override
     public boolean remove(Object value) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return get(storage.removeAsync(value, false));
+        }
+        
         lock.lock();
 
         try {
             checkComparator();
             
+            storage = this.storage;
+            if (storage != null) {
+                return get(storage.removeAsync(value, false));
+            }
+            
             BinarySearchResult<V> res = binarySearch((V) value, codec);
             if (res.getIndex() < 0) {
                 return false;
@@ -241,6 +477,15 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
         }
     }
 
+    @Override
+    protected RFuture<Boolean> removeAsync(Object o, int count) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.removeAsync(o, count < 0);
+        }
+        return super.removeAsync(o, count);
+    }
+    
     @Override
     public boolean containsAll(Collection<?> c) {
         for (Object object : c) {
@@ -298,11 +543,15 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
 
 //    @Override
     public RFuture<V> pollAsync() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.pollFirstAsync();
+        }
         return commandExecutor.writeAsync(getName(), codec, RedisCommands.LPOP, getName());
     }
 
     public V getFirst() {
-        V value = getValue(0);
+        V value = peek();
         if (value == null) {
             throw new NoSuchElementException();
         }
@@ -321,11 +570,18 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
 
 //    @Override
     public RFuture<V> peekAsync() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.peekFirstAsync();
+        }
         return getAsync(0);
     }
 
     @Override
     public V peek() {
+        if (storage != null) {
+            return get(peekAsync());
+        }
         return getValue(0);
     }
 
@@ -339,7 +595,7 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
         final String comparatorSign = className + ":" + calcClassSign(className);
 
         Boolean res = commandExecutor.evalWrite(getName(), StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "if redis.call('llen', KEYS[1]) == 0 then "
+                "if redis.call('exists', KEYS[1]) == 0 then "
                 + "redis.call('set', KEYS[2], ARGV[1]); "
                 + "return 1; "
                 + "else "
@@ -347,11 +603,32 @@ public class RedissonPriorityQueue<V> extends RedissonList<V> implements RPriori
                 + "end",
                 Arrays.<Object>asList(getName(), getComparatorKeyName()), comparatorSign);
         if (res) {
-            this.comparator = comparator;
+            setComparator(comparator);
         }
         return res;
     }
     
+    @Override
+    public boolean trySetSortKeyComparator(SortKeyComparator<? super V> comparator) {
+        String className = comparator.getClass().getName();
+        String comparatorSign = className + ":" + calcClassSign(className);
+        
+        lock.lock();
+        try {
+            checkComparator();
+            if (storage != null) {
+                return false;
+            }
+            
+            SortKeyStorage<V> newStorage = new SortKeyStorage<V>(codec, commandExecutor, getName(), comparator);
+            newStorage.migrate(lock, getComparatorKeyName(), comparatorSign);
+            setComparator(comparator);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
     @Override
     public V remove() {
         return removeFirst();
@@ -85,7 +85,7 @@ public class RedissonReadLock extends RedissonLock implements RLock {
     @Override
     protected RFuture<Boolean> unlockInnerAsync(long threadId) {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "local mode = redis.call('hget', KEYS[1], 'mode'); " +
+                notificationScript("local mode = redis.call('hget', KEYS[1], 'mode'); " +
                 "if (mode == false) then " +
                     "redis.call('publish', KEYS[2], ARGV[1]); " +
                     "return 1; " +
@@ -121,7 +121,7 @@ public class RedissonReadLock extends RedissonLock implements RLock {
                     
                 "redis.call('del', KEYS[1]); " +
                 "redis.call('publish', KEYS[2], ARGV[1]); " +
-                "return 1; ",
+                "return 1; "),
                 Arrays.<Object>asList(getName(), getChannelName()), LockPubSub.unlockMessage, getLockName(threadId));
     }
     
@@ -133,12 +133,12 @@ public class RedissonReadLock extends RedissonLock implements RLock {
     @Override
     public RFuture<Boolean> forceUnlockAsync() {
         RFuture<Boolean> result = commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "if (redis.call('hget', KEYS[1], 'mode') == 'read') then " +
+                notificationScript("if (redis.call('hget', KEYS[1], 'mode') == 'read') then " +
                     "redis.call('del', KEYS[1]); " +
                     "redis.call('publish', KEYS[2], ARGV[1]); " +
                     "return 1; " +
                 "end; " +
-                "return 0; ",
+                "return 0; "),
                 Arrays.<Object>asList(getName(), getChannelName()), LockPubSub.unlockMessage);
 
           result.addListener(new FutureListener<Boolean>() {
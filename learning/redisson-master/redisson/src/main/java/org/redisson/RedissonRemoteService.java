@@ -21,8 +21,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.redisson.api.RBatch;
@@ -30,11 +33,14 @@ import org.redisson.api.RBlockingQueue;
 import org.redisson.api.RBlockingQueueAsync;
 import org.redisson.api.RFuture;
 import org.redisson.api.RRemoteService;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.LongCodec;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandExecutor;
+import org.redisson.misc.RPromise;
 import org.redisson.remote.RRemoteServiceResponse;
 import org.redisson.remote.RemoteParams;
 import org.redisson.remote.RemoteServiceAck;
@@ -48,6 +54,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.util.concurrent.Future;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.internal.PlatformDependent;
 
@@ -62,6 +70,25 @@ public class RedissonRemoteService extends BaseRemoteService implements RRemoteS
 
     private final Map<RemoteServiceKey, RemoteServiceMethod> beans = PlatformDependent.newConcurrentHashMap();
     private final Map<Class<?>, Set<RFuture<RemoteServiceRequest>>> futures = PlatformDependent.newConcurrentHashMap();
+    private final Map<Class<?>, Workers> workersMap = PlatformDependent.newConcurrentHashMap();
+    private final Map<Class<?>, Integer> cancelListeners = PlatformDependent.newConcurrentHashMap();
+    // cancel requests received through shared channel by request id
+    private final ConcurrentMap<String, RPromise<RemoteServiceCancelRequest>> cancelRequests = PlatformDependent.newConcurrentHashMap();
+    
+    /**
+     * Free workers of registered remote interface. 
+     * Only one poll of request queue is performed at a time.
+     */
+    private static class Workers {
+        
+        final AtomicInteger free;
+        final AtomicBoolean polling = new AtomicBoolean();
+        
+        Workers(int amount) {
+            free = new AtomicInteger(amount);
+        }
+        
+    }
 
     public RedissonRemoteService(RedissonClient redisson, CommandExecutor commandExecutor) {
         super(redisson, commandExecutor);
@@ -91,6 +118,12 @@ public class RedissonRemoteService extends BaseRemoteService implements RRemoteS
             beans.remove(key);
         }
         
+        workersMap.remove(remoteInterface);
+        Integer listenerId = cancelListeners.remove(remoteInterface);
+        if (listenerId != null) {
+            redisson.getTopic(getCancelTopicName(remoteInterface), getCodec()).removeListener(listenerId);
+        }
+        
         Set<RFuture<RemoteServiceRequest>> removedFutures = futures.remove(remoteInterface);
         if (removedFutures == null) {
             return;
@@ -122,106 +155,276 @@ public class RedissonRemoteService extends BaseRemoteService implements RRemoteS
         Set<RFuture<RemoteServiceRequest>> values = Collections.newSetFromMap(PlatformDependent.<RFuture<RemoteServiceRequest>, Boolean>newConcurrentHashMap());
         futures.put(remoteInterface, values);
         
+        RTopic<RemoteServiceCancelRequest> cancelTopic = redisson.getTopic(getCancelTopicName(remoteInterface), getCodec());
+        int listenerId = cancelTopic.addListener(new MessageListener<RemoteServiceCancelRequest>() {
+            @Override
+            public void onMessage(String channel, RemoteServiceCancelRequest msg) {
+                final String requestId = msg.getRequestId();
+                RPromise<RemoteServiceCancelRequest> promise = cancelRequests.get(requestId);
+                if (promise == null) {
+                    // request could be polled but its invocation isn't started yet,
+                    // so cancellation is kept until the request is processed
+                    final RPromise<RemoteServiceCancelRequest> newPromise = commandExecutor.getConnectionManager().newPromise();
+                    promise = cancelRequests.putIfAbsent(requestId, newPromise);
+                    if (promise == null) {
+                        promise = newPromise;
+                        commandExecutor.getConnectionManager().newTimeout(new TimerTask() {
+                            @Override
+                            public void run(Timeout timeout) throws Exception {
+                                cancelRequests.remove(requestId, newPromise);
+                            }
+                        }, 60, TimeUnit.SECONDS);
+                    }
+                }
+                promise.trySuccess(msg);
+            }
+        });
+        cancelListeners.put(remoteInterface, listenerId);
+        
+        Workers freeWorkers = new Workers(workers);
+        workersMap.put(remoteInterface, freeWorkers);
+        
         String requestQueueName = getRequestQueueName(remoteInterface);
         RBlockingQueue<RemoteServiceRequest> requestQueue = redisson.getBlockingQueue(requestQueueName, getCodec());
-        for (int i = 0; i < workers; i++) {
-            subscribe(remoteInterface, requestQueue, executor);
-        }
+        poll(remoteInterface, requestQueue, executor, freeWorkers);
     }
 
+    /**
+     * Releases worker and polls next requests.
+     */
     private <T> void subscribe(final Class<T> remoteInterface, final RBlockingQueue<RemoteServiceRequest> requestQueue,
             final ExecutorService executor) {
+        Workers freeWorkers = workersMap.get(remoteInterface);
+        if (freeWorkers == null) {
+            return;
+        }
+        
+        freeWorkers.free.incrementAndGet();
+        poll(remoteInterface, requestQueue, executor, freeWorkers);
+    }
+    
+    /**
+     * Takes as many requests as there are free workers in single round-trip. 
+     * Falls back to single blocking take if request queue is empty, 
+     * thus only one blocking connection is used per remote interface.
+     */
+    private <T> void poll(final Class<T> remoteInterface, final RBlockingQueue<RemoteServiceRequest> requestQueue,
+            final ExecutorService executor, final Workers freeWorkers) {
+        if (workersMap.get(remoteInterface) != freeWorkers) {
+            return;
+        }
+        if (!freeWorkers.polling.compareAndSet(false, true)) {
+            return;
+        }
+        
+        int amount = freeWorkers.free.get();
+        if (amount == 0) {
+            freeWorkers.polling.set(false);
+            // worker could be released meanwhile
+            if (freeWorkers.free.get() > 0) {
+                poll(remoteInterface, requestQueue, executor, freeWorkers);
+            }
+            return;
+        }
+        
+        RFuture<List<Object>> pollFuture = commandExecutor.evalWriteAsync(requestQueue.getName(), getCodec(), RedisCommands.EVAL_LIST,
+                  "local requests = redis.call('lrange', KEYS[1], 0, tonumber(ARGV[1]) - 1); "
+                + "if #requests > 0 then "
+                    + "redis.call('ltrim', KEYS[1], #requests, -1); "
+                + "end; "
+                + "return requests;",
+                Collections.<Object>singletonList(requestQueue.getName()), amount);
+        pollFuture.addListener(new FutureListener<List<Object>>() {
+            @Override
+            public void operationComplete(Future<List<Object>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    freeWorkers.polling.set(false);
+                    if (future.cause() instanceof RedissonShutdownException) {
+                        return;
+                    }
+                    log.error("Can't process the remote service request.", future.cause());
+                    poll(remoteInterface, requestQueue, executor, freeWorkers);
+                    return;
+                }
+                
+                List<Object> requests = future.getNow();
+                if (requests.isEmpty()) {
+                    take(remoteInterface, requestQueue, executor, freeWorkers);
+                    return;
+                }
+                
+                freeWorkers.free.addAndGet(-requests.size());
+                freeWorkers.polling.set(false);
+                for (Object request : requests) {
+                    process(remoteInterface, requestQueue, executor, (RemoteServiceRequest) request);
+                }
+                poll(remoteInterface, requestQueue, executor, freeWorkers);
+            }
+        });
+    }
+    
+    private <T> void take(final Class<T> remoteInterface, final RBlockingQueue<RemoteServiceRequest> requestQueue,
+            final ExecutorService executor, final Workers freeWorkers) {
+        final Set<RFuture<RemoteServiceRequest>> takeFutures = futures.get(remoteInterface);
+        if (takeFutures == null) {
+            freeWorkers.polling.set(false);
+            return;
+        }
+        
         final RFuture<RemoteServiceRequest> take = requestQueue.takeAsync();
-        futures.get(remoteInterface).add(take);
+        takeFutures.add(take);
         take.addListener(new FutureListener<RemoteServiceRequest>() {
             @Override
             public void operationComplete(Future<RemoteServiceRequest> future) throws Exception {
-                futures.get(remoteInterface).remove(take);
+                takeFutures.remove(take);
                 
                 if (!future.isSuccess()) {
+                    freeWorkers.polling.set(false);
                     if (future.cause() instanceof RedissonShutdownException) {
                         return;
                     }
                     log.error("Can't process the remote service request.", future.cause());
                     // re-subscribe after a failed takeAsync
-                    subscribe(remoteInterface, requestQueue, executor);
+                    poll(remoteInterface, requestQueue, executor, freeWorkers);
                     return;
                 }
 
-                // do not subscribe now, see
+                // worker is released only after request processing, see
                 // https://github.com/mrniko/redisson/issues/493
-                // subscribe(remoteInterface, requestQueue);
-
-                final RemoteServiceRequest request = future.getNow();
-                // check the ack only if expected
-                if (request.getOptions().isAckExpected() && System.currentTimeMillis() - request.getDate() > request
-                        .getOptions().getAckTimeoutInMillis()) {
-                    log.debug("request: {} has been skipped due to ackTimeout");
-                    // re-subscribe after a skipped ackTimeout
-                    subscribe(remoteInterface, requestQueue, executor);
-                    return;
-                }
+                freeWorkers.free.decrementAndGet();
+                freeWorkers.polling.set(false);
+                process(remoteInterface, requestQueue, executor, future.getNow());
+                poll(remoteInterface, requestQueue, executor, freeWorkers);
+            }
+        });
+    }
+    
+    private String getResponseName(Class<?> remoteInterface, RemoteServiceRequest request) {
+        if (request.getResponseQueueName() != null) {
+            return request.getResponseQueueName();
+        }
+        return getResponseQueueName(remoteInterface, request.getRequestId());
+    }
+    
+    private <T> void process(final Class<T> remoteInterface, final RBlockingQueue<RemoteServiceRequest> requestQueue,
+            final ExecutorService executor, final RemoteServiceRequest request) {
+        // check the ack only if expected
+        if (request.getOptions().isAckExpected() && System.currentTimeMillis() - request.getDate() > request
+                .getOptions().getAckTimeoutInMillis()) {
+            log.debug("request: {} has been skipped due to ackTimeout");
+            // re-subscribe after a skipped ackTimeout
+            subscribe(remoteInterface, requestQueue, executor);
+            return;
+        }
 
-                final String responseName = getResponseQueueName(remoteInterface, request.getRequestId());
+        final String responseName = getResponseName(remoteInterface, request);
 
-                // send the ack only if expected
-                if (request.getOptions().isAckExpected()) {
-                    String ackName = getAckName(remoteInterface, request.getRequestId());
-                    RFuture<Boolean> ackClientsFuture = commandExecutor.evalWriteAsync(responseName,
-                            LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                                "if redis.call('setnx', KEYS[1], 1) == 1 then " 
-                                    + "redis.call('pexpire', KEYS[1], ARGV[2]);"
-                                    + "redis.call('rpush', KEYS[2], ARGV[1]);"
-                                    + "redis.call('pexpire', KEYS[2], ARGV[2]);" 
-                                    + "return 1;" 
-                                + "end;" 
-                                + "return 0;",
-                            Arrays.<Object> asList(ackName, responseName),
-                            encode(new RemoteServiceAck()), request.getOptions().getAckTimeoutInMillis());
+        // send the ack only if expected
+        if (request.getOptions().isAckExpected()) {
+            String ackName = getAckName(remoteInterface, request.getRequestId());
+            RFuture<Boolean> ackClientsFuture;
+            if (request.getResponseQueueName() != null) {
+                // shared response queue may belong to another slot, so ack is sent separately 
+                ackClientsFuture = commandExecutor.evalWriteAsync(ackName,
+                        LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                            "if redis.call('setnx', KEYS[1], 1) == 1 then " 
+                                + "redis.call('pexpire', KEYS[1], ARGV[1]);"
+                                + "return 1;" 
+                            + "end;" 
+                            + "return 0;",
+                        Arrays.<Object> asList(ackName), request.getOptions().getAckTimeoutInMillis());
+            } else {
+                ackClientsFuture = commandExecutor.evalWriteAsync(responseName,
+                        LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                            "if redis.call('setnx', KEYS[1], 1) == 1 then " 
+                                + "redis.call('pexpire', KEYS[1], ARGV[2]);"
+                                + "redis.call('rpush', KEYS[2], ARGV[1]);"
+                                + "redis.call('pexpire', KEYS[2], ARGV[2]);" 
+                                + "return 1;" 
+                            + "end;" 
+                            + "return 0;",
+                        Arrays.<Object> asList(ackName, responseName),
+                        encode(new RemoteServiceAck(request.getRequestId())), request.getOptions().getAckTimeoutInMillis());
+            }
 
-                    ackClientsFuture.addListener(new FutureListener<Boolean>() {
-                        @Override
-                        public void operationComplete(Future<Boolean> future) throws Exception {
-                            if (!future.isSuccess()) {
-                                if (future.cause() instanceof RedissonShutdownException) {
-                                    return;
-                                }
-                                log.error("Can't send ack for request: " + request, future.cause());
-                                // re-subscribe after a failed send (ack)
-                                subscribe(remoteInterface, requestQueue, executor);
-                                return;
-                            }
+            ackClientsFuture.addListener(new FutureListener<Boolean>() {
+                @Override
+                public void operationComplete(Future<Boolean> future) throws Exception {
+                    if (!future.isSuccess()) {
+                        if (future.cause() instanceof RedissonShutdownException) {
+                            return;
+                        }
+                        log.error("Can't send ack for request: " + request, future.cause());
+                        // re-subscribe after a failed send (ack)
+                        subscribe(remoteInterface, requestQueue, executor);
+                        return;
+                    }
 
-                            if (!future.getNow()) {
-                                subscribe(remoteInterface, requestQueue, executor);
-                                return;
-                            }
+                    if (!future.getNow()) {
+                        subscribe(remoteInterface, requestQueue, executor);
+                        return;
+                    }
 
-                            executeMethod(remoteInterface, requestQueue, executor, request);
-                        }
-                    });
-                } else {
+                    if (request.getResponseQueueName() != null) {
+                        send(request.getOptions().getAckTimeoutInMillis(), responseName, true, 
+                                new RemoteServiceAck(request.getRequestId()));
+                    }
                     executeMethod(remoteInterface, requestQueue, executor, request);
                 }
-            }
-
-        });
+            });
+        } else {
+            executeMethod(remoteInterface, requestQueue, executor, request);
+        }
     }
 
     private <T> void executeMethod(final Class<T> remoteInterface, final RBlockingQueue<RemoteServiceRequest> requestQueue,
             final ExecutorService executor, final RemoteServiceRequest request) {
         final RemoteServiceMethod method = beans.get(new RemoteServiceKey(remoteInterface, request.getMethodName(), request.getSignatures()));
-        final String responseName = getResponseQueueName(remoteInterface, request.getRequestId());
+        final String responseName = getResponseName(remoteInterface, request);
         
+        if (request.getResponseQueueName() != null) {
+            // cancellation is signalled through shared channel
+            RPromise<RemoteServiceCancelRequest> newPromise = commandExecutor.getConnectionManager().newPromise();
+            RPromise<RemoteServiceCancelRequest> promise = cancelRequests.putIfAbsent(request.getRequestId(), newPromise);
+            if (promise == null) {
+                promise = newPromise;
+            }
+            final RPromise<RemoteServiceCancelRequest> cancelPromise = promise;
+            cancelPromise.addListener(new FutureListener<RemoteServiceCancelRequest>() {
+                @Override
+                public void operationComplete(Future<RemoteServiceCancelRequest> future) throws Exception {
+                    cancelRequests.remove(request.getRequestId(), cancelPromise);
+                }
+            });
+
+            if (cancelPromise.isSuccess()) {
+                // invocation is canceled before start
+                send(60 * 1000, responseName, true, new RemoteServiceCancelResponse(request.getRequestId(), true));
+                subscribe(remoteInterface, requestQueue, executor);
+                return;
+            }
+            submitMethod(remoteInterface, requestQueue, executor, request, method, responseName, cancelPromise);
+            return;
+        }
+
         RBlockingQueue<RemoteServiceCancelRequest> cancelRequestQueue = 
                 redisson.getBlockingQueue(getCancelRequestQueueName(remoteInterface, request.getRequestId()), getCodec());
-        final RFuture<RemoteServiceCancelRequest> cancelRequestFuture = cancelRequestQueue.takeAsync();
+        submitMethod(remoteInterface, requestQueue, executor, request, method, responseName, cancelRequestQueue.takeAsync());
+    }
 
+    private <T> void submitMethod(final Class<T> remoteInterface, final RBlockingQueue<RemoteServiceRequest> requestQueue,
+            final ExecutorService executor, final RemoteServiceRequest request, final RemoteServiceMethod method,
+            final String responseName, final RFuture<RemoteServiceCancelRequest> cancelRequestFuture) {
         final AtomicReference<RRemoteServiceResponse> responseHolder = new AtomicReference<RRemoteServiceResponse>();
+        // worker is released by invocation or by cancellation before start
+        final AtomicBoolean started = new AtomicBoolean();
         
         final java.util.concurrent.Future<?> submitFuture = executor.submit(new Runnable() {
             @Override
             public void run() {
+                if (!started.compareAndSet(false, true)) {
+                    return;
+                }
                 invokeMethod(remoteInterface, requestQueue, request, method, responseName, executor,
                         cancelRequestFuture, responseHolder);
             }
@@ -236,14 +439,21 @@ public class RedissonRemoteService extends BaseRemoteService implements RRemoteS
 
                 boolean res = submitFuture.cancel(future.getNow().isMayInterruptIfRunning());
                 if (res) {
-                    RemoteServiceCancelResponse response = new RemoteServiceCancelResponse();
+                    RemoteServiceCancelResponse response = new RemoteServiceCancelResponse(request.getRequestId(), true);
                     if (!responseHolder.compareAndSet(null, response)) {
-                        response = new RemoteServiceCancelResponse(false);
+                        response = new RemoteServiceCancelResponse(request.getRequestId(), false);
                     }
                     // could be removed not from future object
                     if (future.getNow().getResponseId() != null) {
                         String cancelResponseName = getResponseQueueName(remoteInterface, future.getNow().getResponseId());
-                        send(60 * 1000, cancelResponseName, response);
+                        send(60 * 1000, cancelResponseName, false, response);
+                    } else if (request.getResponseQueueName() != null) {
+                        // invocation could be canceled before start
+                        send(60 * 1000, responseName, true, response);
+                    }
+                    
+                    if (started.compareAndSet(false, true)) {
+                        subscribe(remoteInterface, requestQueue, executor);
                     }
                 }
             }
@@ -261,10 +471,10 @@ public class RedissonRemoteService extends BaseRemoteService implements RRemoteS
             
             Object result = method.getMethod().invoke(method.getBean(), request.getArgs());
 
-            RemoteServiceResponse response = new RemoteServiceResponse(result);
+            RemoteServiceResponse response = new RemoteServiceResponse(request.getRequestId(), result);
             responseHolder.compareAndSet(null, response);
         } catch (Exception e) {
-            RemoteServiceResponse response = new RemoteServiceResponse(e.getCause());
+            RemoteServiceResponse response = new RemoteServiceResponse(request.getRequestId(), e.getCause());
             responseHolder.compareAndSet(null, response);
             log.error("Can't execute: " + request, e);
         }
@@ -281,11 +491,11 @@ public class RedissonRemoteService extends BaseRemoteService implements RRemoteS
                 timeout = request.getOptions().getExecutionTimeoutInMillis();
             }
             
-            RFuture<List<?>> clientsFuture = send(timeout, responseName,
+            RFuture<Void> clientsFuture = send(timeout, responseName, request.getResponseQueueName() != null,
                     responseHolder.get());
-            clientsFuture.addListener(new FutureListener<List<?>>() {
+            clientsFuture.addListener(new FutureListener<Void>() {
                 @Override
-                public void operationComplete(Future<List<?>> future) throws Exception {
+                public void operationComplete(Future<Void> future) throws Exception {
                     if (!future.isSuccess()) {
                         if (future.cause() instanceof RedissonShutdownException) {
                             return;
@@ -305,12 +515,34 @@ public class RedissonRemoteService extends BaseRemoteService implements RRemoteS
         }
     }
 
-    private <T extends RRemoteServiceResponse> RFuture<List<?>> send(long timeout, String responseName, T response) {
+    private <T extends RRemoteServiceResponse> RFuture<Void> send(long timeout, String responseName, boolean sharedQueue, T response) {
+        if (sharedQueue) {
+            // queue is shared by requests with different timeouts, so its ttl can only be extended
+            return commandExecutor.evalWriteAsync(responseName, LongCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                    "redis.call('rpush', KEYS[1], ARGV[1]); "
+                  + "if redis.call('pttl', KEYS[1]) < tonumber(ARGV[2]) then "
+                      + "redis.call('pexpire', KEYS[1], ARGV[2]); "
+                  + "end;",
+                    Collections.<Object>singletonList(responseName), encode(response), timeout);
+        }
+        
         RBatch batch = redisson.createBatch();
         RBlockingQueueAsync<T> queue = batch.getBlockingQueue(responseName, getCodec());
         queue.putAsync(response);
         queue.expireAsync(timeout, TimeUnit.MILLISECONDS);
-        return batch.executeAsync();
+        
+        final RPromise<Void> result = commandExecutor.getConnectionManager().newPromise();
+        batch.executeAsync().addListener(new FutureListener<List<?>>() {
+            @Override
+            public void operationComplete(Future<List<?>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+                result.trySuccess(null);
+            }
+        });
+        return result;
     }
 
 }
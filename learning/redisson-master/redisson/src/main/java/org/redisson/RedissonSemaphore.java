@@ -470,8 +470,8 @@ public class RedissonSemaphore extends RedissonExpirable implements RSemaphore {
         }
 
         return commandExecutor.evalWriteAsync(getName(), StringCodec.INSTANCE, RedisCommands.EVAL_VOID,
-            "local value = redis.call('incrby', KEYS[1], ARGV[1]); " +
-            "redis.call('publish', KEYS[2], value); ",
+            notificationScript("local value = redis.call('incrby', KEYS[1], ARGV[1]); " +
+            "redis.call('publish', KEYS[2], value); "),
             Arrays.<Object>asList(getName(), getChannelName()), permits);
     }
 
@@ -503,11 +503,11 @@ public class RedissonSemaphore extends RedissonExpirable implements RSemaphore {
     @Override
     public RFuture<Void> setPermitsAsync(int permits) {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_VOID,
-                "local value = redis.call('get', KEYS[1]); " +
+                notificationScript("local value = redis.call('get', KEYS[1]); " +
                 "if (value == false or value == 0) then "
                     + "redis.call('set', KEYS[1], ARGV[1]); "
                     + "redis.call('publish', KEYS[2], ARGV[1]); "
-                + "end;",
+                + "end;"),
                 Arrays.<Object>asList(getName(), getChannelName()), permits);
     }
     
@@ -519,13 +519,13 @@ public class RedissonSemaphore extends RedissonExpirable implements RSemaphore {
     @Override
     public RFuture<Boolean> trySetPermitsAsync(int permits) {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "local value = redis.call('get', KEYS[1]); " +
+                notificationScript("local value = redis.call('get', KEYS[1]); " +
                 "if (value == false or value == 0) then "
                     + "redis.call('set', KEYS[1], ARGV[1]); "
                     + "redis.call('publish', KEYS[2], ARGV[1]); "
                     + "return 1;"
                 + "end;"
-                + "return 0;",
+                + "return 0;"),
                 Arrays.<Object>asList(getName(), getChannelName()), permits);
     }
 
@@ -52,7 +52,7 @@ import org.redisson.mapreduce.RedissonCollectionMapReduce;
  * If entry expired then it doesn't returns and clean task runs asynchronous.
  * Clean task deletes removes 100 expired entries at once.
  * In addition there is {@link org.redisson.eviction.EvictionScheduler}. This scheduler
- * deletes expired entries in time interval between 5 seconds to 2 hours.</p>
+ * deletes expired entries within a few seconds after expiration.</p>
  *
  * <p>If eviction is not required then it's better to use {@link org.redisson.api.RSet}.</p>
  *
@@ -205,11 +205,13 @@ public class RedissonSetCache<V> extends RedissonExpirable implements RSetCache<
         return commandExecutor.evalWriteAsync(getName(value), codec, RedisCommands.EVAL_BOOLEAN,
                 "local expireDateScore = redis.call('zscore', KEYS[1], ARGV[3]); " +
                 "redis.call('zadd', KEYS[1], ARGV[2], ARGV[3]); " +
+                EvictionScheduler.updateIndexScript(EvictionScheduler.SET_CACHE, "KEYS[2]", "KEYS[1]", "ARGV[2]") +
                 "if expireDateScore ~= false and tonumber(expireDateScore) > tonumber(ARGV[1]) then " +
                     "return 0;" +
                 "end; " +
                 "return 1; ",
-                Arrays.<Object>asList(getName(value)), System.currentTimeMillis(), timeoutDate, objectState);
+                Arrays.<Object>asList(getName(value), EvictionScheduler.getIndexName(commandExecutor.getConnectionManager(), getName(value))), 
+                System.currentTimeMillis(), timeoutDate, objectState);
     }
 
     @Override
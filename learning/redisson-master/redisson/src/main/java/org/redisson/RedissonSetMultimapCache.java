@@ -40,14 +40,14 @@ public class RedissonSetMultimapCache<K, V> extends RedissonSetMultimap<K, V> im
     
     RedissonSetMultimapCache(UUID id, EvictionScheduler evictionScheduler, CommandAsyncExecutor connectionManager, String name) {
         super(id, connectionManager, name);
-        evictionScheduler.scheduleCleanMultimap(name, getTimeoutSetName());
-        baseCache = new RedissonMultimapCache<K>(connectionManager, name, codec, getTimeoutSetName());
+        evictionScheduler.scheduleCleanSetMultimap(name);
+        baseCache = new RedissonMultimapCache<K>(connectionManager, name, codec, getTimeoutSetName(), EvictionScheduler.SET_MULTIMAP_CACHE);
     }
 
     RedissonSetMultimapCache(UUID id, EvictionScheduler evictionScheduler, Codec codec, CommandAsyncExecutor connectionManager, String name) {
         super(id, codec, connectionManager, name);
-        evictionScheduler.scheduleCleanMultimap(name, getTimeoutSetName());
-        baseCache = new RedissonMultimapCache<K>(connectionManager, name, codec, getTimeoutSetName());
+        evictionScheduler.scheduleCleanSetMultimap(name);
+        baseCache = new RedissonMultimapCache<K>(connectionManager, name, codec, getTimeoutSetName(), EvictionScheduler.SET_MULTIMAP_CACHE);
     }
 
     @Override
@@ -33,10 +33,13 @@ import org.redisson.api.RFuture;
 import org.redisson.api.RLock;
 import org.redisson.api.RSortedSet;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.SortKeyComparator;
 import org.redisson.api.mapreduce.RCollectionMapReduce;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.decoder.ObjectSetReplayDecoder;
 import org.redisson.command.CommandExecutor;
 import org.redisson.mapreduce.RedissonCollectionMapReduce;
 import org.redisson.misc.RPromise;
@@ -90,7 +93,10 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
 
     }
 
+    private static final RedisCommand<Set<Object>> ZRANGE_SET = new RedisCommand<Set<Object>>("ZRANGE", new ObjectSetReplayDecoder<Object>());
+    
     private Comparator<? super V> comparator = NaturalComparator.NATURAL_ORDER;
+    private volatile SortKeyStorage<V> storage;
 
     CommandExecutor commandExecutor;
     
@@ -141,7 +147,7 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
                 }
 
                 Class<?> clazz = Class.forName(className);
-                comparator = (Comparator<V>) clazz.newInstance();
+                setComparator((Comparator<V>) clazz.newInstance());
             }
         } catch (IllegalStateException e) {
             throw e;
@@ -150,6 +156,15 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
         }
     }
 
+    private void setComparator(Comparator<? super V> comparator) {
+        this.comparator = comparator;
+        if (comparator instanceof SortKeyComparator) {
+            storage = new SortKeyStorage<V>(codec, commandExecutor, getName(), (SortKeyComparator<? super V>) comparator);
+        } else {
+            storage = null;
+        }
+    }
+    
     // TODO cache result
     private static String calcClassSign(String name) {
         try {
@@ -177,45 +192,77 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
 
     @Override
     public RFuture<Set<V>> readAllAsync() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.readAllAsync(ZRANGE_SET);
+        }
         return commandExecutor.readAsync(getName(), codec, RedisCommands.LRANGE_SET, getName(), 0, -1);
     }
     
     @Override
     public int size() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return get(storage.sizeAsync());
+        }
         return list.size();
     }
 
     @Override
     public boolean isEmpty() {
-        return list.isEmpty();
+        return size() == 0;
     }
 
     @Override
     public boolean contains(final Object o) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return get(storage.containsAsync(o));
+        }
         return binarySearch((V)o, codec).getIndex() >= 0;
     }
 
     @Override
     public Iterator<V> iterator() {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.iterator(false);
+        }
         return list.iterator();
     }
 
     @Override
     public Object[] toArray() {
+        if (storage != null) {
+            return readAll().toArray();
+        }
         return list.toArray();
     }
 
     @Override
     public <T> T[] toArray(T[] a) {
+        if (storage != null) {
+            return readAll().toArray(a);
+        }
         return list.toArray(a);
     }
 
     @Override
     public boolean add(V value) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return get(storage.addAsync(value, true));
+        }
+        
         lock.lock();
         
         try {
             checkComparator();
+            
+            storage = this.storage;
+            if (storage != null) {
+                return get(storage.addAsync(value, true));
+            }
     
             BinarySearchResult<V> res = binarySearch(value, codec);
             if (res.getIndex() < 0) {
@@ -252,6 +299,11 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
     }
 
     public RFuture<Boolean> addAsync(final V value) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.addAsync(value, true);
+        }
+        
         final RPromise<Boolean> promise = newPromise();
         commandExecutor.getConnectionManager().getExecutor().execute(new Runnable() {
             public void run() {
@@ -268,6 +320,11 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
 
     @Override
     public RFuture<Boolean> removeAsync(final V value) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return storage.removeAsync(value, false);
+        }
+        
         final RPromise<Boolean> promise = newPromise();
         commandExecutor.getConnectionManager().getExecutor().execute(new Runnable() {
             @Override
@@ -286,11 +343,21 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
 
     @Override
     public boolean remove(Object value) {
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            return get(storage.removeAsync(value, false));
+        }
+        
         lock.lock();
 
         try {
             checkComparator();
             
+            storage = this.storage;
+            if (storage != null) {
+                return get(storage.removeAsync(value, false));
+            }
+            
             BinarySearchResult<V> res = binarySearch((V) value, codec);
             if (res.getIndex() < 0) {
                 return false;
@@ -376,7 +443,13 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
 
     @Override
     public V first() {
-        V res = list.getValue(0);
+        V res;
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            res = get(storage.peekFirstAsync());
+        } else {
+            res = list.getValue(0);
+        }
         if (res == null) {
             throw new NoSuchElementException();
         }
@@ -385,7 +458,13 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
 
     @Override
     public V last() {
-        V res = list.getValue(-1);
+        V res;
+        SortKeyStorage<V> storage = this.storage;
+        if (storage != null) {
+            res = get(storage.peekLastAsync());
+        } else {
+            res = list.getValue(-1);
+        }
         if (res == null) {
             throw new NoSuchElementException();
         }
@@ -402,7 +481,7 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
         final String comparatorSign = className + ":" + calcClassSign(className);
 
         Boolean res = commandExecutor.evalWrite(getName(), StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "if redis.call('llen', KEYS[1]) == 0 then "
+                "if redis.call('exists', KEYS[1]) == 0 then "
                 + "redis.call('set', KEYS[2], ARGV[1]); "
                 + "return 1; "
                 + "else "
@@ -410,11 +489,32 @@ public class RedissonSortedSet<V> extends RedissonObject implements RSortedSet<V
                 + "end",
                 Arrays.<Object>asList(getName(), getComparatorKeyName()), comparatorSign);
         if (res) {
-            this.comparator = comparator;
+            setComparator(comparator);
         }
         return res;
     }
     
+    @Override
+    public boolean trySetSortKeyComparator(SortKeyComparator<? super V> comparator) {
+        String className = comparator.getClass().getName();
+        String comparatorSign = className + ":" + calcClassSign(className);
+        
+        lock.lock();
+        try {
+            checkComparator();
+            if (storage != null) {
+                return false;
+            }
+            
+            SortKeyStorage<V> newStorage = new SortKeyStorage<V>(codec, commandExecutor, getName(), comparator);
+            newStorage.migrate(lock, getComparatorKeyName(), comparatorSign);
+            setComparator(comparator);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
     // TODO optimize: get three values each time instead of single
     public BinarySearchResult<V> binarySearch(V value, Codec codec) {
         int size = list.size();
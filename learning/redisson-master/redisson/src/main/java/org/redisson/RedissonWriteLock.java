@@ -83,7 +83,7 @@ public class RedissonWriteLock extends RedissonLock implements RLock {
     @Override
     protected RFuture<Boolean> unlockInnerAsync(long threadId) {
         return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-                "local mode = redis.call('hget', KEYS[1], 'mode'); " +
+                notificationScript("local mode = redis.call('hget', KEYS[1], 'mode'); " +
                 "if (mode == false) then " +
                     "redis.call('publish', KEYS[2], ARGV[1]); " +
                     "return 1; " +
@@ -110,7 +110,7 @@ public class RedissonWriteLock extends RedissonLock implements RLock {
                         "end; " +
                     "end; " +
                 "end; "
-                + "return nil;",
+                + "return nil;"),
         Arrays.<Object>asList(getName(), getChannelName()), LockPubSub.unlockMessage, internalLockLeaseTime, getLockName(threadId));
     }
     
@@ -122,12 +122,12 @@ public class RedissonWriteLock extends RedissonLock implements RLock {
     @Override
     public RFuture<Boolean> forceUnlockAsync() {
         RFuture<Boolean> result = commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
-              "if (redis.call('hget', KEYS[1], 'mode') == 'write') then " +
+              notificationScript("if (redis.call('hget', KEYS[1], 'mode') == 'write') then " +
                   "redis.call('del', KEYS[1]); " +
                   "redis.call('publish', KEYS[2], ARGV[1]); " +
                   "return 1; " +
               "end; " +
-              "return 0; ",
+              "return 0; "),
               Arrays.<Object>asList(getName(), getChannelName()), LockPubSub.unlockMessage);
 
         result.addListener(new FutureListener<Boolean>() {
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.util.List;
+
+/**
+ * Callback used by multi-key commands which are split by slots.
+ * Command is executed once per slot with params created for keys of this slot.
+ * Slot results are delivered concurrently from different threads.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <T> slot command result type
+ * @param <R> final result type
+ */
+public interface SlotKeysCallback<T, R> {
+
+    /**
+     * Creates command params for keys of the same slot
+     * 
+     * @param keys - keys of slot in original order
+     * @return command params
+     */
+    Object[] createParams(List<String> keys);
+
+    /**
+     * Invoked on command result for keys of the same slot
+     * 
+     * @param keys - keys of slot in original order
+     * @param result - command result
+     */
+    void onSlotResult(List<String> keys, T result);
+
+    /**
+     * Invoked once command has been executed for all slots
+     * 
+     * @return final result
+     */
+    R onFinish();
+
+}
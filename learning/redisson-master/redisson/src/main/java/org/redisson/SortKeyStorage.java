@@ -0,0 +1,341 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.redisson.api.RFuture;
+import org.redisson.api.RLock;
+import org.redisson.api.SortKeyComparator;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.SortKeyCodec;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.RedisStrictCommand;
+import org.redisson.client.protocol.convertor.BooleanAmountReplayConvertor;
+import org.redisson.command.CommandAsyncExecutor;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Storage of {@link RedissonSortedSet} and {@link RedissonPriorityQueue} values 
+ * used with {@link SortKeyComparator}.
+ * <p>
+ * Values are stored in Redis sorted set with zero score and ordered lexicographically.
+ * Each member consists of encoded sort key, insertion sequence and encoded value.
+ * All values with the same sort key are located in single lex range, 
+ * so each operation is executed in single round-trip.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <V> value type
+ */
+class SortKeyStorage<V> extends RedissonObject {
+
+    private static final RedisStrictCommand<Boolean> ZLEXCOUNT_BOOLEAN = new RedisStrictCommand<Boolean>("ZLEXCOUNT", new BooleanAmountReplayConvertor());
+    
+    private static final int ITERATOR_BATCH_SIZE = 100;
+    private static final int MIGRATION_BATCH_SIZE = 1000;
+    
+    private final SortKeyComparator<? super V> comparator;
+    
+    public SortKeyStorage(Codec codec, CommandAsyncExecutor commandExecutor, String name, SortKeyComparator<? super V> comparator) {
+        super(new SortKeyCodec(codec), commandExecutor, name);
+        this.comparator = comparator;
+    }
+
+    private String getSequenceName() {
+        return "redisson_sortedset_seq:{" + getName() + "}";
+    }
+    
+    private String getMigrationName() {
+        return "redisson_sortedset_migration:{" + getName() + "}";
+    }
+    
+    private byte[] encodeSortKey(Object value) {
+        return SortKeyCodec.encodeSortKey(comparator.getSortKey((V) value));
+    }
+    
+    private byte[] encodeValue(Object value) {
+        try {
+            return ((SortKeyCodec) codec).getDelegate().getValueEncoder().encode(value);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+    
+    private static byte[] range(byte prefix, byte[] sortKey, boolean upperBound) {
+        byte[] result = new byte[sortKey.length + 1];
+        result[0] = prefix;
+        System.arraycopy(sortKey, 0, result, 1, sortKey.length);
+        if (upperBound) {
+            // sort key ends with 0x00 terminator
+            result[result.length - 1] = 1;
+        }
+        return result;
+    }
+    
+    private static byte[] min(byte[] sortKey) {
+        return range((byte) '[', sortKey, false);
+    }
+    
+    private static byte[] max(byte[] sortKey) {
+        return range((byte) '(', sortKey, true);
+    }
+    
+    /**
+     * Adds value
+     * 
+     * @param value - value to add
+     * @param unique - if <code>true</code> then value isn't added if value with the same sort key exists
+     * @return <code>true</code> if value was added
+     */
+    public RFuture<Boolean> addAsync(V value, boolean unique) {
+        byte[] sortKey = encodeSortKey(value);
+        return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_BOOLEAN,
+                "if ARGV[3] == '1' and redis.call('zlexcount', KEYS[1], '[' .. ARGV[1], '(' .. string.sub(ARGV[1], 1, -2) .. '\\1') > 0 then "
+                  + "return 0; "
+                + "end; "
+                + "local seq = redis.call('incr', KEYS[2]); "
+                + "redis.call('zadd', KEYS[1], 0, ARGV[1] .. string.format('%016x', seq) .. ARGV[2]); "
+                + "return 1; ",
+                Arrays.<Object>asList(getName(), getSequenceName()), sortKey, encodeValue(value), unique ? 1 : 0);
+    }
+    
+    public RFuture<Boolean> containsAsync(Object value) {
+        byte[] sortKey = encodeSortKey(value);
+        return commandExecutor.readAsync(getName(), codec, ZLEXCOUNT_BOOLEAN, getName(), min(sortKey), max(sortKey));
+    }
+    
+    /**
+     * Removes first or last value with the same sort key
+     * 
+     * @param value - value to remove
+     * @param last - remove last value if <code>true</code> and first value otherwise
+     * @return <code>true</code> if value was removed
+     */
+    public RFuture<Boolean> removeAsync(Object value, boolean last) {
+        byte[] sortKey = encodeSortKey(value);
+        return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_BOOLEAN,
+                "local values; "
+              + "if ARGV[3] == '1' then "
+                  + "values = redis.call('zrevrangebylex', KEYS[1], ARGV[2], ARGV[1], 'limit', 0, 1); "
+              + "else "
+                  + "values = redis.call('zrangebylex', KEYS[1], ARGV[1], ARGV[2], 'limit', 0, 1); "
+              + "end; "
+              + "if #values == 0 then "
+                  + "return 0; "
+              + "end; "
+              + "redis.call('zrem', KEYS[1], values[1]); "
+              + "return 1; ",
+                Collections.<Object>singletonList(getName()), min(sortKey), max(sortKey), last ? 1 : 0);
+    }
+    
+    public RFuture<V> pollFirstAsync() {
+        return pollAsync(0);
+    }
+
+    public RFuture<V> pollLastAsync() {
+        return pollAsync(-1);
+    }
+    
+    private RFuture<V> pollAsync(int index) {
+        return commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_OBJECT,
+                "local values = redis.call('zrange', KEYS[1], ARGV[1], ARGV[1]); "
+              + "if #values == 0 then "
+                  + "return nil; "
+              + "end; "
+              + "redis.call('zrem', KEYS[1], values[1]); "
+              + "return values[1]; ",
+                Collections.<Object>singletonList(getName()), index);
+    }
+    
+    public RFuture<V> peekFirstAsync() {
+        return commandExecutor.readAsync(getName(), codec, RedisCommands.ZRANGE_SINGLE, getName(), 0, 0);
+    }
+
+    public RFuture<V> peekLastAsync() {
+        return commandExecutor.readAsync(getName(), codec, RedisCommands.ZRANGE_SINGLE, getName(), -1, -1);
+    }
+    
+    public RFuture<V> getAsync(int index) {
+        return commandExecutor.readAsync(getName(), codec, RedisCommands.ZRANGE_SINGLE, getName(), index, index);
+    }
+    
+    public RFuture<Integer> sizeAsync() {
+        return commandExecutor.readAsync(getName(), codec, RedisCommands.ZCARD_INT, getName());
+    }
+    
+    public <T, R> RFuture<R> readAllAsync(RedisCommand<T> command) {
+        return commandExecutor.readAsync(getName(), codec, command, getName(), 0, -1);
+    }
+    
+    private V decodeMember(byte[] member) {
+        ByteBuf buf = Unpooled.wrappedBuffer(member);
+        try {
+            return (V) codec.getValueDecoder().decode(buf, null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Returns iterator over values. 
+     * Iterator removes exactly the returned value even if other values have the same sort key.
+     * 
+     * @param descending - iterate in descending order if <code>true</code>
+     * @return iterator
+     */
+    public Iterator<V> iterator(final boolean descending) {
+        return new Iterator<V>() {
+
+            private List<byte[]> members = Collections.emptyList();
+            private int memberIndex;
+            private int position;
+            private boolean finished;
+            private byte[] member;
+            private boolean removeExecuted = true;
+            
+            @Override
+            public boolean hasNext() {
+                if (memberIndex < members.size()) {
+                    return true;
+                }
+                if (finished) {
+                    return false;
+                }
+                
+                RedisCommand<List<Object>> command = RedisCommands.ZRANGE;
+                if (descending) {
+                    command = RedisCommands.ZREVRANGE;
+                }
+                List<byte[]> result = (List<byte[]>) get(commandExecutor.readAsync(getName(), ByteArrayCodec.INSTANCE, command, getName(), 
+                                                position, position + ITERATOR_BATCH_SIZE - 1));
+                members = result;
+                memberIndex = 0;
+                position += result.size();
+                if (result.size() < ITERATOR_BATCH_SIZE) {
+                    finished = true;
+                }
+                return !members.isEmpty();
+            }
+
+            @Override
+            public V next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                member = members.get(memberIndex++);
+                removeExecuted = false;
+                return decodeMember(member);
+            }
+
+            @Override
+            public void remove() {
+                if (removeExecuted) {
+                    throw new IllegalStateException("Element been already deleted");
+                }
+                if (get(commandExecutor.writeAsync(getName(), ByteArrayCodec.INSTANCE, RedisCommands.ZREM, getName(), member))) {
+                    position--;
+                }
+                removeExecuted = true;
+            }
+            
+        };
+    }
+    
+    /**
+     * Moves values stored in Redis list with the same name into sorted set
+     * and stores comparator sign. Should be invoked under lock which guards list modification.
+     * 
+     * @param lock - lock held by invoker
+     * @param comparatorKeyName - name of comparator holder
+     * @param comparatorSign - comparator sign
+     */
+    public void migrate(RLock lock, String comparatorKeyName, String comparatorSign) {
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Lock should be held by current thread");
+        }
+        
+        while (true) {
+            get(commandExecutor.writeAsync(getName(), RedisCommands.DEL, getMigrationName()));
+            
+            Codec valueCodec = ((SortKeyCodec) codec).getDelegate();
+            long sequence = 0;
+            while (true) {
+                List<V> values = get(commandExecutor.readAsync(getName(), valueCodec, RedisCommands.LRANGE, 
+                                                    getName(), sequence, sequence + MIGRATION_BATCH_SIZE - 1));
+                if (values.isEmpty()) {
+                    break;
+                }
+                
+                List<Object> members = new ArrayList<Object>(values.size());
+                for (V value : values) {
+                    sequence++;
+                    members.add(encodeMember(value, sequence));
+                }
+                get(commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_VOID,
+                        "for i = 1, #ARGV, 1 do "
+                          + "redis.call('zadd', KEYS[1], 0, ARGV[i]); "
+                      + "end; ",
+                        Collections.<Object>singletonList(getMigrationName()), members.toArray()));
+                
+                if (values.size() < MIGRATION_BATCH_SIZE) {
+                    break;
+                }
+            }
+            
+            // values could be polled without lock meanwhile
+            boolean migrated = get(commandExecutor.evalWriteAsync(getName(), codec, RedisCommands.EVAL_BOOLEAN,
+                    "if redis.call('llen', KEYS[1]) ~= tonumber(ARGV[1]) then "
+                      + "return 0; "
+                  + "end; "
+                  + "if redis.call('exists', KEYS[4]) == 1 then "
+                      + "redis.call('rename', KEYS[4], KEYS[1]); "
+                  + "else "
+                      + "redis.call('del', KEYS[1]); "
+                  + "end; "
+                  + "redis.call('set', KEYS[2], ARGV[1]); "
+                  + "redis.call('set', KEYS[3], ARGV[2]); "
+                  + "return 1; ",
+                    Arrays.<Object>asList(getName(), getSequenceName(), comparatorKeyName, getMigrationName()), 
+                    sequence, comparatorSign));
+            if (migrated) {
+                return;
+            }
+        }
+    }
+
+    private byte[] encodeMember(V value, long sequence) {
+        byte[] sortKey = encodeSortKey(value);
+        byte[] seq = String.format("%016x", sequence).getBytes();
+        byte[] encodedValue = encodeValue(value);
+        byte[] result = new byte[sortKey.length + seq.length + encodedValue.length];
+        System.arraycopy(sortKey, 0, result, 0, sortKey.length);
+        System.arraycopy(seq, 0, result, sortKey.length, seq.length);
+        System.arraycopy(encodedValue, 0, result, sortKey.length + seq.length, encodedValue.length);
+        return result;
+    }
+    
+}
@@ -25,13 +25,45 @@ import java.util.concurrent.TimeUnit;
  */
 public class LocalCachedMapOptions {
     
-    public enum EvictionPolicy {NONE, LRU, LFU, SOFT};
+    public enum EvictionPolicy {NONE, LRU, LFU, SOFT, SLRU, TINY_LFU};
+    
+    /**
+     * Local cache behavior after reconnection to Redis, 
+     * since invalidation messages could be lost while connection was down.
+     */
+    public enum ReconnectionStrategy {
+        
+        /**
+         * Keep local cache as is.
+         */
+        NONE,
+        
+        /**
+         * Clear local cache.
+         */
+        CLEAR,
+        
+        /**
+         * Invalidate only entries changed while connection was down. 
+         * Changes are tracked in Redis by versioned change log of limited size. 
+         * Local cache is cleared if change log doesn't cover disconnection period.
+         * <p>
+         * All instances working with the same map should use this strategy.
+         */
+        LOAD
+        
+    };
     
     private boolean invalidateEntryOnChange;
     private EvictionPolicy evictionPolicy;
     private int cacheSize;
     private long timeToLiveInMillis;
     private long maxIdleInMillis;
+    private long invalidationBatchWindowInMillis;
+    private int invalidationBatchThreshold;
+    private ReconnectionStrategy reconnectionStrategy;
+    private int changeLogSize;
+    private boolean preloadOnStart;
     
     private LocalCachedMapOptions() {
     }
@@ -42,6 +74,11 @@ public class LocalCachedMapOptions {
         this.cacheSize = copy.cacheSize;
         this.timeToLiveInMillis = copy.timeToLiveInMillis;
         this.maxIdleInMillis = copy.maxIdleInMillis;
+        this.invalidationBatchWindowInMillis = copy.invalidationBatchWindowInMillis;
+        this.invalidationBatchThreshold = copy.invalidationBatchThreshold;
+        this.reconnectionStrategy = copy.reconnectionStrategy;
+        this.changeLogSize = copy.changeLogSize;
+        this.preloadOnStart = copy.preloadOnStart;
     }
     
     /**
@@ -52,7 +89,10 @@ public class LocalCachedMapOptions {
      *     new LocalCachedMapOptions()
      *      .cacheSize(0).timeToLive(0).maxIdle(0)
      *      .evictionPolicy(EvictionPolicy.NONE)
-     *      .invalidateEntryOnChange(true);
+     *      .invalidateEntryOnChange(true)
+     *      .invalidationBatchWindow(0).invalidationBatchThreshold(1000)
+     *      .reconnectionStrategy(ReconnectionStrategy.NONE).changeLogSize(10000)
+     *      .preloadOnStart(false);
      * </pre>
      * 
      * @return LocalCachedMapOptions instance
@@ -62,7 +102,10 @@ public class LocalCachedMapOptions {
         return new LocalCachedMapOptions()
                     .cacheSize(0).timeToLive(0).maxIdle(0)
                     .evictionPolicy(EvictionPolicy.NONE)
-                    .invalidateEntryOnChange(true);
+                    .invalidateEntryOnChange(true)
+                    .invalidationBatchWindow(0).invalidationBatchThreshold(1000)
+                    .reconnectionStrategy(ReconnectionStrategy.NONE).changeLogSize(10000)
+                    .preloadOnStart(false);
     }
     
     public boolean isInvalidateEntryOnChange() {
@@ -85,6 +128,26 @@ public class LocalCachedMapOptions {
         return maxIdleInMillis;
     }
 
+    public long getInvalidationBatchWindowInMillis() {
+        return invalidationBatchWindowInMillis;
+    }
+    
+    public int getInvalidationBatchThreshold() {
+        return invalidationBatchThreshold;
+    }
+    
+    public ReconnectionStrategy getReconnectionStrategy() {
+        return reconnectionStrategy;
+    }
+    
+    public int getChangeLogSize() {
+        return changeLogSize;
+    }
+    
+    public boolean isPreloadOnStart() {
+        return preloadOnStart;
+    }
+
     /**
      * Sets cache size. If size is <code>0</code> then local cache is unbounded.
      * 
@@ -115,6 +178,8 @@ public class LocalCachedMapOptions {
      * @param evictionPolicy
      *         <p><code>LRU</code> - uses cache with LRU (least recently used) eviction policy.
      *         <p><code>LFU</code> - uses cache with LFU (least frequently used) eviction policy.
+     *         <p><code>SLRU</code> - uses cache with segmented LRU eviction policy. Entries accessed only once are evicted first.
+     *         <p><code>TINY_LFU</code> - uses cache with W-TinyLFU eviction policy. New entries are admitted only if they are accessed more frequently than eviction candidate.
      *         <p><code>SOFT</code> - uses cache with soft references. The garbage collector will evict items from the cache when the JVM is running out of memory.
      *         <p><code>NONE</code> - doesn't use eviction policy, but timeToLive and maxIdleTime params are still working.
      * @return LocalCachedMapOptions instance
@@ -175,5 +240,92 @@ public class LocalCachedMapOptions {
         return timeToLive(timeUnit.toMillis(maxIdle));
     }
 
+    /**
+     * Sets time window in milliseconds during which invalidated keys are collected 
+     * and then sent to other RLocalCachedMap instances as single message.
+     * If value equals to <code>0</code> then invalidation message is sent on each entry update/remove operation.
+     * <p>
+     * Other instances may return stale values up to this time after change.
+     * 
+     * @param invalidationBatchWindowInMillis - time window in milliseconds
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions invalidationBatchWindow(long invalidationBatchWindowInMillis) {
+        this.invalidationBatchWindowInMillis = invalidationBatchWindowInMillis;
+        return this;
+    }
+    
+    /**
+     * Sets time window during which invalidated keys are collected 
+     * and then sent to other RLocalCachedMap instances as single message.
+     * If value equals to <code>0</code> then invalidation message is sent on each entry update/remove operation.
+     * 
+     * @param invalidationBatchWindow - time window
+     * @param timeUnit - time unit
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions invalidationBatchWindow(long invalidationBatchWindow, TimeUnit timeUnit) {
+        return invalidationBatchWindow(timeUnit.toMillis(invalidationBatchWindow));
+    }
+    
+    /**
+     * Sets amount of distinct keys collected during batch window or changed by single <code>putAll</code> operation 
+     * after which whole cache clearing message is sent to other RLocalCachedMap instances
+     * instead of keys invalidation. 
+     * 
+     * @param invalidationBatchThreshold - amount of keys
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions invalidationBatchThreshold(int invalidationBatchThreshold) {
+        if (invalidationBatchThreshold <= 0) {
+            throw new IllegalArgumentException("invalidationBatchThreshold should be greater than zero");
+        }
+        this.invalidationBatchThreshold = invalidationBatchThreshold;
+        return this;
+    }
+    /**
+     * Sets reconnection strategy. 
+     * 
+     * @param reconnectionStrategy
+     *         <p><code>NONE</code> - keeps local cache as is.
+     *         <p><code>CLEAR</code> - clears local cache.
+     *         <p><code>LOAD</code> - invalidates only entries changed while connection was down. 
+     *         Uses versioned change log stored in Redis.
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions reconnectionStrategy(ReconnectionStrategy reconnectionStrategy) {
+        if (reconnectionStrategy == null) {
+            throw new NullPointerException("reconnectionStrategy can't be null");
+        }
+        this.reconnectionStrategy = reconnectionStrategy;
+        return this;
+    }
+    
+    /**
+     * Sets amount of distinct changed keys stored in change log. 
+     * Used only by {@link ReconnectionStrategy#LOAD} strategy.
+     * 
+     * @param changeLogSize - amount of keys
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions changeLogSize(int changeLogSize) {
+        if (changeLogSize <= 0) {
+            throw new IllegalArgumentException("changeLogSize should be greater than zero");
+        }
+        this.changeLogSize = changeLogSize;
+        return this;
+    }
+    
+    /**
+     * Defines whether to load whole map into local cache on instance creation. 
+     * Loading stops once local cache reaches <code>cacheSize</code>.
+     * 
+     * @param value - if <code>true</code> then map entries are loaded in background
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions preloadOnStart(boolean value) {
+        this.preloadOnStart = value;
+        return this;
+    }
     
 }
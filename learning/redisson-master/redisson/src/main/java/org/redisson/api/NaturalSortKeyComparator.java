@@ -0,0 +1,94 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * {@link SortKeyComparator} which follows natural ordering of values.
+ * <p>
+ * Supports <code>String</code>, <code>Long</code>, <code>Integer</code>, <code>Short</code>, 
+ * <code>Byte</code>, <code>Double</code>, <code>Float</code>, <code>Character</code>, 
+ * <code>Boolean</code> and <code>Date</code> values.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <V> value type
+ */
+public class NaturalSortKeyComparator<V> implements SortKeyComparator<V>, Serializable {
+
+    private static final long serialVersionUID = -3506340829318011297L;
+
+    @Override
+    public int compare(V o1, V o2) {
+        return ((Comparable<Object>) o1).compareTo(o2);
+    }
+
+    @Override
+    public byte[] getSortKey(V value) {
+        if (value instanceof String) {
+            String str = (String) value;
+            byte[] result = new byte[str.length()*2];
+            for (int i = 0; i < str.length(); i++) {
+                char c = str.charAt(i);
+                result[i*2] = (byte) (c >>> 8);
+                result[i*2 + 1] = (byte) c;
+            }
+            return result;
+        }
+        if (value instanceof Long) {
+            return toBytes((Long) value ^ Long.MIN_VALUE, 8);
+        }
+        if (value instanceof Integer) {
+            return toBytes((Integer) value ^ Integer.MIN_VALUE, 4);
+        }
+        if (value instanceof Short) {
+            return toBytes((Short) value ^ Short.MIN_VALUE, 2);
+        }
+        if (value instanceof Byte) {
+            return toBytes((Byte) value ^ Byte.MIN_VALUE, 1);
+        }
+        if (value instanceof Double) {
+            long bits = Double.doubleToLongBits((Double) value);
+            return toBytes(bits ^ ((bits >> 63) | Long.MIN_VALUE), 8);
+        }
+        if (value instanceof Float) {
+            int bits = Float.floatToIntBits((Float) value);
+            return toBytes(bits ^ ((bits >> 31) | Integer.MIN_VALUE), 4);
+        }
+        if (value instanceof Character) {
+            return toBytes((Character) value, 2);
+        }
+        if (value instanceof Boolean) {
+            return toBytes((Boolean) value ? 1 : 0, 1);
+        }
+        if (value instanceof Date) {
+            return toBytes(((Date) value).getTime() ^ Long.MIN_VALUE, 8);
+        }
+        throw new IllegalArgumentException("Value of " + value.getClass() + " type isn't supported");
+    }
+
+    private byte[] toBytes(long value, int size) {
+        byte[] result = new byte[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = (byte) value;
+            value >>>= 8;
+        }
+        return result;
+    }
+    
+}
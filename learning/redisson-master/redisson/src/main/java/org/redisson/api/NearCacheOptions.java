@@ -0,0 +1,108 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Near cache options object. Used to enable client side cache 
+ * for <code>RBucket</code>, <code>RMap</code> and <code>RMapCache</code> objects.
+ * <p>
+ * Only hot keys are cached. Cache memory is bounded per Redisson instance 
+ * by {@link org.redisson.config.Config#setNearCacheMaxMemory(long)} setting.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class NearCacheOptions {
+
+    private int minAccessFrequency;
+    private long timeToLiveInMillis;
+    
+    private NearCacheOptions() {
+    }
+    
+    /**
+     * Creates a new instance of NearCacheOptions with default options.
+     * <p>
+     * This is equivalent to:
+     * <pre>
+     *     new NearCacheOptions()
+     *      .minAccessFrequency(2).timeToLive(0);
+     * </pre>
+     * 
+     * @return NearCacheOptions instance
+     * 
+     */
+    public static NearCacheOptions defaults() {
+        return new NearCacheOptions()
+                    .minAccessFrequency(2).timeToLive(0);
+    }
+    
+    public int getMinAccessFrequency() {
+        return minAccessFrequency;
+    }
+    
+    public long getTimeToLiveInMillis() {
+        return timeToLiveInMillis;
+    }
+    
+    /**
+     * Sets amount of recent reads required to put value into cache.
+     * Access frequency is sampled by sketch shared by all near cached objects, 
+     * so keys read rarely don't occupy cache memory.
+     * <code>1</code> means value is cached on the first read.
+     * 
+     * @param minAccessFrequency - amount of reads, maximum is <code>15</code>
+     * @return NearCacheOptions instance
+     */
+    public NearCacheOptions minAccessFrequency(int minAccessFrequency) {
+        if (minAccessFrequency < 1 || minAccessFrequency > 15) {
+            throw new IllegalArgumentException("minAccessFrequency should be in range [1, 15]");
+        }
+        this.minAccessFrequency = minAccessFrequency;
+        return this;
+    }
+    
+    /**
+     * Sets time to live in milliseconds for each cached value.
+     * If value equals to <code>0</code> then timeout is not applied.
+     * <p>
+     * Near cache is invalidated by Redisson instances which use near cache for the same object.
+     * Use this setting if object is also modified by other clients 
+     * or has entries with limited time to live.
+     * 
+     * @param timeToLiveInMillis - time to live in milliseconds
+     * @return NearCacheOptions instance
+     */
+    public NearCacheOptions timeToLive(long timeToLiveInMillis) {
+        this.timeToLiveInMillis = timeToLiveInMillis;
+        return this;
+    }
+
+    /**
+     * Sets time to live for each cached value.
+     * If value equals to <code>0</code> then timeout is not applied.
+     * 
+     * @param timeToLive - time to live
+     * @param timeUnit - time unit
+     * @return NearCacheOptions instance
+     */
+    public NearCacheOptions timeToLive(long timeToLive, TimeUnit timeUnit) {
+        return timeToLive(timeUnit.toMillis(timeToLive));
+    }
+    
+}
@@ -15,6 +15,7 @@
  */
 package org.redisson.api;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -47,10 +48,25 @@ public interface RBuckets {
      */
     <V> Map<String, V> get(String ... keys);
 
+    /**
+     * Returns Redis object mapped by key. Result Map is not contains
+     * key-value entry for null values.
+     * <p>
+     * In cluster mode keys are grouped by slot and loaded in parallel. 
+     * 
+     * @param <V> type of value
+     * @param keys - keys
+     * @return Map with name of bucket as key and bucket as value
+     */
+    <V> RFuture<Map<String, V>> getAsync(Collection<String> keys);
+
     /**
      * Try to save objects mapped by Redis key.
      * If at least one of them is already exist then 
      * don't set none of them.
+     * <p>
+     * In cluster mode keys of each slot are set by separate command 
+     * and values already set are removed if at least one key of other slot exists.
      *
      * @param buckets - map of buckets
      * @return <code>true</code> if object has been set overwise <code>false</code>
@@ -15,6 +15,7 @@
  */
 package org.redisson.api;
 
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -45,5 +46,24 @@ public interface RDelayedQueue<V> extends RQueue<V>, RDestroyable {
      * @return void
      */
     RFuture<Void> offerAsync(V e, long delay, TimeUnit timeUnit);
+
+    /**
+     * Inserts elements into this queue with 
+     * specified transfer delay per element to destination queue.
+     * 
+     * @param elements - map of elements to add and their delays
+     * @param timeUnit for delays
+     */
+    void offerAll(Map<V, Long> elements, TimeUnit timeUnit);
+    
+    /**
+     * Inserts elements into this queue with 
+     * specified transfer delay per element to destination queue.
+     * 
+     * @param elements - map of elements to add and their delays
+     * @param timeUnit for delays
+     * @return void
+     */
+    RFuture<Void> offerAllAsync(Map<V, Long> elements, TimeUnit timeUnit);
     
 }
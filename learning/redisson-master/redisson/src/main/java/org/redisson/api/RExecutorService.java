@@ -15,6 +15,8 @@
  */
 package org.redisson.api;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 
@@ -68,6 +70,19 @@ public interface RExecutorService extends ExecutorService, RExecutorServiceAsync
     @Override
     RFuture<?> submit(Runnable task);
 
+    /**
+     * Submits value-returning tasks for execution and returns 
+     * Futures representing the pending results of the tasks.
+     * All tasks are added to executor queue by single request.
+     * 
+     * @param tasks - tasks to submit
+     * @param <T> the type of the tasks result
+     * @return Futures representing pending completion of the tasks 
+     *         in the same order as tasks
+     * @throws java.util.concurrent.RejectedExecutionException if executor is in shutdown state
+     */
+    <T> List<RFuture<T>> submitAll(Collection<? extends Callable<T>> tasks);
+
     /**
      * Returns executor name
      * 
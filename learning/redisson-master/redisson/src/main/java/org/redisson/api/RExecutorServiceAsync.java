@@ -15,6 +15,8 @@
  */
 package org.redisson.api;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -49,4 +51,13 @@ public interface RExecutorServiceAsync {
      */
     RFuture<?> submitAsync(Runnable task);
     
+    /**
+     * Use {@link RExecutorService#submitAll(Collection)}
+     * 
+     * @param <T> type of return value
+     * @param tasks - tasks to execute
+     * @return Future objects
+     */
+    <T> List<RFuture<T>> submitAllAsync(Collection<? extends Callable<T>> tasks);
+    
 }
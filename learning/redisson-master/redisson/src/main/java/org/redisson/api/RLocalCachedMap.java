@@ -28,4 +28,18 @@ package org.redisson.api;
  */
 public interface RLocalCachedMap<K, V> extends RMap<K, V>, RDestroyable {
 
+    /**
+     * Loads all map entries into local cache. 
+     * Loading stops once local cache reaches its size limit.
+     */
+    void preloadCache();
+    
+    /**
+     * Loads all map entries into local cache. 
+     * Loading stops once local cache reaches its size limit.
+     * 
+     * @return void
+     */
+    RFuture<Void> preloadCacheAsync();
+    
 }
@@ -55,4 +55,18 @@ public interface RSortedSet<V> extends SortedSet<V>, RObject {
      */
     boolean trySetComparator(Comparator<? super V> comparator);
 
+    /**
+     * Sets {@link SortKeyComparator} and moves existing values into Redis sorted set 
+     * ordered by sort key. After that values are added, searched and polled on Redis side
+     * in single round-trip without global lock.
+     * <p>
+     * Values are migrated under the lock used by list based storage. 
+     * Instances of this object obtained before migration should be requested again. 
+     *
+     * @param comparator for values
+     * @return <code>true</code> if comparator setted and values migrated
+     *         <code>false</code> if {@link SortKeyComparator} has been already set
+     */
+    boolean trySetSortKeyComparator(SortKeyComparator<? super V> comparator);
+
 }
@@ -112,6 +112,38 @@ public interface RedissonClient {
      */
     <K, V> RMapCache<K, V> getMapCache(String name);
 
+    /**
+     * Returns map-based cache instance by name with near cache.
+     * Values of hot keys are served from local memory and invalidated 
+     * on each change made through near cached instances.
+     * Entry expiration is not tracked by near cache, 
+     * use {@link NearCacheOptions#timeToLive(long, TimeUnit)} to limit staleness.
+     *
+     * @param <K> type of key
+     * @param <V> type of value
+     * @param name - name of object
+     * @param options - near cache options
+     * @return MapCache object
+     */
+    <K, V> RMapCache<K, V> getMapCache(String name, NearCacheOptions options);
+
+    /**
+     * Returns map-based cache instance by name with near cache
+     * using provided codec for both cache keys and values.
+     * Values of hot keys are served from local memory and invalidated 
+     * on each change made through near cached instances.
+     * Entry expiration is not tracked by near cache, 
+     * use {@link NearCacheOptions#timeToLive(long, TimeUnit)} to limit staleness.
+     *
+     * @param <K> type of key
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for keys and values
+     * @param options - near cache options
+     * @return MapCache object
+     */
+    <K, V> RMapCache<K, V> getMapCache(String name, Codec codec, NearCacheOptions options);
+
     /**
      * Returns object holder instance by name.
      *
@@ -132,6 +164,32 @@ public interface RedissonClient {
      */
     <V> RBucket<V> getBucket(String name, Codec codec);
 
+    /**
+     * Returns object holder instance by name with near cache.
+     * Hot value is served from local memory and invalidated 
+     * on each change made through near cached instances.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param options - near cache options
+     * @return Bucket object
+     */
+    <V> RBucket<V> getBucket(String name, NearCacheOptions options);
+
+    /**
+     * Returns object holder instance by name with near cache
+     * using provided codec for object.
+     * Hot value is served from local memory and invalidated 
+     * on each change made through near cached instances.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for values
+     * @param options - near cache options
+     * @return Bucket object
+     */
+    <V> RBucket<V> getBucket(String name, Codec codec, NearCacheOptions options);
+
     /**
      * Returns interface for mass operations with Bucket objects.
      *
@@ -285,6 +343,34 @@ public interface RedissonClient {
      */
     <K, V> RMap<K, V> getMap(String name, Codec codec);
 
+    /**
+     * Returns map instance by name with near cache.
+     * Values of hot keys are served from local memory and invalidated 
+     * on each change made through near cached instances.
+     *
+     * @param <K> type of key
+     * @param <V> type of value
+     * @param name - name of object
+     * @param options - near cache options
+     * @return Map object
+     */
+    <K, V> RMap<K, V> getMap(String name, NearCacheOptions options);
+
+    /**
+     * Returns map instance by name with near cache
+     * using provided codec for both map keys and values.
+     * Values of hot keys are served from local memory and invalidated 
+     * on each change made through near cached instances.
+     *
+     * @param <K> type of key
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for keys and values
+     * @param options - near cache options
+     * @return Map object
+     */
+    <K, V> RMap<K, V> getMap(String name, Codec codec, NearCacheOptions options);
+
     /**
      * Returns Set based Multimap instance by name.
      *
@@ -52,6 +52,11 @@ import java.util.concurrent.TimeUnit;
  *          RemoteInvocationOptions.defaults()
  *              .noAck()
  *              .noResult();
+ *
+ *     // ack and result are received through queue shared by all requests
+ *     RemoteInvocationOptions options =
+ *          RemoteInvocationOptions.defaults()
+ *              .useSharedResponseQueue();
  * </pre>
  *
  * @see RRemoteService#get(Class, RemoteInvocationOptions)
@@ -62,6 +67,7 @@ public class RemoteInvocationOptions implements Serializable {
     
     private Long ackTimeoutInMillis;
     private Long executionTimeoutInMillis;
+    private boolean sharedResponseQueue;
 
     private RemoteInvocationOptions() {
     }
@@ -69,6 +75,7 @@ public class RemoteInvocationOptions implements Serializable {
     public RemoteInvocationOptions(RemoteInvocationOptions copy) {
         this.ackTimeoutInMillis = copy.ackTimeoutInMillis;
         this.executionTimeoutInMillis = copy.executionTimeoutInMillis;
+        this.sharedResponseQueue = copy.sharedResponseQueue;
     }
 
     /**
@@ -105,6 +112,10 @@ public class RemoteInvocationOptions implements Serializable {
         return executionTimeoutInMillis != null;
     }
 
+    public boolean isSharedResponseQueueUsed() {
+        return sharedResponseQueue;
+    }
+
     public RemoteInvocationOptions expectAckWithin(long ackTimeoutInMillis) {
         this.ackTimeoutInMillis = ackTimeoutInMillis;
         return this;
@@ -135,11 +146,28 @@ public class RemoteInvocationOptions implements Serializable {
         return this;
     }
 
+    /**
+     * Defines whether ack and result are received through single queue 
+     * shared by all requests of remote service instance. Responses are routed 
+     * to invocations by request id and only one blocking connection per 
+     * remote service instance is used to receive them. 
+     * Cancellation is signalled through shared channel in this mode.
+     * <p>
+     * Otherwise separate queue is created for each request.
+     * 
+     * @return RemoteInvocationOptions object
+     */
+    public RemoteInvocationOptions useSharedResponseQueue() {
+        sharedResponseQueue = true;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "RemoteInvocationOptions[" +
                 "ackTimeoutInMillis=" + ackTimeoutInMillis +
                 ", executionTimeoutInMillis=" + executionTimeoutInMillis +
+                ", sharedResponseQueue=" + sharedResponseQueue +
                 ']';
     }
 }
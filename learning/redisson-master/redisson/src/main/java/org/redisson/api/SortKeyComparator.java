@@ -0,0 +1,48 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.Comparator;
+
+/**
+ * Comparator which maps each value to binary sort key.
+ * <p>
+ * {@link RSortedSet} and {@link RPriorityQueue} with such comparator 
+ * store values in Redis sorted set ordered by sort key, 
+ * so insertion, lookup and poll are executed on Redis side 
+ * in single round-trip without client-side binary search and global lock.
+ * <p>
+ * Sort keys compared as unsigned bytes in lexicographical order
+ * should give the same order as {@link #compare(Object, Object)} method,
+ * and should be equal only for values considered equal by comparator.
+ * <p>
+ * Implementation should have public no-arg constructor.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <V> value type
+ */
+public interface SortKeyComparator<V> extends Comparator<V> {
+
+    /**
+     * Returns sort key of value
+     * 
+     * @param value - value
+     * @return binary sort key
+     */
+    byte[] getSortKey(V value);
+    
+}
@@ -115,4 +115,15 @@ public interface RCollectionMapReduce<VIn, KOut, VOut> extends RMapReduceExecuto
      */
     RCollectionMapReduce<VIn, KOut, VOut> reducer(RReducer<KOut, VOut> reducer);
     
+    /**
+     * Setup Combiner object. Combiner is applied by each mapper 
+     * to values emitted for the same key before they are sent to reducers. 
+     * Usually it's the same object as Reducer, so reduce operation 
+     * should be associative and commutative. 
+     * 
+     * @param combiner used during MapReduce
+     * @return self instance
+     */
+    RCollectionMapReduce<VIn, KOut, VOut> combiner(RReducer<KOut, VOut> combiner);
+    
 }
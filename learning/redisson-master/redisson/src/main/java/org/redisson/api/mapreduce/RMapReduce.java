@@ -109,4 +109,15 @@ public interface RMapReduce<KIn, VIn, KOut, VOut> extends RMapReduceExecutor<VIn
      */
     RMapReduce<KIn, VIn, KOut, VOut> reducer(RReducer<KOut, VOut> reducer);
     
+    /**
+     * Setup Combiner object. Combiner is applied by each mapper 
+     * to values emitted for the same key before they are sent to reducers. 
+     * Usually it's the same object as Reducer, so reduce operation 
+     * should be associative and commutative. 
+     * 
+     * @param combiner used during MapReduce
+     * @return self instance
+     */
+    RMapReduce<KIn, VIn, KOut, VOut> combiner(RReducer<KOut, VOut> combiner);
+    
 }
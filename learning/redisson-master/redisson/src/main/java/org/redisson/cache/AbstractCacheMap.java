@@ -19,12 +19,15 @@ import java.util.AbstractCollection;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.netty.util.internal.PlatformDependent;
 
@@ -37,11 +40,29 @@ import io.netty.util.internal.PlatformDependent;
  */
 public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
 
+    private static final Comparator<StdCachedValue<?, ?>> EXPIRATION_COMPARATOR = new Comparator<StdCachedValue<?, ?>>() {
+        @Override
+        public int compare(StdCachedValue<?, ?> o1, StdCachedValue<?, ?> o2) {
+            if (o1.expirationTime != o2.expirationTime) {
+                return o1.expirationTime < o2.expirationTime ? -1 : 1;
+            }
+            if (o1.expirationId != o2.expirationId) {
+                return o1.expirationId < o2.expirationId ? -1 : 1;
+            }
+            return 0;
+        }
+    };
+    
     final int size;
     final ConcurrentMap<K, CachedValue<K, V>> map = PlatformDependent.newConcurrentHashMap();
     private final long timeToLiveInMillis;
     private final long maxIdleInMillis;
 
+    // values with ttl or maxIdleTime ordered by expiration time.
+    // Idle values are re-queued on poll if they were accessed meanwhile
+    private final ConcurrentSkipListSet<StdCachedValue<?, ?>> expirationQueue = new ConcurrentSkipListSet<StdCachedValue<?, ?>>(EXPIRATION_COMPARATOR);
+    private final AtomicLong expirationIdGenerator = new AtomicLong();
+
 
     public AbstractCacheMap(int size, long timeToLiveInMillis, long maxIdleInMillis) {
         if (size < 0) {
@@ -94,8 +115,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
             return false;
         }
         if (entry.isExpired()) {
-            if (map.remove(key, entry)) {
-                onValueRemove(entry);
+            if (removeValue(entry)) {
                 return false;
             }
             return containsKey(key);
@@ -117,9 +137,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
             CachedValue<K, V> cachedValue = entry.getValue();
             if (cachedValue.getValue().equals(value)) {
                 if (cachedValue.isExpired()) {
-                    if (map.remove(cachedValue.getKey(), cachedValue)) {
-                        onValueRemove(cachedValue);
-                    }
+                    removeValue(cachedValue);
                 } else {
                     readValue(cachedValue);
                     return true;
@@ -144,8 +162,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
             return null;
         }
         if (entry.isExpired()) {
-            if (map.remove(key, entry)) {
-                onValueRemove(entry);
+            if (removeValue(entry)) {
                 return null;
             }
             return get(key);
@@ -175,13 +192,14 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                 onMapFull();
             }
         }
-        onValueCreate(entry);
         CachedValue<K, V> prevCachedValue = map.put(key, entry);
         if (prevCachedValue != null) {
-            onValueRemove(prevCachedValue);
-            if (!prevCachedValue.isExpired()) {
-                return (V) prevCachedValue.getValue();
-            }
+            valueRemoved(prevCachedValue);
+        }
+        schedule(entry);
+        onValueCreate(entry);
+        if (prevCachedValue != null && !prevCachedValue.isExpired()) {
+            return (V) prevCachedValue.getValue();
         }
         return null;
     }
@@ -195,18 +213,68 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
 
     protected boolean removeExpiredEntries() {
         boolean removed = false;
-        // TODO optimize
-        for (CachedValue<K, V> value : map.values()) {
+        long currentTime = System.currentTimeMillis();
+        while (true) {
+            Iterator<StdCachedValue<?, ?>> iterator = expirationQueue.iterator();
+            if (!iterator.hasNext()) {
+                break;
+            }
+            StdCachedValue<K, V> value = (StdCachedValue<K, V>) iterator.next();
+            if (value.expirationTime >= currentTime) {
+                break;
+            }
+            if (!expirationQueue.remove(value)) {
+                continue;
+            }
+            
             if (value.isExpired()) {
                 if (map.remove(value.getKey(), value)) {
-                    onValueRemove(value);                    
+                    onValueRemove(value);
                     removed = true;
                 }
+            } else if (map.get(value.getKey()) == value) {
+                // value has been accessed after it was queued
+                schedule(value);
             }
         }
         return removed;
     }
 
+    private void schedule(CachedValue<K, V> value) {
+        if (!(value instanceof StdCachedValue)) {
+            return;
+        }
+        
+        StdCachedValue<K, V> stdValue = (StdCachedValue<K, V>) value;
+        long expirationTime = stdValue.getExpirationTime();
+        if (expirationTime == 0) {
+            return;
+        }
+        stdValue.expirationTime = expirationTime;
+        stdValue.expirationId = expirationIdGenerator.incrementAndGet();
+        expirationQueue.add(stdValue);
+    }
+
+    private void unschedule(CachedValue<K, V> value) {
+        if (value instanceof StdCachedValue
+                && ((StdCachedValue<K, V>) value).expirationTime != 0) {
+            expirationQueue.remove(value);
+        }
+    }
+    
+    boolean removeValue(CachedValue<K, V> value) {
+        if (map.remove(value.getKey(), value)) {
+            valueRemoved(value);
+            return true;
+        }
+        return false;
+    }
+    
+    private void valueRemoved(CachedValue<K, V> value) {
+        unschedule(value);
+        onValueRemove(value);
+    }
+
     protected abstract void onMapFull();
 
     boolean isFull() {
@@ -234,7 +302,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
     public V remove(Object key) {
         CachedValue<K, V> entry = map.remove(key);
         if (entry != null) {
-            onValueRemove(entry);
+            valueRemoved(entry);
             if (!entry.isExpired()) {
                 return (V) entry.getValue();
             }
@@ -261,6 +329,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
     @Override
     public void clear() {
         map.clear();
+        expirationQueue.clear();
     }
 
     /*
@@ -339,7 +408,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                     if (mapEntry == null) {
                         throw new IllegalStateException();
                     }
-                    map.remove(mapEntry.getKey());
+                    removeValue(mapEntry.getValue());
                     mapEntry = null;
                 }
             };
@@ -388,7 +457,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                     if (mapEntry == null) {
                         throw new IllegalStateException();
                     }
-                    map.remove(mapEntry.getKey(), mapEntry.getValue());
+                    removeValue(mapEntry.getValue());
                     mapEntry = null;
                 }
             };
@@ -431,7 +500,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                     if (mapEntry == null) {
                         throw new IllegalStateException();
                     }
-                    map.remove(mapEntry.getKey(), mapEntry.getValue());
+                    removeValue(mapEntry.getValue());
                     mapEntry = null;
                 }
             };
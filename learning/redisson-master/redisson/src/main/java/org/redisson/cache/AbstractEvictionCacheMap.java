@@ -0,0 +1,176 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Base class for size bounded caches. 
+ * <p>
+ * Eviction policy state is guarded by single lock. 
+ * Cache reads are recorded into striped {@link ReadBuffer} and replayed 
+ * in batch by thread which acquires the lock, so reads don't contend on it.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public abstract class AbstractEvictionCacheMap<K, V> extends AbstractCacheMap<K, V> {
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReadBuffer<LinkedCachedValue<K, V>> readBuffer = new ReadBuffer<LinkedCachedValue<K, V>>();
+    private final ReadBuffer.Consumer<LinkedCachedValue<K, V>> readConsumer = new ReadBuffer.Consumer<LinkedCachedValue<K, V>>() {
+        @Override
+        public void accept(LinkedCachedValue<K, V> value) {
+            if (value.deque != null) {
+                onAccess(value);
+            }
+        }
+    };
+    
+    public AbstractEvictionCacheMap(int size, long timeToLiveInMillis, long maxIdleInMillis) {
+        super(size, timeToLiveInMillis, maxIdleInMillis);
+    }
+    
+    /**
+     * Links new value into eviction policy. Invoked under eviction lock.
+     * 
+     * @param value - cached value
+     */
+    protected abstract void onAdd(LinkedCachedValue<K, V> value);
+
+    /**
+     * Records access to linked value. Invoked under eviction lock.
+     * 
+     * @param value - cached value
+     */
+    protected abstract void onAccess(LinkedCachedValue<K, V> value);
+    
+    /**
+     * Unlinks value from eviction policy. Invoked under eviction lock.
+     * 
+     * @param value - cached value
+     */
+    protected abstract void onRemove(LinkedCachedValue<K, V> value);
+    
+    /**
+     * Unlinks and returns value which should be evicted. Invoked under eviction lock.
+     * 
+     * @return cached value or <code>null</code> if there is nothing to evict
+     */
+    protected abstract LinkedCachedValue<K, V> evict();
+    
+    /**
+     * Unlinks all values. Invoked under eviction lock.
+     */
+    protected abstract void onClear();
+    
+    @Override
+    protected CachedValue<K, V> create(K key, V value, long ttl, long maxIdleTime) {
+        return new LinkedCachedValue<K, V>(key, value, ttl, maxIdleTime);
+    }
+    
+    @Override
+    protected void onValueCreate(CachedValue<K, V> value) {
+        if (size == 0) {
+            return;
+        }
+        
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            // value could be already replaced or removed by concurrent thread
+            if (map.get(value.getKey()) == value) {
+                onAdd((LinkedCachedValue<K, V>) value);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+    
+    @Override
+    protected void onValueRead(CachedValue<K, V> value) {
+        if (size == 0) {
+            return;
+        }
+        
+        LinkedCachedValue<K, V> linkedValue = (LinkedCachedValue<K, V>) value;
+        if (readBuffer.offer(linkedValue) != ReadBuffer.Status.FULL) {
+            return;
+        }
+        
+        if (evictionLock.tryLock()) {
+            try {
+                drainReadBuffer();
+                readConsumer.accept(linkedValue);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+    
+    @Override
+    protected void onValueRemove(CachedValue<K, V> value) {
+        if (size == 0) {
+            return;
+        }
+        
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            LinkedCachedValue<K, V> linkedValue = (LinkedCachedValue<K, V>) value;
+            if (linkedValue.deque != null) {
+                onRemove(linkedValue);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+    
+    @Override
+    protected void onMapFull() {
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            while (true) {
+                LinkedCachedValue<K, V> value = evict();
+                if (value == null || removeValue(value)) {
+                    break;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+    
+    private void drainReadBuffer() {
+        readBuffer.drain(readConsumer);
+    }
+    
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            super.clear();
+            onClear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+    
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+/**
+ * Intrusive doubly-linked list of cached values.
+ * All operations take constant time. Not thread-safe.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+class CachedValueDeque<K, V> {
+
+    private LinkedCachedValue<K, V> head;
+    private LinkedCachedValue<K, V> tail;
+    private int size;
+    
+    public boolean contains(LinkedCachedValue<K, V> value) {
+        return value.deque == this;
+    }
+    
+    public void addLast(LinkedCachedValue<K, V> value) {
+        value.deque = this;
+        value.prev = tail;
+        value.next = null;
+        if (tail == null) {
+            head = value;
+        } else {
+            tail.next = value;
+        }
+        tail = value;
+        size++;
+    }
+    
+    public void remove(LinkedCachedValue<K, V> value) {
+        if (value.prev == null) {
+            head = value.next;
+        } else {
+            value.prev.next = value.next;
+        }
+        if (value.next == null) {
+            tail = value.prev;
+        } else {
+            value.next.prev = value.prev;
+        }
+        value.prev = null;
+        value.next = null;
+        value.deque = null;
+        size--;
+    }
+    
+    public void moveToLast(LinkedCachedValue<K, V> value) {
+        if (tail == value) {
+            return;
+        }
+        remove(value);
+        addLast(value);
+    }
+    
+    public LinkedCachedValue<K, V> peekFirst() {
+        return head;
+    }
+    
+    public LinkedCachedValue<K, V> pollFirst() {
+        LinkedCachedValue<K, V> value = head;
+        if (value != null) {
+            remove(value);
+        }
+        return value;
+    }
+    
+    public boolean isEmpty() {
+        return head == null;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void clear() {
+        LinkedCachedValue<K, V> value = head;
+        while (value != null) {
+            LinkedCachedValue<K, V> next = value.next;
+            value.prev = null;
+            value.next = null;
+            value.deque = null;
+            value = next;
+        }
+        head = null;
+        tail = null;
+        size = 0;
+    }
+    
+}
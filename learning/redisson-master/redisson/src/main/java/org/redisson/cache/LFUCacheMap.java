@@ -15,143 +15,122 @@
  */
 package org.redisson.cache;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentNavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
  * LFU (least frequently used) cache.
+ * <p>
+ * Values are kept in list of frequency buckets ordered by access count,
+ * so access and eviction take constant time.
  * 
  * @author Nikita Koksharov
  *
  * @param <K> key
  * @param <V> value
  */
-public class LFUCacheMap<K, V> extends AbstractCacheMap<K, V> {
+public class LFUCacheMap<K, V> extends AbstractEvictionCacheMap<K, V> {
 
-    public static class MapKey implements Comparable<MapKey> {
+    static class FrequencyBucket<K, V> extends CachedValueDeque<K, V> {
         
-        private Long accessCount;
-        private LFUCachedValue cachedValue;
+        final long accessCount;
+        FrequencyBucket<K, V> prev;
+        FrequencyBucket<K, V> next;
         
-        public MapKey(Long accessCount, LFUCachedValue cachedValue) {
-            super();
+        FrequencyBucket(long accessCount) {
             this.accessCount = accessCount;
-            this.cachedValue = cachedValue;
-        }
-
-        @Override
-        public int compareTo(MapKey o) {
-            int compare = accessCount.compareTo(o.accessCount);
-            if (compare == 0) {
-                return cachedValue.id.compareTo(o.cachedValue.id);
-            }
-            return compare;
-        }
-
-        @Override
-        public String toString() {
-            return "MapKey [accessCount=" + accessCount + "]";
-        }
-        
-    }
-    
-    public static class LFUCachedValue extends StdCachedValue {
-
-        Long id;
-        long accessCount;
-        
-        public LFUCachedValue(long id, Object key, Object value, long ttl, long maxIdleTime) {
-            super(key, value, ttl, maxIdleTime);
-            this.id = id;
-        }
-
-        public void addAccessCount(long value) {
-            accessCount += value;
         }
         
     }
     
-    private final AtomicLong idGenerator = new AtomicLong();
-    private final ConcurrentNavigableMap<MapKey, LFUCachedValue> accessMap = new ConcurrentSkipListMap<MapKey, LFUCachedValue>();
+    // bucket with the lowest access count
+    private FrequencyBucket<K, V> head;
     
     public LFUCacheMap(int size, long timeToLiveInMillis, long maxIdleInMillis) {
         super(size, timeToLiveInMillis, maxIdleInMillis);
     }
     
     @Override
-    protected CachedValue create(K key, V value, long ttl, long maxIdleTime) {
-        return new LFUCachedValue(idGenerator.incrementAndGet(), key, value, ttl, maxIdleTime);
+    protected void onAdd(LinkedCachedValue<K, V> value) {
+        if (head == null || head.accessCount != 0) {
+            head = linkAfter(null, 0);
+        }
+        head.addLast(value);
     }
     
     @Override
-    protected void onValueCreate(CachedValue value) {
-        MapKey key = toKey((LFUCachedValue)value);
-        accessMap.put(key, (LFUCachedValue)value);
+    protected void onAccess(LinkedCachedValue<K, V> value) {
+        FrequencyBucket<K, V> bucket = (FrequencyBucket<K, V>) value.deque;
+        FrequencyBucket<K, V> nextBucket = bucket.next;
+        if (nextBucket == null || nextBucket.accessCount != bucket.accessCount + 1) {
+            nextBucket = linkAfter(bucket, bucket.accessCount + 1);
+        }
+        bucket.remove(value);
+        nextBucket.addLast(value);
+        if (bucket.isEmpty()) {
+            unlink(bucket);
+        }
     }
     
     @Override
-    protected void onValueRead(CachedValue value) {
-        addAccessCount((LFUCachedValue)value, 1);
-    }
-    
-    private MapKey toKey(LFUCachedValue value) {
-        return new MapKey(value.accessCount, value);
+    protected void onRemove(LinkedCachedValue<K, V> value) {
+        FrequencyBucket<K, V> bucket = (FrequencyBucket<K, V>) value.deque;
+        bucket.remove(value);
+        if (bucket.isEmpty()) {
+            unlink(bucket);
+        }
     }
     
     @Override
-    protected void onValueRemove(CachedValue value) {
-        synchronized (value) {
-            MapKey key = toKey((LFUCachedValue)value);
-            accessMap.remove(key);
+    protected LinkedCachedValue<K, V> evict() {
+        if (head == null) {
+            return null;
         }
-    }
-
-    private void addAccessCount(LFUCachedValue value, long count) {
-        synchronized (value) {
-            if (count < 0 && value.accessCount == 0) {
-                return;
-            }
-            
-            MapKey key = toKey(value);
-            if (accessMap.remove(key) == null) {
-                return;
-            }
-
-            if (count < 0) {
-                count = -Math.min(value.accessCount, -count);
-            }
-            value.addAccessCount(count);
-            
-            key = toKey(value);
-            accessMap.put(key, value);
+        FrequencyBucket<K, V> bucket = head;
+        LinkedCachedValue<K, V> value = bucket.pollFirst();
+        if (bucket.isEmpty()) {
+            unlink(bucket);
         }
+        return value;
     }
-
-    @Override
-    protected void onMapFull() {
-        Map.Entry<MapKey, LFUCachedValue> entry = accessMap.pollFirstEntry();
-        if (entry == null) {
-            return;
+    
+    private FrequencyBucket<K, V> linkAfter(FrequencyBucket<K, V> prev, long accessCount) {
+        FrequencyBucket<K, V> bucket = new FrequencyBucket<K, V>(accessCount);
+        bucket.prev = prev;
+        if (prev == null) {
+            bucket.next = head;
+            head = bucket;
+        } else {
+            bucket.next = prev.next;
+            prev.next = bucket;
         }
-        map.remove(entry.getValue().getKey(), entry.getValue());
-        
-        if (entry.getValue().accessCount == 0) {
-            return;
+        if (bucket.next != null) {
+            bucket.next.prev = bucket;
         }
-
-        // TODO optimize
-        // decrease all values
-        for (LFUCachedValue value : accessMap.values()) {
-            addAccessCount(value, -entry.getValue().accessCount);
+        return bucket;
+    }
+    
+    private void unlink(FrequencyBucket<K, V> bucket) {
+        if (bucket.prev == null) {
+            head = bucket.next;
+        } else {
+            bucket.prev.next = bucket.next;
+        }
+        if (bucket.next != null) {
+            bucket.next.prev = bucket.prev;
         }
+        bucket.prev = null;
+        bucket.next = null;
     }
 
     @Override
-    public void clear() {
-        accessMap.clear();
-        super.clear();
+    protected void onClear() {
+        FrequencyBucket<K, V> bucket = head;
+        while (bucket != null) {
+            FrequencyBucket<K, V> next = bucket.next;
+            bucket.clear();
+            bucket.prev = null;
+            bucket.next = null;
+            bucket = next;
+        }
+        head = null;
     }
     
 }
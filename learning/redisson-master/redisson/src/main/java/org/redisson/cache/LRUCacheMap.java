@@ -15,9 +15,6 @@
  */
 package org.redisson.cache;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
 /**
  * LRU (least recently used) cache.
  * 
@@ -26,44 +23,38 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * @param <K> key
  * @param <V> value
  */
-public class LRUCacheMap<K, V> extends AbstractCacheMap<K, V> {
+public class LRUCacheMap<K, V> extends AbstractEvictionCacheMap<K, V> {
 
-    private final Queue<CachedValue> queue = new ConcurrentLinkedQueue<CachedValue>();
+    private final CachedValueDeque<K, V> deque = new CachedValueDeque<K, V>();
     
     public LRUCacheMap(int size, long timeToLiveInMillis, long maxIdleInMillis) {
         super(size, timeToLiveInMillis, maxIdleInMillis);
     }
 
     @Override
-    protected void onValueCreate(CachedValue value) {
-        queue.add(value);
+    protected void onAdd(LinkedCachedValue<K, V> value) {
+        deque.addLast(value);
     }
     
     @Override
-    protected void onValueRemove(CachedValue value) {
-        queue.remove(value);
+    protected void onAccess(LinkedCachedValue<K, V> value) {
+        // move value to tail of queue 
+        deque.moveToLast(value);
     }
     
     @Override
-    protected void onValueRead(CachedValue value) {
-        // move value to tail of queue 
-        if (queue.remove(value)) {
-            queue.add(value);
-        }
+    protected void onRemove(LinkedCachedValue<K, V> value) {
+        deque.remove(value);
     }
 
     @Override
-    protected void onMapFull() {
-        CachedValue value = queue.poll();
-        if (value != null) {
-            map.remove(value.getKey(), value);
-        }
+    protected LinkedCachedValue<K, V> evict() {
+        return deque.pollFirst();
     }
     
     @Override
-    public void clear() {
-        queue.clear();
-        super.clear();
+    protected void onClear() {
+        deque.clear();
     }
 
 }
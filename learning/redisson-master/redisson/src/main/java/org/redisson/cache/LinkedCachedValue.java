@@ -13,30 +13,24 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package org.redisson.eviction;
-
-import org.redisson.api.RFuture;
-import org.redisson.client.codec.LongCodec;
-import org.redisson.client.protocol.RedisCommands;
-import org.redisson.command.CommandAsyncExecutor;
+package org.redisson.cache;
 
 /**
+ * Cached value which could be linked into {@link CachedValueDeque}.
  * 
  * @author Nikita Koksharov
  *
+ * @param <K> key
+ * @param <V> value
  */
-public class SetCacheEvictionTask extends EvictionTask {
+public class LinkedCachedValue<K, V> extends StdCachedValue<K, V> {
 
-    private final String name;
+    LinkedCachedValue<K, V> prev;
+    LinkedCachedValue<K, V> next;
+    CachedValueDeque<K, V> deque;
     
-    public SetCacheEvictionTask(String name, CommandAsyncExecutor executor) {
-        super(executor);
-        this.name = name;
+    public LinkedCachedValue(K key, V value, long ttl, long maxIdleTime) {
+        super(key, value, ttl, maxIdleTime);
     }
 
-    @Override
-    RFuture<Integer> execute() {
-        return executor.writeAsync(name, LongCodec.INSTANCE, RedisCommands.ZREMRANGEBYSCORE, name, 0, System.currentTimeMillis());
-    }
-    
 }
@@ -0,0 +1,244 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.redisson.api.NearCacheOptions;
+import org.redisson.api.RFuture;
+import org.redisson.client.codec.Codec;
+import org.redisson.misc.Hash;
+
+import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import net.openhft.hashing.LongHashFunction;
+
+/**
+ * Near cache of single object. 
+ * Values are stored in {@link NearCacheManager} storage shared by all objects.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class NearCache {
+
+    private static final byte[] OBJECT_KEY = new byte[0];
+    
+    private final NearCacheManager manager;
+    private final String name;
+    private final long nameHash;
+    private final NearCacheOptions options;
+    // incremented on each invalidation, protects cache from values loaded before invalidation
+    private final AtomicLong version = new AtomicLong();
+    // incremented on whole object invalidation
+    private final AtomicLong generation = new AtomicLong();
+    
+    NearCache(NearCacheManager manager, String name, long nameHash, NearCacheOptions options) {
+        this.manager = manager;
+        this.name = name;
+        this.nameHash = nameHash;
+        this.options = options;
+    }
+    
+    static long hash(String name) {
+        return LongHashFunction.farmUo().hashBytes(name.getBytes(CharsetUtil.UTF_8));
+    }
+    
+    public static byte[] hashKey(byte[] encodedKey) {
+        return Hash.hash(encodedKey);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public NearCacheOptions getOptions() {
+        return options;
+    }
+    
+    /**
+     * Returns version which should be obtained before value loading
+     * and passed to {@link #shouldCache(byte[], long)} and {@link #put(byte[], Codec, Object, int, long)} methods.
+     * 
+     * @return version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+    
+    /**
+     * Returns cached value
+     * 
+     * @param keyHash - hash of map key or <code>null</code> for object value
+     * @param codec - codec used to decode value
+     * @return cached value or <code>null</code> if it's absent
+     */
+    public Object get(byte[] keyHash, Codec codec) {
+        NearCacheEntry entry = manager.get(key(keyHash));
+        if (entry == null) {
+            return null;
+        }
+        if (entry.generation != generation.get()) {
+            // object has been invalidated after entry caching
+            manager.remove(entry);
+            return null;
+        }
+        if (entry.codec.getClass() != codec.getClass()) {
+            return null;
+        }
+        return entry.value;
+    }
+    
+    /**
+     * Checks if loaded value should be cached. Value is cached if key is hot enough 
+     * and cache hasn't been invalidated since <code>version</code> was obtained.
+     * 
+     * @param keyHash - hash of map key or <code>null</code> for object value
+     * @param version - version obtained before value loading
+     * @return <code>true</code> if value should be cached
+     */
+    public boolean shouldCache(byte[] keyHash, long version) {
+        return this.version.get() == version
+                && manager.isHot(key(keyHash), options.getMinAccessFrequency());
+    }
+    
+    /**
+     * Caches loaded value unless cache has been invalidated since <code>version</code> was obtained.
+     * 
+     * @param keyHash - hash of map key or <code>null</code> for object value
+     * @param codec - codec used to decode value
+     * @param value - loaded value
+     * @param size - size of encoded value in bytes
+     * @param version - version obtained before value loading
+     */
+    public void put(byte[] keyHash, Codec codec, Object value, int size, long version) {
+        put(keyHash, codec, value, size, version, 0);
+    }
+    
+    /**
+     * Caches loaded value unless cache has been invalidated since <code>version</code> was obtained.
+     * Value isn't served after <code>expireDate</code> even if near cache time to live is longer.
+     * 
+     * @param keyHash - hash of map key or <code>null</code> for object value
+     * @param codec - codec used to decode value
+     * @param value - loaded value
+     * @param size - size of encoded value in bytes
+     * @param version - version obtained before value loading
+     * @param expireDate - expiration date of value in Redis in milliseconds or <code>0</code> if it doesn't expire
+     */
+    public void put(byte[] keyHash, Codec codec, Object value, int size, long version, long expireDate) {
+        if (value == null || this.version.get() != version) {
+            return;
+        }
+        
+        NearCacheKey key = key(keyHash);
+        long expireTime = expireDate;
+        if (options.getTimeToLiveInMillis() > 0) {
+            long ttlExpireTime = System.currentTimeMillis() + options.getTimeToLiveInMillis();
+            if (expireTime == 0 || ttlExpireTime < expireTime) {
+                expireTime = ttlExpireTime;
+            }
+        }
+        int weight = size + key.getKeyHash().length + NearCacheManager.ENTRY_OVERHEAD;
+        manager.put(new NearCacheEntry(key, codec, value, weight, generation.get(), expireTime));
+        
+        if (this.version.get() != version) {
+            // invalidated concurrently
+            manager.remove(key);
+        }
+    }
+    
+    /**
+     * Invalidates whole object before command execution and once it's completed. 
+     * Then publishes invalidation to other Redisson instances.
+     * 
+     * @param <T> type of result
+     * @param future - write command future
+     * @return the same future
+     */
+    public <T> RFuture<T> invalidate(RFuture<T> future) {
+        return invalidate((List<byte[]>) null, future);
+    }
+    
+    /**
+     * Invalidates cached value before command execution and once it's completed. 
+     * Then publishes invalidation to other Redisson instances.
+     * 
+     * @param <T> type of result
+     * @param keyHash - hash of map key
+     * @param future - write command future
+     * @return the same future
+     */
+    public <T> RFuture<T> invalidate(byte[] keyHash, RFuture<T> future) {
+        return invalidate(Collections.singletonList(keyHash), future);
+    }
+    
+    /**
+     * Invalidates cached values before command execution and once it's completed. 
+     * Then publishes invalidation to other Redisson instances.
+     * 
+     * @param <T> type of result
+     * @param keyHashes - hashes of map keys or <code>null</code> for whole object
+     * @param future - write command future
+     * @return the same future
+     */
+    public <T> RFuture<T> invalidate(final List<byte[]> keyHashes, RFuture<T> future) {
+        if (keyHashes != null && keyHashes.isEmpty()) {
+            return future;
+        }
+        
+        invalidateLocally(keyHashes);
+        future.addListener(new FutureListener<T>() {
+            @Override
+            public void operationComplete(Future<T> future) throws Exception {
+                invalidateLocally(keyHashes);
+                manager.publish(nameHash, keyHashes);
+            }
+        });
+        return future;
+    }
+    
+    private void invalidateLocally(List<byte[]> keyHashes) {
+        if (keyHashes == null) {
+            invalidateLocally();
+            return;
+        }
+        for (byte[] keyHash : keyHashes) {
+            invalidateLocally(keyHash);
+        }
+    }
+    
+    void invalidateLocally(byte[] keyHash) {
+        version.incrementAndGet();
+        manager.remove(key(keyHash));
+    }
+    
+    void invalidateLocally() {
+        version.incrementAndGet();
+        generation.incrementAndGet();
+    }
+    
+    private NearCacheKey key(byte[] keyHash) {
+        if (keyHash == null) {
+            keyHash = OBJECT_KEY;
+        }
+        return new NearCacheKey(nameHash, keyHash);
+    }
+    
+}
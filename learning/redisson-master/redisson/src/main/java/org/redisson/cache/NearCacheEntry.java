@@ -0,0 +1,49 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import org.redisson.client.codec.Codec;
+
+/**
+ * Near cache value with its weight in bytes.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+final class NearCacheEntry {
+
+    final NearCacheKey key;
+    final Codec codec;
+    final Object value;
+    final int weight;
+    final long generation;
+    final long expireTime;
+    volatile boolean accessed;
+    
+    NearCacheEntry(NearCacheKey key, Codec codec, Object value, int weight, long generation, long expireTime) {
+        this.key = key;
+        this.codec = codec;
+        this.value = value;
+        this.weight = weight;
+        this.generation = generation;
+        this.expireTime = expireTime;
+    }
+    
+    boolean isExpired(long time) {
+        return expireTime != 0 && expireTime <= time;
+    }
+    
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import java.util.Arrays;
+
+/**
+ * Key of near cache entry. Consists of object name hash and key hash.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+final class NearCacheKey {
+
+    private final long nameHash;
+    private final byte[] keyHash;
+    private final int hashCode;
+    
+    NearCacheKey(long nameHash, byte[] keyHash) {
+        this.nameHash = nameHash;
+        this.keyHash = keyHash;
+        this.hashCode = 31 * (int) (nameHash ^ (nameHash >>> 32)) + Arrays.hashCode(keyHash);
+    }
+    
+    public long getNameHash() {
+        return nameHash;
+    }
+    
+    public byte[] getKeyHash() {
+        return keyHash;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof NearCacheKey)) {
+            return false;
+        }
+        NearCacheKey other = (NearCacheKey) obj;
+        return nameHash == other.nameHash && Arrays.equals(keyHash, other.keyHash);
+    }
+
+}
@@ -0,0 +1,338 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.redisson.api.NearCacheOptions;
+import org.redisson.api.RFuture;
+import org.redisson.client.BaseRedisPubSubListener;
+import org.redisson.client.RedisPubSubListener;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.pubsub.PubSubType;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.PubSubConnectionEntry;
+import org.redisson.misc.RPromise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.internal.PlatformDependent;
+import io.netty.util.internal.ThreadLocalRandom;
+
+/**
+ * Near cache storage shared by all near cached objects of Redisson instance.
+ * <p>
+ * Values are admitted only for keys which access frequency sampled by 
+ * count-min sketch reaches {@link NearCacheOptions#getMinAccessFrequency()}.
+ * Memory is bounded by total weight of cached values in bytes, 
+ * entries are evicted by CLOCK algorithm, so recently read entries get second chance.
+ * <p>
+ * Invalidations of all objects are delivered through single channel.
+ * Message is binary: <code>instanceId(8 bytes) nameHash(8 bytes) keyHash(16 bytes)*</code>. 
+ * Message without key hashes invalidates whole object.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class NearCacheManager {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheManager.class);
+    
+    public static final String CHANNEL = "redisson__near_cache";
+    
+    static final int ENTRY_OVERHEAD = 96;
+    
+    private final long instanceId = ThreadLocalRandom.current().nextLong();
+    private final ConcurrentMap<Long, NearCache> caches = PlatformDependent.newConcurrentHashMap();
+    private final ConcurrentMap<NearCacheKey, NearCacheEntry> entries = PlatformDependent.newConcurrentHashMap();
+    private final Queue<NearCacheEntry> clock = new ConcurrentLinkedQueue<NearCacheEntry>();
+    private final AtomicLong weight = new AtomicLong();
+    // amount of clock queue elements which don't point to cached entry
+    private final AtomicInteger staleEntries = new AtomicInteger();
+    
+    private final FrequencySketch sketch;
+    private final Lock sketchLock = new ReentrantLock();
+    
+    private final AtomicReference<RPromise<Void>> subscribeFuture = new AtomicReference<RPromise<Void>>();
+    private final RedisPubSubListener<Object> listener = new BaseRedisPubSubListener() {
+        
+        @Override
+        public boolean onStatus(PubSubType type, String channel) {
+            if (type == PubSubType.SUBSCRIBE) {
+                // invalidations could be lost during reconnection
+                for (NearCache cache : caches.values()) {
+                    cache.invalidateLocally();
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public void onMessage(String channel, Object message) {
+            ByteBuf buf = Unpooled.wrappedBuffer((byte[]) message);
+            if (buf.readLong() == instanceId) {
+                return;
+            }
+
+            NearCache cache = caches.get(buf.readLong());
+            if (cache == null) {
+                return;
+            }
+            
+            if (!buf.isReadable()) {
+                cache.invalidateLocally();
+                return;
+            }
+            
+            while (buf.readableBytes() >= 16) {
+                byte[] keyHash = new byte[16];
+                buf.readBytes(keyHash);
+                cache.invalidateLocally(keyHash);
+            }
+        }
+        
+    };
+    
+    private final ConnectionManager connectionManager;
+    private final long maxMemory;
+    
+    public NearCacheManager(ConnectionManager connectionManager, long maxMemory) {
+        this.connectionManager = connectionManager;
+        this.maxMemory = maxMemory;
+        
+        long expectedSize = 1024;
+        if (maxMemory > 0) {
+            expectedSize = Math.max(expectedSize, maxMemory / (ENTRY_OVERHEAD * 4));
+        }
+        this.sketch = new FrequencySketch((int) Math.min(expectedSize, 1 << 20));
+    }
+    
+    /**
+     * Returns near cache of object. Objects with the same name share the same near cache.
+     * 
+     * @param name - object name
+     * @param options - near cache options
+     * @return near cache
+     */
+    public NearCache getCache(String name, NearCacheOptions options) {
+        long nameHash = NearCache.hash(name);
+        NearCache cache = caches.get(nameHash);
+        if (cache == null) {
+            cache = new NearCache(this, name, nameHash, options);
+            NearCache oldCache = caches.putIfAbsent(nameHash, cache);
+            if (oldCache != null) {
+                cache = oldCache;
+            }
+        }
+        subscribe();
+        return cache;
+    }
+    
+    public long getWeight() {
+        return weight.get();
+    }
+    
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    NearCacheEntry get(NearCacheKey key) {
+        NearCacheEntry entry = entries.get(key);
+        recordAccess(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            remove(entry);
+            return null;
+        }
+        entry.accessed = true;
+        return entry;
+    }
+    
+    boolean isHot(NearCacheKey key, int minAccessFrequency) {
+        sketchLock.lock();
+        try {
+            return sketch.frequency(key) >= minAccessFrequency;
+        } finally {
+            sketchLock.unlock();
+        }
+    }
+    
+    private void recordAccess(NearCacheKey key) {
+        // access recording is lossy, so hot reads don't contend on lock
+        if (sketchLock.tryLock()) {
+            try {
+                sketch.increment(key);
+            } finally {
+                sketchLock.unlock();
+            }
+        }
+    }
+    
+    void put(NearCacheEntry entry) {
+        if (maxMemory > 0 && entry.weight > maxMemory) {
+            return;
+        }
+        
+        NearCacheEntry oldEntry = entries.put(entry.key, entry);
+        weight.addAndGet(entry.weight);
+        if (oldEntry != null) {
+            weight.addAndGet(-oldEntry.weight);
+            markStale();
+        }
+        if (maxMemory > 0) {
+            clock.add(entry);
+            evict();
+        }
+    }
+    
+    void remove(NearCacheKey key) {
+        NearCacheEntry entry = entries.remove(key);
+        if (entry != null) {
+            weight.addAndGet(-entry.weight);
+            markStale();
+        }
+    }
+    
+    void remove(NearCacheEntry entry) {
+        if (entries.remove(entry.key, entry)) {
+            weight.addAndGet(-entry.weight);
+            markStale();
+        }
+    }
+    
+    private void markStale() {
+        if (maxMemory > 0) {
+            staleEntries.incrementAndGet();
+        }
+    }
+    
+    private void evict() {
+        while (weight.get() > maxMemory) {
+            NearCacheEntry entry = clock.poll();
+            if (entry == null) {
+                return;
+            }
+            if (entries.get(entry.key) != entry) {
+                // entry has been replaced or removed
+                staleEntries.decrementAndGet();
+                continue;
+            }
+            if (entry.accessed) {
+                // second chance
+                entry.accessed = false;
+                clock.add(entry);
+                continue;
+            }
+            remove(entry);
+            staleEntries.decrementAndGet();
+        }
+        
+        if (staleEntries.get() > entries.size() + 1024) {
+            purgeClock();
+        }
+    }
+    
+    private void purgeClock() {
+        int stale = 0;
+        for (Iterator<NearCacheEntry> iterator = clock.iterator(); iterator.hasNext();) {
+            NearCacheEntry entry = iterator.next();
+            if (entries.get(entry.key) != entry) {
+                iterator.remove();
+                stale++;
+            }
+        }
+        staleEntries.addAndGet(-stale);
+    }
+    
+    void publish(long nameHash, List<byte[]> keyHashes) {
+        int size = 16;
+        if (keyHashes != null) {
+            for (byte[] keyHash : keyHashes) {
+                size += keyHash.length;
+            }
+        }
+        
+        ByteBuf buf = Unpooled.buffer(size);
+        buf.writeLong(instanceId);
+        buf.writeLong(nameHash);
+        if (keyHashes != null) {
+            for (byte[] keyHash : keyHashes) {
+                buf.writeBytes(keyHash);
+            }
+        }
+        byte[] message = buf.array();
+        
+        RFuture<Long> future = connectionManager.getCommandExecutor().writeAsync(CHANNEL, ByteArrayCodec.INSTANCE, RedisCommands.PUBLISH, CHANNEL, message);
+        future.addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                if (!future.isSuccess()) {
+                    log.error("Can't publish near cache invalidation", future.cause());
+                }
+            }
+        });
+    }
+    
+    private RFuture<Void> subscribe() {
+        RPromise<Void> promise = subscribeFuture.get();
+        if (promise != null) {
+            return promise;
+        }
+        
+        final RPromise<Void> newPromise = connectionManager.newPromise();
+        if (!subscribeFuture.compareAndSet(null, newPromise)) {
+            return subscribeFuture.get();
+        }
+        
+        RFuture<PubSubConnectionEntry> future = connectionManager.subscribe(ByteArrayCodec.INSTANCE, CHANNEL, listener);
+        future.addListener(new FutureListener<PubSubConnectionEntry>() {
+            @Override
+            public void operationComplete(Future<PubSubConnectionEntry> future) throws Exception {
+                if (!future.isSuccess()) {
+                    // next near cached object will try to subscribe again
+                    subscribeFuture.compareAndSet(newPromise, null);
+                    newPromise.tryFailure(future.cause());
+                    return;
+                }
+                
+                newPromise.trySuccess(null);
+            }
+        });
+        return newPromise;
+    }
+    
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lossy striped buffer of cache reads. 
+ * Each stripe is a bounded ring written by many threads and drained by single thread 
+ * which holds the eviction lock. Reads are dropped if stripe is contended.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <E> element type
+ */
+class ReadBuffer<E> {
+
+    public interface Consumer<E> {
+        
+        void accept(E element);
+        
+    }
+    
+    public enum Status {SUCCESS, FAILED, FULL}
+    
+    static final int STRIPE_SIZE = 16;
+    static final int STRIPE_MASK = STRIPE_SIZE - 1;
+    static final int MAX_STRIPES = 64;
+    
+    static final class Stripe<E> {
+        
+        final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<E>(STRIPE_SIZE);
+        final AtomicLong writeCounter = new AtomicLong();
+        volatile long readCounter;
+        
+        Status offer(E element) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            if (tail - head >= STRIPE_SIZE) {
+                return Status.FULL;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & STRIPE_MASK), element);
+                return Status.SUCCESS;
+            }
+            return Status.FAILED;
+        }
+        
+        void drain(Consumer<E> consumer) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            for (; head < tail; head++) {
+                int index = (int) (head & STRIPE_MASK);
+                E element = buffer.get(index);
+                if (element == null) {
+                    // slot is reserved but not published yet
+                    break;
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(element);
+            }
+            readCounter = head;
+        }
+        
+    }
+    
+    private final Stripe<E>[] stripes;
+    private final int mask;
+    
+    public ReadBuffer() {
+        int count = 1;
+        int processors = Runtime.getRuntime().availableProcessors();
+        while (count < processors && count < MAX_STRIPES) {
+            count <<= 1;
+        }
+        stripes = new Stripe[count];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe<E>();
+        }
+        mask = count - 1;
+    }
+    
+    public Status offer(E element) {
+        int hash = (int) Thread.currentThread().getId();
+        hash ^= hash >>> 16;
+        return stripes[hash & mask].offer(element);
+    }
+    
+    public void drain(Consumer<E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            stripe.drain(consumer);
+        }
+    }
+    
+}
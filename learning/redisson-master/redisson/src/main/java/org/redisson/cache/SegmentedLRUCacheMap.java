@@ -0,0 +1,93 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+/**
+ * Segmented LRU cache.
+ * <p>
+ * New values are placed into probation segment and promoted 
+ * to protected segment on second access. Values are evicted from 
+ * probation segment first, so one-time reads can't flush frequently used values.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class SegmentedLRUCacheMap<K, V> extends AbstractEvictionCacheMap<K, V> {
+
+    final CachedValueDeque<K, V> probation = new CachedValueDeque<K, V>();
+    final CachedValueDeque<K, V> protectedDeque = new CachedValueDeque<K, V>();
+    private final int maxProtectedSize;
+    
+    public SegmentedLRUCacheMap(int size, long timeToLiveInMillis, long maxIdleInMillis) {
+        this(size, size, timeToLiveInMillis, maxIdleInMillis);
+    }
+
+    SegmentedLRUCacheMap(int size, int mainSize, long timeToLiveInMillis, long maxIdleInMillis) {
+        super(size, timeToLiveInMillis, maxIdleInMillis);
+        this.maxProtectedSize = (int) (mainSize * 0.8);
+    }
+    
+    @Override
+    protected void onAdd(LinkedCachedValue<K, V> value) {
+        probation.addLast(value);
+    }
+    
+    @Override
+    protected void onAccess(LinkedCachedValue<K, V> value) {
+        if (protectedDeque.contains(value)) {
+            protectedDeque.moveToLast(value);
+            return;
+        }
+        
+        probation.remove(value);
+        protectedDeque.addLast(value);
+        if (protectedDeque.size() > maxProtectedSize) {
+            LinkedCachedValue<K, V> demoted = protectedDeque.pollFirst();
+            probation.addLast(demoted);
+        }
+    }
+    
+    @Override
+    protected void onRemove(LinkedCachedValue<K, V> value) {
+        value.deque.remove(value);
+    }
+    
+    @Override
+    protected LinkedCachedValue<K, V> evict() {
+        LinkedCachedValue<K, V> value = probation.pollFirst();
+        if (value == null) {
+            value = protectedDeque.pollFirst();
+        }
+        return value;
+    }
+    
+    LinkedCachedValue<K, V> peekVictim() {
+        LinkedCachedValue<K, V> value = probation.peekFirst();
+        if (value == null) {
+            value = protectedDeque.peekFirst();
+        }
+        return value;
+    }
+    
+    @Override
+    protected void onClear() {
+        probation.clear();
+        protectedDeque.clear();
+    }
+    
+}
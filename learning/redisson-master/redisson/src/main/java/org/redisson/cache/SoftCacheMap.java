@@ -43,7 +43,7 @@ public class SoftCacheMap<K, V> extends AbstractCacheMap<K, V> {
             if (value == null) {
                 break;
             }
-            map.remove(value.getOwner().getKey(), value.getOwner());
+            removeValue((CachedValue<K, V>) value.getOwner());
         }
         return super.removeExpiredEntries();
     }
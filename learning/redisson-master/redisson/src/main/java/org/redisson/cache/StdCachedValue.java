@@ -30,6 +30,9 @@ public class StdCachedValue<K, V> implements CachedValue<K, V> {
     long creationTime;
     long lastAccess;
 
+    volatile long expirationTime;
+    long expirationId;
+
     public StdCachedValue(K key, V value, long ttl, long maxIdleTime) {
         this.value = value;
         this.ttl = ttl;
@@ -52,6 +55,25 @@ public class StdCachedValue<K, V> implements CachedValue<K, V> {
         return result;
     }
 
+    /**
+     * Returns time when this value expires if it won't be accessed
+     * 
+     * @return time in milliseconds or <code>0</code> if value never expires
+     */
+    long getExpirationTime() {
+        long result = 0;
+        if (ttl != 0) {
+            result = creationTime + ttl;
+        }
+        if (maxIdleTime != 0) {
+            long idleTime = lastAccess + maxIdleTime;
+            if (result == 0 || idleTime < result) {
+                result = idleTime;
+            }
+        }
+        return result;
+    }
+
     @Override
     public K getKey() {
         return key;
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+/**
+ * W-TinyLFU cache.
+ * <p>
+ * New values are placed into small LRU window. Value evicted from window 
+ * is admitted to main segmented LRU space only if it was accessed 
+ * more frequently than the main space victim. Frequencies are estimated by {@link FrequencySketch}.
+ * 
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class TinyLFUCacheMap<K, V> extends SegmentedLRUCacheMap<K, V> {
+
+    private final CachedValueDeque<K, V> window = new CachedValueDeque<K, V>();
+    private final int maxWindowSize;
+    private final FrequencySketch sketch;
+    
+    public TinyLFUCacheMap(int size, long timeToLiveInMillis, long maxIdleInMillis) {
+        super(size, size - windowSize(size), timeToLiveInMillis, maxIdleInMillis);
+        this.maxWindowSize = windowSize(size);
+        this.sketch = new FrequencySketch(size);
+    }
+    
+    private static int windowSize(int size) {
+        return Math.max(1, size / 100);
+    }
+    
+    @Override
+    protected void onAdd(LinkedCachedValue<K, V> value) {
+        sketch.increment(value.getKey());
+        window.addLast(value);
+        if (window.size() > maxWindowSize) {
+            probation.addLast(window.pollFirst());
+        }
+    }
+    
+    @Override
+    protected void onAccess(LinkedCachedValue<K, V> value) {
+        sketch.increment(value.getKey());
+        if (window.contains(value)) {
+            window.moveToLast(value);
+            return;
+        }
+        super.onAccess(value);
+    }
+    
+    @Override
+    protected LinkedCachedValue<K, V> evict() {
+        LinkedCachedValue<K, V> candidate = window.peekFirst();
+        if (candidate == null) {
+            return super.evict();
+        }
+        window.remove(candidate);
+        
+        LinkedCachedValue<K, V> victim = peekVictim();
+        if (victim == null) {
+            return candidate;
+        }
+        
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+            probation.addLast(candidate);
+            victim.deque.remove(victim);
+            return victim;
+        }
+        return candidate;
+    }
+    
+    @Override
+    protected void onClear() {
+        window.clear();
+        super.onClear();
+    }
+    
+}
@@ -20,18 +20,28 @@ import org.redisson.client.protocol.pubsub.PubSubType;
 public class OneShotPubSubListener<V> implements RedisPubSubListener<V> {
 
     private RedisPubSubConnection connection;
+    private String channelName;
     private RedisPubSubListener<V> listener;
 
     public OneShotPubSubListener(RedisPubSubConnection connection, RedisPubSubListener<V> listener) {
+        this(connection, null, listener);
+    }
+    
+    public OneShotPubSubListener(RedisPubSubConnection connection, String channelName, RedisPubSubListener<V> listener) {
         super();
         this.connection = connection;
+        this.channelName = channelName;
         this.listener = listener;
     }
 
     @Override
     public boolean onStatus(PubSubType type, String channel) {
         if (listener.onStatus(type, channel)) {
-            connection.removeListener(this);
+            if (channelName != null) {
+                connection.removeListener(channelName, this);
+            } else {
+                connection.removeListener(this);
+            }
             return true;
         }
         return false;
@@ -97,6 +97,11 @@ public class RedisClient {
 
     public RedisClient(final Timer timer, ExecutorService executor, EventLoopGroup group, Class<? extends SocketChannel> socketChannelClass, String host, int port, 
                         int connectTimeout, int commandTimeout) {
+        this(timer, executor, group, socketChannelClass, host, port, connectTimeout, commandTimeout, false);
+    }
+
+    public RedisClient(final Timer timer, ExecutorService executor, EventLoopGroup group, Class<? extends SocketChannel> socketChannelClass, String host, int port, 
+                        int connectTimeout, int commandTimeout, final boolean pipelining) {
         if (timer == null) {
             throw new NullPointerException("timer param can't be null");
         }
@@ -110,7 +115,7 @@ public class RedisClient {
                 ch.pipeline().addFirst(new ConnectionWatchdog(bootstrap, channels, timer),
                     CommandEncoder.INSTANCE,
                     CommandBatchEncoder.INSTANCE,
-                    new CommandsQueue(),
+                    new CommandsQueue(pipelining),
                     new CommandDecoder(RedisClient.this.executor));
             }
         });
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client;
+
+/**
+ * Thrown when script requested by EVALSHA command 
+ * doesn't exist in Redis script cache.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class RedisNoScriptException extends RedisException {
+
+    private static final long serialVersionUID = -2983917543937307437L;
+
+    public RedisNoScriptException(String message) {
+        super(message);
+    }
+
+}
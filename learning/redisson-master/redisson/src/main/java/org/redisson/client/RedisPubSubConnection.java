@@ -15,24 +15,31 @@
  */
 package org.redisson.client;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.CommandData;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.decoder.MultiDecoder;
+import org.redisson.client.protocol.pubsub.Message;
 import org.redisson.client.protocol.pubsub.PubSubMessage;
 import org.redisson.client.protocol.pubsub.PubSubMessageDecoder;
 import org.redisson.client.protocol.pubsub.PubSubPatternMessage;
 import org.redisson.client.protocol.pubsub.PubSubPatternMessageDecoder;
 import org.redisson.client.protocol.pubsub.PubSubStatusMessage;
 import org.redisson.client.protocol.pubsub.PubSubType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -47,7 +54,104 @@ import io.netty.util.internal.PlatformDependent;
  */
 public class RedisPubSubConnection extends RedisConnection {
 
+    /**
+     * Max amount of messages handled by lane in single executor task
+     */
+    static final int DISPATCH_BATCH_SIZE = 64;
+    
+    private static final Logger log = LoggerFactory.getLogger(RedisPubSubConnection.class);
+    
+    /**
+     * Delivers messages of the same channel in order. 
+     * Consecutive messages are handled in single executor task.
+     * Lane of unsubscribed channel is removed only once all its messages are handled,
+     * so messages of re-subscribed channel are never handled concurrently.
+     */
+    class DispatchLane implements Runnable {
+        
+        private final Queue<Message> messages = new ConcurrentLinkedQueue<Message>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final String key;
+        private final Executor executor;
+        private boolean unsubscribed;
+        private boolean removed;
+        
+        DispatchLane(String key, Executor executor) {
+            this.key = key;
+            this.executor = executor;
+        }
+
+        /**
+         * Adds message to lane
+         * 
+         * @param message - pubsub message
+         * @return <code>false</code> if lane has been already removed
+         */
+        synchronized boolean add(Message message) {
+            if (removed) {
+                return false;
+            }
+            
+            unsubscribed = false;
+            if (message instanceof PubSubStatusMessage) {
+                PubSubType type = ((PubSubStatusMessage) message).getType();
+                unsubscribed = type == PubSubType.UNSUBSCRIBE || type == PubSubType.PUNSUBSCRIBE;
+            }
+            
+            messages.add(message);
+            int queueSize = dispatchQueueSize.incrementAndGet();
+            while (true) {
+                int maxSize = maxDispatchQueueSize.get();
+                if (queueSize <= maxSize || maxDispatchQueueSize.compareAndSet(maxSize, queueSize)) {
+                    break;
+                }
+            }
+            
+            if (size.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+            return true;
+        }
+        
+        private synchronized void removeIfDrained() {
+            if (unsubscribed && size.get() == 0) {
+                removed = true;
+                lanes.remove(key, this);
+            }
+        }
+        
+        @Override
+        public void run() {
+            int handled = 0;
+            while (true) {
+                Message message = messages.poll();
+                dispatchQueueSize.decrementAndGet();
+                try {
+                    onMessage(message);
+                } catch (Exception e) {
+                    log.error("Can't handle message: " + message, e);
+                }
+                
+                if (size.decrementAndGet() == 0) {
+                    removeIfDrained();
+                    return;
+                }
+                
+                if (++handled == DISPATCH_BATCH_SIZE) {
+                    // give other lanes a chance
+                    executor.execute(this);
+                    return;
+                }
+            }
+        }
+        
+    }
+    
     final Queue<RedisPubSubListener<Object>> listeners = new ConcurrentLinkedQueue<RedisPubSubListener<Object>>();
+    final ConcurrentMap<String, Queue<RedisPubSubListener<Object>>> channelListeners = PlatformDependent.newConcurrentHashMap();
+    final ConcurrentMap<String, DispatchLane> lanes = PlatformDependent.newConcurrentHashMap();
+    final AtomicInteger dispatchQueueSize = new AtomicInteger();
+    final AtomicInteger maxDispatchQueueSize = new AtomicInteger();
     final Map<String, Codec> channels = PlatformDependent.newConcurrentHashMap();
     final Map<String, Codec> patternChannels = PlatformDependent.newConcurrentHashMap();
     final Set<String> unsubscibedChannels = new HashSet<String>();
@@ -69,22 +173,139 @@ public class RedisPubSubConnection extends RedisConnection {
         listeners.remove(listener);
     }
 
+    /**
+     * Adds listener which is notified only about messages 
+     * and status changes of defined channel or pattern.
+     * 
+     * @param channelName - channel name or pattern
+     * @param listener - pubsub listener
+     */
+    public void addListener(String channelName, RedisPubSubListener listener) {
+        while (true) {
+            Queue<RedisPubSubListener<Object>> queue = channelListeners.get(channelName);
+            if (queue == null) {
+                queue = new ConcurrentLinkedQueue<RedisPubSubListener<Object>>();
+                Queue<RedisPubSubListener<Object>> oldQueue = channelListeners.putIfAbsent(channelName, queue);
+                if (oldQueue != null) {
+                    queue = oldQueue;
+                }
+            }
+            
+            synchronized (queue) {
+                // queue could be removed by concurrent removeListener invocation
+                if (channelListeners.get(channelName) == queue) {
+                    queue.add(listener);
+                    return;
+                }
+            }
+        }
+    }
+    
+    public void addOneShotListener(String channelName, RedisPubSubListener listener) {
+        addListener(channelName, new OneShotPubSubListener<Object>(this, channelName, listener));
+    }
+
+    public void removeListener(String channelName, RedisPubSubListener<?> listener) {
+        Queue<RedisPubSubListener<Object>> queue = channelListeners.get(channelName);
+        if (queue == null) {
+            return;
+        }
+        
+        synchronized (queue) {
+            if (queue.remove(listener) && queue.isEmpty()) {
+                channelListeners.remove(channelName, queue);
+            }
+        }
+    }
+    
+    private Collection<RedisPubSubListener<Object>> getListeners(String channelName) {
+        Queue<RedisPubSubListener<Object>> queue = channelListeners.get(channelName);
+        if (queue == null) {
+            return Collections.emptyList();
+        }
+        return queue;
+    }
+    
+    /**
+     * Passes message to listeners using executor. 
+     * Messages and status changes of the same channel are handled in receiving order.
+     * Should be invoked from the single thread.
+     * 
+     * @param executor - executor used to notify listeners
+     * @param message - pubsub message
+     */
+    public void dispatch(Executor executor, Message message) {
+        String key;
+        if (message instanceof PubSubPatternMessage) {
+            key = ((PubSubPatternMessage) message).getPattern();
+        } else if (message instanceof PubSubMessage) {
+            key = ((PubSubMessage) message).getChannel();
+        } else {
+            key = ((PubSubStatusMessage) message).getChannel();
+        }
+        
+        DispatchLane lane = lanes.get(key);
+        if (lane == null || !lane.add(message)) {
+            lane = new DispatchLane(key, executor);
+            lanes.put(key, lane);
+            lane.add(message);
+        }
+    }
+    
+    /**
+     * Returns amount of received messages waiting to be passed to listeners
+     * 
+     * @return amount of messages
+     */
+    public int getDispatchQueueSize() {
+        return dispatchQueueSize.get();
+    }
+    
+    /**
+     * Returns max amount of messages waited to be passed to listeners 
+     * since connection has been created
+     * 
+     * @return amount of messages
+     */
+    public int getMaxDispatchQueueSize() {
+        return maxDispatchQueueSize.get();
+    }
+    
+    void onMessage(Message message) {
+        if (message instanceof PubSubStatusMessage) {
+            onMessage((PubSubStatusMessage) message);
+        } else if (message instanceof PubSubMessage) {
+            onMessage((PubSubMessage) message);
+        } else {
+            onMessage((PubSubPatternMessage) message);
+        }
+    }
+    
     public void onMessage(PubSubStatusMessage message) {
         for (RedisPubSubListener<Object> redisPubSubListener : listeners) {
             redisPubSubListener.onStatus(message.getType(), message.getChannel());
         }
+        for (RedisPubSubListener<Object> redisPubSubListener : getListeners(message.getChannel())) {
+            redisPubSubListener.onStatus(message.getType(), message.getChannel());
+        }
     }
 
     public void onMessage(PubSubMessage message) {
         for (RedisPubSubListener<Object> redisPubSubListener : listeners) {
             redisPubSubListener.onMessage(message.getChannel(), message.getValue());
         }
+        for (RedisPubSubListener<Object> redisPubSubListener : getListeners(message.getChannel())) {
+            redisPubSubListener.onMessage(message.getChannel(), message.getValue());
+        }
     }
 
     public void onMessage(PubSubPatternMessage message) {
         for (RedisPubSubListener<Object> redisPubSubListener : listeners) {
             redisPubSubListener.onPatternMessage(message.getPattern(), message.getChannel(), message.getValue());
         }
+        for (RedisPubSubListener<Object> redisPubSubListener : getListeners(message.getPattern())) {
+            redisPubSubListener.onPatternMessage(message.getPattern(), message.getChannel(), message.getValue());
+        }
     }
 
     public void subscribe(Codec codec, String ... channel) {
@@ -17,8 +17,11 @@ package org.redisson.client.codec;
 
 import java.io.IOException;
 
+import org.redisson.client.handler.CommandEncoder;
 import org.redisson.client.handler.State;
+import org.redisson.client.protocol.ByteBufEncoder;
 import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
 
 import io.netty.buffer.ByteBuf;
 
@@ -31,6 +34,25 @@ public class LongCodec extends StringCodec {
 
     public static final LongCodec INSTANCE = new LongCodec();
 
+    private final Encoder encoder = new ByteBufEncoder() {
+        @Override
+        public byte[] encode(Object in) throws IOException {
+            if (in instanceof Long || in instanceof Integer) {
+                return CommandEncoder.convert(((Number) in).longValue());
+            }
+            return LongCodec.super.getValueEncoder().encode(in);
+        }
+
+        @Override
+        public void encode(Object in, ByteBuf out) throws IOException {
+            if (in instanceof Long || in instanceof Integer) {
+                CommandEncoder.writeLong(((Number) in).longValue(), out);
+                return;
+            }
+            ((ByteBufEncoder) LongCodec.super.getValueEncoder()).encode(in, out);
+        }
+    };
+
     public final Decoder<Object> decoder = new Decoder<Object>() {
         @Override
         public Object decode(ByteBuf buf, State state) throws IOException {
@@ -44,4 +66,9 @@ public class LongCodec extends StringCodec {
         return decoder;
     }
 
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
 }
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client.codec;
+
+import java.io.IOException;
+
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Decodes values stored with sort key prefix.
+ * <p>
+ * Value layout: escaped sort key, <code>0x00 0x00</code> terminator, 
+ * 16 bytes of insertion sequence and value encoded by delegate codec.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class SortKeyCodec implements Codec {
+
+    public static final int SEQUENCE_LENGTH = 16;
+    
+    private final Codec delegate;
+    private final Decoder<Object> valueDecoder = new Decoder<Object>() {
+        @Override
+        public Object decode(ByteBuf buf, State state) throws IOException {
+            skipHeader(buf);
+            return delegate.getValueDecoder().decode(buf, state);
+        }
+    };
+
+    public SortKeyCodec(Codec delegate) {
+        this.delegate = delegate;
+    }
+    
+    public Codec getDelegate() {
+        return delegate;
+    }
+    
+    /**
+     * Escapes zero bytes of sort key and appends terminator, 
+     * so encoded keys are prefix-free and keep lexicographical order.
+     * 
+     * @param sortKey - sort key
+     * @return encoded sort key
+     */
+    public static byte[] encodeSortKey(byte[] sortKey) {
+        int zeros = 0;
+        for (byte b : sortKey) {
+            if (b == 0) {
+                zeros++;
+            }
+        }
+        
+        byte[] result = new byte[sortKey.length + zeros + 2];
+        int index = 0;
+        for (byte b : sortKey) {
+            result[index++] = b;
+            if (b == 0) {
+                result[index++] = (byte) 0xFF;
+            }
+        }
+        return result;
+    }
+    
+    private static void skipHeader(ByteBuf buf) throws IOException {
+        while (buf.isReadable(2)) {
+            byte b = buf.readByte();
+            if (b == 0) {
+                if (buf.readByte() == 0) {
+                    if (!buf.isReadable(SEQUENCE_LENGTH)) {
+                        break;
+                    }
+                    buf.skipBytes(SEQUENCE_LENGTH);
+                    return;
+                }
+            }
+        }
+        throw new IOException("Sort key terminator not found");
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return valueDecoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return delegate.getValueEncoder();
+    }
+
+    @Override
+    public Decoder<Object> getMapValueDecoder() {
+        return delegate.getMapValueDecoder();
+    }
+
+    @Override
+    public Encoder getMapValueEncoder() {
+        return delegate.getMapValueEncoder();
+    }
+
+    @Override
+    public Decoder<Object> getMapKeyDecoder() {
+        return delegate.getMapKeyDecoder();
+    }
+
+    @Override
+    public Encoder getMapKeyEncoder() {
+        return delegate.getMapKeyEncoder();
+    }
+
+}
@@ -19,10 +19,12 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 
 import org.redisson.client.handler.State;
+import org.redisson.client.protocol.ByteBufEncoder;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.Encoder;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.util.CharsetUtil;
 
 /**
@@ -36,11 +38,20 @@ public class StringCodec implements Codec {
 
     private final Charset charset;
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new ByteBufEncoder() {
         @Override
         public byte[] encode(Object in) throws IOException {
             return in.toString().getBytes(charset);
         }
+
+        @Override
+        public void encode(Object in, ByteBuf out) throws IOException {
+            if (CharsetUtil.UTF_8.equals(charset)) {
+                ByteBufUtil.writeUtf8(out, in.toString());
+            } else {
+                out.writeBytes(in.toString().getBytes(charset));
+            }
+        }
     };
 
     private final Decoder<Object> decoder = new Decoder<Object>() {
@@ -27,6 +27,7 @@ import org.redisson.client.RedisAskException;
 import org.redisson.client.RedisException;
 import org.redisson.client.RedisLoadingException;
 import org.redisson.client.RedisMovedException;
+import org.redisson.client.RedisNoScriptException;
 import org.redisson.client.RedisOutOfMemoryException;
 import org.redisson.client.RedisPubSubConnection;
 import org.redisson.client.RedisTimeoutException;
@@ -38,13 +39,8 @@ import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.QueueCommand;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.client.protocol.RedisCommand.ValueType;
-import org.redisson.client.protocol.decoder.ListMultiDecoder;
 import org.redisson.client.protocol.decoder.MultiDecoder;
-import org.redisson.client.protocol.decoder.NestedMultiDecoder;
-import org.redisson.client.protocol.decoder.SlotsDecoder;
 import org.redisson.client.protocol.pubsub.Message;
-import org.redisson.client.protocol.pubsub.PubSubMessage;
-import org.redisson.client.protocol.pubsub.PubSubPatternMessage;
 import org.redisson.client.protocol.pubsub.PubSubStatusMessage;
 import org.redisson.misc.LogHelper;
 import org.redisson.misc.RPromise;
@@ -54,7 +50,7 @@ import org.slf4j.LoggerFactory;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ReplayingDecoder;
+import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.util.CharsetUtil;
 import io.netty.util.internal.PlatformDependent;
 
@@ -66,7 +62,7 @@ import io.netty.util.internal.PlatformDependent;
  * @author Nikita Koksharov
  *
  */
-public class CommandDecoder extends ReplayingDecoder<State> {
+public class CommandDecoder extends ByteToMessageDecoder {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -79,6 +75,9 @@ public class CommandDecoder extends ReplayingDecoder<State> {
     private final Map<PubSubKey, CommandData<Object, Object>> pubSubChannels = PlatformDependent.newConcurrentHashMap();
 
     private final ExecutorService executor;
+
+    // decoding state of partially received response
+    private State state;
     
     public CommandDecoder(ExecutorService executor) {
         this.executor = executor;
@@ -91,231 +90,319 @@ public class CommandDecoder extends ReplayingDecoder<State> {
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
-        QueueCommand data = ctx.channel().attr(CommandsQueue.CURRENT_COMMAND).get();
-
         if (log.isTraceEnabled()) {
             log.trace("channel: {} message: {}", ctx.channel(), in.toString(0, in.writerIndex(), CharsetUtil.UTF_8));
         }
-        if (state() == null) {
-            boolean makeCheckpoint = data != null;
-            if (data != null) {
-                if (data instanceof CommandsData) {
-                    makeCheckpoint = false;
-                } else {
-                    CommandData<Object, Object> cmd = (CommandData<Object, Object>)data;
-                    if (cmd.getCommand().getReplayMultiDecoder() != null 
-                            && (NestedMultiDecoder.class.isAssignableFrom(cmd.getCommand().getReplayMultiDecoder().getClass())
-                                    || SlotsDecoder.class.isAssignableFrom(cmd.getCommand().getReplayMultiDecoder().getClass())
-                                    || ListMultiDecoder.class.isAssignableFrom(cmd.getCommand().getReplayMultiDecoder().getClass()))) {
-                        makeCheckpoint = false;
-                    }
-                }
-            }
-            state(new State(makeCheckpoint));
-        }
 
-        state().setDecoderState(null);
+        Channel channel = ctx.channel();
+        while (in.isReadable()) {
+            QueueCommand data = channel.attr(CommandsQueue.CURRENT_COMMAND).get();
+            if (data == null) {
+                decodePubSub(in, channel);
+                return;
+            }
 
-        if (data == null) {
-            decode(in, null, null, ctx.channel());
-        } else if (data instanceof CommandData) {
-            CommandData<Object, Object> cmd = (CommandData<Object, Object>)data;
-            try {
-                if (state().getLevels().size() > 0) {
-                    decodeFromCheckpoint(ctx, in, data, cmd);
-                } else {
-                    decode(in, cmd, null, ctx.channel());
+            if (data instanceof CommandData) {
+                CommandData<Object, Object> cmd = (CommandData<Object, Object>)data;
+                if (!decodeCommand(in, cmd, channel)) {
+                    return;
                 }
-            } catch (Exception e) {
-                cmd.tryFailure(e);
-            }
-        } else if (data instanceof CommandsData) {
-            CommandsData commands = (CommandsData)data;
-            try {
-                decodeCommandBatch(ctx, in, data, commands);
-            } catch (Exception e) {
-                commands.getPromise().tryFailure(e);
+            } else if (data instanceof CommandsData) {
+                CommandsData commands = (CommandsData)data;
+                if (!decodeCommandBatch(in, commands, channel)) {
+                    return;
+                }
+            } else {
+                return;
             }
-            return;
         }
-        
-        ctx.pipeline().get(CommandsQueue.class).sendNextCommand(ctx.channel());
+    }
+
+    private State state() {
+        if (state == null) {
+            state = new State();
+        }
+        return state;
+    }
 
-        state(null);
+    private void sendNextCommand(Channel channel) {
+        channel.pipeline().get(CommandsQueue.class).sendNextCommand(channel);
     }
 
-    private void decodeFromCheckpoint(ChannelHandlerContext ctx, ByteBuf in, QueueCommand data,
-            CommandData<Object, Object> cmd) throws IOException {
-        if (state().getLevels().size() == 2) {
-            StateLevel secondLevel = state().getLevels().get(1);
-            
-            if (secondLevel.getParts().isEmpty()) {
-                state().getLevels().remove(1);
+    private void decodePubSub(ByteBuf in, Channel channel) throws Exception {
+        boolean decoded = false;
+        while (in.isReadable()) {
+            if (!decodeResponse(in, null, channel)) {
+                break;
             }
+            decoded = true;
+            state = null;
         }
-        
-        if (state().getLevels().size() == 2) {
-            StateLevel firstLevel = state().getLevels().get(0);
-            StateLevel secondLevel = state().getLevels().get(1);
-            
-            decodeList(in, cmd, firstLevel.getParts(), ctx.channel(), secondLevel.getSize(), secondLevel.getParts());
-            
-            Channel channel = ctx.channel();
-            MultiDecoder<Object> decoder = messageDecoder(cmd, firstLevel.getParts(), channel);
-            if (decoder != null) {
-                Object result = decoder.decode(firstLevel.getParts(), state());
-                if (data != null) {
-                    handleResult(cmd, null, result, true, channel);
-                }
-            }
+
+        if (decoded) {
+            sendNextCommand(channel);
         }
-        if (state().getLevels().size() == 1) {
-            StateLevel firstLevel = state().getLevels().get(0);
-            if (firstLevel.getParts().isEmpty()) {
-                state().resetLevel();
-                decode(in, cmd, null, ctx.channel());
-            } else {
-                decodeList(in, cmd, null, ctx.channel(), firstLevel.getSize(), firstLevel.getParts());
+    }
+
+    private boolean decodeCommand(ByteBuf in, CommandData<Object, Object> cmd, Channel channel) {
+        try {
+            if (!decodeResponse(in, cmd, channel)) {
+                return false;
             }
+        } catch (Exception e) {
+            cmd.tryFailure(e);
         }
-    }
 
-    private void decodeCommandBatch(ChannelHandlerContext ctx, ByteBuf in, QueueCommand data,
-                    CommandsData commandBatch) {
-        int i = state().getBatchIndex();
+        state = null;
+        sendNextCommand(channel);
+        return true;
+    }
 
-        Throwable error = null;
-        while (in.writerIndex() > in.readerIndex()) {
-            CommandData<Object, Object> cmd = null;
+    private boolean decodeCommandBatch(ByteBuf in, CommandsData commandBatch, Channel channel) {
+        while (in.isReadable()) {
+            int i = state().getBatchIndex();
+            CommandData<Object, Object> cmd = (CommandData<Object, Object>) commandBatch.getCommands().get(i);
             try {
-                checkpoint();
-                state().setBatchIndex(i);
-                cmd = (CommandData<Object, Object>) commandBatch.getCommands().get(i);
-                decode(in, cmd, null, ctx.channel());
+                if (!decodeResponse(in, cmd, channel)) {
+                    return false;
+                }
             } catch (Exception e) {
                 cmd.tryFailure(e);
+                // response boundaries are lost
+                state().getLevels().clear();
+                state().setBulkLength(State.NO_BULK);
+            }
+            // batch is failed with the first error
+            if (!cmd.isSuccess() && cmd.cause() != null
+                    && state().getBatchError() == null) {
+                state().setBatchError(cmd.cause());
             }
+
             i++;
-            if (!cmd.isSuccess()) {
-                error = cmd.cause();
+            state().setBatchIndex(i);
+            state().setDecoderState(null);
+            state().setSkipDecoding(false);
+
+            if (commandBatch.isNoResult() || i == commandBatch.getCommands().size()) {
+                Throwable error = state().getBatchError();
+                RPromise<Void> promise = commandBatch.getPromise();
+                if (error != null) {
+                    if (!promise.tryFailure(error) && promise.cause() instanceof RedisTimeoutException) {
+                        log.warn("response has been skipped due to timeout! channel: {}, command: {}", channel, LogHelper.toString(commandBatch));
+                    }
+                } else {
+                    if (!promise.trySuccess(null) && promise.cause() instanceof RedisTimeoutException) {
+                        log.warn("response has been skipped due to timeout! channel: {}, command: {}", channel, LogHelper.toString(commandBatch));
+                    }
+                }
+
+                state = null;
+                sendNextCommand(channel);
+                return true;
             }
         }
+        return false;
+    }
 
-        if (commandBatch.isNoResult() || i == commandBatch.getCommands().size()) {
-            RPromise<Void> promise = commandBatch.getPromise();
-            if (error != null) {
-                if (!promise.tryFailure(error) && promise.cause() instanceof RedisTimeoutException) {
-                    log.warn("response has been skipped due to timeout! channel: {}, command: {}",ctx.channel(), LogHelper.toString(data));
+    /**
+     * Decodes response from the point where previous invocation has stopped.
+     * Elements which have been decoded already are never read again.
+     * 
+     * @return <code>true</code> if response has been fully decoded
+     */
+    private boolean decodeResponse(ByteBuf in, CommandData<Object, Object> data, Channel channel) throws Exception {
+        State state = state();
+        while (true) {
+            StateLevel level = state.getLastLevel();
+            List<Object> parts = null;
+            if (level != null) {
+                parts = level.getParts();
+            }
+
+            int depth = state.getLevels().size();
+            if (!decode(in, data, parts, channel)) {
+                return false;
+            }
+
+            if (state.getLevels().size() == depth) {
+                if (level == null) {
+                    return true;
                 }
-            } else {
-                if (!promise.trySuccess(null) && promise.cause() instanceof RedisTimeoutException) {
-                    log.warn("response has been skipped due to timeout! channel: {}, command: {}", ctx.channel(), LogHelper.toString(data));
+                level.incIndex();
+            }
+
+            while (true) {
+                StateLevel lastLevel = state.getLastLevel();
+                if (!lastLevel.isCompleted()) {
+                    break;
+                }
+
+                state.removeLastLevel();
+                StateLevel parentLevel = state.getLastLevel();
+                List<Object> parentParts = null;
+                if (parentLevel != null) {
+                    parentParts = parentLevel.getParts();
+                }
+                if (!state.isSkipDecoding()) {
+                    try {
+                        decodeList(data, parentParts, channel, lastLevel.getParts());
+                    } catch (Exception e) {
+                        handleDecodingError(data, e);
+                    }
+                }
+
+                if (parentLevel == null) {
+                    return true;
                 }
+                parentLevel.incIndex();
             }
-            
-            ctx.pipeline().get(CommandsQueue.class).sendNextCommand(ctx.channel());
+        }
+    }
 
-            state(null);
-        } else {
-            checkpoint();
-            state().setBatchIndex(i);
+    private void handleDecodingError(CommandData<Object, Object> data, Exception e) throws Exception {
+        if (data == null) {
+            throw e;
         }
+        data.tryFailure(e);
+        // read rest of the response to keep connection usable
+        state().setSkipDecoding(true);
     }
 
-    private void decode(ByteBuf in, CommandData<Object, Object> data, List<Object> parts, Channel channel) throws IOException {
-        int code = in.readByte();
+    /**
+     * Decodes single element of response. Multi-bulk reply header adds new level
+     * to the state and its elements are decoded by subsequent invocations.
+     * 
+     * @return <code>false</code> if element hasn't been fully received yet
+     */
+    private boolean decode(ByteBuf in, CommandData<Object, Object> data, List<Object> parts, Channel channel) throws Exception {
+        if (state().getBulkLength() != State.NO_BULK) {
+            return decodeBulk(in, data, parts, channel);
+        }
+
+        if (!in.isReadable()) {
+            return false;
+        }
+        int code = in.getByte(in.readerIndex());
+        if (code == '$') {
+            if (lineLength(in) == -1) {
+                return false;
+            }
+            in.skipBytes(1);
+            long l = readLong(in);
+            if (l > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                        "Java only supports arrays up to " + Integer.MAX_VALUE + " in size");
+            }
+            state().setBulkLength((int) l);
+            return decodeBulk(in, data, parts, channel);
+        }
+
+        int length = lineLength(in);
+        if (length == -1) {
+            return false;
+        }
+
         if (code == '+') {
-            ByteBuf rb = in.readBytes(in.bytesBefore((byte) '\r'));
-            try {
-                String result = rb.toString(CharsetUtil.UTF_8);
-                in.skipBytes(2);
+            String result = in.toString(in.readerIndex() + 1, length - 1, CharsetUtil.UTF_8);
+            in.skipBytes(length + 2);
 
+            if (!state().isSkipDecoding()) {
                 handleResult(data, parts, result, false, channel);
-            } finally {
-                rb.release();
             }
         } else if (code == '-') {
-            ByteBuf rb = in.readBytes(in.bytesBefore((byte) '\r'));
-            try {
-                String error = rb.toString(CharsetUtil.UTF_8);
-                in.skipBytes(2);
-
-                if (error.startsWith("MOVED")) {
-                    String[] errorParts = error.split(" ");
-                    int slot = Integer.valueOf(errorParts[1]);
-                    String addr = errorParts[2];
-                    data.tryFailure(new RedisMovedException(slot, addr));
-                } else if (error.startsWith("ASK")) {
-                    String[] errorParts = error.split(" ");
-                    int slot = Integer.valueOf(errorParts[1]);
-                    String addr = errorParts[2];
-                    data.tryFailure(new RedisAskException(slot, addr));
-                } else if (error.startsWith("TRYAGAIN")) {
-                    data.tryFailure(new RedisTryAgainException(error
-                            + ". channel: " + channel + " data: " + data));
-                } else if (error.startsWith("LOADING")) {
-                    data.tryFailure(new RedisLoadingException(error
-                            + ". channel: " + channel + " data: " + data));
-                } else if (error.startsWith("OOM")) {
-                    data.tryFailure(new RedisOutOfMemoryException(error.split("OOM ")[1]
-                            + ". channel: " + channel + " data: " + data));
-                } else if (error.contains("-OOM ")) {
-                    data.tryFailure(new RedisOutOfMemoryException(error.split("-OOM ")[1]
-                            + ". channel: " + channel + " data: " + data));
-                } else {
-                    if (data != null) {
-                        data.tryFailure(new RedisException(error + ". channel: " + channel + " command: " + data));
-                    } else {
-                        log.error("Error: {} channel: {} data: {}", error, channel, data);
-                    }
-                }
-            } finally {
-                rb.release();
+            String error = in.toString(in.readerIndex() + 1, length - 1, CharsetUtil.UTF_8);
+            in.skipBytes(length + 2);
+
+            if (!state().isSkipDecoding()) {
+                handleError(data, error, channel);
             }
         } else if (code == ':') {
+            in.skipBytes(1);
             Long result = readLong(in);
-            handleResult(data, parts, result, false, channel);
-        } else if (code == '$') {
-            ByteBuf buf = readBytes(in);
-            Object result = null;
-            if (buf != null) {
-                Decoder<Object> decoder = selectDecoder(data, parts);
-                result = decoder.decode(buf, state());
+            if (!state().isSkipDecoding()) {
+                handleResult(data, parts, result, false, channel);
             }
-            handleResult(data, parts, result, false, channel);
         } else if (code == '*') {
-            int level = state().incLevel();
-            
+            in.skipBytes(1);
             long size = readLong(in);
-            List<Object> respParts;
-            if (state().getLevels().size()-1 >= level) {
-                StateLevel stateLevel = state().getLevels().get(level);
-                respParts = stateLevel.getParts();
-                size = stateLevel.getSize();
-            } else {
-                respParts = new ArrayList<Object>();
-                if (state().isMakeCheckpoint()) {
-                    state().addLevel(new StateLevel(size, respParts));
-                }
-            }
-            
-            decodeList(in, data, parts, channel, size, respParts);
+            state().addLevel(new StateLevel(size, new ArrayList<Object>((int) Math.max(0, Math.min(size, 1024)))));
         } else {
             String dataStr = in.toString(0, in.writerIndex(), CharsetUtil.UTF_8);
             throw new IllegalStateException("Can't decode replay: " + dataStr);
         }
+        return true;
+    }
+
+    private boolean decodeBulk(ByteBuf in, CommandData<Object, Object> data, List<Object> parts, Channel channel) throws Exception {
+        int size = state().getBulkLength();
+        ByteBuf buf = null;
+        if (size != -1) {
+            if (in.readableBytes() < size + 2) {
+                return false;
+            }
+            buf = in.readSlice(size);
+            int cr = in.readByte();
+            int lf = in.readByte();
+            if (cr != CR || lf != LF) {
+                throw new IOException("Improper line ending: " + cr + ", " + lf);
+            }
+        }
+        state().setBulkLength(State.NO_BULK);
+
+        if (state().isSkipDecoding()) {
+            return true;
+        }
+
+        try {
+            Object result = null;
+            if (buf != null) {
+                Decoder<Object> decoder = selectDecoder(data, parts);
+                result = decoder.decode(buf, state());
+            }
+            handleResult(data, parts, result, false, channel);
+        } catch (Exception e) {
+            handleDecodingError(data, e);
+        }
+        return true;
     }
 
-    private void decodeList(ByteBuf in, CommandData<Object, Object> data, List<Object> parts,
-            Channel channel, long size, List<Object> respParts)
-                    throws IOException {
-        for (int i = respParts.size(); i < size; i++) {
-            decode(in, data, respParts, channel);
-            if (state().isMakeCheckpoint()) {
-                checkpoint();
+    private void handleError(CommandData<Object, Object> data, String error, Channel channel) {
+        if (error.startsWith("MOVED")) {
+            String[] errorParts = error.split(" ");
+            int slot = Integer.valueOf(errorParts[1]);
+            String addr = errorParts[2];
+            data.tryFailure(new RedisMovedException(slot, addr));
+        } else if (error.startsWith("ASK")) {
+            String[] errorParts = error.split(" ");
+            int slot = Integer.valueOf(errorParts[1]);
+            String addr = errorParts[2];
+            data.tryFailure(new RedisAskException(slot, addr));
+        } else if (error.startsWith("TRYAGAIN")) {
+            data.tryFailure(new RedisTryAgainException(error
+                    + ". channel: " + channel + " data: " + data));
+        } else if (error.startsWith("NOSCRIPT")) {
+            data.tryFailure(new RedisNoScriptException(error
+                    + ". channel: " + channel + " data: " + data));
+        } else if (error.startsWith("LOADING")) {
+            data.tryFailure(new RedisLoadingException(error
+                    + ". channel: " + channel + " data: " + data));
+        } else if (error.startsWith("OOM")) {
+            data.tryFailure(new RedisOutOfMemoryException(error.split("OOM ")[1]
+                    + ". channel: " + channel + " data: " + data));
+        } else if (error.contains("-OOM ")) {
+            data.tryFailure(new RedisOutOfMemoryException(error.split("-OOM ")[1]
+                    + ". channel: " + channel + " data: " + data));
+        } else {
+            if (data != null) {
+                data.tryFailure(new RedisException(error + ". channel: " + channel + " command: " + data));
+            } else {
+                log.error("Error: {} channel: {} data: {}", error, channel, data);
             }
         }
+    }
 
+    private void decodeList(CommandData<Object, Object> data, List<Object> parts,
+            Channel channel, List<Object> respParts) {
         MultiDecoder<Object> decoder = messageDecoder(data, respParts, channel);
         if (decoder == null) {
             return;
@@ -328,19 +415,12 @@ public class CommandDecoder extends ReplayingDecoder<State> {
         }
 
         if (result instanceof Message) {
-            // store current message index
-            checkpoint();
-
             handlePublishSubscribe(data, null, channel, result);
-            // has next messages?
-            if (in.writerIndex() > in.readerIndex()) {
-                decode(in, data, null, channel);
-            }
         }
     }
 
     private void handlePublishSubscribe(CommandData<Object, Object> data, List<Object> parts,
-            Channel channel, final Object result) {
+            Channel channel, Object result) {
         if (result instanceof PubSubStatusMessage) {
             String channelName = ((PubSubStatusMessage) result).getChannel();
             String operation = ((PubSubStatusMessage) result).getType().name().toLowerCase();
@@ -356,20 +436,8 @@ public class CommandDecoder extends ReplayingDecoder<State> {
             }
         }
 
-        final RedisPubSubConnection pubSubConnection = RedisPubSubConnection.getFrom(channel);
-        executor.execute(new Runnable() {
-            @Override
-            public void run() {
-                if (result instanceof PubSubStatusMessage) {
-                    pubSubConnection.onMessage((PubSubStatusMessage) result);
-                } else if (result instanceof PubSubMessage) {
-                    pubSubConnection.onMessage((PubSubMessage) result);
-                } else {
-                    pubSubConnection.onMessage((PubSubPatternMessage) result);
-                }
-            }
-        });
-        
+        RedisPubSubConnection pubSubConnection = RedisPubSubConnection.getFrom(channel);
+        pubSubConnection.dispatch(executor, (Message) result);
     }
 
     private void handleResult(CommandData<Object, Object> data, List<Object> parts, Object result, boolean multiResult, Channel channel) {
@@ -455,23 +523,16 @@ public class CommandDecoder extends ReplayingDecoder<State> {
         return decoder;
     }
 
-    public ByteBuf readBytes(ByteBuf is) throws IOException {
-        long l = readLong(is);
-        if (l > Integer.MAX_VALUE) {
-            throw new IllegalArgumentException(
-                    "Java only supports arrays up to " + Integer.MAX_VALUE + " in size");
-        }
-        int size = (int) l;
-        if (size == -1) {
-            return null;
-        }
-        ByteBuf buffer = is.readSlice(size);
-        int cr = is.readByte();
-        int lf = is.readByte();
-        if (cr != CR || lf != LF) {
-            throw new IOException("Improper line ending: " + cr + ", " + lf);
+    /**
+     * Returns length of the line starting from current reader index
+     * excluding CRLF or <code>-1</code> if line hasn't been fully received yet.
+     */
+    private static int lineLength(ByteBuf in) {
+        int length = in.bytesBefore((byte) CR);
+        if (length == -1 || in.readableBytes() < length + 2) {
+            return -1;
         }
-        return buffer;
+        return length;
     }
 
     public static long readLong(ByteBuf is) throws IOException {
@@ -15,11 +15,13 @@
  */
 package org.redisson.client.handler;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.ByteBufEncoder;
 import org.redisson.client.protocol.CommandData;
 import org.redisson.client.protocol.DefaultParamsEncoder;
 import org.redisson.client.protocol.Encoder;
@@ -78,9 +80,9 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<?, ?>> {
             out.writeBytes(convert(len));
             out.writeBytes(CRLF);
             
-            writeArgument(out, msg.getCommand().getName().getBytes("UTF-8"));
+            writeArgument(out, msg.getCommand().getNameBytes());
             if (msg.getCommand().getSubName() != null) {
-                writeArgument(out, msg.getCommand().getSubName().getBytes("UTF-8"));
+                writeArgument(out, msg.getCommand().getSubNameBytes());
             }
             int i = 1;
             for (Object param : msg.getParams()) {
@@ -100,7 +102,11 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<?, ?>> {
                     }
                 }
                 
-                writeArgument(out, encoder.encode(param));
+                if (encoder instanceof ByteBufEncoder) {
+                    writeArgument(ctx, out, (ByteBufEncoder) encoder, param);
+                } else {
+                    writeArgument(out, encoder.encode(param));
+                }
                 
                 i++;
             }
@@ -145,6 +151,22 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<?, ?>> {
         throw new IllegalStateException();
     }
 
+    private void writeArgument(ChannelHandlerContext ctx, ByteBuf out, ByteBufEncoder encoder, Object param) throws IOException {
+        // RESP doesn't allow zero padded length prefix,
+        // so value is encoded into pooled buffer to get its length first
+        ByteBuf arg = ctx.alloc().buffer();
+        try {
+            encoder.encode(param, arg);
+            out.writeByte(BYTES_PREFIX);
+            out.writeBytes(convert(arg.readableBytes()));
+            out.writeBytes(CRLF);
+            out.writeBytes(arg);
+            out.writeBytes(CRLF);
+        } finally {
+            arg.release();
+        }
+    }
+
     private void writeArgument(ByteBuf out, byte[] arg) {
         out.writeByte(BYTES_PREFIX);
         out.writeBytes(convert(arg.length));
@@ -219,6 +241,44 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<?, ?>> {
         return toChars(i);
     }
     
+    /**
+     * Writes decimal representation of number directly into <code>out</code>
+     *
+     * @param i - number
+     * @param out - destination buffer
+     */
+    public static void writeLong(long i, ByteBuf out) {
+        if (i >= 0 && i <= 255) {
+            out.writeBytes(longCache.get(i));
+            return;
+        }
+        if (i == Long.MIN_VALUE) {
+            out.writeBytes(Long.toString(i).getBytes());
+            return;
+        }
+
+        boolean negative = i < 0;
+        long value = negative ? -i : i;
+        int size = 1;
+        for (long bound = 10; size < 19 && value >= bound; bound *= 10) {
+            size++;
+        }
+        if (negative) {
+            size++;
+        }
+
+        out.ensureWritable(size);
+        int index = out.writerIndex() + size;
+        do {
+            out.setByte(--index, (int) ('0' + value % 10));
+            value /= 10;
+        } while (value != 0);
+        if (negative) {
+            out.setByte(--index, '-');
+        }
+        out.writerIndex(out.writerIndex() + size);
+    }
+
     public static byte[] toChars(long i) {
         int size = (i < 0) ? stringSize(-i) + 1 : stringSize(i);
         byte[] buf = new byte[size];
@@ -16,10 +16,12 @@
 package org.redisson.client.handler;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.List;
 import java.util.Queue;
 import java.util.regex.Pattern;
 
+import org.redisson.client.RedisConnectionException;
 import org.redisson.client.protocol.CommandData;
 import org.redisson.client.protocol.QueueCommand;
 import org.redisson.client.protocol.QueueCommandHolder;
@@ -29,8 +31,8 @@ import org.slf4j.LoggerFactory;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
 import io.netty.util.AttributeKey;
 import io.netty.util.internal.PlatformDependent;
@@ -41,7 +43,7 @@ import io.netty.util.internal.PlatformDependent;
  * @author Nikita Koksharov
  *
  */
-public class CommandsQueue extends ChannelOutboundHandlerAdapter {
+public class CommandsQueue extends ChannelDuplexHandler {
 
     private static final Logger log = LoggerFactory.getLogger(CommandsQueue.class);
 
@@ -52,25 +54,83 @@ public class CommandsQueue extends ChannelOutboundHandlerAdapter {
 
     private final Queue<QueueCommandHolder> queue = PlatformDependent.newMpscQueue();
 
+    // commands written to the channel and waiting for response, used in pipelining mode only
+    private final Queue<QueueCommandHolder> sentQueue = new ArrayDeque<QueueCommandHolder>();
+
+    private final boolean pipelining;
+
     private final ChannelFutureListener listener = new ChannelFutureListener() {
         @Override
         public void operationComplete(ChannelFuture future) throws Exception {
             if (!future.isSuccess()) {
-                sendNextCommand(future.channel());
+                sendNextQueued(future.channel());
             }
         }
     };
 
+    public CommandsQueue() {
+        this(false);
+    }
+
+    /**
+     * @param pipelining - if <code>true</code> then commands are written to the channel
+     *        without waiting for the response of previously sent command.
+     *        Responses are matched to commands in FIFO order.
+     */
+    public CommandsQueue(boolean pipelining) {
+        this.pipelining = pipelining;
+    }
+
+    public boolean isPipelining() {
+        return pipelining;
+    }
+
+    /**
+     * Invoked once response has been decoded. Response of pipelined command 
+     * releases only pipelined command, other responses release 
+     * command sent through the queue.
+     * 
+     * @param channel - channel
+     */
     public void sendNextCommand(Channel channel) {
-        channel.attr(CommandsQueue.CURRENT_COMMAND).set(null);
+        if (pipelining) {
+            QueueCommandHolder holder = sentQueue.peek();
+            if (holder != null && holder.getCommand() == channel.attr(CURRENT_COMMAND).get()) {
+                sentQueue.poll();
+                updateCurrentCommand(channel);
+                return;
+            }
+        }
+
+        sendNextQueued(channel);
+    }
+
+    private void sendNextQueued(Channel channel) {
+        // pipelined command could be still waiting for response
+        updateCurrentCommand(channel);
         queue.poll();
         sendData(channel);
     }
 
+    private void updateCurrentCommand(Channel channel) {
+        QueueCommandHolder holder = sentQueue.peek();
+        if (holder != null) {
+            channel.attr(CURRENT_COMMAND).set(holder.getCommand());
+        } else {
+            channel.attr(CURRENT_COMMAND).set(null);
+        }
+    }
+
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
         if (msg instanceof QueueCommand) {
             QueueCommand data = (QueueCommand) msg;
+            // replies arrive in write order, so command can't pass pub/sub operation awaiting confirmation
+            if (pipelining && data.getPubSubOperations().isEmpty() && queue.isEmpty()) {
+                writePipelined(ctx, data, promise);
+                return;
+            }
+
             QueueCommandHolder holder = queue.peek();
             if (holder != null && holder.getCommand() == data) {
                 super.write(ctx, msg, promise);
@@ -83,6 +143,47 @@ public class CommandsQueue extends ChannelOutboundHandlerAdapter {
         }
     }
 
+    private void writePipelined(final ChannelHandlerContext ctx, QueueCommand data, ChannelPromise promise) throws Exception {
+        final QueueCommandHolder holder = new QueueCommandHolder(data, promise);
+        holder.trySend();
+        sentQueue.add(holder);
+        if (sentQueue.peek() == holder) {
+            ctx.channel().attr(CURRENT_COMMAND).set(data);
+        }
+
+        promise.addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+                if (!future.isSuccess()) {
+                    // response won't arrive for unwritten command
+                    boolean head = sentQueue.peek() == holder;
+                    sentQueue.remove(holder);
+                    if (head) {
+                        updateCurrentCommand(future.channel());
+                    }
+                }
+            }
+        });
+        super.write(ctx, data, promise);
+    }
+
+    /**
+     * Fails all pipelined commands waiting for response,
+     * since their responses won't arrive through the closed channel.
+     */
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (pipelining && !sentQueue.isEmpty()) {
+            RedisConnectionException cause = new RedisConnectionException("Connection " + ctx.channel() + " has been closed");
+            QueueCommandHolder holder;
+            while ((holder = sentQueue.poll()) != null) {
+                holder.getCommand().tryFailure(cause);
+            }
+            ctx.channel().attr(CURRENT_COMMAND).set(null);
+        }
+        super.channelInactive(ctx);
+    }
+
     private void sendData(Channel ch) {
         QueueCommandHolder command = queue.peek();
         if (command != null && command.trySend()) {
@@ -21,40 +21,44 @@ import java.util.List;
 
 import org.redisson.client.protocol.decoder.DecoderState;
 
+/**
+ * Response decoding state. Holds position inside of partially received response
+ * so decoding could be resumed from the same point once next chunk of data arrives.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
 public class State {
 
+    /**
+     * Bulk string header hasn't been read
+     */
+    public static final int NO_BULK = -2;
+
     private int batchIndex;
+    private Throwable batchError;
     private DecoderState decoderState;
 
-    private int level = -1;
     private List<StateLevel> levels;
+    private int bulkLength = NO_BULK;
+    private boolean skipDecoding;
     private DecoderState decoderStateCopy;
-    private final boolean makeCheckpoint;
-
-    public State(boolean makeCheckpoint) {
-        this.makeCheckpoint = makeCheckpoint;
-    }
 
-    public boolean isMakeCheckpoint() {
-        return makeCheckpoint;
-    }
-
-    public void resetLevel() {
-        level = -1;
-    }
-    public int decLevel() {
-        return --level;
-    }
-    public int incLevel() {
-        return ++level;
-    }
-    
     public void addLevel(StateLevel stateLevel) {
         if (levels == null) {
             levels = new ArrayList<StateLevel>(2);
         }
         levels.add(stateLevel);
     }
+    public StateLevel getLastLevel() {
+        if (levels == null || levels.isEmpty()) {
+            return null;
+        }
+        return levels.get(levels.size() - 1);
+    }
+    public StateLevel removeLastLevel() {
+        return levels.remove(levels.size() - 1);
+    }
     public List<StateLevel> getLevels() {
         if (levels == null) {
             return Collections.emptyList();
@@ -62,6 +66,32 @@ public class State {
         return levels;
     }
 
+    /**
+     * Length of bulk string which header has been already read
+     * but data hasn't been received yet.
+     * 
+     * @return length of bulk string or {@link #NO_BULK}
+     */
+    public int getBulkLength() {
+        return bulkLength;
+    }
+    public void setBulkLength(int bulkLength) {
+        this.bulkLength = bulkLength;
+    }
+
+    /**
+     * Response should be read till the end without decoding
+     * because an error has occurred during decoding of its part.
+     * 
+     * @return <code>true</code> if response parts shouldn't be decoded
+     */
+    public boolean isSkipDecoding() {
+        return skipDecoding;
+    }
+    public void setSkipDecoding(boolean skipDecoding) {
+        this.skipDecoding = skipDecoding;
+    }
+
     public void setBatchIndex(int index) {
         this.batchIndex = index;
     }
@@ -69,6 +99,13 @@ public class State {
         return batchIndex;
     }
 
+    public void setBatchError(Throwable batchError) {
+        this.batchError = batchError;
+    }
+    public Throwable getBatchError() {
+        return batchError;
+    }
+
     public <T extends DecoderState> T getDecoderState() {
         return (T) decoderState;
     }
@@ -85,10 +122,9 @@ public class State {
 
     @Override
     public String toString() {
-        return "State [batchIndex=" + batchIndex + ", decoderState=" + decoderState + ", level=" + level + ", levels="
-                + levels + ", decoderStateCopy=" + decoderStateCopy + "]";
+        return "State [batchIndex=" + batchIndex + ", decoderState=" + decoderState + ", levels=" + levels
+                + ", bulkLength=" + bulkLength + ", skipDecoding=" + skipDecoding + ", decoderStateCopy="
+                + decoderStateCopy + "]";
     }
 
-    
-    
 }
@@ -17,10 +17,17 @@ package org.redisson.client.handler;
 
 import java.util.List;
 
+/**
+ * Multi-bulk reply which elements are decoding at the moment.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
 public class StateLevel {
 
     private long size;
     private List<Object> parts;
+    private long index;
 
     public StateLevel(long size, List<Object> parts) {
         super();
@@ -36,9 +43,27 @@ public class StateLevel {
         return parts;
     }
 
+    /**
+     * Amount of elements which have been read already.
+     * It may differ from parts size since error replies and 
+     * skipped elements aren't added to parts.
+     * 
+     * @return amount of read elements
+     */
+    public long getIndex() {
+        return index;
+    }
+    public void incIndex() {
+        index++;
+    }
+
+    public boolean isCompleted() {
+        return index >= size;
+    }
+
     @Override
     public String toString() {
-        return "StateLevel [size=" + size + ", parts=" + parts + "]";
+        return "StateLevel [size=" + size + ", index=" + index + ", parts=" + parts + "]";
     }
     
 }
@@ -17,6 +17,8 @@ package org.redisson.client.protocol;
 
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.redisson.client.RedisException;
+import org.redisson.client.RedisNoScriptException;
 import org.redisson.client.RedisRedirectException;
 import org.redisson.client.codec.Codec;
 import org.redisson.misc.RPromise;
@@ -31,7 +33,7 @@ import org.redisson.misc.RPromise;
 public class BatchCommandData<T, R> extends CommandData<T, R> implements Comparable<BatchCommandData<T, R>> {
 
     private final int index;
-    private final AtomicReference<RedisRedirectException> redirectError = new AtomicReference<RedisRedirectException>();
+    private final AtomicReference<RedisException> retryError = new AtomicReference<RedisException>();
     
     public BatchCommandData(RPromise<R> promise, Codec codec, RedisCommand<T> command, Object[] params, int index) {
         super(promise, codec, command, params);
@@ -40,11 +42,12 @@ public class BatchCommandData<T, R> extends CommandData<T, R> implements Compara
     
     @Override
     public boolean tryFailure(Throwable cause) {
-        if (redirectError.get() != null) {
+        if (retryError.get() != null) {
             return false;
         }
-        if (cause instanceof RedisRedirectException) {
-            return redirectError.compareAndSet(null, (RedisRedirectException) cause);
+        if (cause instanceof RedisRedirectException
+                || cause instanceof RedisNoScriptException) {
+            return retryError.compareAndSet(null, (RedisException) cause);
         }
 
         return super.tryFailure(cause);
@@ -52,19 +55,23 @@ public class BatchCommandData<T, R> extends CommandData<T, R> implements Compara
     
     @Override
     public boolean isSuccess() {
-        return redirectError.get() == null && super.isSuccess();
+        return retryError.get() == null && super.isSuccess();
     }
     
     @Override
     public Throwable cause() {
-        if (redirectError.get() != null) {
-            return redirectError.get();
+        if (retryError.get() != null) {
+            return retryError.get();
         }
         return super.cause();
     }
     
+    public int getIndex() {
+        return index;
+    }
+
     public void clearError() {
-        redirectError.set(null);
+        retryError.set(null);
     }
 
     @Override
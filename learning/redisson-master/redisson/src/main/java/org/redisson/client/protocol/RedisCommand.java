@@ -22,6 +22,8 @@ import org.redisson.client.protocol.convertor.Convertor;
 import org.redisson.client.protocol.convertor.EmptyConvertor;
 import org.redisson.client.protocol.decoder.MultiDecoder;
 
+import io.netty.util.CharsetUtil;
+
 /**
  * 
  * @author Nikita Koksharov
@@ -39,6 +41,9 @@ public class RedisCommand<R> {
     private final String name;
     private final String subName;
 
+    private final byte[] nameBytes;
+    private final byte[] subNameBytes;
+
     private MultiDecoder<R> replayMultiDecoder;
     private Decoder<R> replayDecoder;
     Convertor<R> convertor = new EmptyConvertor<R>();
@@ -55,6 +60,8 @@ public class RedisCommand<R> {
         this.inParamIndex = command.inParamIndex;
         this.name = name;
         this.subName = command.subName;
+        this.nameBytes = toBytes(name);
+        this.subNameBytes = command.subNameBytes;
         this.replayMultiDecoder = command.replayMultiDecoder;
         this.replayDecoder = command.replayDecoder;
         this.convertor = command.convertor;
@@ -207,11 +214,38 @@ public class RedisCommand<R> {
         super();
         this.name = name;
         this.subName = subName;
+        this.nameBytes = toBytes(name);
+        this.subNameBytes = toBytes(subName);
         this.replayMultiDecoder = replayMultiDecoder;
         this.replayDecoder = reponseDecoder;
         this.inParamIndex = inParamIndex;
     }
 
+    private static byte[] toBytes(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.getBytes(CharsetUtil.UTF_8);
+    }
+
+    /**
+     * Command sub name encoded in UTF-8
+     * 
+     * @return bytes or <code>null</code> if command has no sub name
+     */
+    public byte[] getSubNameBytes() {
+        return subNameBytes;
+    }
+
+    /**
+     * Command name encoded in UTF-8
+     * 
+     * @return bytes
+     */
+    public byte[] getNameBytes() {
+        return nameBytes;
+    }
+
     public String getSubName() {
         return subName;
     }
@@ -18,6 +18,7 @@ package org.redisson.cluster;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -71,6 +72,9 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
 
     private final ConcurrentMap<Integer, ClusterPartition> lastPartitions = PlatformDependent.newConcurrentHashMap();
 
+    // distinct partitions of lastPartitions map, reset to null on each change
+    private volatile Set<ClusterPartition> lastPartitionsView;
+
     private ScheduledFuture<?> monitorFuture;
     
     private volatile URL lastClusterNode;
@@ -286,10 +290,11 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
                                     initFuture.tryFailure(future.cause());
                                     return;
                                 }
+                                addEntry(partition.getSlots(), e);
                                 for (Integer slot : partition.getSlots()) {
-                                    addEntry(slot, e);
                                     lastPartitions.put(slot, partition);
                                 }
+                                lastPartitionsView = null;
 
                                 log.info("master: {} added for slot ranges: {}", partition.getMasterAddress(), partition.getSlotRanges());
                                 if (!initFuture.trySuccess(null)) {
@@ -577,12 +582,19 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
         Set<Integer> removedSlots = new HashSet<Integer>(lastPartitions.keySet());
         removedSlots.removeAll(newPartitionsSlots);
         lastPartitions.keySet().removeAll(removedSlots);
+        lastPartitionsView = null;
         if (!removedSlots.isEmpty()) {
             log.info("{} slots found to remove", removedSlots.size());
         }
 
+        List<MasterSlaveEntry> removedEntries = new ArrayList<MasterSlaveEntry>(removedSlots.size());
+        for (Integer slot : removedSlots) {
+            removedEntries.add(getEntry(slot));
+        }
+        removeMaster(removedSlots);
+        int index = 0;
         for (Integer slot : removedSlots) {
-            MasterSlaveEntry entry = removeMaster(slot);
+            MasterSlaveEntry entry = removedEntries.get(index++);
             entry.removeSlotRange(slot);
             if (entry.getSlotRanges().isEmpty()) {
                 entry.shutdownMasterAsync();
@@ -596,16 +608,24 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
         if (!addedSlots.isEmpty()) {
             log.info("{} slots found to add", addedSlots.size());
         }
+        Map<MasterSlaveEntry, List<Integer>> addedEntrySlots = new HashMap<MasterSlaveEntry, List<Integer>>();
         for (final Integer slot : addedSlots) {
             ClusterPartition partition = find(newPartitions, slot);
-            for (MasterSlaveEntry entry : getEntrySet()) {
-                if (entry.getClient().getAddr().equals(partition.getMasterAddr())) {
-                    addEntry(slot, entry);
-                    lastPartitions.put(slot, partition);
-                    break;
+            MasterSlaveEntry entry = getEntry(partition.getMasterAddr());
+            if (entry != null) {
+                List<Integer> entrySlots = addedEntrySlots.get(entry);
+                if (entrySlots == null) {
+                    entrySlots = new ArrayList<Integer>();
+                    addedEntrySlots.put(entry, entrySlots);
                 }
+                entrySlots.add(slot);
+                lastPartitions.put(slot, partition);
             }
         }
+        for (Map.Entry<MasterSlaveEntry, List<Integer>> entry : addedEntrySlots.entrySet()) {
+            addEntry(entry.getValue(), entry.getKey());
+        }
+        lastPartitionsView = null;
     }
 
     private void checkSlotsMigration(Collection<ClusterPartition> newPartitions, String nodes) {
@@ -626,21 +646,27 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
 
                 for (Integer slot : addedSlots) {
                     entry.addSlotRange(slot);
-                    addEntry(slot, entry);
                     lastPartitions.put(slot, currentPartition);
                 }
                 if (!addedSlots.isEmpty()) {
+                    addEntry(addedSlots, entry);
+                    lastPartitionsView = null;
                     log.info("{} slots added to {}", addedSlots.size(), currentPartition.getMasterAddr());
                 }
 
                 Set<Integer> removedSlots = new HashSet<Integer>(currentPartition.getSlots());
                 removedSlots.removeAll(newPartition.getSlots());
+                List<Integer> removedEntrySlots = new ArrayList<Integer>(removedSlots.size());
                 for (Integer removeSlot : removedSlots) {
                     if (lastPartitions.remove(removeSlot, currentPartition)) {
                         entry.removeSlotRange(removeSlot);
-                        removeMaster(removeSlot);
+                        removedEntrySlots.add(removeSlot);
                     }
                 }
+                if (!removedEntrySlots.isEmpty()) {
+                    removeMaster(removedEntrySlots);
+                    lastPartitionsView = null;
+                }
                 currentPartition.removeSlots(removedSlots);
 
                 if (!removedSlots.isEmpty()) {
@@ -653,19 +679,27 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
 
     @Override
     public int calcSlot(String key) {
+        return keySlot(key);
+    }
+
+    static int keySlot(String key) {
         if (key == null) {
             return 0;
         }
 
-        int start = key.indexOf('{');
-        if (start != -1) {
-            int end = key.indexOf('}');
-            key = key.substring(start+1, end);
+        int start = 0;
+        int end = key.length();
+        int tagStart = key.indexOf('{');
+        if (tagStart != -1) {
+            int tagEnd = key.indexOf('}', tagStart + 1);
+            // empty hash tag is ignored by Redis
+            if (tagEnd > tagStart + 1) {
+                start = tagStart + 1;
+                end = tagEnd;
+            }
         }
 
-        int result = CRC16.crc16(key.getBytes()) % MAX_SLOT;
-        log.debug("slot {} for {}", result, key);
-        return result;
+        return CRC16.crc16(key, start, end) % MAX_SLOT;
     }
 
     private Collection<ClusterPartition> parsePartitions(List<ClusterNodeInfo> nodes) {
@@ -748,8 +782,13 @@ public class ClusterConnectionManager extends MasterSlaveConnectionManager {
         }
     }
 
-    private HashSet<ClusterPartition> getLastPartitions() {
-        return new HashSet<ClusterPartition>(lastPartitions.values());
+    private Set<ClusterPartition> getLastPartitions() {
+        Set<ClusterPartition> result = lastPartitionsView;
+        if (result == null) {
+            result = Collections.unmodifiableSet(new HashSet<ClusterPartition>(lastPartitions.values()));
+            lastPartitionsView = result;
+        }
+        return result;
     }
     
     @Override
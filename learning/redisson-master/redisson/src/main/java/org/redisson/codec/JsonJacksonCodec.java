@@ -17,9 +17,11 @@ package org.redisson.codec;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.client.handler.State;
+import org.redisson.client.protocol.ByteBufEncoder;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.Encoder;
 
@@ -41,6 +43,7 @@ import com.fasterxml.jackson.databind.type.TypeFactory;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 /**
  *
@@ -62,11 +65,16 @@ public class JsonJacksonCodec implements Codec {
     
     private final ObjectMapper mapObjectMapper;
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new ByteBufEncoder() {
         @Override
         public byte[] encode(Object in) throws IOException {
             return mapObjectMapper.writeValueAsBytes(in);
         }
+
+        @Override
+        public void encode(Object in, ByteBuf out) throws IOException {
+            mapObjectMapper.writeValue((OutputStream) new ByteBufOutputStream(out), in);
+        }
     };
 
     private final Decoder<Object> decoder = new Decoder<Object>() {
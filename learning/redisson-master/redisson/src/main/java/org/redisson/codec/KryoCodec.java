@@ -15,7 +15,6 @@
  */
 package org.redisson.codec;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
@@ -24,6 +23,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.client.handler.State;
+import org.redisson.client.protocol.BaseByteBufEncoder;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.Encoder;
 
@@ -33,6 +33,7 @@ import com.esotericsoftware.kryo.io.Output;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 /**
  * 
@@ -123,18 +124,16 @@ public class KryoCodec implements Codec {
         }
     };
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new BaseByteBufEncoder() {
 
         @Override
-        public byte[] encode(Object in) throws IOException {
+        public void encode(Object in, ByteBuf out) throws IOException {
             Kryo kryo = null;
             try {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                Output output = new Output(baos);
+                Output output = new Output(new ByteBufOutputStream(out));
                 kryo = kryoPool.get();
                 kryo.writeClassAndObject(output, in);
-                output.close();
-                return baos.toByteArray();
+                output.flush();
             } catch (Exception e) {
                 if (e instanceof RuntimeException) {
                     throw (RuntimeException) e;
@@ -15,18 +15,19 @@
  */
 package org.redisson.codec;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 
 import org.redisson.client.codec.Codec;
 import org.redisson.client.handler.State;
+import org.redisson.client.protocol.BaseByteBufEncoder;
 import org.redisson.client.protocol.Decoder;
 import org.redisson.client.protocol.Encoder;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 /**
  *
@@ -55,15 +56,13 @@ public class SerializationCodec implements Codec {
         }
     };
 
-    private final Encoder encoder = new Encoder() {
+    private final Encoder encoder = new BaseByteBufEncoder() {
 
         @Override
-        public byte[] encode(Object in) throws IOException {
-            ByteArrayOutputStream result = new ByteArrayOutputStream();
-            ObjectOutputStream outputStream = new ObjectOutputStream(result);
+        public void encode(Object in, ByteBuf out) throws IOException {
+            ObjectOutputStream outputStream = new ObjectOutputStream(new ByteBufOutputStream(out));
             outputStream.writeObject(in);
             outputStream.close();
-            return result.toByteArray();
         }
     };
     
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.redisson.SlotCallback;
+import org.redisson.SlotKeysCallback;
 import org.redisson.api.RFuture;
 import org.redisson.client.RedisException;
 import org.redisson.client.codec.Codec;
@@ -68,6 +69,10 @@ public interface CommandAsyncExecutor {
 
     <R, T> RFuture<R> readAllAsync(RedisCommand<T> command, SlotCallback<T, R> callback, Object ... params);
 
+    <T, R> RFuture<R> readBatchedAsync(Codec codec, RedisCommand<T> command, SlotKeysCallback<T, R> callback, String ... keys);
+
+    <T, R> RFuture<R> writeBatchedAsync(Codec codec, RedisCommand<T> command, SlotKeysCallback<T, R> callback, String ... keys);
+
     <T, R> RFuture<R> evalReadAsync(InetSocketAddress client, String key, Codec codec, RedisCommand<T> evalCommandType, String script, List<Object> keys, Object ... params);
 
     <T, R> RFuture<R> evalReadAsync(String key, Codec codec, RedisCommand<T> evalCommandType, String script, List<Object> keys, Object ... params);
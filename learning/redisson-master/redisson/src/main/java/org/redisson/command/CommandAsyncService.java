@@ -23,8 +23,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -33,6 +33,7 @@ import org.redisson.RedisClientResult;
 import org.redisson.RedissonReference;
 import org.redisson.RedissonShutdownException;
 import org.redisson.SlotCallback;
+import org.redisson.SlotKeysCallback;
 import org.redisson.api.RFuture;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.RedissonReactiveClient;
@@ -41,6 +42,7 @@ import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisException;
 import org.redisson.client.RedisLoadingException;
 import org.redisson.client.RedisMovedException;
+import org.redisson.client.RedisNoScriptException;
 import org.redisson.client.RedisTimeoutException;
 import org.redisson.client.RedisTryAgainException;
 import org.redisson.client.WriteRedisConnectionException;
@@ -81,6 +83,9 @@ public class CommandAsyncService implements CommandAsyncExecutor {
 
     private static final Logger log = LoggerFactory.getLogger(CommandAsyncService.class);
 
+    // scripts are shared between all instances since SHA1 digest depends only on script body
+    protected static final ScriptCache SCRIPT_CACHE = new ScriptCache();
+
     final ConnectionManager connectionManager;
     protected RedissonClient redisson;
     protected RedissonReactiveClient redissonReactive;
@@ -133,31 +138,11 @@ public class CommandAsyncService implements CommandAsyncExecutor {
     
     @Override
     public <V> V get(RFuture<V> future) {
-        if (!future.isDone()) {
-            final CountDownLatch l = new CountDownLatch(1);
-            future.addListener(new FutureListener<V>() {
-                @Override
-                public void operationComplete(Future<V> future) throws Exception {
-                    l.countDown();
-                }
-            });
-            
-            boolean interrupted = false;
-            while (!future.isDone()) {
-                try {
-                    l.await();
-                } catch (InterruptedException e) {
-                    interrupted = true;
-                }
-            }
-            
-            if (interrupted) {
-                Thread.currentThread().interrupt();
-            }
+        if (!connectionManager.getSyncSpin().spin(future)) {
+            // RedissonPromise parks waiting thread without latch or listener allocation
+            future.awaitUninterruptibly();
         }
 
-        // commented out due to blocking issues up to 200 ms per minute for each thread
-        // future.awaitUninterruptibly();
         if (future.isSuccess()) {
             return future.getNow();
         }
@@ -167,14 +152,7 @@ public class CommandAsyncService implements CommandAsyncExecutor {
 
     @Override
     public boolean await(RFuture<?> future, long timeout, TimeUnit timeoutUnit) throws InterruptedException {
-        final CountDownLatch l = new CountDownLatch(1);
-        future.addListener(new FutureListener<Object>() {
-            @Override
-            public void operationComplete(Future<Object> future) throws Exception {
-                l.countDown();
-            }
-        });
-        return l.await(timeout, timeoutUnit);
+        return future.await(timeout, timeoutUnit);
     }
     
     @Override
@@ -316,6 +294,62 @@ public class CommandAsyncService implements CommandAsyncExecutor {
         return mainPromise;
     }
 
+    @Override
+    public <T, R> RFuture<R> readBatchedAsync(Codec codec, RedisCommand<T> command, SlotKeysCallback<T, R> callback, String ... keys) {
+        return batchedAsync(true, codec, command, callback, keys);
+    }
+
+    @Override
+    public <T, R> RFuture<R> writeBatchedAsync(Codec codec, RedisCommand<T> command, SlotKeysCallback<T, R> callback, String ... keys) {
+        return batchedAsync(false, codec, command, callback, keys);
+    }
+
+    /**
+     * Splits keys by slots and executes command for each slot in parallel.
+     * Keys of each slot preserve original order.
+     */
+    private <T, R> RFuture<R> batchedAsync(boolean readOnlyMode, Codec codec, RedisCommand<T> command, final SlotKeysCallback<T, R> callback, String ... keys) {
+        final RPromise<R> mainPromise = connectionManager.newPromise();
+        Map<Integer, List<String>> slot2keys = new HashMap<Integer, List<String>>();
+        for (String key : keys) {
+            int slot = connectionManager.calcSlot(key);
+            List<String> slotKeys = slot2keys.get(slot);
+            if (slotKeys == null) {
+                slotKeys = new ArrayList<String>();
+                slot2keys.put(slot, slotKeys);
+            }
+            slotKeys.add(key);
+        }
+
+        if (slot2keys.isEmpty()) {
+            mainPromise.trySuccess(callback.onFinish());
+            return mainPromise;
+        }
+
+        final AtomicInteger counter = new AtomicInteger(slot2keys.size());
+        for (Entry<Integer, List<String>> entry : slot2keys.entrySet()) {
+            final List<String> slotKeys = entry.getValue();
+            RPromise<T> promise = connectionManager.newPromise();
+            promise.addListener(new FutureListener<T>() {
+                @Override
+                public void operationComplete(Future<T> future) throws Exception {
+                    if (!future.isSuccess()) {
+                        mainPromise.tryFailure(future.cause());
+                        return;
+                    }
+
+                    callback.onSlotResult(slotKeys, future.getNow());
+                    if (counter.decrementAndGet() == 0
+                            && !mainPromise.isDone()) {
+                        mainPromise.trySuccess(callback.onFinish());
+                    }
+                }
+            });
+            async(readOnlyMode, new NodeSource(entry.getKey()), codec, command, callback.createParams(slotKeys), promise, 0);
+        }
+        return mainPromise;
+    }
+
     public <V> RedisException convertException(RFuture<V> future) {
         return future.cause() instanceof RedisException ?
                 (RedisException) future.cause() :
@@ -431,28 +465,67 @@ public class CommandAsyncService implements CommandAsyncExecutor {
             }
         };
 
-        List<Object> args = new ArrayList<Object>(2 + keys.size() + params.length);
-        args.add(script);
-        args.add(keys.size());
-        args.addAll(keys);
-        args.addAll(Arrays.asList(params));
         for (MasterSlaveEntry entry : entries) {
-            RPromise<T> promise = connectionManager.newPromise();
-            promise.addListener(listener);
-            async(readOnlyMode, new NodeSource(entry), connectionManager.getCodec(), command, args.toArray(), promise, 0);
+            RFuture<T> future = evalAsync(new NodeSource(entry), readOnlyMode, connectionManager.getCodec(), command, script, keys, params);
+            future.addListener(listener);
         }
         return mainPromise;
     }
 
-    private <T, R> RFuture<R> evalAsync(NodeSource nodeSource, boolean readOnlyMode, Codec codec, RedisCommand<T> evalCommandType, String script, List<Object> keys, Object ... params) {
-        RPromise<R> mainPromise = connectionManager.newPromise();
+    protected <T, R> RFuture<R> evalAsync(final NodeSource nodeSource, final boolean readOnlyMode, final Codec codec, final RedisCommand<T> evalCommandType, 
+                                            final String script, final List<Object> keys, final Object ... params) {
+        final RPromise<R> mainPromise = connectionManager.newPromise();
+        String sha = null;
+        if (connectionManager.getConfig().isUseScriptCache()) {
+            sha = SCRIPT_CACHE.getSha(script);
+        }
+        if (sha == null) {
+            async(readOnlyMode, nodeSource, codec, evalCommandType, evalParams(script, keys, params), mainPromise, 0);
+            return mainPromise;
+        }
+
+        final RPromise<R> evalShaPromise = connectionManager.newPromise();
+        mainPromise.addListener(new FutureListener<R>() {
+            @Override
+            public void operationComplete(Future<R> future) throws Exception {
+                if (future.isCancelled()) {
+                    evalShaPromise.cancel(false);
+                }
+            }
+        });
+        evalShaPromise.addListener(new FutureListener<R>() {
+            @Override
+            public void operationComplete(Future<R> future) throws Exception {
+                if (future.isCancelled()) {
+                    return;
+                }
+
+                if (future.cause() instanceof RedisNoScriptException) {
+                    // EVAL also loads script into Redis script cache
+                    async(readOnlyMode, nodeSource, codec, evalCommandType, evalParams(script, keys, params), mainPromise, 0);
+                    return;
+                }
+
+                if (future.isSuccess()) {
+                    mainPromise.trySuccess(future.getNow());
+                } else {
+                    mainPromise.tryFailure(future.cause());
+                }
+            }
+        });
+
+        RedisCommand<T> command = SCRIPT_CACHE.getEvalShaCommand(evalCommandType);
+        async(readOnlyMode, nodeSource, codec, command, evalParams(sha, keys, params), evalShaPromise, 0);
+        return mainPromise;
+    }
+
+    protected Object[] evalParams(String script, List<Object> keys, Object... params) {
         List<Object> args = new ArrayList<Object>(2 + keys.size() + params.length);
         args.add(script);
         args.add(keys.size());
         args.addAll(keys);
         args.addAll(Arrays.asList(params));
-        async(readOnlyMode, nodeSource, codec, evalCommandType, args.toArray(), mainPromise, 0);
-        return mainPromise;
+        return args.toArray();
     }
 
     @Override
@@ -600,7 +673,11 @@ public class CommandAsyncService implements CommandAsyncExecutor {
                     }
                 });
 
-                releaseConnection(source, connectionFuture, details.isReadOnlyMode(), details.getAttemptPromise(), details);
+                if (isPipelined(details.getCommand())) {
+                    releasePipelinedConnection(source, connectionFuture, details.isReadOnlyMode(), details.getWriteFuture(), details.getAttemptPromise());
+                } else {
+                    releaseConnection(source, connectionFuture, details.isReadOnlyMode(), details.getAttemptPromise(), details);
+                }
             }
         });
 
@@ -739,6 +816,46 @@ public class CommandAsyncService implements CommandAsyncExecutor {
         });
     }
 
+    protected boolean isPipelined(RedisCommand<?> command) {
+        return connectionManager.getConfig().isPipelining()
+                && !RedisCommands.BLOCKING_COMMANDS.contains(command.getName());
+    }
+
+    /**
+     * Returns connection to pool right after command has been written,
+     * so it could be shared with other commands while response is awaited.
+     * 
+     * @param source - node source
+     * @param connectionFuture - connection
+     * @param isReadOnly - read only mode
+     * @param writeFuture - command write future
+     * @param attemptPromise - command attempt promise
+     */
+    protected <R> void releasePipelinedConnection(final NodeSource source, final RFuture<RedisConnection> connectionFuture,
+                            final boolean isReadOnly, ChannelFuture writeFuture, RPromise<R> attemptPromise) {
+        writeFuture.addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+                RedisConnection connection = connectionFuture.getNow();
+                if (isReadOnly) {
+                    connectionManager.releaseRead(source, connection);
+                } else {
+                    connectionManager.releaseWrite(source, connection);
+                }
+                
+                if (log.isDebugEnabled()) {
+                    log.debug("pipelined connection released from slot {} using connection {}", source, connection);
+                }
+            }
+        });
+        attemptPromise.addListener(new FutureListener<R>() {
+            @Override
+            public void operationComplete(Future<R> future) throws Exception {
+                connectionManager.getShutdownLatch().release();
+            }
+        });
+    }
+
     private <R, V> void checkAttemptFuture(final NodeSource source, final AsyncDetails<V, R> details,
             Future<R> future) {
         details.getTimeout().cancel();
@@ -16,9 +16,12 @@
 package org.redisson.command;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
@@ -126,6 +129,50 @@ public class CommandBatchService extends CommandReactiveService {
         entry.getCommands().add(commandData);
     }
 
+    @Override
+    protected <T, R> RFuture<R> evalAsync(NodeSource nodeSource, boolean readOnlyMode, Codec codec, RedisCommand<T> evalCommandType,
+                                            String script, List<Object> keys, Object... params) {
+        RPromise<R> mainPromise = connectionManager.newPromise();
+        String sha = null;
+        if (connectionManager.getConfig().isUseScriptCache()) {
+            sha = SCRIPT_CACHE.getSha(script);
+        }
+        if (sha == null) {
+            async(readOnlyMode, nodeSource, codec, evalCommandType, evalParams(script, keys, params), mainPromise, 0);
+        } else {
+            RedisCommand<T> command = SCRIPT_CACHE.getEvalShaCommand(evalCommandType);
+            async(readOnlyMode, nodeSource, codec, command, evalParams(sha, keys, params), mainPromise, 0);
+        }
+        return mainPromise;
+    }
+
+    /**
+     * Replaces EVALSHA commands created by script cache with EVAL commands.
+     * 
+     * @param entry - batch entry
+     */
+    private void restoreScripts(Entry entry) {
+        List<BatchCommandData<?, ?>> result = new ArrayList<BatchCommandData<?, ?>>(entry.getCommands().size());
+        for (BatchCommandData<?, ?> commandData : entry.getCommands()) {
+            RedisCommand<?> evalCommand = SCRIPT_CACHE.getEvalCommand(commandData.getCommand());
+            String script = null;
+            if (evalCommand != null) {
+                script = SCRIPT_CACHE.getScript((String) commandData.getParams()[0]);
+            }
+            if (script == null) {
+                result.add(commandData);
+                continue;
+            }
+
+            Object[] params = Arrays.copyOf(commandData.getParams(), commandData.getParams().length);
+            params[0] = script;
+            result.add(new BatchCommandData(commandData.getPromise(), commandData.getCodec(), evalCommand, params, commandData.getIndex()));
+        }
+
+        entry.getCommands().clear();
+        entry.getCommands().addAll(result);
+    }
+
     public List<?> execute() {
         return get(executeAsync());
     }
@@ -145,6 +192,9 @@ public class CommandBatchService extends CommandReactiveService {
 
         if (noResult) {
             for (Entry entry : commands.values()) {
+                // errors aren't returned so missed scripts couldn't be detected
+                restoreScripts(entry);
+
                 RPromise<Object> s = connectionManager.newPromise();
                 BatchCommandData commandData = new BatchCommandData(s, null, RedisCommands.CLIENT_REPLY, new Object[] { "OFF" }, index.incrementAndGet());
                 entry.getCommands().addFirst(commandData);
@@ -384,6 +434,20 @@ public class CommandBatchService extends CommandReactiveService {
         final RedisConnection connection = connFuture.getNow();
 
         List<CommandData<?, ?>> list = new ArrayList<CommandData<?, ?>>(entry.getCommands().size() + 1);
+        // scripts are loaded ahead of entry commands, so EVALSHA can't fail with NOSCRIPT error
+        // after preceding commands of entry have been applied
+        Set<String> loadedScripts = new HashSet<String>();
+        for (BatchCommandData<?, ?> c : entry.getCommands()) {
+            if (c.getPromise().isSuccess() || SCRIPT_CACHE.getEvalCommand(c.getCommand()) == null) {
+                continue;
+            }
+            String sha = (String) c.getParams()[0];
+            String script = SCRIPT_CACHE.getScript(sha);
+            if (script != null && loadedScripts.add(sha)) {
+                RPromise<String> promise = connectionManager.newPromise();
+                list.add(new CommandData<String, String>(promise, StringCodec.INSTANCE, RedisCommands.SCRIPT_LOAD, new Object[] {script}));
+            }
+        }
         if (source.getRedirect() == Redirect.ASK) {
             RPromise<Void> promise = connectionManager.newPromise();
             list.add(new CommandData<Void, Void>(promise, StringCodec.INSTANCE, RedisCommands.ASKING, new Object[] {}));
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.command;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentMap;
+
+import org.redisson.client.protocol.RedisCommand;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.CharsetUtil;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Registry of Lua scripts executed through EVALSHA command.
+ * SHA1 digest of each script is calculated only once.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class ScriptCache {
+
+    // protects from unbounded growth if scripts are generated dynamically
+    private static final int MAX_SCRIPTS = 2048;
+
+    private final ConcurrentMap<String, String> script2sha = PlatformDependent.newConcurrentHashMap();
+    private final ConcurrentMap<String, String> sha2script = PlatformDependent.newConcurrentHashMap();
+
+    private final ConcurrentMap<RedisCommand<?>, RedisCommand<?>> evalShaCommands = PlatformDependent.newConcurrentHashMap();
+    private final ConcurrentMap<RedisCommand<?>, RedisCommand<?>> evalCommands = PlatformDependent.newConcurrentHashMap();
+
+    /**
+     * Returns SHA1 digest of script.
+     * 
+     * @param script - Lua script
+     * @return SHA1 digest or <code>null</code> if cache is full
+     */
+    public String getSha(String script) {
+        String sha = script2sha.get(script);
+        if (sha != null) {
+            return sha;
+        }
+        if (script2sha.size() >= MAX_SCRIPTS) {
+            return null;
+        }
+
+        sha = calcSha(script);
+        sha2script.putIfAbsent(sha, script);
+        script2sha.putIfAbsent(script, sha);
+        return sha;
+    }
+
+    /**
+     * Returns script by its SHA1 digest.
+     * 
+     * @param sha - SHA1 digest
+     * @return script or <code>null</code> if script wasn't registered
+     */
+    public String getScript(String sha) {
+        return sha2script.get(sha);
+    }
+
+    /**
+     * Returns copy of EVAL command with EVALSHA name. 
+     * Copy shares decoders and convertor with source command.
+     * 
+     * @param <T> type of command result
+     * @param evalCommand - EVAL command
+     * @return EVALSHA command
+     */
+    public <T> RedisCommand<T> getEvalShaCommand(RedisCommand<T> evalCommand) {
+        RedisCommand<T> command = (RedisCommand<T>) evalShaCommands.get(evalCommand);
+        if (command != null) {
+            return command;
+        }
+
+        command = new RedisCommand<T>(evalCommand, "EVALSHA");
+        RedisCommand<T> oldCommand = (RedisCommand<T>) evalShaCommands.putIfAbsent(evalCommand, command);
+        if (oldCommand != null) {
+            return oldCommand;
+        }
+        evalCommands.put(command, evalCommand);
+        return command;
+    }
+
+    /**
+     * Returns EVAL command for EVALSHA command created by this cache.
+     * 
+     * @param <T> type of command result
+     * @param evalShaCommand - EVALSHA command
+     * @return EVAL command or <code>null</code> if command wasn't created by this cache
+     */
+    public <T> RedisCommand<T> getEvalCommand(RedisCommand<T> evalShaCommand) {
+        return (RedisCommand<T>) evalCommands.get(evalShaCommand);
+    }
+
+    private String calcSha(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] bytes = digest.digest(script.getBytes(CharsetUtil.UTF_8));
+            return ByteBufUtil.hexDump(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -91,6 +91,16 @@ class BaseConfig<T extends BaseConfig<T>> {
      */
     private String clientName;
 
+    /**
+     * Send commands through connection without waiting for responses of previous commands
+     */
+    private boolean pipelining = false;
+
+    /**
+     * Execute Lua scripts through EVALSHA command
+     */
+    private boolean useScriptCache = true;
+
     BaseConfig() {
     }
 
@@ -106,6 +116,8 @@ class BaseConfig<T extends BaseConfig<T>> {
         setIdleConnectionTimeout(config.getIdleConnectionTimeout());
         setFailedAttempts(config.getFailedAttempts());
         setReconnectionTimeout(config.getReconnectionTimeout());
+        setPipelining(config.isPipelining());
+        setUseScriptCache(config.isUseScriptCache());
     }
 
     /**
@@ -302,4 +314,46 @@ class BaseConfig<T extends BaseConfig<T>> {
         return failedAttempts;
     }
 
+    /**
+     * Enables commands pipelining. In this mode commands are written
+     * to connection without waiting for responses of previously sent commands
+     * and each connection is returned to pool right after command has been written.
+     * Responses are matched to commands in FIFO order.
+     * <p>
+     * Allows to use much smaller connection pool under high load.
+     * Blocking commands still hold connection till response.
+     * <p>
+     * Default is <code>false</code>
+     *
+     * @param pipelining - <code>true</code> to enable pipelining
+     * @return config
+     */
+    public T setPipelining(boolean pipelining) {
+        this.pipelining = pipelining;
+        return (T) this;
+    }
+
+    public boolean isPipelining() {
+        return pipelining;
+    }
+
+    /**
+     * Enables Lua scripts execution through EVALSHA command.
+     * Only SHA1 digest of script is sent to Redis instead of whole script body.
+     * Script is sent with EVAL command if it's absent in Redis script cache.
+     * <p>
+     * Default is <code>true</code>
+     *
+     * @param useScriptCache - <code>true</code> to use EVALSHA command
+     * @return config
+     */
+    public T setUseScriptCache(boolean useScriptCache) {
+        this.useScriptCache = useScriptCache;
+        return (T) this;
+    }
+
+    public boolean isUseScriptCache() {
+        return useScriptCache;
+    }
+
 }
@@ -87,6 +87,14 @@ public class Config {
     
     private boolean useLinuxNativeEpoll;
 
+    private int delayedQueueTransferBatchSize = 100;
+
+    private int notificationShards;
+
+    private long nearCacheMaxMemory = 32 * 1024 * 1024;
+
+    private int syncSpinTimeout;
+
     private EventLoopGroup eventLoopGroup;
 
     public Config() {
@@ -108,6 +116,10 @@ public class Config {
         setResolverProvider(oldConf.getResolverProvider());
         setRedissonReferenceEnabled(oldConf.redissonReferenceEnabled);
         setEventLoopGroup(oldConf.getEventLoopGroup());
+        setDelayedQueueTransferBatchSize(oldConf.getDelayedQueueTransferBatchSize());
+        setNotificationShards(oldConf.getNotificationShards());
+        setNearCacheMaxMemory(oldConf.getNearCacheMaxMemory());
+        setSyncSpinTimeout(oldConf.getSyncSpinTimeout());
         if (oldConf.getSingleServerConfig() != null) {
             setSingleServerConfig(new SingleServerConfig(oldConf.getSingleServerConfig()));
         }
@@ -495,6 +507,100 @@ public class Config {
         return useLinuxNativeEpoll;
     }
 
+    /**
+     * Max amount of due elements moved from <code>RDelayedQueue</code> 
+     * to its destination queue per single transfer iteration.
+     * Remaining due elements are moved by next iterations without delay.
+     * <p>
+     * Default is <code>100</code>.
+     *
+     * @param delayedQueueTransferBatchSize amount, should be greater than zero
+     * @return config
+     */
+    public Config setDelayedQueueTransferBatchSize(int delayedQueueTransferBatchSize) {
+        if (delayedQueueTransferBatchSize <= 0) {
+            throw new IllegalArgumentException("delayedQueueTransferBatchSize should be greater than zero");
+        }
+        this.delayedQueueTransferBatchSize = delayedQueueTransferBatchSize;
+        return this;
+    }
+
+    public int getDelayedQueueTransferBatchSize() {
+        return delayedQueueTransferBatchSize;
+    }
+
+    /**
+     * Amount of shared channels used to notify waiters of <code>RLock</code>, 
+     * <code>RSemaphore</code>, <code>RPermitExpirableSemaphore</code> and <code>RCountDownLatch</code> objects.
+     * Notification carries object's channel name and waiters are found locally, 
+     * so Redisson keeps only this amount of permanent subscriptions instead of 
+     * subscribing to each contended object.
+     * <p>
+     * <code>0</code> means each object uses own channel.
+     * <p>
+     * All Redisson instances working with the same objects should use the same value.
+     * <p>
+     * Default is <code>0</code>.
+     *
+     * @param notificationShards amount
+     * @return config
+     */
+    public Config setNotificationShards(int notificationShards) {
+        this.notificationShards = notificationShards;
+        return this;
+    }
+
+    public int getNotificationShards() {
+        return notificationShards;
+    }
+
+    /**
+     * Maximum memory in bytes used by near caches of all objects 
+     * obtained with {@link org.redisson.api.NearCacheOptions}.
+     * Memory usage is estimated by size of encoded values.
+     * Least used values are evicted once limit has been reached.
+     * <p>
+     * <code>0</code> means unlimited.
+     * <p>
+     * Default is <code>33554432</code> (32 MB).
+     *
+     * @param nearCacheMaxMemory memory in bytes
+     * @return config
+     */
+    public Config setNearCacheMaxMemory(long nearCacheMaxMemory) {
+        this.nearCacheMaxMemory = nearCacheMaxMemory;
+        return this;
+    }
+
+    public long getNearCacheMaxMemory() {
+        return nearCacheMaxMemory;
+    }
+
+    /**
+     * Maximum time in microseconds during which thread of synchronous method 
+     * spins awaiting Redis response before it's parked.
+     * Spin time is halved each time response didn't arrive during spinning 
+     * and restored once it did.
+     * <p>
+     * Useful if Redis round-trip takes less than <code>100</code> microseconds, 
+     * for example Redis on the same host. Ignored on single processor machine.
+     * <p>
+     * <code>0</code> means spinning is disabled.
+     * <p>
+     * Default is <code>0</code>.
+     *
+     * @param syncSpinTimeout time in microseconds
+     * @return config
+     */
+    public Config setSyncSpinTimeout(int syncSpinTimeout) {
+        this.syncSpinTimeout = syncSpinTimeout;
+        return this;
+    }
+
+    public int getSyncSpinTimeout() {
+        return syncSpinTimeout;
+    }
+
     /**
      * Threads amount shared between all redis clients used by Redisson.
      * <p>
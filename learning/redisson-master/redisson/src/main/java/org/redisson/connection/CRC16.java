@@ -55,4 +55,46 @@ public class CRC16 {
         return crc & 0xFFFF;
     }
 
+    /**
+     * Calculates CRC16 of UTF-8 encoded chars without intermediate 
+     * substring and byte array allocation.
+     * 
+     * @param str - string
+     * @param start - start index, inclusive
+     * @param end - end index, exclusive
+     * @return crc16 value
+     */
+    public static int crc16(CharSequence str, int start, int end) {
+        int crc = 0x0000;
+
+        for (int i = start; i < end; i++) {
+            int c = str.charAt(i);
+            if (c < 0x80) {
+                crc = update(crc, c);
+            } else if (c < 0x800) {
+                crc = update(crc, 0xC0 | (c >> 6));
+                crc = update(crc, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate((char) c) && i + 1 < end 
+                            && Character.isLowSurrogate(str.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint((char) c, str.charAt(++i));
+                crc = update(crc, 0xF0 | (codePoint >> 18));
+                crc = update(crc, 0x80 | ((codePoint >> 12) & 0x3F));
+                crc = update(crc, 0x80 | ((codePoint >> 6) & 0x3F));
+                crc = update(crc, 0x80 | (codePoint & 0x3F));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                // unpaired surrogate is encoded as '?' by UTF-8 encoder
+                crc = update(crc, '?');
+            } else {
+                crc = update(crc, 0xE0 | (c >> 12));
+                crc = update(crc, 0x80 | ((c >> 6) & 0x3F));
+                crc = update(crc, 0x80 | (c & 0x3F));
+            }
+        }
+        return crc & 0xFFFF;
+    }
+
+    private static int update(int crc, int b) {
+        return (crc << 8) ^ LOOKUP_TABLE[((crc >>> 8) ^ (b & 0xFF)) & 0xFF];
+    }
+
 }
@@ -24,6 +24,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.redisson.api.NodeType;
 import org.redisson.api.RFuture;
+import org.redisson.cache.NearCacheManager;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisPubSubListener;
@@ -31,9 +32,13 @@ import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.command.CommandSyncService;
 import org.redisson.config.MasterSlaveServersConfig;
+import org.redisson.misc.AdaptiveSpin;
 import org.redisson.misc.InfinitySemaphoreLatch;
 import org.redisson.misc.RPromise;
 import org.redisson.pubsub.AsyncSemaphore;
+import org.redisson.pubsub.NotificationShards;
+import org.redisson.remote.ResponseQueues;
+import org.redisson.renewal.LockRenewalScheduler;
 
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.Timeout;
@@ -56,6 +61,16 @@ public interface ConnectionManager {
 
     AsyncSemaphore getSemaphore(String channelName);
     
+    NotificationShards getNotificationShards();
+    
+    LockRenewalScheduler getLockRenewalScheduler();
+    
+    NearCacheManager getNearCacheManager();
+    
+    ResponseQueues getResponseQueues();
+    
+    AdaptiveSpin getSyncSpin();
+    
     <R> RFuture<R> newSucceededFuture(R value);
 
     ConnectionEventsHub getConnectionEventsHub();
@@ -64,6 +79,16 @@ public interface ConnectionManager {
 
     boolean isShuttingDown();
 
+    /**
+     * Adds listener invoked at the beginning of shutdown, 
+     * while commands still could be executed.
+     * 
+     * @param listener - listener
+     */
+    void addShutdownListener(Runnable listener);
+
+    void removeShutdownListener(Runnable listener);
+
     RFuture<PubSubConnectionEntry> subscribe(Codec codec, String channelName, RedisPubSubListener<?> listener);
 
     RFuture<PubSubConnectionEntry> subscribe(Codec codec, String channelName, RedisPubSubListener<?> listener, AsyncSemaphore semaphore);
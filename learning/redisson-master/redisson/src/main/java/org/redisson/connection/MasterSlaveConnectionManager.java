@@ -18,13 +18,13 @@ package org.redisson.connection;
 import java.lang.reflect.Field;
 import java.net.InetSocketAddress;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -33,9 +33,11 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import org.redisson.RedissonLock;
 import org.redisson.Version;
 import org.redisson.api.NodeType;
 import org.redisson.api.RFuture;
+import org.redisson.cache.NearCacheManager;
 import org.redisson.client.BaseRedisPubSubListener;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisConnection;
@@ -52,11 +54,15 @@ import org.redisson.config.Config;
 import org.redisson.config.MasterSlaveServersConfig;
 import org.redisson.config.ReadMode;
 import org.redisson.connection.ClientConnectionsEntry.FreezeReason;
+import org.redisson.misc.AdaptiveSpin;
 import org.redisson.misc.InfinitySemaphoreLatch;
 import org.redisson.misc.RPromise;
 import org.redisson.misc.RedissonPromise;
 import org.redisson.misc.TransferListener;
 import org.redisson.pubsub.AsyncSemaphore;
+import org.redisson.pubsub.NotificationShards;
+import org.redisson.remote.ResponseQueues;
+import org.redisson.renewal.LockRenewalScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -131,12 +137,20 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
 
     protected MasterSlaveServersConfig config;
 
-    private final Map<Integer, MasterSlaveEntry> entries = PlatformDependent.newConcurrentHashMap();
+    // copy-on-write routing table indexed by slot. 
+    // It's replaced as a whole on topology change, so readers don't need any locks
+    private volatile MasterSlaveEntry[] slot2entry = new MasterSlaveEntry[MAX_SLOT];
+
+    private volatile Set<MasterSlaveEntry> entries = Collections.emptySet();
+
+    private final Object routingLock = new Object();
 
     private final RPromise<Boolean> shutdownPromise;
 
     private final InfinitySemaphoreLatch shutdownLatch = new InfinitySemaphoreLatch();
 
+    private final Set<Runnable> shutdownListeners = Collections.newSetFromMap(PlatformDependent.<Runnable, Boolean>newConcurrentHashMap());
+
     private final Set<RedisClientEntry> clients = Collections.newSetFromMap(PlatformDependent.<RedisClientEntry, Boolean>newConcurrentHashMap());
 
     private IdleConnectionWatcher connectionWatcher;
@@ -147,17 +161,27 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
     
     private final ExecutorService executor; 
     
-    private final AsyncSemaphore freePubSubLock = new AsyncSemaphore(1);
+    private final AsyncSemaphore freePubSubLock = new AsyncSemaphore(1, true);
     
     private final boolean sharedEventLoopGroup;
 
     private final boolean sharedExecutor;
 
     private final CommandSyncService commandExecutor;
+
+    private final NotificationShards notificationShards;
+    
+    private final LockRenewalScheduler lockRenewalScheduler;
+    
+    private final NearCacheManager nearCacheManager;
+    
+    private final ResponseQueues responseQueues;
+    
+    private final AdaptiveSpin syncSpin;
     
     {
         for (int i = 0; i < locks.length; i++) {
-            locks[i] = new AsyncSemaphore(1);
+            locks[i] = new AsyncSemaphore(1, true);
         }
     }
 
@@ -209,6 +233,12 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         this.sharedEventLoopGroup = cfg.getEventLoopGroup() != null;
         this.sharedExecutor = cfg.getExecutor() != null;
         this.commandExecutor = new CommandSyncService(this);
+        this.notificationShards = new NotificationShards(this, cfg.getNotificationShards());
+        this.lockRenewalScheduler = new LockRenewalScheduler(this, 
+                TimeUnit.SECONDS.toMillis(RedissonLock.LOCK_EXPIRATION_INTERVAL_SECONDS) / 3, 1000);
+        this.nearCacheManager = new NearCacheManager(this, cfg.getNearCacheMaxMemory());
+        this.responseQueues = new ResponseQueues(this);
+        this.syncSpin = new AdaptiveSpin(cfg.getSyncSpinTimeout());
     }
 
     public boolean isClusterMode() {
@@ -234,7 +264,7 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
     }
 
     public Set<MasterSlaveEntry> getEntrySet() {
-        return new HashSet<MasterSlaveEntry>(entries.values());
+        return entries;
     }
     
     protected void init(MasterSlaveServersConfig config) {
@@ -292,9 +322,11 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
             entry = createMasterSlaveEntry(config, slots);
         }
         
+        List<Integer> entrySlots = new ArrayList<Integer>(MAX_SLOT);
         for (int slot = singleSlotRange.getStartSlot(); slot < singleSlotRange.getEndSlot() + 1; slot++) {
-            addEntry(slot, entry);
+            entrySlots.add(slot);
         }
+        addEntry(entrySlots, entry);
     }
 
     protected MasterSlaveEntry createMasterSlaveEntry(MasterSlaveServersConfig config,
@@ -324,6 +356,8 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         c.setSubscriptionsPerConnection(cfg.getSubscriptionsPerConnection());
         c.setConnectTimeout(cfg.getConnectTimeout());
         c.setIdleConnectionTimeout(cfg.getIdleConnectionTimeout());
+        c.setPipelining(cfg.isPipelining());
+        c.setUseScriptCache(cfg.isUseScriptCache());
 
         c.setFailedAttempts(cfg.getFailedAttempts());
         c.setReconnectionTimeout(cfg.getReconnectionTimeout());
@@ -350,7 +384,8 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
 
     @Override
     public RedisClient createClient(String host, int port, int timeout, int commandTimeout) {
-        return new RedisClient(timer, executor, group, socketChannelClass, host, port, timeout, commandTimeout);
+        boolean pipelining = config != null && config.isPipelining();
+        return new RedisClient(timer, executor, group, socketChannelClass, host, port, timeout, commandTimeout, pipelining);
     }
 
     @Override
@@ -402,6 +437,31 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         return promise;
     }
 
+    @Override
+    public NotificationShards getNotificationShards() {
+        return notificationShards;
+    }
+    
+    @Override
+    public LockRenewalScheduler getLockRenewalScheduler() {
+        return lockRenewalScheduler;
+    }
+    
+    @Override
+    public NearCacheManager getNearCacheManager() {
+        return nearCacheManager;
+    }
+    
+    @Override
+    public ResponseQueues getResponseQueues() {
+        return responseQueues;
+    }
+    
+    @Override
+    public AdaptiveSpin getSyncSpin() {
+        return syncSpin;
+    }
+    
     public AsyncSemaphore getSemaphore(String channelName) {
         return locks[Math.abs(channelName.hashCode() % locks.length)];
     }
@@ -658,17 +718,16 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
 
     @Override
     public MasterSlaveEntry getEntry(InetSocketAddress addr) {
-        // TODO optimize
-        for (Entry<Integer, MasterSlaveEntry> entry : entries.entrySet()) {
-            if (entry.getValue().getClient().getAddr().equals(addr)) {
-                return entry.getValue();
+        for (MasterSlaveEntry entry : entries) {
+            if (entry.getClient().getAddr().equals(addr)) {
+                return entry;
             }
         }
         return null;
     }
 
     public MasterSlaveEntry getEntry(int slot) {
-        return entries.get(slot);
+        return slot2entry[slot];
     }
     
     protected void slaveDown(ClusterSlotRange slotRange, String host, int port, FreezeReason freezeReason) {
@@ -680,11 +739,46 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
     }
 
     protected void addEntry(Integer slot, MasterSlaveEntry entry) {
-        entries.put(slot, entry);
+        addEntry(Collections.singletonList(slot), entry);
+    }
+
+    protected void addEntry(Collection<Integer> slots, MasterSlaveEntry entry) {
+        synchronized (routingLock) {
+            MasterSlaveEntry[] table = slot2entry.clone();
+            for (Integer slot : slots) {
+                table[slot] = entry;
+            }
+            updateRouting(table);
+        }
     }
 
     protected MasterSlaveEntry removeMaster(Integer slot) {
-        return entries.remove(slot);
+        synchronized (routingLock) {
+            MasterSlaveEntry entry = slot2entry[slot];
+            removeMaster(Collections.singletonList(slot));
+            return entry;
+        }
+    }
+
+    protected void removeMaster(Collection<Integer> slots) {
+        synchronized (routingLock) {
+            MasterSlaveEntry[] table = slot2entry.clone();
+            for (Integer slot : slots) {
+                table[slot] = null;
+            }
+            updateRouting(table);
+        }
+    }
+
+    private void updateRouting(MasterSlaveEntry[] table) {
+        Set<MasterSlaveEntry> newEntries = Collections.newSetFromMap(new IdentityHashMap<MasterSlaveEntry, Boolean>());
+        for (MasterSlaveEntry entry : table) {
+            if (entry != null) {
+                newEntries.add(entry);
+            }
+        }
+        slot2entry = table;
+        entries = Collections.unmodifiableSet(newEntries);
     }
 
     @Override
@@ -767,11 +861,19 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
 
     @Override
     public void shutdown(long quietPeriod, long timeout, TimeUnit unit) {
+        for (Runnable listener : shutdownListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                log.error("Shutdown listener error", e);
+            }
+        }
+        
         shutdownLatch.close();
         shutdownPromise.trySuccess(true);
         shutdownLatch.awaitUninterruptibly();
 
-        for (MasterSlaveEntry entry : entries.values()) {
+        for (MasterSlaveEntry entry : entries) {
             entry.shutdown();
         }
         
@@ -795,6 +897,16 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         return shutdownLatch.isClosed();
     }
 
+    @Override
+    public void addShutdownListener(Runnable listener) {
+        shutdownListeners.add(listener);
+    }
+
+    @Override
+    public void removeShutdownListener(Runnable listener) {
+        shutdownListeners.remove(listener);
+    }
+
     @Override
     public boolean isShutdown() {
         return group.isTerminated();
@@ -89,7 +89,7 @@ public class PubSubConnectionEntry {
             return;
         }
 
-        conn.addListener(listener);
+        conn.addListener(channelName, listener);
     }
 
     public boolean removeAllListeners(String channelName) {
@@ -138,7 +138,7 @@ public class PubSubConnectionEntry {
                 channelListeners.remove(channelName);
             }
         }
-        conn.removeListener(listener);
+        conn.removeListener(channelName, listener);
     }
 
     public int tryAcquire() {
@@ -172,7 +172,7 @@ public class PubSubConnectionEntry {
         if (oldSubscribeListener != null) {
             return oldSubscribeListener;
         } else {
-            conn.addListener(subscribeListener);
+            conn.addListener(channel, subscribeListener);
             return subscribeListener;
         }
     }
@@ -186,11 +186,11 @@ public class PubSubConnectionEntry {
     }
     
     public void unsubscribe(final String channel, final RedisPubSubListener<?> listener) {
-        conn.addListener(new BaseRedisPubSubListener() {
+        conn.addListener(channel, new BaseRedisPubSubListener() {
             @Override
             public boolean onStatus(PubSubType type, String ch) {
                 if (type == PubSubType.UNSUBSCRIBE && channel.equals(ch)) {
-                    conn.removeListener(this);
+                    conn.removeListener(channel, this);
                     removeListeners(channel);
                     if (listener != null) {
                         listener.onStatus(type, channel);
@@ -207,24 +207,24 @@ public class PubSubConnectionEntry {
     private void removeListeners(String channel) {
         conn.removeDisconnectListener(channel);
         SubscribeListener s = subscribeChannelListeners.remove(channel);
-        conn.removeListener(s);
+        conn.removeListener(channel, s);
         Queue<RedisPubSubListener<?>> queue = channelListeners.get(channel);
         if (queue != null) {
             synchronized (queue) {
                 channelListeners.remove(channel);
             }
             for (RedisPubSubListener<?> listener : queue) {
-                conn.removeListener(listener);
+                conn.removeListener(channel, listener);
             }
         }
     }
 
     public void punsubscribe(final String channel, final RedisPubSubListener<?> listener) {
-        conn.addListener(new BaseRedisPubSubListener() {
+        conn.addListener(channel, new BaseRedisPubSubListener() {
             @Override
             public boolean onStatus(PubSubType type, String ch) {
                 if (type == PubSubType.PUNSUBSCRIBE && channel.equals(ch)) {
-                    conn.removeListener(this);
+                    conn.removeListener(channel, this);
                     removeListeners(channel);
                     if (listener != null) {
                         listener.onStatus(type, channel);
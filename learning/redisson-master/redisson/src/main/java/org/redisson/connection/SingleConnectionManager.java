@@ -75,6 +75,8 @@ public class SingleConnectionManager extends MasterSlaveConnectionManager {
         newconfig.setSubscriptionConnectionPoolSize(cfg.getSubscriptionConnectionPoolSize());
         newconfig.setConnectTimeout(cfg.getConnectTimeout());
         newconfig.setIdleConnectionTimeout(cfg.getIdleConnectionTimeout());
+        newconfig.setPipelining(cfg.isPipelining());
+        newconfig.setUseScriptCache(cfg.isUseScriptCache());
         newconfig.setFailedAttempts(cfg.getFailedAttempts());
         newconfig.setReconnectionTimeout(cfg.getReconnectionTimeout());
 
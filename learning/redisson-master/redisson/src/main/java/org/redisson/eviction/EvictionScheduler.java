@@ -15,60 +15,260 @@
  */
 package org.redisson.eviction;
 
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.redisson.api.RFuture;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.connection.CRC16;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
 import io.netty.util.internal.PlatformDependent;
 
 /**
  * Eviction scheduler.
- * Deletes expired entries in time interval between 5 seconds to 2 hours.
- * It analyzes deleted amount of expired keys
- * and 'tune' next execution delay depending on it.
+ * <p>
+ * Earliest expiration time of each object is stored in shared expiration index 
+ * and updated by scripts which add expiring entries. Single task 
+ * checks indexes once per second and deletes expired entries of due objects only. 
+ * Indexes are split by cluster slot, so index is stored in the same slot 
+ * as objects it holds and all due objects of index are swept by single script.
  *
  * @author Nikita Koksharov
  *
  */
 public class EvictionScheduler {
 
+    public static final String SET_CACHE = "setcache";
+    public static final String MAP_CACHE = "mapcache";
+    public static final String LIST_MULTIMAP_CACHE = "listmultimap";
+    public static final String SET_MULTIMAP_CACHE = "setmultimap";
+    public static final String JCACHE = "jcache";
+    
+    private static final Logger log = LoggerFactory.getLogger(EvictionScheduler.class);
+
+    private static volatile String[] slotTags;
+    
     private final ConcurrentMap<String, EvictionTask> tasks = PlatformDependent.newConcurrentHashMap();
     private final CommandAsyncExecutor executor;
+    private final AtomicBoolean started = new AtomicBoolean();
+    
+    private final int tickInterval = 1;
+    private final long maxDelay = 5000;
+    
+    private final AtomicLong sweptObjects = new AtomicLong();
+    private final AtomicLong sweptEntries = new AtomicLong();
+    private final AtomicLong maxSweepLag = new AtomicLong();
+    private volatile long sweepLag;
 
     public EvictionScheduler(CommandAsyncExecutor executor) {
         this.executor = executor;
     }
 
-    public void scheduleCleanMultimap(String name, String timeoutSetName) {
-        EvictionTask task = new MultimapEvictionTask(name, timeoutSetName, executor);
-        EvictionTask prevTask = tasks.putIfAbsent(name, task);
-        if (prevTask == null) {
-            task.schedule();
-        }
+    public void scheduleCleanListMultimap(String name) {
+        register(LIST_MULTIMAP_CACHE, name);
     }
     
-    public void scheduleJCache(String name, String timeoutSetName, String expiredChannelName) {
-        EvictionTask task = new JCacheEvictionTask(name, timeoutSetName, expiredChannelName, executor);
-        EvictionTask prevTask = tasks.putIfAbsent(name, task);
-        if (prevTask == null) {
-            task.schedule();
-        }
+    public void scheduleCleanSetMultimap(String name) {
+        register(SET_MULTIMAP_CACHE, name);
+    }
+    
+    public void scheduleJCache(String name) {
+        register(JCACHE, name);
     }
     
     public void schedule(String name) {
-        EvictionTask task = new SetCacheEvictionTask(name, executor);
-        EvictionTask prevTask = tasks.putIfAbsent(name, task);
-        if (prevTask == null) {
-            task.schedule();
-        }
+        register(SET_CACHE, name);
     }
 
-    public void schedule(String name, String timeoutSetName, String maxIdleSetName) {
-        EvictionTask task = new MapCacheEvictionTask(name, timeoutSetName, maxIdleSetName, executor);
-        EvictionTask prevTask = tasks.putIfAbsent(name, task);
-        if (prevTask == null) {
-            task.schedule();
+    public void scheduleMapCache(String name) {
+        register(MAP_CACHE, name);
+    }
+    
+    private void register(final String type, final String name) {
+        final String member = type + ":" + name;
+        String indexName = getIndexName(executor.getConnectionManager(), name);
+        EvictionTask newTask = tasks.get(indexName);
+        if (newTask == null) {
+            newTask = new EvictionTask(indexName, this, executor);
+            EvictionTask oldTask = tasks.putIfAbsent(indexName, newTask);
+            if (oldTask != null) {
+                newTask = oldTask;
+            }
+        }
+        final EvictionTask task = newTask;
+        if (!task.addMember(member)) {
+            return;
+        }
+        
+        // object could hold expired entries added before
+        RFuture<Void> future = executor.evalWriteAsync(indexName, StringCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                "local member = ARGV[2]; " + updateIndexScript("KEYS[1]", "member", "ARGV[1]"),
+                Arrays.<Object>asList(indexName), System.currentTimeMillis(), member);
+        future.addListener(new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (future.isSuccess()) {
+                    return;
+                }
+                
+                // object isn't swept until it's added to index
+                log.warn("Can't register " + member + " in expiration index. It will be retried in " + tickInterval + " sec", future.cause());
+                task.removeMember(member);
+                executor.getConnectionManager().newTimeout(new TimerTask() {
+                    @Override
+                    public void run(Timeout timeout) throws Exception {
+                        if (!executor.getConnectionManager().isShuttingDown()) {
+                            register(type, name);
+                        }
+                    }
+                }, tickInterval, TimeUnit.SECONDS);
+            }
+        });
+        task.reset();
+        
+        if (started.compareAndSet(false, true)) {
+            scheduleTick();
+        }
+    }
+    
+    private void scheduleTick() {
+        executor.getConnectionManager().getGroup().schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (executor.getConnectionManager().isShuttingDown()) {
+                    return;
+                }
+                
+                long currentTime = System.currentTimeMillis();
+                for (EvictionTask task : tasks.values()) {
+                    if (task.isDue(currentTime)) {
+                        task.run(maxDelay);
+                    }
+                }
+                scheduleTick();
+            }
+        }, tickInterval, TimeUnit.SECONDS);
+    }
+    
+    void onSweep(long objects, long entries, long lag) {
+        sweptObjects.addAndGet(objects);
+        sweptEntries.addAndGet(entries);
+        sweepLag = lag;
+        while (true) {
+            long max = maxSweepLag.get();
+            if (lag <= max || maxSweepLag.compareAndSet(max, lag)) {
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Returns delay in milliseconds between expiration of object entry 
+     * and its deletion observed during last sweep.
+     * 
+     * @return delay in milliseconds
+     */
+    public long getSweepLag() {
+        return sweepLag;
+    }
+    
+    /**
+     * Returns max delay in milliseconds between expiration of object entry 
+     * and its deletion since scheduler start.
+     * 
+     * @return delay in milliseconds
+     */
+    public long getMaxSweepLag() {
+        return maxSweepLag.get();
+    }
+    
+    /**
+     * Returns amount of object checks performed by sweeps.
+     * 
+     * @return amount of objects
+     */
+    public long getSweptObjects() {
+        return sweptObjects.get();
+    }
+    
+    /**
+     * Returns amount of expired entries deleted by sweeps.
+     * 
+     * @return amount of entries
+     */
+    public long getSweptEntries() {
+        return sweptEntries.get();
+    }
+    
+    /**
+     * Returns name of expiration index for object. 
+     * Index is located in the same slot as object.
+     * 
+     * @param connectionManager - connection manager
+     * @param name - object name
+     * @return index name
+     */
+    public static String getIndexName(ConnectionManager connectionManager, String name) {
+        int slot = connectionManager.calcSlot(name);
+        return "redisson__expiration_index:{" + getSlotTag(slot) + "}";
+    }
+    
+    private static String getSlotTag(int slot) {
+        String[] tags = slotTags;
+        if (tags == null) {
+            synchronized (EvictionScheduler.class) {
+                tags = slotTags;
+                if (tags == null) {
+                    tags = new String[MasterSlaveConnectionManager.MAX_SLOT];
+                    int found = 0;
+                    for (int i = 0; found < tags.length; i++) {
+                        String tag = Integer.toString(i, 36);
+                        int tagSlot = CRC16.crc16(tag.getBytes()) % MasterSlaveConnectionManager.MAX_SLOT;
+                        if (tags[tagSlot] == null) {
+                            tags[tagSlot] = tag;
+                            found++;
+                        }
+                    }
+                    slotTags = tags;
+                }
+            }
         }
+        return tags[slot];
+    }
+    
+    private static String updateIndexScript(String indexKey, String member, String timeout) {
+        return "local indexScore = redis.call('zscore', " + indexKey + ", " + member + "); "
+             + "if indexScore == false or tonumber(indexScore) > tonumber(" + timeout + ") then "
+                 + "redis.call('zadd', " + indexKey + ", " + timeout + ", " + member + "); "
+             + "end; ";
+    }
+    
+    /**
+     * Returns Lua script which stores <code>timeout</code> 
+     * as expiration time of object in expiration index 
+     * if it's earlier than stored one.
+     * 
+     * @param type - object type
+     * @param indexKey - Lua expression of index name
+     * @param nameKey - Lua expression of object name
+     * @param timeout - Lua expression of expiration time
+     * @return Lua script
+     */
+    public static String updateIndexScript(String type, String indexKey, String nameKey, String timeout) {
+        return updateIndexScript(indexKey, "'" + type + ":' .. " + nameKey, timeout);
     }
 
 }
@@ -15,84 +15,319 @@
  */
 package org.redisson.eviction;
 
-import java.util.Deque;
-import java.util.LinkedList;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import org.redisson.api.RFuture;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.ScoredEntry;
 import org.redisson.command.CommandAsyncExecutor;
 
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
+import io.netty.util.internal.PlatformDependent;
 
 /**
+ * Sweeps objects registered in single expiration index.
+ * Index is a sorted set of <code>type:name</code> members scored 
+ * by earliest expiration time of object entries. 
+ * Due members are read from index and swept by single script 
+ * which gets index key and keys of all due objects. 
+ * Index is stored in the same slot as objects it holds.
  * 
  * @author Nikita Koksharov
  *
  */
-abstract class EvictionTask implements Runnable {
+class EvictionTask {
 
-    final Deque<Integer> sizeHistory = new LinkedList<Integer>();
-    final int minDelay = 1;
-    final int maxDelay = 2*60*60;
-    final int keysLimit = 300;
+    private static final String HEAD_SCRIPT = 
+            "local function head(name) "
+              + "local v = redis.call('zrange', name, 0, 0, 'WITHSCORES'); "
+              + "if v[2] ~= nil then "
+                  + "return tonumber(v[2]); "
+              + "end; "
+              + "return nil; "
+          + "end; ";
+    
+    // k[1] - set name
+    static final String SET_CACHE_SCRIPT = 
+            "local function sweepSetCache(k) "
+              + "local entries = redis.call('zremrangebyscore', k[1], 0, ARGV[1]); "
+              + "return entries, head(k[1]); "
+          + "end; ";
     
-    int delay = 10;
+    // k[1] - map name, k[2] - timeout set name, k[3] - idle set name
+    static final String MAP_CACHE_SCRIPT = 
+            "local function sweepMapCache(k) "
+              + "local expiredKeys1 = redis.call('zrangebyscore', k[2], 0, ARGV[1], 'limit', 0, ARGV[2]); "
+              + "if #expiredKeys1 > 0 then "
+                  + "redis.call('zrem', k[3], unpack(expiredKeys1)); "
+                  + "redis.call('zrem', k[2], unpack(expiredKeys1)); "
+                  + "redis.call('hdel', k[1], unpack(expiredKeys1)); "
+              + "end; "
+              + "local expiredKeys2 = redis.call('zrangebyscore', k[3], 0, ARGV[1], 'limit', 0, ARGV[2]); "
+              + "if #expiredKeys2 > 0 then "
+                  + "redis.call('zrem', k[3], unpack(expiredKeys2)); "
+                  + "redis.call('zrem', k[2], unpack(expiredKeys2)); "
+                  + "redis.call('hdel', k[1], unpack(expiredKeys2)); "
+              + "end; "
+              + "local nextTime = head(k[2]); "
+              + "local idleTime = head(k[3]); "
+              + "if nextTime == nil or (idleTime ~= nil and idleTime < nextTime) then "
+                  + "nextTime = idleTime; "
+              + "end; "
+              + "return #expiredKeys1 + #expiredKeys2, nextTime; "
+          + "end; ";
 
-    final CommandAsyncExecutor executor;
+    // k[1] - multimap name, k[2] - timeout set name
+    static final String MULTIMAP_CACHE_SCRIPT = 
+            "local function sweepMultimapCache(k) "
+              + "local expiredKeys = redis.call('zrangebyscore', k[2], 0, ARGV[1], 'limit', 0, ARGV[2]); "
+              + "if #expiredKeys > 0 then "
+                  + "redis.call('zrem', k[2], unpack(expiredKeys)); "
+                  + "local values = redis.call('hmget', k[1], unpack(expiredKeys)); "
+                  + "local keys = {}; "
+                  + "for i, v in ipairs(values) do "
+                      + "local name = '{' .. k[1] .. '}:' .. v; "
+                      + "table.insert(keys, name); "
+                  + "end; "
+                  + "redis.call('del', unpack(keys)); "
+                  + "redis.call('hdel', k[1], unpack(expiredKeys)); "
+              + "end; "
+              + "return #expiredKeys, head(k[2]); "
+          + "end; ";
+    
+    // k[1] - jcache name, k[2] - timeout set name, k[3] - expired channel name
+    static final String JCACHE_SCRIPT = 
+            "local function sweepJCache(k) "
+              + "local expiredKeys = redis.call('zrangebyscore', k[2], 0, ARGV[1], 'limit', 0, ARGV[2]); "
+              + "for i, key in ipairs(expiredKeys) do "
+                  + "local v = redis.call('hget', k[1], key); "
+                  + "local msg = struct.pack('Lc0Lc0', string.len(tostring(key)), tostring(key), string.len(tostring(v)), tostring(v)); "
+                  + "redis.call('publish', k[3], msg); "
+              + "end; "
+              + "if #expiredKeys > 0 then "
+                  + "redis.call('zrem', k[2], unpack(expiredKeys)); "
+                  + "redis.call('hdel', k[1], unpack(expiredKeys)); "
+              + "end; "
+              // jcache scripts don't update index, so it is polled
+              + "local nextTime = tonumber(ARGV[1]) + tonumber(ARGV[3]); "
+              + "local timeoutTime = head(k[2]); "
+              + "if timeoutTime ~= nil and timeoutTime < nextTime then "
+                  + "nextTime = timeoutTime; "
+              + "end; "
+              + "return #expiredKeys, nextTime; "
+          + "end; ";
+    
+    // KEYS[1] - index name, followed by keys of each object.
+    // ARGV[1] - current time, ARGV[2] - keys limit, ARGV[3] - max delay, 
+    // followed by member, object type and amount of object keys for each object.
+    static final String SWEEP_SCRIPT = HEAD_SCRIPT
+          + SET_CACHE_SCRIPT
+          + MAP_CACHE_SCRIPT
+          + MULTIMAP_CACHE_SCRIPT
+          + JCACHE_SCRIPT
+          + "local total = 0; "
+          + "local minTime = -1; "
+          + "local pos = 2; "
+          + "for i = 4, #ARGV, 3 do "
+              + "local member = ARGV[i]; "
+              + "local objectType = ARGV[i + 1]; "
+              + "local k = {}; "
+              + "for j = 1, tonumber(ARGV[i + 2]) do "
+                  + "table.insert(k, KEYS[pos]); "
+                  + "pos = pos + 1; "
+              + "end; "
+              + "local entries = 0; "
+              + "local nextTime = nil; "
+              + "if objectType == '" + EvictionScheduler.SET_CACHE + "' then "
+                  + "entries, nextTime = sweepSetCache(k); "
+              + "elseif objectType == '" + EvictionScheduler.MAP_CACHE + "' then "
+                  + "entries, nextTime = sweepMapCache(k); "
+              + "elseif objectType == '" + EvictionScheduler.LIST_MULTIMAP_CACHE + "' "
+                      + "or objectType == '" + EvictionScheduler.SET_MULTIMAP_CACHE + "' then "
+                  + "entries, nextTime = sweepMultimapCache(k); "
+              + "elseif objectType == '" + EvictionScheduler.JCACHE + "' then "
+                  + "entries, nextTime = sweepJCache(k); "
+              + "end; "
+              + "total = total + entries; "
+              // unknown member is removed from index
+              + "if nextTime == nil then "
+                  + "redis.call('zrem', KEYS[1], member); "
+              + "else "
+                  + "redis.call('zadd', KEYS[1], nextTime, member); "
+                  + "if minTime == -1 or nextTime < minTime then "
+                      + "minTime = nextTime; "
+                  + "end; "
+              + "end; "
+          + "end; "
+          + "return {total, minTime};";
+    
+    final int keysLimit = 300;
+    final int objectsLimit = 100;
     
-    EvictionTask(CommandAsyncExecutor executor) {
+    private final Set<String> members = Collections.newSetFromMap(PlatformDependent.<String, Boolean>newConcurrentHashMap());
+    private final String indexName;
+    private final EvictionScheduler scheduler;
+    private final CommandAsyncExecutor executor;
+    
+    private volatile long nextTime;
+    private volatile boolean running;
+    
+    EvictionTask(String indexName, EvictionScheduler scheduler, CommandAsyncExecutor executor) {
         super();
+        this.indexName = indexName;
+        this.scheduler = scheduler;
         this.executor = executor;
     }
-
-    public void schedule() {
-        executor.getConnectionManager().getGroup().schedule(this, delay, TimeUnit.SECONDS);
+    
+    /**
+     * Registers index member. Registered members are cleared after each sweep, 
+     * so objects removed from index are registered again on next use.
+     * 
+     * @param member - index member
+     * @return <code>true</code> if member hasn't been registered before
+     */
+    boolean addMember(String member) {
+        return members.add(member);
     }
-
-    abstract RFuture<Integer> execute();
     
-    @Override
-    public void run() {
-        RFuture<Integer> future = execute();
-        future.addListener(new FutureListener<Integer>() {
+    void removeMember(String member) {
+        members.remove(member);
+    }
+    
+    /**
+     * Forces sweep of index on next scheduler tick.
+     */
+    void reset() {
+        nextTime = 0;
+    }
+    
+    boolean isDue(long currentTime) {
+        return !running && nextTime <= currentTime;
+    }
+
+    void run(final long maxDelay) {
+        running = true;
+        final long currentTime = System.currentTimeMillis();
+        // one more member to find out expiration time of first not due object
+        RFuture<List<ScoredEntry<Object>>> future = executor.readAsync(indexName, StringCodec.INSTANCE, RedisCommands.ZRANGE_ENTRY, 
+                indexName, 0, objectsLimit, "WITHSCORES");
+        future.addListener(new FutureListener<List<ScoredEntry<Object>>>() {
             @Override
-            public void operationComplete(Future<Integer> future) throws Exception {
+            public void operationComplete(Future<List<ScoredEntry<Object>>> future) throws Exception {
                 if (!future.isSuccess()) {
-                    schedule();
+                    complete(currentTime + maxDelay);
                     return;
                 }
-
-                Integer size = future.getNow();
-
-                if (sizeHistory.size() == 2) {
-                    if (sizeHistory.peekFirst() > sizeHistory.peekLast()
-                            && sizeHistory.peekLast() > size) {
-                        delay = Math.min(maxDelay, (int)(delay*1.5));
+                
+                List<ScoredEntry<Object>> entries = future.getNow();
+                long nextHead = -1;
+                int due = 0;
+                for (ScoredEntry<Object> entry : entries) {
+                    if (entry.getScore().longValue() > currentTime) {
+                        nextHead = entry.getScore().longValue();
+                        break;
                     }
-
-//                    if (sizeHistory.peekFirst() < sizeHistory.peekLast()
-//                            && sizeHistory.peekLast() < size) {
-//                        prevDelay = Math.max(minDelay, prevDelay/2);
-//                    }
-
-                    if (sizeHistory.peekFirst().intValue() == sizeHistory.peekLast()
-                            && sizeHistory.peekLast().intValue() == size) {
-                        if (size == keysLimit) {
-                            delay = Math.max(minDelay, delay/4);
-                        }
-                        if (size == 0) {
-                            delay = Math.min(maxDelay, (int)(delay*1.5));
-                        }
+                    due++;
+                }
+                
+                if (due == 0) {
+                    if (nextHead == -1) {
+                        complete(currentTime + maxDelay);
+                    } else {
+                        complete(Math.min(nextHead, currentTime + maxDelay));
                     }
-
-                    sizeHistory.pollFirst();
+                    return;
                 }
-
-                sizeHistory.add(size);
-                schedule();
+                
+                sweep(entries.subList(0, due), nextHead, currentTime, maxDelay);
             }
         });
     }
-
+    
+    private void sweep(final List<ScoredEntry<Object>> dueEntries, long nextHead, final long currentTime, long maxDelay) {
+        List<Object> keys = new ArrayList<Object>(1 + dueEntries.size()*3);
+        List<Object> args = new ArrayList<Object>(3 + dueEntries.size()*3);
+        keys.add(indexName);
+        args.add(currentTime);
+        args.add(keysLimit);
+        args.add(maxDelay);
+        for (ScoredEntry<Object> entry : dueEntries) {
+            String member = (String) entry.getValue();
+            int pos = member.indexOf(':');
+            String objectType = member.substring(0, pos);
+            List<String> objectKeys = getKeys(objectType, member.substring(pos + 1));
+            keys.addAll(objectKeys);
+            args.add(member);
+            args.add(objectType);
+            args.add(objectKeys.size());
+        }
+        
+        final long defaultNextTime = nextHead == -1 ? currentTime + maxDelay : Math.min(nextHead, currentTime + maxDelay);
+        final long oldest = dueEntries.get(0).getScore().longValue();
+        // all due objects are stored in the same slot as index, so they are swept by single script
+        RFuture<List<Object>> future = executor.evalWriteAsync(indexName, LongCodec.INSTANCE, RedisCommands.EVAL_LIST, 
+                SWEEP_SCRIPT, keys, args.toArray());
+        future.addListener(new FutureListener<List<Object>>() {
+            @Override
+            public void operationComplete(Future<List<Object>> future) throws Exception {
+                if (!future.isSuccess()) {
+                    // failed objects stay due in index
+                    complete(currentTime);
+                    return;
+                }
+                
+                long sweptEntries = (Long) future.getNow().get(0);
+                long objectsNextTime = (Long) future.getNow().get(1);
+                scheduler.onSweep(dueEntries.size(), sweptEntries, currentTime - oldest);
+                if (dueEntries.size() >= objectsLimit) {
+                    complete(0);
+                } else if (objectsNextTime != -1) {
+                    complete(Math.min(defaultNextTime, objectsNextTime));
+                } else {
+                    complete(defaultNextTime);
+                }
+            }
+        });
+    }
+    
+    private List<String> getKeys(String objectType, String name) {
+        if (EvictionScheduler.SET_CACHE.equals(objectType)) {
+            return Collections.singletonList(name);
+        }
+        if (EvictionScheduler.MAP_CACHE.equals(objectType)) {
+            return Arrays.asList(name, prefixName("redisson__timeout__set", name), prefixName("redisson__idle__set", name));
+        }
+        if (EvictionScheduler.LIST_MULTIMAP_CACHE.equals(objectType)) {
+            return Arrays.asList(name, "redisson_list_multimap_ttl{" + name + "}");
+        }
+        if (EvictionScheduler.SET_MULTIMAP_CACHE.equals(objectType)) {
+            return Arrays.asList(name, "redisson_set_multimap_ttl{" + name + "}");
+        }
+        if (EvictionScheduler.JCACHE.equals(objectType)) {
+            return Arrays.asList(name, "jcache_timeout_set:{" + name + "}", "jcache_expired_channel:{" + name + "}");
+        }
+        // unknown member, removed from index by script
+        return Collections.emptyList();
+    }
+    
+    private void complete(long nextTime) {
+        members.clear();
+        this.nextTime = nextTime;
+        running = false;
+    }
+    
+    private static String prefixName(String prefix, String name) {
+        if (name.contains("{")) {
+            return prefix + ":" + name;
+        }
+        return prefix + ":{" + name + "}";
+    }
+    
 }
@@ -0,0 +1,183 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.executor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.redisson.api.RBlockingQueue;
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.command.CommandExecutor;
+import org.redisson.misc.RPromise;
+import org.redisson.remote.RemoteServiceRequest;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+
+/**
+ * Collects task requests submitted by current thread and adds all of them 
+ * to executor queue by single script invocation.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class BatchExecutorRemoteService extends ExecutorRemoteService {
+
+    static class Batch {
+        
+        final List<RemoteServiceRequest> requests = new ArrayList<RemoteServiceRequest>();
+        final List<RPromise<Boolean>> promises = new ArrayList<RPromise<Boolean>>();
+        String requestQueueName;
+        
+    }
+    
+    private final ThreadLocal<Batch> batch = new ThreadLocal<Batch>();
+    
+    public BatchExecutorRemoteService(Codec codec, RedissonClient redisson, String name, CommandExecutor commandExecutor) {
+        super(codec, redisson, name, commandExecutor);
+    }
+    
+    /**
+     * Starts collecting of requests submitted by current thread
+     */
+    public void startBatch() {
+        batch.set(new Batch());
+    }
+    
+    /**
+     * Drops requests collected since {@link #startBatch()} invocation
+     */
+    public void cancelBatch() {
+        batch.remove();
+    }
+    
+    @Override
+    protected RFuture<Boolean> addAsync(RBlockingQueue<RemoteServiceRequest> requestQueue, RemoteServiceRequest request) {
+        Batch b = batch.get();
+        if (b == null) {
+            return super.addAsync(requestQueue, request);
+        }
+        
+        RPromise<Boolean> promise = commandExecutor.getConnectionManager().newPromise();
+        b.requestQueueName = requestQueue.getName();
+        b.requests.add(request);
+        b.promises.add(promise);
+        return promise;
+    }
+    
+    /**
+     * Adds requests collected since {@link #startBatch()} invocation 
+     * to executor queue. All requests are rejected if executor is in shutdown state.
+     * 
+     * @return <code>true</code> if requests have been added
+     */
+    public RFuture<Boolean> executeAddAsync() {
+        final Batch b = batch.get();
+        batch.remove();
+        if (b == null) {
+            throw new IllegalStateException("Batch hasn't been started");
+        }
+        if (b.requests.isEmpty()) {
+            return commandExecutor.getConnectionManager().newSucceededFuture(true);
+        }
+        
+        final RPromise<Boolean> result = commandExecutor.getConnectionManager().newPromise();
+        executeAddAsync(b, result);
+        result.addListener(new FutureListener<Boolean>() {
+            @Override
+            public void operationComplete(Future<Boolean> future) throws Exception {
+                for (RPromise<Boolean> promise : b.promises) {
+                    if (!future.isSuccess()) {
+                        promise.tryFailure(future.cause());
+                    } else {
+                        promise.trySuccess(future.getNow());
+                    }
+                }
+            }
+        });
+        return result;
+    }
+
+    private void executeAddAsync(final Batch b, final RPromise<Boolean> result) {
+        // class bodies which workers should load from Redis
+        Set<String> classBodyHashes = new LinkedHashSet<String>();
+        for (RemoteServiceRequest request : b.requests) {
+            String classBodyHash = getClassBodyHash(request);
+            if (classBodyHash != null) {
+                classBodyHashes.add(classBodyHash);
+            }
+        }
+        
+        List<Object> params = new ArrayList<Object>(classBodyHashes.size() + b.requests.size() + 1);
+        params.add(classBodyHashes.size());
+        params.addAll(classBodyHashes);
+        for (RemoteServiceRequest request : b.requests) {
+            params.add(encode(request));
+        }
+        
+        RFuture<Long> future = commandExecutor.evalWriteAsync(name, LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                "if redis.call('exists', KEYS[2]) == 0 then "
+                    // class bodies could be deleted since upload
+                    + "local hashes = tonumber(ARGV[1]); "
+                    + "for i = 2, hashes + 1, 1 do "
+                        + "if redis.call('hexists', KEYS[4], ARGV[i]) == 0 then "
+                            + "return -1;"
+                        + "end; "
+                    + "end; "
+                    // unpack has limited stack size, so requests are pushed by chunks
+                    + "for i = hashes + 2, #ARGV, 5000 do "
+                        + "redis.call('rpush', KEYS[3], unpack(ARGV, i, math.min(i + 4999, #ARGV))); "
+                    + "end; "
+                    + "redis.call('incrby', KEYS[1], #ARGV - hashes - 1);"
+                    + "return 1;"
+                + "end;"
+                + "return 0;", 
+                Arrays.<Object>asList(tasksCounterName, statusName, b.requestQueueName, classBodiesName),
+                params.toArray());
+        
+        future.addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+                
+                if (future.getNow() == -1) {
+                    // resend requests with class bodies
+                    for (RemoteServiceRequest request : b.requests) {
+                        if (!inlineClassBody(request)) {
+                            result.tryFailure(new IllegalStateException("Body of class " + request.getArgs()[0] + " hasn't been found"));
+                            return;
+                        }
+                    }
+                    executeAddAsync(b, result);
+                    return;
+                }
+                
+                result.trySuccess(future.getNow() == 1);
+            }
+        });
+    }
+
+}
@@ -16,6 +16,8 @@
 package org.redisson.executor;
 
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import org.redisson.BaseRemoteService;
 import org.redisson.RedissonExecutorService;
@@ -42,6 +44,9 @@ public class ExecutorRemoteService extends BaseRemoteService {
     protected String terminationTopicName;
     protected String tasksCounterName;
     protected String statusName;
+    protected String classBodiesName;
+    protected Map<String, byte[]> classBodies;
+    protected ConcurrentMap<String, Boolean> uploadedClassBodies;
     
     public ExecutorRemoteService(Codec codec, RedissonClient redisson, String name, CommandExecutor commandExecutor) {
         super(codec, redisson, name, commandExecutor);
@@ -58,6 +63,18 @@ public class ExecutorRemoteService extends BaseRemoteService {
     public void setTasksCounterName(String tasksCounterName) {
         this.tasksCounterName = tasksCounterName;
     }
+    
+    public void setClassBodiesName(String classBodiesName) {
+        this.classBodiesName = classBodiesName;
+    }
+    
+    public void setClassBodies(Map<String, byte[]> classBodies) {
+        this.classBodies = classBodies;
+    }
+    
+    public void setUploadedClassBodies(ConcurrentMap<String, Boolean> uploadedClassBodies) {
+        this.uploadedClassBodies = uploadedClassBodies;
+    }
 
     @Override
     protected final RFuture<Boolean> addAsync(RBlockingQueue<RemoteServiceRequest> requestQueue,
@@ -86,16 +103,93 @@ public class ExecutorRemoteService extends BaseRemoteService {
         return promise;
     }
 
-    protected RFuture<Boolean> addAsync(RBlockingQueue<RemoteServiceRequest> requestQueue, RemoteServiceRequest request) {
-        return commandExecutor.evalWriteAsync(name, LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+    protected RFuture<Boolean> addAsync(final RBlockingQueue<RemoteServiceRequest> requestQueue, final RemoteServiceRequest request) {
+        final RPromise<Boolean> result = commandExecutor.getConnectionManager().newPromise();
+        String classBodyHash = getClassBodyHash(request);
+        RFuture<Long> future = commandExecutor.evalWriteAsync(name, LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
                 "if redis.call('exists', KEYS[2]) == 0 then "
+                    // class body could be deleted since upload
+                    + "if ARGV[2] ~= '' and redis.call('hexists', KEYS[4], ARGV[2]) == 0 then "
+                        + "return -1;"
+                    + "end; "
                     + "redis.call('rpush', KEYS[3], ARGV[1]); "
                     + "redis.call('incr', KEYS[1]);"
                     + "return 1;"
                 + "end;"
                 + "return 0;", 
-                Arrays.<Object>asList(tasksCounterName, statusName, requestQueue.getName()),
-                encode(request));
+                Arrays.<Object>asList(tasksCounterName, statusName, requestQueue.getName(), classBodiesName),
+                encode(request), classBodyHash != null ? classBodyHash : "");
+        
+        future.addListener(new FutureListener<Long>() {
+            @Override
+            public void operationComplete(Future<Long> future) throws Exception {
+                if (!future.isSuccess()) {
+                    result.tryFailure(future.cause());
+                    return;
+                }
+                
+                if (future.getNow() == -1) {
+                    // resend request with class body
+                    if (!inlineClassBody(request)) {
+                        result.tryFailure(new IllegalStateException("Body of class " + request.getArgs()[0] + " hasn't been found"));
+                        return;
+                    }
+                    RFuture<Boolean> addFuture = addAsync(requestQueue, request);
+                    addFuture.addListener(new FutureListener<Boolean>() {
+                        @Override
+                        public void operationComplete(Future<Boolean> future) throws Exception {
+                            if (!future.isSuccess()) {
+                                result.tryFailure(future.cause());
+                                return;
+                            }
+                            result.trySuccess(future.getNow());
+                        }
+                    });
+                    return;
+                }
+                
+                result.trySuccess(future.getNow() == 1);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Returns hash of class body which isn't sent along with request 
+     * and should be loaded by worker from Redis.
+     * 
+     * @param request - task request
+     * @return class body hash or <code>null</code>
+     */
+    protected String getClassBodyHash(RemoteServiceRequest request) {
+        Object[] args = request.getArgs();
+        if (args.length > 2 && args[1] instanceof String && args[2] == null) {
+            return (String) args[1];
+        }
+        return null;
+    }
+    
+    /**
+     * Puts class body into request, which is used 
+     * if class body hasn't been found in Redis. Class body is uploaded again 
+     * on next task submission.
+     * 
+     * @param request - task request
+     * @return <code>true</code> if class body has been put
+     */
+    protected boolean inlineClassBody(RemoteServiceRequest request) {
+        String classBodyHash = getClassBodyHash(request);
+        if (classBodyHash == null) {
+            return true;
+        }
+        
+        uploadedClassBodies.remove(classBodyHash);
+        byte[] classBody = classBodies.get(classBodyHash);
+        if (classBody == null) {
+            return false;
+        }
+        request.getArgs()[2] = classBody;
+        return true;
     }
     
     @Override
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.redisson.RedissonExecutorService;
@@ -27,7 +28,9 @@ import org.redisson.api.RFuture;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.RemoteInvocationOptions;
 import org.redisson.api.annotation.RInject;
+import org.redisson.cache.LRUCacheMap;
 import org.redisson.client.RedisException;
+import org.redisson.client.codec.ByteArrayCodec;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandExecutor;
@@ -36,6 +39,7 @@ import org.redisson.remote.RemoteParams;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
 
 /**
  * Executor service runs Callable and Runnable tasks.
@@ -45,7 +49,10 @@ import io.netty.buffer.Unpooled;
  */
 public class RemoteExecutorServiceImpl implements RemoteExecutorService, RemoteParams {
 
+    private static final int CLASS_LOADERS_LIMIT = 1000;
+
     private final ClassLoaderDelegator classLoader = new ClassLoaderDelegator();
+    private final Map<String, RedissonClassLoader> classLoaders = new LRUCacheMap<String, RedissonClassLoader>(CLASS_LOADERS_LIMIT, 0, 0);
     
     private final ThreadLocal<String> requestId = new ThreadLocal<String>();
     private final Codec codec;
@@ -60,6 +67,7 @@ public class RemoteExecutorServiceImpl implements RemoteExecutorService, RemoteP
     private String schedulerTasksName; 
     private String schedulerQueueName;
     private String schedulerChannelName;
+    private String classBodiesName;
     
     public RemoteExecutorServiceImpl(CommandExecutor commandExecutor, RedissonClient redisson, Codec codec, String name) {
         this.commandExecutor = commandExecutor;
@@ -96,13 +104,17 @@ public class RemoteExecutorServiceImpl implements RemoteExecutorService, RemoteP
     public void setTerminationTopicName(String terminationTopicName) {
         this.terminationTopicName = terminationTopicName;
     }
+    
+    public void setClassBodiesName(String classBodiesName) {
+        this.classBodiesName = classBodiesName;
+    }
 
     @Override
-    public void scheduleAtFixedRate(String className, byte[] classBody, byte[] state, long startTime, long period) {
+    public void scheduleAtFixedRate(String className, String classBodyHash, byte[] classBody, byte[] state, long startTime, long period) {
         long newStartTime = System.currentTimeMillis() + period;
-        RFuture<Void> future = asyncScheduledServiceAtFixed().scheduleAtFixedRate(className, classBody, state, newStartTime, period);
+        RFuture<Void> future = asyncScheduledServiceAtFixed().scheduleAtFixedRate(className, classBodyHash, classBody, state, newStartTime, period);
         try {
-            executeRunnable(className, classBody, state);
+            executeRunnable(className, classBodyHash, classBody, state);
         } catch (RuntimeException e) {
             // cancel task if it throws an exception
             future.cancel(true);
@@ -111,11 +123,11 @@ public class RemoteExecutorServiceImpl implements RemoteExecutorService, RemoteP
     }
     
     @Override
-    public void schedule(String className, byte[] classBody, byte[] state, long startTime, String cronExpression) {
+    public void schedule(String className, String classBodyHash, byte[] classBody, byte[] state, long startTime, String cronExpression) {
         Date nextStartDate = new CronExpression(cronExpression).getNextValidTimeAfter(new Date());
-        RFuture<Void> future = asyncScheduledServiceAtFixed().schedule(className, classBody, state, nextStartDate.getTime(), cronExpression);
+        RFuture<Void> future = asyncScheduledServiceAtFixed().schedule(className, classBodyHash, classBody, state, nextStartDate.getTime(), cronExpression);
         try {
-            executeRunnable(className, classBody, state);
+            executeRunnable(className, classBodyHash, classBody, state);
         } catch (RuntimeException e) {
             // cancel task if it throws an exception
             future.cancel(true);
@@ -143,34 +155,33 @@ public class RemoteExecutorServiceImpl implements RemoteExecutorService, RemoteP
     }
     
     @Override
-    public void scheduleWithFixedDelay(String className, byte[] classBody, byte[] state, long startTime, long delay) {
-        executeRunnable(className, classBody, state);
+    public void scheduleWithFixedDelay(String className, String classBodyHash, byte[] classBody, byte[] state, long startTime, long delay) {
+        executeRunnable(className, classBodyHash, classBody, state);
         long newStartTime = System.currentTimeMillis() + delay;
-        asyncScheduledServiceAtFixed().scheduleWithFixedDelay(className, classBody, state, newStartTime, delay);
+        asyncScheduledServiceAtFixed().scheduleWithFixedDelay(className, classBodyHash, classBody, state, newStartTime, delay);
     }
     
     @Override
-    public Object scheduleCallable(String className, byte[] classBody, byte[] state, long startTime) {
-        return executeCallable(className, classBody, state, requestId.get());
+    public Object scheduleCallable(String className, String classBodyHash, byte[] classBody, byte[] state, long startTime) {
+        return executeCallable(className, classBodyHash, classBody, state, requestId.get());
     }
     
     @Override
-    public void scheduleRunnable(String className, byte[] classBody, byte[] state, long startTime) {
-        executeRunnable(className, classBody, state, requestId.get());
+    public void scheduleRunnable(String className, String classBodyHash, byte[] classBody, byte[] state, long startTime) {
+        executeRunnable(className, classBodyHash, classBody, state, requestId.get());
     }
     
     @Override
-    public Object executeCallable(String className, byte[] classBody, byte[] state) {
-        return executeCallable(className, classBody, state, null);
+    public Object executeCallable(String className, String classBodyHash, byte[] classBody, byte[] state) {
+        return executeCallable(className, classBodyHash, classBody, state, null);
     }
     
-    private Object executeCallable(String className, byte[] classBody, byte[] state, String scheduledRequestId) {
+    private Object executeCallable(String className, String classBodyHash, byte[] classBody, byte[] state, String scheduledRequestId) {
         ByteBuf buf = null;
         try {
             buf = Unpooled.wrappedBuffer(state);
             
-            RedissonClassLoader cl = new RedissonClassLoader(getClass().getClassLoader());
-            cl.loadClass(className, classBody);
+            RedissonClassLoader cl = getClassLoader(className, classBodyHash, classBody);
             classLoader.setCurrentClassLoader(cl);
             
             Callable<?> callable = decode(buf);
@@ -189,6 +200,38 @@ public class RemoteExecutorServiceImpl implements RemoteExecutorService, RemoteP
     }
 
 
+    /**
+     * Returns class loader with task class defined. Class loaders are cached 
+     * by class body hash, so each class is defined only once and reused 
+     * by subsequent tasks. Least recently used class loaders are evicted 
+     * if cache exceeds limit. Class body is loaded from Redis if it wasn't 
+     * sent along with the task.
+     * 
+     * @param className - task class name
+     * @param classBodyHash - task class body hash
+     * @param classBody - task class body or <code>null</code>
+     * @return class loader
+     */
+    private RedissonClassLoader getClassLoader(String className, String classBodyHash, byte[] classBody) {
+        RedissonClassLoader cl = classLoaders.get(classBodyHash);
+        if (cl != null) {
+            return cl;
+        }
+        
+        if (classBody == null) {
+            classBody = commandExecutor.read(classBodiesName, ByteArrayCodec.INSTANCE, RedisCommands.HGET, 
+                                                classBodiesName, classBodyHash.getBytes(CharsetUtil.UTF_8));
+            if (classBody == null) {
+                throw new IllegalStateException("Body of class " + className + " hasn't been found");
+            }
+        }
+        
+        cl = new RedissonClassLoader(getClass().getClassLoader());
+        cl.loadClass(className, classBody);
+        classLoaders.put(classBodyHash, cl);
+        return cl;
+    }
+
     private <T> T decode(ByteBuf buf) throws IOException {
         T task = (T) codec.getValueDecoder().decode(buf, null);
         Injector.inject(task, redisson);
@@ -196,17 +239,16 @@ public class RemoteExecutorServiceImpl implements RemoteExecutorService, RemoteP
     }
 
     @Override
-    public void executeRunnable(String className, byte[] classBody, byte[] state) {
-        executeRunnable(className, classBody, state, null);
+    public void executeRunnable(String className, String classBodyHash, byte[] classBody, byte[] state) {
+        executeRunnable(className, classBodyHash, classBody, state, null);
     }
     
-    private void executeRunnable(String className, byte[] classBody, byte[] state, String scheduledRequestId) {
+    private void executeRunnable(String className, String classBodyHash, byte[] classBody, byte[] state, String scheduledRequestId) {
         ByteBuf buf = null;
         try {
             buf = Unpooled.wrappedBuffer(state);
             
-            RedissonClassLoader cl = new RedissonClassLoader(getClass().getClassLoader());
-            cl.loadClass(className, classBody);
+            RedissonClassLoader cl = getClassLoader(className, classBodyHash, classBody);
             classLoader.setCurrentClassLoader(cl);
         
             Runnable runnable = decode(buf);
@@ -68,7 +68,7 @@ public class ScheduledExecutorRemoteService extends ExecutorRemoteService {
     
     @Override
     protected RFuture<Boolean> addAsync(RBlockingQueue<RemoteServiceRequest> requestQueue, RemoteServiceRequest request) {
-        Long startTime = (Long)request.getArgs()[3];
+        Long startTime = (Long)request.getArgs()[4];
         byte[] encodedRequest = encode(request);
         
         if (requestId != null) {
@@ -118,8 +118,8 @@ public class ScheduledExecutorRemoteService extends ExecutorRemoteService {
         }
         
         Long startTime = 0L;
-        if (request != null && request.getArgs() != null && request.getArgs().length > 3) {
-            startTime = (Long)request.getArgs()[3];
+        if (request != null && request.getArgs() != null && request.getArgs().length > 4) {
+            startTime = (Long)request.getArgs()[4];
         }
         long delay = startTime - System.currentTimeMillis();
         if (delay > 0) {
@@ -128,7 +128,7 @@ public class JCache<K, V> extends RedissonObject implements Cache<K, V> {
         this.cacheManager = cacheManager;
         this.config = config;
         
-        redisson.getEvictionScheduler().scheduleJCache(getName(), getTimeoutSetName(), getExpiredChannelName());
+        redisson.getEvictionScheduler().scheduleJCache(getName());
         
         for (CacheEntryListenerConfiguration<K, V> listenerConfig : config.getCacheEntryListenerConfigurations()) {
             registerCacheEntryListener(listenerConfig, false);
@@ -191,6 +191,20 @@ public class JCache<K, V> extends RedissonObject implements Cache<K, V> {
             throw new NullPointerException();
         }
         long startTime = currentNanoTime();
+        if (isReadCommitted()) {
+            V value = getValue(key);
+            if (value == null) {
+                cacheManager.getStatBean(this).addMisses(1);
+                if (config.isReadThrough()) {
+                    value = load(key);
+                }
+            } else {
+                cacheManager.getStatBean(this).addGetTime(currentNanoTime() - startTime);
+                cacheManager.getStatBean(this).addHits(1);
+            }
+            return value;
+        }
+
         RLock lock = getLockedLock(key);
         try {
             V value = getValueLocked(key);
@@ -298,6 +312,17 @@ public class JCache<K, V> extends RedissonObject implements Cache<K, V> {
         return value;
     }
 
+    /**
+     * Entry lock isn't used by read operations in read committed mode.
+     * Zero access expiration requires lock since entry removal
+     * should be synchronized with cache entry listeners.
+     * 
+     * @return <code>true</code> if value could be read without lock
+     */
+    private boolean isReadCommitted() {
+        return config.isReadCommitted() && getAccessTimeout() != 0;
+    }
+
     private Long getAccessTimeout() {
         if (config.getExpiryPolicy().getExpiryForAccess() == null) {
             return -1L;
@@ -573,15 +598,17 @@ public class JCache<K, V> extends RedissonObject implements Cache<K, V> {
         }
 
         long startTime = currentNanoTime();
-        boolean exists = false;
-        for (K key : keys) {
-            if (containsKey(key)) {
-                exists = true;
+        if (!isReadCommitted()) {
+            boolean exists = false;
+            for (K key : keys) {
+                if (containsKey(key)) {
+                    exists = true;
+                }
+            }
+            if (!exists && !config.isReadThrough()) {
+                cacheManager.getStatBean(this).addGetTime(currentNanoTime() - startTime);
+                return Collections.emptyMap();
             }
-        }
-        if (!exists && !config.isReadThrough()) {
-            cacheManager.getStatBean(this).addGetTime(currentNanoTime() - startTime);
-            return Collections.emptyMap();
         }
         
         
@@ -38,12 +38,16 @@ public class JCacheConfiguration<K, V> implements CompleteConfiguration<K, V> {
     
     private final ExpiryPolicy expiryPolicy;
     private final MutableConfiguration<K, V> delegate;
+    private boolean readCommitted;
     
     public JCacheConfiguration(Configuration<K, V> configuration) {
         if (configuration != null) {
             if (configuration instanceof RedissonConfiguration) {
                 configuration = ((RedissonConfiguration<K, V>)configuration).getJcacheConfig();
             }
+            if (configuration instanceof JCacheConfiguration) {
+                readCommitted = ((JCacheConfiguration<K, V>) configuration).isReadCommitted();
+            }
             
             if (configuration instanceof CompleteConfiguration) {
                 delegate = new MutableConfiguration<K, V>((CompleteConfiguration<K, V>) configuration);
@@ -142,6 +146,22 @@ public class JCacheConfiguration<K, V> implements CompleteConfiguration<K, V> {
         return expiryPolicy;
     }
 
-    
-    
+    /**
+     * Enables read committed mode. In this mode <code>get</code>, <code>getAll</code> 
+     * and <code>containsKey</code> operations are executed as single script 
+     * without acquiring entry lock. Lock is still used to load value through 
+     * {@link CacheLoader} and for operations invoking {@link CacheWriter}.
+     * <p>
+     * Default is <code>false</code>
+     * 
+     * @param readCommitted - <code>true</code> to read entries without lock
+     */
+    public void setReadCommitted(boolean readCommitted) {
+        this.readCommitted = readCommitted;
+    }
+
+    public boolean isReadCommitted() {
+        return readCommitted;
+    }
+
 }
@@ -71,7 +71,7 @@ public class DefaultNamingScheme extends AbstractNamingScheme implements NamingS
         String decode = name.substring(name.indexOf("{") + 1, name.indexOf("}"));
         ByteBuf b = Unpooled.wrappedBuffer(hexToBytes(decode));
         try {
-            return codec.getMapKeyDecoder().decode(b, new State(false));
+            return codec.getMapKeyDecoder().decode(b, new State());
         } catch (IOException ex) {
             throw new IllegalStateException("Unable to decode [" + decode + "] into object", ex);
         } finally {
@@ -16,9 +16,16 @@
 package org.redisson.mapreduce;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
+import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.annotation.RInject;
+import org.redisson.api.mapreduce.RReducer;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.command.CommandExecutor;
+import org.redisson.misc.Injector;
 
 /**
  * 
@@ -30,6 +37,10 @@ import org.redisson.api.annotation.RInject;
 public abstract class BaseMapperTask<KOut, VOut> implements Runnable, Serializable {
 
     private static final long serialVersionUID = 6224632826989873592L;
+    
+    private static final int SCAN_COUNT = 1000;
+    // used if map reduce execution has no timeout
+    private static final long CURSOR_TIMEOUT = 60 * 60 * 1000;
 
     @RInject
     protected RedissonClient redisson;
@@ -42,6 +53,10 @@ public abstract class BaseMapperTask<KOut, VOut> implements Runnable, Serializab
     protected String collectorMapName;
     protected long timeout;
     
+    protected RReducer<KOut, VOut> combiner;
+    protected String cursorName;
+    protected int mappersAmount = 1;
+    
     public BaseMapperTask() {
     }
     
@@ -63,5 +78,68 @@ public abstract class BaseMapperTask<KOut, VOut> implements Runnable, Serializab
     public void setCollectorMapName(String collatorMapName) {
         this.collectorMapName = collatorMapName;
     }
+    
+    public void setCombiner(RReducer<KOut, VOut> combiner) {
+        this.combiner = combiner;
+    }
+    
+    public void setCursorName(String cursorName) {
+        this.cursorName = cursorName;
+    }
+    
+    public void setMappersAmount(int mappersAmount) {
+        this.mappersAmount = mappersAmount;
+    }
+    
+    /**
+     * Returns <code>true</code> if source object can be split 
+     * into partitions processed by separate mappers
+     * 
+     * @return <code>true</code> if object can be split
+     */
+    public abstract boolean isPartitioned();
+    
+    protected Collector<KOut, VOut> createCollector(Codec codec) {
+        if (combiner != null) {
+            Injector.inject(combiner, redisson);
+        }
+        return new Collector<KOut, VOut>(codec, redisson, collectorMapName, workersAmount, timeout, combiner);
+    }
+    
+    /**
+     * Script performs next step of object scan shared by all mappers. 
+     * Scan cursor is stored in <code>cursorName</code> key, so each 
+     * page of elements is returned only to one mapper. Returned cursor 
+     * is <code>0</code> once scan has been completed.
+     * 
+     * @param scanCommand - scan command
+     * @return lua script
+     */
+    protected String sharedScanScript(String scanCommand) {
+        return "local pos = redis.call('get', KEYS[2]); "
+             + "if pos == '-1' then "
+                 + "return {'0', {}}; "
+             + "end; "
+             + "if pos == false then "
+                 + "pos = '0'; "
+             + "end; "
+             + "local res = redis.call('" + scanCommand + "', KEYS[1], pos, 'count', ARGV[1]); "
+             + "if res[1] == '0' then "
+                 + "redis.call('set', KEYS[2], '-1', 'px', ARGV[2]); "
+             + "else "
+                 + "redis.call('set', KEYS[2], res[1], 'px', ARGV[2]); "
+             + "end; "
+             + "return res;";
+    }
+    
+    protected <R> R scanShared(Codec codec, RedisCommand<?> command, String script) {
+        CommandExecutor commandExecutor = ((Redisson) redisson).getCommandExecutor();
+        long cursorTimeout = CURSOR_TIMEOUT;
+        if (timeout > 0) {
+            cursorTimeout = timeout;
+        }
+        return commandExecutor.evalWrite(objectName, codec, command, script, 
+                    Arrays.<Object>asList(objectName, cursorName), SCAN_COUNT, cursorTimeout);
+    }
 
 }
@@ -22,8 +22,9 @@ import org.redisson.api.RSet;
 import org.redisson.api.RSetCache;
 import org.redisson.api.RSortedSet;
 import org.redisson.api.mapreduce.RCollectionMapper;
-import org.redisson.api.mapreduce.RCollector;
 import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.decoder.ListScanResult;
 import org.redisson.misc.Injector;
 
 /**
@@ -48,6 +49,11 @@ public class CollectionMapperTask<VIn, KOut, VOut> extends BaseMapperTask<KOut,
         this.mapper = mapper;
     }
 
+    @Override
+    public boolean isPartitioned() {
+        return RSet.class.isAssignableFrom(objectClass);
+    }
+    
     @Override
     public void run()  {
         Codec codec;
@@ -59,6 +65,27 @@ public class CollectionMapperTask<VIn, KOut, VOut> extends BaseMapperTask<KOut,
         
         Injector.inject(mapper, redisson);
 
+        Collector<KOut, VOut> collector = createCollector(codec);
+        
+        if (mappersAmount > 1) {
+            String script = sharedScanScript("sscan");
+            long pos;
+            do {
+                ListScanResult<VIn> res = scanShared(codec, RedisCommands.EVAL_SSCAN, script);
+                for (VIn value : res.getValues()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    
+                    mapper.map(value, collector);
+                }
+                pos = res.getPos();
+            } while (pos != 0);
+            
+            collector.flush();
+            return;
+        }
+        
         Iterable<VIn> collection = null;
         if (RSetCache.class.isAssignableFrom(objectClass)) {
             collection = redisson.getSetCache(objectName, codec);
@@ -76,8 +103,6 @@ public class CollectionMapperTask<VIn, KOut, VOut> extends BaseMapperTask<KOut,
             throw new IllegalStateException("Unable to work with " + objectClass);
         }
 
-        RCollector<KOut, VOut> collector = new Collector<KOut, VOut>(codec, redisson, collectorMapName, workersAmount, timeout);
-
         for (VIn value : collection) {
             if (Thread.currentThread().isInterrupted()) {
                 return;
@@ -85,6 +110,8 @@ public class CollectionMapperTask<VIn, KOut, VOut> extends BaseMapperTask<KOut,
 
             mapper.map(value, collector);
         }
+        
+        collector.flush();
     }
 
 }
@@ -16,17 +16,27 @@
 package org.redisson.mapreduce;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 
-import org.redisson.api.RListMultimap;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMultimapAsync;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.mapreduce.RCollector;
+import org.redisson.api.mapreduce.RReducer;
 import org.redisson.client.codec.Codec;
 
 import net.openhft.hashing.LongHashFunction;
 
 /**
+ * Buffers emitted values and sends them to collector parts 
+ * by single batch once buffer is full. Values of the same key 
+ * are combined before sending if combiner is defined.
  * 
  * @author Nikita Koksharov
  *
@@ -35,37 +45,93 @@ import net.openhft.hashing.LongHashFunction;
  */
 public class Collector<K, V> implements RCollector<K, V> {
 
+    static final int BUFFER_SIZE = 1000;
+    
     private RedissonClient client;
     private String name;
     private int parts;
     private Codec codec;
     private long timeout;
     private BitSet expirationsBitSet = new BitSet();
+    private RReducer<K, V> combiner;
+    
+    private final Map<K, List<V>> buffer = new HashMap<K, List<V>>();
+    private int bufferedValues;
     
-    public Collector(Codec codec, RedissonClient client, String name, int parts, long timeout) {
+    public Collector(Codec codec, RedissonClient client, String name, int parts, long timeout, RReducer<K, V> combiner) {
         super();
         this.client = client;
         this.name = name;
         this.parts = parts;
         this.codec = codec;
         this.timeout = timeout;
+        this.combiner = combiner;
         expirationsBitSet = new BitSet(parts);
     }
 
     @Override
     public void emit(K key, V value) {
-        try {
-            byte[] encodedKey = codec.getValueEncoder().encode(key);
-            long hash = LongHashFunction.xx_r39().hashBytes(encodedKey);
-            int part = (int) Math.abs(hash % parts);
+        List<V> values = buffer.get(key);
+        if (values == null) {
+            values = new ArrayList<V>();
+            buffer.put(key, values);
+        }
+        values.add(value);
+        bufferedValues++;
+        
+        if (combiner != null && values.size() >= BUFFER_SIZE / 10) {
+            bufferedValues -= values.size() - 1;
+            combine(key, values);
+        }
+        
+        if (bufferedValues >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    private void combine(K key, List<V> values) {
+        V value = combiner.reduce(key, values.iterator());
+        values.clear();
+        values.add(value);
+    }
+    
+    /**
+     * Sends buffered values to collector parts
+     */
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        
+        RBatch batch = client.createBatch();
+        for (Entry<K, List<V>> entry : buffer.entrySet()) {
+            K key = entry.getKey();
+            List<V> values = entry.getValue();
+            if (combiner != null && values.size() > 1) {
+                combine(key, values);
+            }
+            
+            int part = getPart(key);
             String partName = name + ":" + part;
             
-            RListMultimap<K, V> multimap = client.getListMultimap(partName, codec);
-            multimap.put(key, value);
+            RMultimapAsync<K, V> multimap = batch.getListMultimap(partName, codec);
+            multimap.putAllAsync(key, values);
             if (timeout > 0 && !expirationsBitSet.get(part)) {
-                multimap.expire(timeout, TimeUnit.MILLISECONDS);
+                multimap.expireAsync(timeout, TimeUnit.MILLISECONDS);
                 expirationsBitSet.set(part);
             }
+        }
+        batch.execute();
+        
+        buffer.clear();
+        bufferedValues = 0;
+    }
+    
+    private int getPart(K key) {
+        try {
+            byte[] encodedKey = codec.getValueEncoder().encode(key);
+            long hash = LongHashFunction.xx_r39().hashBytes(encodedKey);
+            return (int) Math.abs(hash % parts);
         } catch (IOException e) {
             throw new IllegalArgumentException(e);
         }
@@ -124,16 +124,42 @@ public class CoordinatorTask<KOut, VOut> implements Callable<Object>, Serializab
         if (timeout > 0) {
             mapperTask.setTimeout(timeout - timeSpent);
         }
-        RFuture<?> mapperFuture = executor.submit(mapperTask);
-        if (timeout > 0 && !mapperFuture.await(timeout - timeSpent)) {
-            mapperFuture.cancel(true);
-            throw new MapReduceTimeoutException();
+        
+        // partitioned object is processed by mapper per each worker
+        int mappersAmount = 1;
+        if (mapperTask.isPartitioned()) {
+            mappersAmount = workersAmount;
         }
-        if (timeout == 0) {
-            try {
-                mapperFuture.await();
-            } catch (InterruptedException e) {
-                return null;
+        mapperTask.setMappersAmount(mappersAmount);
+        // mappers share single scan of object
+        String cursorName = suffixName(objectName, "mapper:cursor:" + id);
+        mapperTask.setCursorName(cursorName);
+        
+        List<RFuture<?>> mapperFutures = new ArrayList<RFuture<?>>(mappersAmount);
+        final CountDownLatch mappersLatch = new CountDownLatch(mappersAmount);
+        for (int i = 0; i < mappersAmount; i++) {
+            RFuture<?> future = executor.submit(mapperTask);
+            future.addListener(new LatchListener(mappersLatch));
+            mapperFutures.add(future);
+        }
+        
+        try {
+            if (timeout > 0 && !mappersLatch.await(timeout - timeSpent, TimeUnit.MILLISECONDS)) {
+                cancel(mapperFutures);
+                throw new MapReduceTimeoutException();
+            }
+            if (timeout == 0) {
+                mappersLatch.await();
+            }
+        } catch (InterruptedException e) {
+            cancel(mapperFutures);
+            return null;
+        } finally {
+            redisson.getBucket(cursorName).deleteAsync();
+        }
+        for (RFuture<?> rFuture : mapperFutures) {
+            if (!rFuture.isSuccess()) {
+                throw (Exception) rFuture.cause();
             }
         }
         
@@ -148,18 +174,18 @@ public class CoordinatorTask<KOut, VOut> implements Callable<Object>, Serializab
         }
 
         if (Thread.currentThread().isInterrupted()) {
-            cancelReduce(futures);
+            cancel(futures);
             return null;
         }
         
         timeSpent = System.currentTimeMillis() - startTime;
         if (isTimeoutExpired(timeSpent)) {
-            cancelReduce(futures);
+            cancel(futures);
             throw new MapReduceTimeoutException();
         }
         try {
             if (timeout > 0 && !latch.await(timeout - timeSpent, TimeUnit.MILLISECONDS)) {
-                cancelReduce(futures);
+                cancel(futures);
                 throw new MapReduceTimeoutException();
             }
             if (timeout == 0) {
@@ -170,7 +196,7 @@ public class CoordinatorTask<KOut, VOut> implements Callable<Object>, Serializab
                 }
             }
         } catch (InterruptedException e) {
-            cancelReduce(futures);
+            cancel(futures);
             return null;
         }
         for (RFuture<?> rFuture : futures) {
@@ -211,11 +237,18 @@ public class CoordinatorTask<KOut, VOut> implements Callable<Object>, Serializab
         }
     }
 
+    private String suffixName(String name, String suffix) {
+        if (name.contains("{")) {
+            return name + ":" + suffix;
+        }
+        return "{" + name + "}:" + suffix;
+    }
+    
     private boolean isTimeoutExpired(long timeSpent) {
         return timeSpent > timeout && timeout > 0;
     }
 
-    private void cancelReduce(List<RFuture<?>> futures) {
+    private void cancel(List<RFuture<?>> futures) {
         for (RFuture<?> future : futures) {
             future.cancel(true);
         }
@@ -59,6 +59,7 @@ abstract class MapReduceExecutor<M, VIn, KOut, VOut> implements RMapReduceExecut
 
     private ConnectionManager connectionManager;
     RReducer<KOut, VOut> reducer;
+    RReducer<KOut, VOut> combiner;
     M mapper;
     long timeout;
     
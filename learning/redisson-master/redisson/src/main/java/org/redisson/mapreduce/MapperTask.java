@@ -19,9 +19,10 @@ import java.util.Map.Entry;
 
 import org.redisson.api.RMap;
 import org.redisson.api.RMapCache;
-import org.redisson.api.mapreduce.RCollector;
 import org.redisson.api.mapreduce.RMapper;
 import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.decoder.MapScanResult;
 import org.redisson.misc.Injector;
 
 /**
@@ -47,6 +48,12 @@ public class MapperTask<KIn, VIn, KOut, VOut> extends BaseMapperTask<KOut, VOut>
         this.mapper = mapper;
     }
 
+    @Override
+    public boolean isPartitioned() {
+        // map cache entries should be filtered by expiration
+        return !RMapCache.class.isAssignableFrom(objectClass);
+    }
+    
     @Override
     public void run() {
         Codec codec;
@@ -58,22 +65,40 @@ public class MapperTask<KIn, VIn, KOut, VOut> extends BaseMapperTask<KOut, VOut>
         
         Injector.inject(mapper, redisson);
 
-        RMap<KIn, VIn> map = null;
-        if (RMapCache.class.isAssignableFrom(objectClass)) {
-            map = redisson.getMapCache(objectName, codec);
-        } else {
-            map = redisson.getMap(objectName, codec);
-        }
-
-        RCollector<KOut, VOut> collector = new Collector<KOut, VOut>(codec, redisson, collectorMapName, workersAmount, timeout);
+        Collector<KOut, VOut> collector = createCollector(codec);
         
-        for (Entry<KIn, VIn> entry : map.entrySet()) {
-            if (Thread.currentThread().isInterrupted()) {
-                return;
+        if (mappersAmount > 1) {
+            String script = sharedScanScript("hscan");
+            long pos;
+            do {
+                MapScanResult<KIn, VIn> res = scanShared(codec, RedisCommands.EVAL_HSCAN, script);
+                for (Entry<KIn, VIn> entry : res.getMap().entrySet()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    
+                    mapper.map(entry.getKey(), entry.getValue(), collector);
+                }
+                pos = res.getPos();
+            } while (pos != 0);
+        } else {
+            RMap<KIn, VIn> map = null;
+            if (RMapCache.class.isAssignableFrom(objectClass)) {
+                map = redisson.getMapCache(objectName, codec);
+            } else {
+                map = redisson.getMap(objectName, codec);
             }
             
-            mapper.map(entry.getKey(), entry.getValue(), collector);
+            for (Entry<KIn, VIn> entry : map.entrySet()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                
+                mapper.map(entry.getKey(), entry.getValue(), collector);
+            }
         }
+        
+        collector.flush();
     }
 
 }
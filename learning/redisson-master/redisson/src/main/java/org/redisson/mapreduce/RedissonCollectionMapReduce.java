@@ -61,9 +61,17 @@ public class RedissonCollectionMapReduce<VIn, KOut, VOut> extends MapReduceExecu
         return this;
     }
 
+    @Override
+    public RCollectionMapReduce<VIn, KOut, VOut> combiner(RReducer<KOut, VOut> combiner) {
+        check(combiner);
+        this.combiner = combiner;
+        return this;
+    }
+
     @Override
     protected Callable<Object> createTask(String resultMapName, RCollator<KOut, VOut, Object> collator) {
         CollectionMapperTask<VIn, KOut, VOut> mapperTask = new CollectionMapperTask<VIn, KOut, VOut>(mapper, objectClass, objectName, objectCodec.getClass());
+        mapperTask.setCombiner(combiner);
         return new CoordinatorTask<KOut, VOut>(mapperTask, reducer, objectName, resultMapName, objectCodec.getClass(), objectClass, collator, timeout, System.currentTimeMillis());
     }
 
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.misc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.redisson.api.RFuture;
+
+/**
+ * Busy-waits for future completion before caller thread is parked. 
+ * Saves park/unpark cost if response arrives within few microseconds.
+ * <p>
+ * Spin time is halved after each unsuccessful spin down to 
+ * <code>1/16</code> of maximum and restored to maximum once response 
+ * arrives during spinning.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class AdaptiveSpin {
+
+    private static final int MIN_SPIN_DIVIDER = 16;
+    
+    private final long maxSpinNanos;
+    private volatile long spinNanos;
+    
+    public AdaptiveSpin(long maxSpinMicros) {
+        if (Runtime.getRuntime().availableProcessors() < 2) {
+            maxSpinMicros = 0;
+        }
+        this.maxSpinNanos = TimeUnit.MICROSECONDS.toNanos(maxSpinMicros);
+        this.spinNanos = maxSpinNanos;
+    }
+    
+    public boolean isEnabled() {
+        return maxSpinNanos > 0;
+    }
+    
+    /**
+     * Spins until future is done or spin time is over.
+     * 
+     * @param future - future object
+     * @return <code>true</code> if future is done
+     */
+    public boolean spin(RFuture<?> future) {
+        if (!isEnabled()) {
+            return future.isDone();
+        }
+        
+        long spinTime = spinNanos;
+        long start = System.nanoTime();
+        int counter = 0;
+        while (!future.isDone()) {
+            // nanoTime call is more expensive than isDone check
+            if ((++counter & 63) == 0 
+                    && System.nanoTime() - start >= spinTime) {
+                spinNanos = Math.max(spinTime / 2, maxSpinNanos / MIN_SPIN_DIVIDER);
+                return false;
+            }
+        }
+        if (spinTime != maxSpinNanos) {
+            spinNanos = maxSpinNanos;
+        }
+        return true;
+    }
+    
+}
@@ -15,25 +15,86 @@
  */
 package org.redisson.misc;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 import org.redisson.api.RFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
-import io.netty.util.concurrent.ImmediateEventExecutor;
-import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.internal.PlatformDependent;
 
 /**
+ * Promise which keeps its state in single CAS field 
+ * instead of wrapping netty <code>DefaultPromise</code>.
+ * <p>
+ * First waiting thread occupies waiter slot and is parked with {@link LockSupport}, 
+ * so synchronous call doesn't allocate latch or listener. 
+ * Other waiting threads fall back to monitor wait.
+ * <p>
+ * Listeners are notified in completing thread. Nested notifications 
+ * deeper than <code>MAX_LISTENER_STACK_DEPTH</code> are queued and 
+ * executed by outermost notification to avoid stack overflow.
  * 
  * @author Nikita Koksharov
  *
  * @param <T> type of object
  */
-public class RedissonPromise<T> implements RPromise<T> {
+public class RedissonPromise<T> implements RPromise<T>, Future<T> {
 
-    private final Promise<T> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+    private static final Logger log = LoggerFactory.getLogger(RedissonPromise.class);
+    
+    private static final int MAX_LISTENER_STACK_DEPTH = 8;
+    
+    private static final Object SUCCESS = new Object();
+    private static final Object UNCANCELLABLE = new Object();
+    
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<RedissonPromise, Object> RESULT_UPDATER = 
+                                    AtomicReferenceFieldUpdater.newUpdater(RedissonPromise.class, Object.class, "result");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<RedissonPromise, Thread> WAITER_UPDATER = 
+                                    AtomicReferenceFieldUpdater.newUpdater(RedissonPromise.class, Thread.class, "waiter");
+    
+    private static final ThreadLocal<Notifier> NOTIFIER = new ThreadLocal<Notifier>() {
+        @Override
+        protected Notifier initialValue() {
+            return new Notifier();
+        }
+    };
+    
+    private static class Notifier {
+        
+        int depth;
+        final Queue<RedissonPromise<?>> delayed = new ArrayDeque<RedissonPromise<?>>();
+        
+    }
+    
+    private static final class CauseHolder {
+        
+        final Throwable cause;
+        
+        CauseHolder(Throwable cause) {
+            this.cause = cause;
+        }
+        
+    }
+    
+    private volatile Object result;
+    private volatile Thread waiter;
+    private volatile int monitorWaiters;
+    private volatile Object listeners;
     
     public RedissonPromise() {
     }
@@ -50,132 +111,453 @@ public class RedissonPromise<T> implements RPromise<T> {
         return future;
     }
 
-    
-    public Promise<T> getInnerPromise() {
-        return promise;
+    private static boolean isDone(Object result) {
+        return result != null && result != UNCANCELLABLE;
     }
-
+    
     @Override
     public boolean isSuccess() {
-        return promise.isSuccess();
+        Object result = this.result;
+        return isDone(result) && !(result instanceof CauseHolder);
     }
 
     @Override
     public boolean trySuccess(T result) {
-        return promise.trySuccess(result);
+        if (result == null) {
+            return complete(SUCCESS);
+        }
+        return complete(result);
     }
 
     @Override
     public Throwable cause() {
-        return promise.cause();
+        Object result = this.result;
+        if (result instanceof CauseHolder) {
+            return ((CauseHolder) result).cause;
+        }
+        return null;
     }
 
     @Override
     public boolean tryFailure(Throwable cause) {
-        return promise.tryFailure(cause);
+        if (cause == null) {
+            throw new NullPointerException("cause");
+        }
+        return complete(new CauseHolder(cause));
     }
 
+    private boolean complete(Object value) {
+        if (RESULT_UPDATER.compareAndSet(this, null, value)
+                || RESULT_UPDATER.compareAndSet(this, UNCANCELLABLE, value)) {
+            wakeUpWaiters();
+            notifyListeners();
+            return true;
+        }
+        return false;
+    }
+    
+    private void wakeUpWaiters() {
+        Thread waiter = this.waiter;
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+        if (monitorWaiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+    
     @Override
     public boolean setUncancellable() {
-        return promise.setUncancellable();
+        if (RESULT_UPDATER.compareAndSet(this, null, UNCANCELLABLE)) {
+            return true;
+        }
+        Object result = this.result;
+        return !isDone(result) || !isCancelled(result);
+    }
+
+    @Override
+    public boolean isCancellable() {
+        return result == null;
     }
 
     @Override
-    public RPromise<T> addListener(FutureListener<? super T> listener) {
-        promise.addListener(listener);
+    public RedissonPromise<T> addListener(FutureListener<? super T> listener) {
+        return addListener0(listener);
+    }
+
+    @Override
+    public RedissonPromise<T> addListener(GenericFutureListener<? extends Future<? super T>> listener) {
+        return addListener0(listener);
+    }
+
+    @Override
+    public RedissonPromise<T> addListeners(FutureListener<? super T>... listeners) {
+        for (FutureListener<? super T> listener : listeners) {
+            addListener0(listener);
+        }
         return this;
     }
 
     @Override
-    public RPromise<T> addListeners(FutureListener<? super T>... listeners) {
-        promise.addListeners(listeners);
+    public RedissonPromise<T> addListeners(GenericFutureListener<? extends Future<? super T>>... listeners) {
+        for (GenericFutureListener<? extends Future<? super T>> listener : listeners) {
+            addListener0(listener);
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedissonPromise<T> addListener0(GenericFutureListener<?> listener) {
+        if (listener == null) {
+            throw new NullPointerException("listener");
+        }
+        
+        synchronized (this) {
+            if (listeners == null) {
+                listeners = listener;
+            } else if (listeners instanceof List) {
+                ((List<Object>) listeners).add(listener);
+            } else {
+                List<Object> list = new ArrayList<Object>(4);
+                list.add(listeners);
+                list.add(listener);
+                listeners = list;
+            }
+        }
+        
+        if (isDone()) {
+            notifyListeners();
+        }
         return this;
     }
+    
+    @Override
+    public RedissonPromise<T> removeListener(FutureListener<? super T> listener) {
+        return removeListener0(listener);
+    }
 
     @Override
-    public RPromise<T> removeListener(FutureListener<? super T> listener) {
-        promise.removeListener(listener);
+    public RedissonPromise<T> removeListener(GenericFutureListener<? extends Future<? super T>> listener) {
+        return removeListener0(listener);
+    }
+
+    @Override
+    public RedissonPromise<T> removeListeners(FutureListener<? super T>... listeners) {
+        for (FutureListener<? super T> listener : listeners) {
+            removeListener0(listener);
+        }
         return this;
     }
 
     @Override
-    public RPromise<T> removeListeners(FutureListener<? super T>... listeners) {
-        promise.removeListeners(listeners);
+    public RedissonPromise<T> removeListeners(GenericFutureListener<? extends Future<? super T>>... listeners) {
+        for (GenericFutureListener<? extends Future<? super T>> listener : listeners) {
+            removeListener0(listener);
+        }
+        return this;
+    }
+
+    private synchronized RedissonPromise<T> removeListener0(GenericFutureListener<?> listener) {
+        if (listeners == listener) {
+            listeners = null;
+        } else if (listeners instanceof List) {
+            ((List<?>) listeners).remove(listener);
+        }
         return this;
     }
 
+    private void notifyListeners() {
+        if (listeners == null) {
+            return;
+        }
+        
+        Notifier notifier = NOTIFIER.get();
+        if (notifier.depth >= MAX_LISTENER_STACK_DEPTH) {
+            notifier.delayed.add(this);
+            return;
+        }
+        
+        notifier.depth++;
+        try {
+            notifyListenersNow();
+        } finally {
+            notifier.depth--;
+        }
+        
+        if (notifier.depth == 0) {
+            RedissonPromise<?> promise;
+            while ((promise = notifier.delayed.poll()) != null) {
+                notifier.depth++;
+                try {
+                    promise.notifyListenersNow();
+                } finally {
+                    notifier.depth--;
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void notifyListenersNow() {
+        Object listeners;
+        synchronized (this) {
+            listeners = this.listeners;
+            this.listeners = null;
+        }
+        
+        if (listeners instanceof List) {
+            for (Object listener : (List<Object>) listeners) {
+                notifyListener((GenericFutureListener) listener);
+            }
+        } else if (listeners != null) {
+            notifyListener((GenericFutureListener) listeners);
+        }
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void notifyListener(GenericFutureListener listener) {
+        try {
+            listener.operationComplete(this);
+        } catch (Throwable t) {
+            log.warn("An exception was thrown by " + listener.getClass().getName() + ".operationComplete()", t);
+        }
+    }
+
     @Override
-    public RPromise<T> await() throws InterruptedException {
-        promise.await();
+    public RedissonPromise<T> await() throws InterruptedException {
+        await0(0, true);
         return this;
     }
 
     @Override
-    public RPromise<T> awaitUninterruptibly() {
-        promise.awaitUninterruptibly();
+    public RedissonPromise<T> awaitUninterruptibly() {
+        try {
+            await0(0, false);
+        } catch (InterruptedException e) {
+            // can't happen
+        }
         return this;
     }
 
     @Override
-    public RPromise<T> sync() throws InterruptedException {
-        promise.sync();
+    public RedissonPromise<T> sync() throws InterruptedException {
+        await();
+        rethrowIfFailed();
         return this;
     }
 
     @Override
-    public RPromise<T> syncUninterruptibly() {
-        promise.syncUninterruptibly();
+    public RedissonPromise<T> syncUninterruptibly() {
+        awaitUninterruptibly();
+        rethrowIfFailed();
         return this;
     }
 
+    private void rethrowIfFailed() {
+        Throwable cause = cause();
+        if (cause != null) {
+            PlatformDependent.throwException(cause);
+        }
+    }
+
     @Override
     public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
-        return promise.await(timeout, unit);
+        return awaitNanos(unit.toNanos(timeout), true);
     }
 
     @Override
-    public boolean isCancelled() {
-        return promise.isCancelled();
+    public boolean await(long timeoutMillis) throws InterruptedException {
+        return awaitNanos(TimeUnit.MILLISECONDS.toNanos(timeoutMillis), true);
     }
 
     @Override
-    public boolean isDone() {
-        return promise.isDone();
+    public boolean awaitUninterruptibly(long timeout, TimeUnit unit) {
+        try {
+            return awaitNanos(unit.toNanos(timeout), false);
+        } catch (InterruptedException e) {
+            // can't happen
+            throw new IllegalStateException(e);
+        }
     }
 
     @Override
-    public boolean await(long timeoutMillis) throws InterruptedException {
-        return promise.await(timeoutMillis);
+    public boolean awaitUninterruptibly(long timeoutMillis) {
+        return awaitUninterruptibly(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    private boolean awaitNanos(long timeoutNanos, boolean interruptable) throws InterruptedException {
+        if (isDone()) {
+            return true;
+        }
+        if (timeoutNanos <= 0) {
+            return false;
+        }
+        return await0(System.nanoTime() + timeoutNanos, interruptable);
+    }
+
+    /**
+     * Waits until promise is done or deadline has been reached.
+     * 
+     * @param deadline - <code>System.nanoTime()</code> based deadline, <code>0</code> means no deadline
+     * @param interruptable - throw <code>InterruptedException</code> if thread is interrupted, 
+     *                        otherwise interrupt status is restored once waiting is finished
+     * @return <code>true</code> if promise is done
+     * @throws InterruptedException if interruptable and thread was interrupted
+     */
+    private boolean await0(long deadline, boolean interruptable) throws InterruptedException {
+        if (isDone()) {
+            return true;
+        }
+        if (interruptable && Thread.interrupted()) {
+            throw new InterruptedException(toString());
+        }
+        
+        Thread current = Thread.currentThread();
+        if (!WAITER_UPDATER.compareAndSet(this, null, current)) {
+            return awaitMonitor(deadline, interruptable);
+        }
+        
+        boolean interrupted = false;
+        try {
+            while (!isDone()) {
+                if (deadline == 0) {
+                    LockSupport.park(this);
+                } else {
+                    long timeLeft = deadline - System.nanoTime();
+                    if (timeLeft <= 0) {
+                        return false;
+                    }
+                    LockSupport.parkNanos(this, timeLeft);
+                }
+                
+                if (Thread.interrupted()) {
+                    if (interruptable) {
+                        throw new InterruptedException(toString());
+                    }
+                    interrupted = true;
+                }
+            }
+            return true;
+        } finally {
+            waiter = null;
+            if (interrupted) {
+                current.interrupt();
+            }
+        }
+    }
+    
+    private boolean awaitMonitor(long deadline, boolean interruptable) throws InterruptedException {
+        boolean interrupted = false;
+        try {
+            synchronized (this) {
+                monitorWaiters++;
+                try {
+                    while (!isDone()) {
+                        try {
+                            if (deadline == 0) {
+                                wait();
+                            } else {
+                                long timeLeft = deadline - System.nanoTime();
+                                if (timeLeft <= 0) {
+                                    return false;
+                                }
+                                wait(TimeUnit.NANOSECONDS.toMillis(timeLeft), (int) (timeLeft % 1000000));
+                            }
+                        } catch (InterruptedException e) {
+                            if (interruptable) {
+                                throw e;
+                            }
+                            interrupted = true;
+                        }
+                    }
+                    return true;
+                } finally {
+                    monitorWaiters--;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private static boolean isCancelled(Object result) {
+        return result instanceof CauseHolder && ((CauseHolder) result).cause instanceof CancellationException;
     }
 
     @Override
-    public T get() throws InterruptedException, ExecutionException {
-        return promise.get();
+    public boolean isCancelled() {
+        return isCancelled(result);
     }
 
     @Override
-    public boolean awaitUninterruptibly(long timeout, TimeUnit unit) {
-        return promise.awaitUninterruptibly(timeout, unit);
+    public boolean isDone() {
+        return isDone(result);
     }
 
     @Override
-    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        return promise.get(timeout, unit);
+    public T get() throws InterruptedException, ExecutionException {
+        await();
+        return getResult();
     }
 
     @Override
-    public boolean awaitUninterruptibly(long timeoutMillis) {
-        return promise.awaitUninterruptibly(timeoutMillis);
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return getResult();
     }
 
+    private T getResult() throws ExecutionException {
+        Throwable cause = cause();
+        if (cause == null) {
+            return getNow();
+        }
+        if (cause instanceof CancellationException) {
+            throw (CancellationException) cause;
+        }
+        throw new ExecutionException(cause);
+    }
+
+    @SuppressWarnings("unchecked")
     @Override
     public T getNow() {
-        return promise.getNow();
+        Object result = this.result;
+        if (result == null || result == SUCCESS || result == UNCANCELLABLE || result instanceof CauseHolder) {
+            return null;
+        }
+        return (T) result;
     }
 
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
-        return promise.cancel(mayInterruptIfRunning);
+        if (RESULT_UPDATER.compareAndSet(this, null, new CauseHolder(new CancellationException()))) {
+            wakeUpWaiters();
+            notifyListeners();
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    public String toString() {
+        Object result = this.result;
+        StringBuilder sb = new StringBuilder(64).append(getClass().getSimpleName()).append('@')
+                .append(Integer.toHexString(hashCode()));
+        if (result == SUCCESS) {
+            sb.append("(success)");
+        } else if (result instanceof CauseHolder) {
+            sb.append("(failure: ").append(((CauseHolder) result).cause).append(')');
+        } else if (isDone(result)) {
+            sb.append("(success: ").append(result).append(')');
+        } else {
+            sb.append("(incomplete)");
+        }
+        return sb.toString();
     }
     
 }
@@ -15,25 +15,40 @@
  */
 package org.redisson.pubsub;
 
-import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.Queue;
-import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Non-blocking semaphore which runs listener once permit has been acquired.
+ * <p>
+ * Permits are tracked by CAS counter and waiting listeners are stored 
+ * in lock-free queue. Each state change is followed by queue drain 
+ * attempt, so listener can't be stuck in queue while permit is available.
+ * Queued listeners are executed by the thread which drains queue.
+ * <p>
+ * In fair mode listener is queued if there are other waiting listeners. 
+ * In unfair mode listener may acquire released permit before 
+ * already queued listeners.
  * 
  * @author Nikita Koksharov
  *
  */
 public class AsyncSemaphore {
 
-    private int counter;
-    private final Set<Runnable> listeners = new LinkedHashSet<Runnable>();
+    private final AtomicInteger counter;
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Queue<Runnable> listeners = new ConcurrentLinkedQueue<Runnable>();
+    private final boolean fair;
 
     public AsyncSemaphore(int permits) {
-        counter = permits;
+        this(permits, false);
+    }
+    
+    public AsyncSemaphore(int permits, boolean fair) {
+        this.counter = new AtomicInteger(permits);
+        this.fair = fair;
     }
     
     public void acquireUninterruptibly() {
@@ -53,55 +68,78 @@ public class AsyncSemaphore {
     }
 
     public int queueSize() {
-        synchronized (this) {
-            return listeners.size();
-        }
+        return listeners.size();
+    }
+    
+    public boolean isFair() {
+        return fair;
     }
     
     public void acquire(Runnable listener) {
-        boolean run = false;
+        if ((!fair || listeners.isEmpty()) && tryAcquire()) {
+            listener.run();
+            return;
+        }
         
-        synchronized (this) {
-            if (counter == 0) {
-                listeners.add(listener);
-                return;
+        listeners.add(listener);
+        drain();
+    }
+    
+    private boolean tryAcquire() {
+        while (true) {
+            int value = counter.get();
+            if (value <= 0) {
+                return false;
             }
-            if (counter > 0) {
-                counter--;
-                run = true;
+            if (counter.compareAndSet(value, value - 1)) {
+                return true;
             }
         }
+    }
+    
+    private void drain() {
+        // only one thread drains queue at a time. Other threads increase 
+        // wip counter and the draining thread makes one more attempt for each of them.
+        // Thus listener which releases permit doesn't cause recursive drain.
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
         
-        if (run) {
-            listener.run();
+        int missed = 1;
+        while (true) {
+            while (!listeners.isEmpty() && tryAcquire()) {
+                Runnable listener = listeners.poll();
+                if (listener == null) {
+                    // listener has been removed, return permit
+                    counter.incrementAndGet();
+                    continue;
+                }
+                listener.run();
+            }
+            
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
         }
     }
     
     public boolean remove(Runnable listener) {
-        synchronized (this) {
-            return listeners.remove(listener);
-        }
+        return listeners.remove(listener);
     }
 
     public int getCounter() {
-        return counter;
+        return counter.get();
     }
     
     public void release() {
-        Runnable runnable = null;
-        
-        synchronized (this) {
-            counter++;
-            Iterator<Runnable> iter = listeners.iterator();
-            if (iter.hasNext()) {
-                runnable = iter.next();
-                iter.remove();
-            }
-        }
-        
-        if (runnable != null) {
-            acquire(runnable);
-        }
+        counter.incrementAndGet();
+        drain();
+    }
+    
+    @Override
+    public String toString() {
+        return "value:" + counter + ":queue:" + queueSize();
     }
     
 }
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.pubsub;
+
+import java.util.UUID;
+
+import org.redisson.RedissonLockEntry;
+
+/**
+ * Fair queue consumers of all Redisson instances share single channel per queue. 
+ * Published message contains number of consumer whose turn has come, 
+ * so only this consumer is woken up.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class FairQueuePubSub extends SemaphorePubSub {
+
+    private final long consumerId;
+    
+    public FairQueuePubSub(UUID id) {
+        this.consumerId = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+    }
+    
+    public long getConsumerId() {
+        return consumerId;
+    }
+    
+    @Override
+    protected void onMessage(RedissonLockEntry value, Long message) {
+        if (message.longValue() != consumerId) {
+            return;
+        }
+        
+        super.onMessage(value, 1L);
+    }
+    
+}
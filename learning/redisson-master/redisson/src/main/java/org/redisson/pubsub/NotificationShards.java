@@ -0,0 +1,173 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.pubsub;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.redisson.api.RFuture;
+import org.redisson.client.BaseRedisPubSubListener;
+import org.redisson.client.RedisPubSubListener;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.PubSubConnectionEntry;
+import org.redisson.misc.RPromise;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Delivers notifications of lock, semaphore and count down latch objects 
+ * through fixed amount of shared channels. 
+ * <p>
+ * Lua scripts publish <code>channelName:message</code> payload to shard channel 
+ * chosen by channel name hash. Each Redisson instance keeps permanent subscription 
+ * to all shard channels and passes message to listener registered 
+ * for the object's channel name.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class NotificationShards {
+
+    public static final String CHANNEL_PREFIX = "redisson__notification_shard:";
+    
+    private static final Pattern PUBLISH_PATTERN = Pattern.compile("redis\\.call\\('publish', ([^,]+), ([^)]+)\\)");
+    
+    private static final ConcurrentMap<String, String> SCRIPTS = PlatformDependent.newConcurrentHashMap();
+    
+    private final ConcurrentMap<String, RedisPubSubListener<Object>> listeners = PlatformDependent.newConcurrentHashMap();
+    private final AtomicReference<RPromise<Void>> subscribeFuture = new AtomicReference<RPromise<Void>>();
+    private final RedisPubSubListener<Object> shardListener = new BaseRedisPubSubListener() {
+        @Override
+        public void onMessage(String channel, Object message) {
+            String payload = (String) message;
+            int index = payload.lastIndexOf(':');
+            String channelName = payload.substring(0, index);
+            RedisPubSubListener<Object> listener = listeners.get(channelName);
+            if (listener != null) {
+                listener.onMessage(channelName, Long.valueOf(payload.substring(index + 1)));
+            }
+        }
+    };
+    private final ConnectionManager connectionManager;
+    private final int shards;
+    
+    public NotificationShards(ConnectionManager connectionManager, int shards) {
+        this.connectionManager = connectionManager;
+        this.shards = shards;
+    }
+    
+    public boolean isEnabled() {
+        return shards > 0;
+    }
+    
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Replaces <code>redis.call('publish', channel, message)</code> invocations 
+     * in script with publishing to shard channel if sharding is enabled.
+     * 
+     * @param script - lua script
+     * @return lua script
+     */
+    public String script(String script) {
+        if (!isEnabled()) {
+            return script;
+        }
+        
+        String key = shards + ":" + script;
+        String result = SCRIPTS.get(key);
+        if (result == null) {
+            Matcher matcher = PUBLISH_PATTERN.matcher(script);
+            result = "local function redisson_notify(channel, message) "
+                        + "local h = 0; "
+                        + "for i = 1, #channel do "
+                            + "h = (h * 31 + string.byte(channel, i)) % 1000000007; "
+                        + "end; "
+                        + "redis.call('publish', '" + CHANNEL_PREFIX + "' .. (h % " + shards + "), channel .. ':' .. message); "
+                   + "end; "
+                   + matcher.replaceAll("redisson_notify($1, $2)");
+            SCRIPTS.putIfAbsent(key, result);
+        }
+        return result;
+    }
+    
+    /**
+     * Registers listener for notifications published to object's channel.
+     * 
+     * @param channelName - object's channel name
+     * @param listener - pubsub listener
+     * @return void when all shard channels have been subscribed
+     */
+    public RFuture<Void> addListener(String channelName, RedisPubSubListener<Object> listener) {
+        listeners.put(channelName, listener);
+        return subscribe();
+    }
+    
+    public void removeListener(String channelName) {
+        listeners.remove(channelName);
+    }
+    
+    private RFuture<Void> subscribe() {
+        RPromise<Void> promise = subscribeFuture.get();
+        if (promise != null) {
+            return promise;
+        }
+        
+        final RPromise<Void> newPromise = connectionManager.newPromise();
+        if (!subscribeFuture.compareAndSet(null, newPromise)) {
+            return subscribeFuture.get();
+        }
+        
+        final AtomicInteger counter = new AtomicInteger(shards);
+        for (int i = 0; i < shards; i++) {
+            String channelName = CHANNEL_PREFIX + i;
+            if (connectionManager.getPubSubEntry(channelName) != null) {
+                // subscribed during previous attempt
+                if (counter.decrementAndGet() == 0) {
+                    newPromise.trySuccess(null);
+                }
+                continue;
+            }
+            
+            RFuture<PubSubConnectionEntry> future = connectionManager.subscribe(StringCodec.INSTANCE, channelName, shardListener);
+            future.addListener(new FutureListener<PubSubConnectionEntry>() {
+                @Override
+                public void operationComplete(Future<PubSubConnectionEntry> future) throws Exception {
+                    if (!future.isSuccess()) {
+                        // next listener will try to subscribe again
+                        subscribeFuture.compareAndSet(newPromise, null);
+                        newPromise.tryFailure(future.cause());
+                        return;
+                    }
+                    
+                    if (counter.decrementAndGet() == 0) {
+                        newPromise.trySuccess(null);
+                    }
+                }
+            });
+        }
+        return newPromise;
+    }
+    
+}
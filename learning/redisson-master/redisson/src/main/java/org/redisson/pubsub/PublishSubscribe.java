@@ -29,6 +29,8 @@ import org.redisson.misc.PromiseDelegator;
 import org.redisson.misc.RPromise;
 import org.redisson.misc.TransferListener;
 
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
 import io.netty.util.internal.PlatformDependent;
 
 /**
@@ -51,6 +53,12 @@ abstract class PublishSubscribe<E extends PubSubEntry<E>> {
                     if (!removed) {
                         throw new IllegalStateException();
                     }
+                    NotificationShards shards = connectionManager.getNotificationShards();
+                    if (shards.isEnabled()) {
+                        shards.removeListener(channelName);
+                        semaphore.release();
+                        return;
+                    }
                     connectionManager.unsubscribe(channelName, semaphore);
                 } else {
                     semaphore.release();
@@ -98,6 +106,12 @@ abstract class PublishSubscribe<E extends PubSubEntry<E>> {
                 }
                 
                 RedisPubSubListener<Object> listener = createListener(channelName, value);
+                NotificationShards shards = connectionManager.getNotificationShards();
+                if (shards.isEnabled()) {
+                    subscribeShards(shards, channelName, listener, value);
+                    semaphore.release();
+                    return;
+                }
                 connectionManager.subscribe(LongCodec.INSTANCE, channelName, listener, semaphore);
             }
         };
@@ -107,6 +121,21 @@ abstract class PublishSubscribe<E extends PubSubEntry<E>> {
         return newPromise;
     }
 
+    private void subscribeShards(NotificationShards shards, String channelName, RedisPubSubListener<Object> listener, final E value) {
+        RFuture<Void> future = shards.addListener(channelName, listener);
+        future.addListener(new FutureListener<Void>() {
+            @Override
+            public void operationComplete(Future<Void> future) throws Exception {
+                if (!future.isSuccess()) {
+                    value.getPromise().tryFailure(future.cause());
+                    return;
+                }
+                
+                value.getPromise().trySuccess(value);
+            }
+        });
+    }
+
     protected abstract E createEntry(RPromise<E> newPromise);
 
     protected abstract void onMessage(E value, Long message);
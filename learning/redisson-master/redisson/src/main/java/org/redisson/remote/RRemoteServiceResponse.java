@@ -24,4 +24,13 @@ import java.io.Serializable;
  */
 public interface RRemoteServiceResponse extends Serializable {
 
+    /**
+     * Returns id of request this response belongs to. 
+     * Used to route response received through shared response queue.
+     * 
+     * @return request id
+     */
+    String getId();
+    
+
 }
@@ -26,6 +26,7 @@ public class RemoteServiceCancelRequest implements Serializable {
 
     private static final long serialVersionUID = -4800574267648904260L;
 
+    private String requestId;
     private String responseId;
     private boolean mayInterruptIfRunning;
     
@@ -42,6 +43,21 @@ public class RemoteServiceCancelRequest implements Serializable {
         this.responseId = responseId;
     }
     
+    public RemoteServiceCancelRequest(String requestId, boolean mayInterruptIfRunning) {
+        this(mayInterruptIfRunning, null);
+        this.requestId = requestId;
+    }
+    
+    /**
+     * Returns id of request to cancel. 
+     * Defined only for requests published to shared cancel channel.
+     * 
+     * @return request id
+     */
+    public String getRequestId() {
+        return requestId;
+    }
+    
     public String getResponseId() {
         return responseId;
     }
@@ -26,16 +26,27 @@ public class RemoteServiceCancelResponse implements RRemoteServiceResponse, Seri
 
     private static final long serialVersionUID = -4356901222132702182L;
 
+    private String id;
     private boolean canceled = true;
 
     public RemoteServiceCancelResponse() {
     }
     
     public RemoteServiceCancelResponse(boolean canceled) {
+        this(null, canceled);
+    }
+    
+    public RemoteServiceCancelResponse(String id, boolean canceled) {
         super();
+        this.id = id;
         this.canceled = canceled;
     }
     
+    @Override
+    public String getId() {
+        return id;
+    }
+    
     public boolean isCanceled() {
         return canceled;
     }
@@ -36,6 +36,7 @@ public class RemoteServiceRequest implements Serializable {
     private Object[] args;
     private RemoteInvocationOptions options;
     private long date;
+    private String responseQueueName;
     
     
     public RemoteServiceRequest() {
@@ -55,6 +56,21 @@ public class RemoteServiceRequest implements Serializable {
         this.date = date;
     }
     
+    public RemoteServiceRequest(String requestId, String methodName, List<String> signatures, Object[] args, RemoteInvocationOptions options, long date, String responseQueueName) {
+        this(requestId, methodName, signatures, args, options, date);
+        this.responseQueueName = responseQueueName;
+    }
+    
+    /**
+     * Returns name of queue shared by all requests of client instance. 
+     * Responses are sent to per request queue if <code>null</code>.
+     * 
+     * @return queue name
+     */
+    public String getResponseQueueName() {
+        return responseQueueName;
+    }
+    
     public long getDate() {
         return date;
     }
@@ -83,7 +99,7 @@ public class RemoteServiceRequest implements Serializable {
     public String toString() {
         return "RemoteServiceRequest [requestId=" + requestId + ", methodName=" + methodName + ", signatures=["
                 + Arrays.toString(signatures.toArray()) + "], args="
-                + Arrays.toString(args) + ", options=" + options + ", date=" + date + "]";
+                + Arrays.toString(args) + ", options=" + options + ", date=" + date + ", responseQueueName=" + responseQueueName + "]";
     }
 
 }
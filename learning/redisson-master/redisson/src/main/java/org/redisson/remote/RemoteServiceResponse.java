@@ -26,6 +26,7 @@ public class RemoteServiceResponse implements RRemoteServiceResponse, Serializab
 
     private static final long serialVersionUID = -1958922748139674253L;
     
+    private String id;
     private Object result;
     private Throwable error;
     
@@ -39,6 +40,21 @@ public class RemoteServiceResponse implements RRemoteServiceResponse, Serializab
     public RemoteServiceResponse(Throwable error) {
         this.error = error;
     }
+    
+    public RemoteServiceResponse(String id, Object result) {
+        this.id = id;
+        this.result = result;
+    }
+
+    public RemoteServiceResponse(String id, Throwable error) {
+        this.id = id;
+        this.error = error;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
 
     public Throwable getError() {
         return error;
@@ -50,7 +66,7 @@ public class RemoteServiceResponse implements RRemoteServiceResponse, Serializab
 
     @Override
     public String toString() {
-        return "RemoteServiceResponse [result=" + result + ", error=" + error + "]";
+        return "RemoteServiceResponse [id=" + id + ", result=" + result + ", error=" + error + "]";
     }
     
 }
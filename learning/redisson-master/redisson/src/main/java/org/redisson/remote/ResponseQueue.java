@@ -0,0 +1,150 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.remote;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.redisson.RedissonShutdownException;
+import org.redisson.api.RFuture;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.misc.RPromise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Queue which delivers responses of remote service invocations 
+ * made by Redisson instance with shared response queue option.
+ * <p>
+ * Queue is polled by single connection and only while some response is expected.
+ * Received response is passed to waiting invocation by request id.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class ResponseQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseQueue.class);
+    
+    static final int POLL_TIMEOUT_SECONDS = 10;
+    static final int RETRY_INTERVAL_MILLIS = 1000;
+    
+    private final ConcurrentMap<String, RPromise<RRemoteServiceResponse>> responses = PlatformDependent.newConcurrentHashMap();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final ConnectionManager connectionManager;
+    private final Codec codec;
+    private final String name;
+    
+    public ResponseQueue(ConnectionManager connectionManager, Codec codec, String name) {
+        this.connectionManager = connectionManager;
+        this.codec = codec;
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+    
+    private String getResponseKey(String requestId, boolean ack) {
+        if (ack) {
+            return requestId + ":ack";
+        }
+        return requestId;
+    }
+    
+    /**
+     * Registers expected response. Should be invoked before request is sent, 
+     * so response can't be missed.
+     * 
+     * @param requestId - request id
+     * @param ack - <code>true</code> for ack and <code>false</code> for result
+     * @return promise of response
+     */
+    public RPromise<RRemoteServiceResponse> register(String requestId, boolean ack) {
+        String key = getResponseKey(requestId, ack);
+        RPromise<RRemoteServiceResponse> promise = connectionManager.newPromise();
+        RPromise<RRemoteServiceResponse> oldPromise = responses.putIfAbsent(key, promise);
+        if (oldPromise != null) {
+            promise = oldPromise;
+        }
+        
+        if (polling.compareAndSet(false, true)) {
+            poll();
+        }
+        return promise;
+    }
+    
+    public void unregister(String requestId, boolean ack) {
+        responses.remove(getResponseKey(requestId, ack));
+    }
+
+    public void unregister(String requestId, boolean ack, RPromise<RRemoteServiceResponse> promise) {
+        responses.remove(getResponseKey(requestId, ack), promise);
+    }
+    
+    private void poll() {
+        if (responses.isEmpty()) {
+            polling.set(false);
+            // response could be registered meanwhile
+            if (responses.isEmpty() || !polling.compareAndSet(false, true)) {
+                return;
+            }
+        }
+        
+        RFuture<RRemoteServiceResponse> future = connectionManager.getCommandExecutor().writeAsync(name, codec, 
+                                                    RedisCommands.BLPOP_VALUE, name, POLL_TIMEOUT_SECONDS);
+        future.addListener(new FutureListener<RRemoteServiceResponse>() {
+            @Override
+            public void operationComplete(Future<RRemoteServiceResponse> future) throws Exception {
+                if (!future.isSuccess()) {
+                    if (future.cause() instanceof RedissonShutdownException
+                            || connectionManager.isShuttingDown()) {
+                        return;
+                    }
+                    log.error("Can't receive response from " + name, future.cause());
+                    connectionManager.newTimeout(new TimerTask() {
+                        @Override
+                        public void run(Timeout timeout) throws Exception {
+                            poll();
+                        }
+                    }, RETRY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                
+                RRemoteServiceResponse response = future.getNow();
+                if (response != null) {
+                    String key = getResponseKey(response.getId(), response instanceof RemoteServiceAck);
+                    RPromise<RRemoteServiceResponse> promise = responses.get(key);
+                    if (promise != null) {
+                        promise.trySuccess(response);
+                    }
+                }
+                
+                poll();
+            }
+        });
+    }
+    
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.remote;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.redisson.client.codec.Codec;
+import org.redisson.connection.ConnectionManager;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.internal.PlatformDependent;
+import io.netty.util.internal.ThreadLocalRandom;
+
+/**
+ * Shared response queues of Redisson instance. 
+ * All remote services with the same name and codec use single {@link ResponseQueue}.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class ResponseQueues {
+
+    private final ConcurrentMap<String, ResponseQueue> queues = PlatformDependent.newConcurrentHashMap();
+    private final ConnectionManager connectionManager;
+    
+    public ResponseQueues(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+    
+    public ResponseQueue get(String remoteServiceName, Codec codec) {
+        String key = remoteServiceName + ":" + codec.getClass().getName();
+        ResponseQueue queue = queues.get(key);
+        if (queue != null) {
+            return queue;
+        }
+        
+        queue = new ResponseQueue(connectionManager, codec, "{" + remoteServiceName + ":response}:" + generateId());
+        ResponseQueue oldQueue = queues.putIfAbsent(key, queue);
+        if (oldQueue != null) {
+            return oldQueue;
+        }
+        return queue;
+    }
+    
+    private static String generateId() {
+        byte[] id = new byte[16];
+        ThreadLocalRandom.current().nextBytes(id);
+        return ByteBufUtil.hexDump(id);
+    }
+    
+}
@@ -0,0 +1,323 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.renewal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.redisson.api.RFuture;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.command.CommandBatchService;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
+import org.redisson.misc.RPromise;
+
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Renews leases of all locks held by client.
+ * <p>
+ * Held locks are stored in registry and single task renews all of them 
+ * each <code>renewalInterval</code> milliseconds. Locks of the same 
+ * cluster slot are renewed by single script and scripts of each node are sent 
+ * in separate batch, so each node receives one pipelined request per tick.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public class LockRenewalScheduler {
+
+    static class RenewalEntry {
+        
+        final String lockName;
+        final String ownerName;
+        final long leaseTime;
+        final RenewalListener listener;
+        
+        RenewalEntry(String lockName, String ownerName, long leaseTime, RenewalListener listener) {
+            super();
+            this.lockName = lockName;
+            this.ownerName = ownerName;
+            this.leaseTime = leaseTime;
+            this.listener = listener;
+        }
+        
+    }
+    
+    private static final String RENEW_SCRIPT = 
+              "local result = {}; "
+            + "for i = 1, #KEYS do "
+                + "if redis.call('hexists', KEYS[i], ARGV[i*2-1]) == 1 then "
+                    + "redis.call('pexpire', KEYS[i], ARGV[i*2]); "
+                    + "result[i] = 1; "
+                + "else "
+                    + "result[i] = 0; "
+                + "end; "
+            + "end; "
+            + "return result;";
+    
+    private final ConcurrentMap<String, RenewalEntry> entries = PlatformDependent.newConcurrentHashMap();
+    private final ConnectionManager connectionManager;
+    private final long renewalInterval;
+    private final int batchSize;
+    private final AtomicBoolean started = new AtomicBoolean();
+    
+    private final AtomicLong renewedLeases = new AtomicLong();
+    private final AtomicLong lostLeases = new AtomicLong();
+    private final AtomicLong failedRenewals = new AtomicLong();
+    private final AtomicLong maxRenewalLatency = new AtomicLong();
+    private volatile long renewalLatency;
+    
+    public LockRenewalScheduler(ConnectionManager connectionManager, long renewalInterval, int batchSize) {
+        this.connectionManager = connectionManager;
+        this.renewalInterval = renewalInterval;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Registers held lock for lease renewal. 
+     * Does nothing if lock has been already registered with the same <code>entryName</code>.
+     * 
+     * @param entryName - unique lock name within client
+     * @param lockName - lock object name
+     * @param ownerName - lock owner field
+     * @param leaseTime - lease time in milliseconds
+     * @param listener - renewal failures listener
+     */
+    public void schedule(String entryName, String lockName, String ownerName, long leaseTime, RenewalListener listener) {
+        RenewalEntry entry = new RenewalEntry(lockName, ownerName, leaseTime, listener);
+        if (entries.putIfAbsent(entryName, entry) != null) {
+            return;
+        }
+        
+        if (started.compareAndSet(false, true)) {
+            scheduleTick();
+        }
+    }
+    
+    public void cancel(String entryName) {
+        entries.remove(entryName);
+    }
+    
+    public boolean isScheduled(String entryName) {
+        return entries.containsKey(entryName);
+    }
+    
+    /**
+     * Returns amount of locks registered for renewal
+     * 
+     * @return amount of locks
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    private void scheduleTick() {
+        connectionManager.newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout timeout) throws Exception {
+                if (connectionManager.isShuttingDown()) {
+                    return;
+                }
+                
+                if (entries.isEmpty()) {
+                    started.set(false);
+                    // lock could be registered after emptiness check
+                    if (entries.isEmpty() || !started.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+                
+                renew().addListener(new FutureListener<Void>() {
+                    @Override
+                    public void operationComplete(Future<Void> future) throws Exception {
+                        scheduleTick();
+                    }
+                });
+            }
+        }, renewalInterval, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Renews leases of all registered locks.
+     * 
+     * @return void
+     */
+    RFuture<Void> renew() {
+        final long startTime = System.currentTimeMillis();
+        
+        Map<MasterSlaveEntry, Map<Integer, List<Map.Entry<String, RenewalEntry>>>> nodes = 
+                new HashMap<MasterSlaveEntry, Map<Integer, List<Map.Entry<String, RenewalEntry>>>>();
+        for (Map.Entry<String, RenewalEntry> entry : entries.entrySet()) {
+            int slot = connectionManager.calcSlot(entry.getValue().lockName);
+            MasterSlaveEntry node = connectionManager.getEntry(slot);
+            Map<Integer, List<Map.Entry<String, RenewalEntry>>> slots = nodes.get(node);
+            if (slots == null) {
+                slots = new HashMap<Integer, List<Map.Entry<String, RenewalEntry>>>();
+                nodes.put(node, slots);
+            }
+            List<Map.Entry<String, RenewalEntry>> list = slots.get(slot);
+            if (list == null) {
+                list = new ArrayList<Map.Entry<String, RenewalEntry>>();
+                slots.put(slot, list);
+            }
+            list.add(entry);
+        }
+        
+        final RPromise<Void> result = connectionManager.newPromise();
+        if (nodes.isEmpty()) {
+            result.trySuccess(null);
+            return result;
+        }
+        
+        // each node is renewed by own batch, so failure of one node doesn't affect locks of others
+        final AtomicInteger counter = new AtomicInteger(nodes.size());
+        for (Map<Integer, List<Map.Entry<String, RenewalEntry>>> slots : nodes.values()) {
+            final Map<RFuture<List<Object>>, List<Map.Entry<String, RenewalEntry>>> groups = 
+                    new HashMap<RFuture<List<Object>>, List<Map.Entry<String, RenewalEntry>>>();
+            CommandBatchService batch = new CommandBatchService(connectionManager);
+            for (List<Map.Entry<String, RenewalEntry>> list : slots.values()) {
+                for (int i = 0; i < list.size(); i += batchSize) {
+                    List<Map.Entry<String, RenewalEntry>> group = list.subList(i, Math.min(i + batchSize, list.size()));
+                    List<Object> keys = new ArrayList<Object>(group.size());
+                    List<Object> params = new ArrayList<Object>(group.size()*2);
+                    for (Map.Entry<String, RenewalEntry> entry : group) {
+                        keys.add(entry.getValue().lockName);
+                        params.add(entry.getValue().ownerName);
+                        params.add(entry.getValue().leaseTime);
+                    }
+                    RFuture<List<Object>> groupFuture = batch.evalWriteAsync(group.get(0).getValue().lockName, LongCodec.INSTANCE, 
+                            RedisCommands.EVAL_LIST, RENEW_SCRIPT, keys, params.toArray());
+                    groups.put(groupFuture, group);
+                }
+            }
+            
+            batch.executeAsync().addListener(new FutureListener<List<?>>() {
+                @Override
+                public void operationComplete(Future<List<?>> future) throws Exception {
+                    // each group is judged by its own script result
+                    for (Map.Entry<RFuture<List<Object>>, List<Map.Entry<String, RenewalEntry>>> e : groups.entrySet()) {
+                        onRenewal(e.getKey(), e.getValue(), future.cause());
+                    }
+                    
+                    if (counter.decrementAndGet() == 0) {
+                        onRenewal(System.currentTimeMillis() - startTime);
+                        result.trySuccess(null);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+    
+    private void onRenewal(RFuture<List<Object>> future, List<Map.Entry<String, RenewalEntry>> group, Throwable batchCause) {
+        if (!future.isSuccess()) {
+            Throwable cause = future.cause();
+            if (cause == null) {
+                // script hasn't been executed
+                cause = batchCause;
+            }
+            for (Map.Entry<String, RenewalEntry> entry : group) {
+                failedRenewals.incrementAndGet();
+                entry.getValue().listener.onRenewalFailed(cause);
+            }
+            return;
+        }
+        
+        List<Object> groupResult = future.getNow();
+        for (int j = 0; j < group.size(); j++) {
+            Map.Entry<String, RenewalEntry> entry = group.get(j);
+            if ((Long) groupResult.get(j) == 1) {
+                renewedLeases.incrementAndGet();
+                continue;
+            }
+            
+            // lock could be released and registered again during renewal
+            if (entries.remove(entry.getKey(), entry.getValue())) {
+                lostLeases.incrementAndGet();
+                entry.getValue().listener.onLeaseLost();
+            }
+        }
+    }
+    
+    private void onRenewal(long latency) {
+        renewalLatency = latency;
+        while (true) {
+            long max = maxRenewalLatency.get();
+            if (latency <= max || maxRenewalLatency.compareAndSet(max, latency)) {
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Returns duration in milliseconds of last renewal.
+     * 
+     * @return duration in milliseconds
+     */
+    public long getRenewalLatency() {
+        return renewalLatency;
+    }
+    
+    /**
+     * Returns max duration in milliseconds of renewal since client start.
+     * 
+     * @return duration in milliseconds
+     */
+    public long getMaxRenewalLatency() {
+        return maxRenewalLatency.get();
+    }
+    
+    /**
+     * Returns amount of successfully renewed leases.
+     * 
+     * @return amount of leases
+     */
+    public long getRenewedLeases() {
+        return renewedLeases.get();
+    }
+    
+    /**
+     * Returns amount of locks which weren't held by client anymore during renewal.
+     * 
+     * @return amount of leases
+     */
+    public long getLostLeases() {
+        return lostLeases.get();
+    }
+    
+    /**
+     * Returns amount of lease renewals failed due to errors.
+     * 
+     * @return amount of renewals
+     */
+    public long getFailedRenewals() {
+        return failedRenewals.get();
+    }
+    
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.renewal;
+
+/**
+ * Receives lease renewal failures of lock held by this client.
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+public interface RenewalListener {
+
+    /**
+     * Invoked when lock isn't held by owner anymore and 
+     * its lease won't be renewed.
+     */
+    void onLeaseLost();
+    
+    /**
+     * Invoked when renewal command has failed. 
+     * Renewal is repeated on next tick.
+     * 
+     * @param cause of failure
+     */
+    void onRenewalFailed(Throwable cause);
+    
+}
@@ -32,6 +32,9 @@ import org.redisson.client.protocol.pubsub.PubSubType;
 import org.redisson.misc.RPromise;
 import org.redisson.misc.RedissonPromise;
 
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.HashedWheelTimer;
 import io.netty.util.concurrent.FutureListener;
 
 public class RedisClientTest {
@@ -129,6 +132,31 @@ public class RedisClientTest {
         conn.sync(RedisCommands.FLUSHDB);
     }
 
+    @Test
+    public void testPipeliningMode() throws InterruptedException, ExecutionException {
+        RedisClient c = new RedisClient(new HashedWheelTimer(), Executors.newFixedThreadPool(2), new NioEventLoopGroup(), NioSocketChannel.class,
+                RedisRunner.getDefaultRedisServerInstance().getRedisServerBindAddress(),
+                RedisRunner.getDefaultRedisServerInstance().getRedisServerPort(), 10000, 10000, true);
+        RedisConnection conn = c.connect();
+
+        conn.sync(StringCodec.INSTANCE, RedisCommands.SET, "test", 0);
+
+        List<RFuture<Long>> futures = new ArrayList<RFuture<Long>>();
+        for (int i = 0; i < 10000; i++) {
+            RFuture<Long> f = conn.async(StringCodec.INSTANCE, RedisCommands.INCR, "test");
+            futures.add(f);
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get()).isEqualTo(i + 1);
+        }
+
+        assertThat((Long) conn.sync(LongCodec.INSTANCE, RedisCommands.GET, "test")).isEqualTo(10000);
+
+        conn.sync(RedisCommands.FLUSHDB);
+        c.shutdown();
+    }
+
     @Test
     public void testPipeline() throws InterruptedException, ExecutionException {
         RedisClient c = new RedisClient(RedisRunner.getDefaultRedisServerBindAddressAndPort());
@@ -86,7 +86,7 @@ public class RedissonBlockingFairQueueTest extends BaseTest {
         t3.join(500);
         
         RBlockingQueue<String> queue = redisson.getBlockingFairQueue("test");
-        assertThat(redisson.getList("{" + queue.getName() + "}:list").size()).isEqualTo(3);
+        assertThat(redisson.getScoredSortedSet("{" + queue.getName() + "}:consumers").size()).isEqualTo(3);
         
         for (int i = 0; i < size; i++) {
             queue.add("" + i);
@@ -102,7 +102,7 @@ public class RedissonBlockingFairQueueTest extends BaseTest {
         assertThat(t2Counter.get()).isEqualTo(1);
         assertThat(t3Counter.get()).isBetween(499, 500);
         
-        assertThat(redisson.getList("{" + queue.getName() + "}:list").size()).isEqualTo(2);
+        assertThat(redisson.getScoredSortedSet("{" + queue.getName() + "}:consumers").size()).isEqualTo(2);
     }
     
     @Test
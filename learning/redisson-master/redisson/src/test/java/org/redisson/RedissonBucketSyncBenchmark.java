@@ -0,0 +1,76 @@
+package org.redisson;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+
+/**
+ * Measures synchronous <code>RBucket.get</code> round-trip 
+ * against local redis-server with and without spinning before waiting thread is parked.
+ * <p>
+ * Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test 
+ * -Dexec.mainClass=org.redisson.RedissonBucketSyncBenchmark</code> 
+ * while redis-server is listening on <code>127.0.0.1:6379</code>
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RedissonBucketSyncBenchmark {
+
+    @Param({"0", "100"})
+    public int syncSpinTimeout;
+    
+    private RedissonClient redisson;
+    private RBucket<String> bucket;
+    
+    @Setup
+    public void setup() {
+        Config config = new Config();
+        config.setSyncSpinTimeout(syncSpinTimeout);
+        config.useSingleServer().setAddress("127.0.0.1:6379");
+        redisson = Redisson.create(config);
+        
+        bucket = redisson.getBucket("benchmark_bucket", StringCodec.INSTANCE);
+        bucket.set("value");
+    }
+    
+    @TearDown
+    public void tearDown() {
+        bucket.delete();
+        redisson.shutdown();
+    }
+    
+    @Benchmark
+    public String get() {
+        return bucket.get();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RedissonBucketSyncBenchmark.class.getSimpleName()).build()).run();
+    }
+    
+}
@@ -2,6 +2,7 @@ package org.redisson;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,19 @@ public class RedissonBucketsTest extends BaseTest {
         Assert.assertEquals(expected, result);
     }
     
+    @Test
+    public void testGetAsync() {
+        redisson.getBucket("test1").set("someValue1");
+        redisson.getBucket("test3").set("someValue3");
+        redisson.getBucket("test5").set("someValue5");
+
+        Map<String, String> result = redisson.getBuckets().<String>getAsync(Arrays.asList("test5", "test4", "test1", "test3", "test2")).syncUninterruptibly().getNow();
+        assertThat(result.keySet()).containsExactly("test5", "test1", "test3");
+        assertThat(result.values()).containsExactly("someValue5", "someValue1", "someValue3");
+        
+        assertThat(redisson.getBuckets().<String>getAsync(Collections.<String>emptyList()).syncUninterruptibly().getNow()).isEmpty();
+    }
+    
     @Test
     public void testFind() {
         Collection<String> names = Arrays.asList("test:testGetPattern:one", "test:testGetPattern:two");
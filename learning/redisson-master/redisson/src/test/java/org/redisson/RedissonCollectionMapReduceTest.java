@@ -15,6 +15,7 @@ import org.redisson.api.RExecutorService;
 import org.redisson.api.RList;
 import org.redisson.api.RMap;
 import org.redisson.api.RQueue;
+import org.redisson.api.RSet;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.annotation.RInject;
 import org.redisson.api.mapreduce.RCollator;
@@ -216,6 +217,22 @@ public class RedissonCollectionMapReduceTest extends BaseTest {
         assertThat(redisson.getAtomicLong("test").get()).isEqualTo(16 + 1);
     }
 
+    @Test
+    public void testSet() {
+        RSet<String> set = redisson.getSet("set");
+        for (int i = 0; i < 10000; i++) {
+            set.add("ab cd " + i);
+        }
+        
+        RCollectionMapReduce<String, String, Integer> mapReduce = set.<String, Integer>mapReduce()
+                .mapper(new WordMapper())
+                .combiner(new WordReducer())
+                .reducer(new WordReducer());
+        Map<String, Integer> result = mapReduce.execute();
+        assertThat(result.get("ab")).isEqualTo(10000);
+        assertThat(result.get("cd")).isEqualTo(10000);
+    }
+
     private RList<String> getCollection() {
         RList<String> list = null;
         if (RList.class.isAssignableFrom(mapClass)) {
@@ -3,12 +3,17 @@ package org.redisson;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.redisson.api.RBlockingFairQueue;
 import org.redisson.api.RDelayedQueue;
 import org.redisson.api.RQueue;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
 
 public class RedissonDelayedQueueTest extends BaseTest {
 
@@ -278,6 +283,81 @@ public class RedissonDelayedQueueTest extends BaseTest {
         dealyedQueue.destroy();
     }
     
+    @Test
+    public void testOfferAll() throws InterruptedException {
+        RBlockingFairQueue<String> queue = redisson.getBlockingFairQueue("test");
+        RDelayedQueue<String> dealyedQueue = redisson.getDelayedQueue(queue);
+        
+        Map<String, Long> elements = new LinkedHashMap<>();
+        elements.put("3", 1500L);
+        elements.put("1", 500L);
+        elements.put("2", 1000L);
+        dealyedQueue.offerAll(elements, TimeUnit.MILLISECONDS);
+        dealyedQueue.offer("4", 2000, TimeUnit.MILLISECONDS);
+        
+        assertThat(dealyedQueue).containsExactly("3", "1", "2", "4");
+        
+        Thread.sleep(2500);
+        
+        assertThat(dealyedQueue).isEmpty();
+        assertThat(queue).containsExactly("1", "2", "3", "4");
+        
+        dealyedQueue.destroy();
+    }
+    
+    @Test
+    public void testTransferBatchSize() throws InterruptedException {
+        Config config = createConfig();
+        config.setDelayedQueueTransferBatchSize(10);
+        RedissonClient r = Redisson.create(config);
+        
+        RBlockingFairQueue<Integer> queue = r.getBlockingFairQueue("test");
+        RDelayedQueue<Integer> dealyedQueue = r.getDelayedQueue(queue);
+        
+        Map<Integer, Long> elements = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            elements.put(i, 500L);
+        }
+        dealyedQueue.offerAll(elements, TimeUnit.MILLISECONDS);
+        assertThat(dealyedQueue.size()).isEqualTo(1000);
+        
+        Thread.sleep(1500);
+        
+        assertThat(dealyedQueue.size()).isZero();
+        assertThat(queue.size()).isEqualTo(1000);
+        
+        dealyedQueue.destroy();
+        r.shutdown();
+    }
+    
+    @Test
+    public void testElementsOfPreviousVersion() {
+        // list layout used by previous versions
+        redisson.getScript().eval(RScript.Mode.READ_WRITE,
+                "for i, v in ipairs(ARGV) do "
+              + "local value = struct.pack('dLc0', i, string.len(v), v); "
+              + "redis.call('zadd', KEYS[2], 9999999999999, value); "
+              + "redis.call('rpush', KEYS[1], value); "
+              + "end; ",
+              RScript.ReturnType.VALUE, Arrays.<Object>asList("redisson_delay_queue:{test}", "redisson_delay_queue_timeout:{test}"), "1", "2");
 
+        RBlockingFairQueue<String> queue = redisson.getBlockingFairQueue("test");
+        RDelayedQueue<String> dealyedQueue = redisson.getDelayedQueue(queue);
+        assertThat(dealyedQueue.peek()).isEqualTo("1");
+        assertThat(dealyedQueue.contains("2")).isTrue();
+        assertThat(dealyedQueue.size()).isEqualTo(2);
+        
+        dealyedQueue.offer("3", 1, TimeUnit.HOURS);
+        assertThat(dealyedQueue.readAll()).containsExactly("1", "2", "3");
+        assertThat(dealyedQueue.poll()).isEqualTo("1");
+        assertThat(dealyedQueue.readAll()).containsExactly("2", "3");
+        
+        dealyedQueue.destroy();
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTransferBatchSize() {
+        new Config().setDelayedQueueTransferBatchSize(0);
+    }
     
 }
@@ -18,9 +18,11 @@ import org.redisson.RedissonMapTest.SimpleKey;
 import org.redisson.RedissonMapTest.SimpleValue;
 import org.redisson.api.LocalCachedMapOptions;
 import org.redisson.api.LocalCachedMapOptions.EvictionPolicy;
+import org.redisson.api.LocalCachedMapOptions.ReconnectionStrategy;
 import org.redisson.cache.Cache;
 import org.redisson.api.RLocalCachedMap;
 import org.redisson.api.RMap;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
 
 import mockit.Deencapsulation;
@@ -227,6 +229,176 @@ public class RedissonLocalCachedMapTest extends BaseTest {
         assertThat(cache2.size()).isEqualTo(0);
     }
     
+    @Test
+    public void testInvalidationBatch() throws InterruptedException {
+        LocalCachedMapOptions options = LocalCachedMapOptions.defaults().invalidationBatchWindow(200);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        Cache<CacheKey, CacheValue> cache1 = Deencapsulation.getField(map1, "cache");
+        
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Cache<CacheKey, CacheValue> cache2 = Deencapsulation.getField(map2, "cache");
+        
+        map1.put("1", 1);
+        map1.put("2", 2);
+        map1.put("3", 3);
+        // wait for batch of new keys
+        Thread.sleep(400);
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(map2.get("2")).isEqualTo(2);
+        assertThat(map2.get("3")).isEqualTo(3);
+        assertThat(cache2.size()).isEqualTo(3);
+        
+        map1.put("1", 11);
+        map1.fastRemove("2");
+        assertThat(cache2.size()).isEqualTo(3);
+        
+        Thread.sleep(400);
+        assertThat(cache1.size()).isEqualTo(2);
+        assertThat(cache2.size()).isEqualTo(1);
+        assertThat(map2.get("1")).isEqualTo(11);
+        assertThat(map2.get("2")).isNull();
+    }
+    
+    @Test
+    public void testInvalidationBatchFlushedOnShutdown() throws InterruptedException {
+        LocalCachedMapOptions options = LocalCachedMapOptions.defaults().invalidationBatchWindow(10000);
+        RedissonClient instance = createInstance();
+        RLocalCachedMap<String, Integer> map1 = instance.getLocalCachedMap("test", options);
+        
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Cache<CacheKey, CacheValue> cache2 = Deencapsulation.getField(map2, "cache");
+        
+        map2.put("1", 1);
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(cache2.size()).isEqualTo(1);
+        
+        map1.put("1", 11);
+        instance.shutdown();
+        Thread.sleep(200);
+        
+        assertThat(cache2.size()).isZero();
+        assertThat(map2.get("1")).isEqualTo(11);
+    }
+    
+    @Test
+    public void testPreloadCache() {
+        RMap<String, Integer> map = redisson.getMap("test");
+        for (int i = 0; i < 2500; i++) {
+            map.put("" + i, i);
+        }
+        
+        RLocalCachedMap<String, Integer> localMap = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        Cache<CacheKey, CacheValue> cache = Deencapsulation.getField(localMap, "cache");
+        assertThat(cache.size()).isEqualTo(0);
+        
+        localMap.preloadCache();
+        assertThat(cache.size()).isEqualTo(2500);
+        assertThat(localMap.get("1234")).isEqualTo(1234);
+        
+        RLocalCachedMap<String, Integer> limitedMap = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults().cacheSize(1000));
+        Cache<CacheKey, CacheValue> limitedCache = Deencapsulation.getField(limitedMap, "cache");
+        limitedMap.preloadCache();
+        assertThat(limitedCache.size()).isEqualTo(1000);
+    }
+    
+    @Test
+    public void testReconnectionStrategyLoad() throws InterruptedException {
+        LocalCachedMapOptions options = LocalCachedMapOptions.defaults().reconnectionStrategy(ReconnectionStrategy.LOAD);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Cache<CacheKey, CacheValue> cache2 = Deencapsulation.getField(map2, "cache");
+        
+        map1.put("1", 1);
+        map1.put("2", 2);
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(map2.get("2")).isEqualTo(2);
+        assertThat(cache2.size()).isEqualTo(2);
+        
+        // messages published while map2 is disconnected are lost
+        RTopic<Object> topic2 = Deencapsulation.getField(map2, "invalidationTopic");
+        int listenerId = Deencapsulation.getField(map2, "invalidationListenerId");
+        topic2.removeListener(listenerId);
+        
+        map1.put("1", 11);
+        Thread.sleep(100);
+        assertThat(cache2.size()).isEqualTo(2);
+        
+        Deencapsulation.invoke(map2, "loadChanges");
+        Thread.sleep(100);
+        assertThat(cache2.size()).isEqualTo(1);
+        assertThat(map2.get("1")).isEqualTo(11);
+        assertThat(map2.get("2")).isEqualTo(2);
+    }
+    
+    @Test
+    public void testReconnectionStrategyLoadTrimmedLog() throws InterruptedException {
+        LocalCachedMapOptions options = LocalCachedMapOptions.defaults().reconnectionStrategy(ReconnectionStrategy.LOAD).changeLogSize(2);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Cache<CacheKey, CacheValue> cache2 = Deencapsulation.getField(map2, "cache");
+        
+        for (int i = 0; i < 5; i++) {
+            map1.put("" + i, i);
+            map2.get("" + i);
+        }
+        assertThat(cache2.size()).isEqualTo(5);
+        
+        RTopic<Object> topic2 = Deencapsulation.getField(map2, "invalidationTopic");
+        int listenerId = Deencapsulation.getField(map2, "invalidationListenerId");
+        topic2.removeListener(listenerId);
+        
+        // change log holds only last 2 changes
+        map1.put("0", 10);
+        map1.put("1", 11);
+        map1.put("2", 12);
+        
+        Deencapsulation.invoke(map2, "loadChanges");
+        Thread.sleep(100);
+        assertThat(cache2.size()).isEqualTo(0);
+    }
+    
+    @Test
+    public void testInvalidationBatchThreshold() throws InterruptedException {
+        LocalCachedMapOptions options = LocalCachedMapOptions.defaults().invalidationBatchWindow(100).invalidationBatchThreshold(5);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        Cache<CacheKey, CacheValue> cache1 = Deencapsulation.getField(map1, "cache");
+        
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Cache<CacheKey, CacheValue> cache2 = Deencapsulation.getField(map2, "cache");
+        
+        Map<String, Integer> values = new HashMap<String, Integer>();
+        for (int i = 0; i < 10; i++) {
+            values.put("" + i, i);
+        }
+        map2.putAll(values);
+        Thread.sleep(300);
+        assertThat(cache2.size()).isEqualTo(10);
+        
+        map1.putAll(values);
+        Thread.sleep(300);
+        assertThat(cache1.size()).isEqualTo(10);
+        assertThat(cache2.size()).isZero();
+    }
+    
+    @Test
+    public void testFastRemoveInvalidation() throws InterruptedException {
+        LocalCachedMapOptions options = LocalCachedMapOptions.defaults();
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Cache<CacheKey, CacheValue> cache2 = Deencapsulation.getField(map2, "cache");
+        
+        map1.put("1", 1);
+        map1.put("2", 2);
+        map1.put("3", 3);
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(map2.get("2")).isEqualTo(2);
+        assertThat(map2.get("3")).isEqualTo(3);
+        
+        assertThat(map1.fastRemove("1", "2", "4")).isEqualTo(2);
+        Thread.sleep(50);
+        assertThat(cache2.size()).isEqualTo(1);
+    }
+    
     @Test
     public void testLFU() {
         RLocalCachedMap<String, Integer> map = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults().evictionPolicy(EvictionPolicy.LFU).cacheSize(5));
@@ -2,6 +2,8 @@ package org.redisson;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -11,6 +13,8 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.redisson.renewal.LockRenewalScheduler;
 
 public class RedissonLockTest extends BaseConcurrentTest {
 
@@ -28,6 +32,60 @@ public class RedissonLockTest extends BaseConcurrentTest {
         assertThat(System.currentTimeMillis() - startTime).isBetween(2990L, 3100L);
     }
     
+    @Test
+    public void testNotificationShards() throws InterruptedException {
+        Config config = createConfig();
+        config.setNotificationShards(4);
+        RedissonClient r = Redisson.create(config);
+        
+        RLock lock = r.getLock("lock");
+        lock.lock();
+        
+        Thread t = new Thread() {
+            public void run() {
+                RLock lock1 = r.getLock("lock");
+                lock1.lock();
+                lock1.unlock();
+            };
+        };
+        t.start();
+        t.join(500);
+        assertThat(t.isAlive()).isTrue();
+        
+        long startTime = System.currentTimeMillis();
+        lock.unlock();
+        t.join();
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(500);
+        
+        r.shutdown();
+    }
+    
+    @Test
+    public void testRenewal() throws InterruptedException {
+        LockRenewalScheduler scheduler = ((Redisson) redisson).getConnectionManager().getLockRenewalScheduler();
+        long lostLeases = scheduler.getLostLeases();
+        
+        List<RLock> locks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            RLock lock = redisson.getLock("lock" + i);
+            lock.lock();
+            locks.add(lock);
+        }
+        assertThat(scheduler.size()).isEqualTo(100);
+        
+        redisson.getKeys().delete("lock0");
+        Thread.sleep(TimeUnit.SECONDS.toMillis(RedissonLock.LOCK_EXPIRATION_INTERVAL_SECONDS) / 3 + 1000);
+        
+        assertThat(scheduler.getLostLeases()).isEqualTo(lostLeases + 1);
+        assertThat(scheduler.size()).isEqualTo(99);
+        assertThat(locks.get(1).remainTimeToLive()).isGreaterThan(19000L);
+        
+        for (RLock lock : locks.subList(1, locks.size())) {
+            lock.unlock();
+        }
+        assertThat(scheduler.size()).isZero();
+    }
+    
     @Test
     public void testDelete() {
         RLock lock = redisson.getLock("lock");
@@ -3,11 +3,13 @@ package org.redisson;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentMap;
@@ -22,6 +24,7 @@ import org.redisson.api.RMap;
 import org.redisson.api.RMapCache;
 import org.redisson.codec.JsonJacksonCodec;
 import org.redisson.codec.MsgPackJacksonCodec;
+import org.redisson.eviction.EvictionScheduler;
 
 public class RedissonMapCacheTest extends BaseTest {
 
@@ -524,6 +527,43 @@ public class RedissonMapCacheTest extends BaseTest {
 
     }
 
+    @Test
+    public void testSchedulerManyObjects() throws InterruptedException {
+        List<RMapCache<String, String>> maps = new ArrayList<RMapCache<String, String>>();
+        for (int i = 0; i < 200; i++) {
+            RMapCache<String, String> map = redisson.getMapCache("tenant" + i);
+            map.put("1", "1", 1, TimeUnit.SECONDS);
+            map.put("2", "2");
+            maps.add(map);
+        }
+
+        Thread.sleep(4000);
+
+        for (RMapCache<String, String> map : maps) {
+            Assert.assertEquals(1, map.size());
+        }
+        EvictionScheduler scheduler = ((Redisson) redisson).getEvictionScheduler();
+        assertThat(scheduler.getSweptEntries()).isGreaterThanOrEqualTo(200);
+        assertThat(scheduler.getMaxSweepLag()).isLessThan(3000);
+    }
+
+    @Test
+    public void testSchedulerManyObjectsInSameSlot() throws InterruptedException {
+        List<RMapCache<String, String>> maps = new ArrayList<RMapCache<String, String>>();
+        for (int i = 0; i < 150; i++) {
+            RMapCache<String, String> map = redisson.getMapCache("{tenant}" + i);
+            map.put("1", "1", 1, TimeUnit.SECONDS);
+            map.put("2", "2");
+            maps.add(map);
+        }
+
+        Thread.sleep(4000);
+
+        for (RMapCache<String, String> map : maps) {
+            Assert.assertEquals(1, map.size());
+        }
+    }
+
     @Test
     public void testPutGet() throws InterruptedException {
         RMapCache<SimpleKey, SimpleValue> map = redisson.getMapCache("simple04", new MsgPackJacksonCodec());
@@ -178,6 +178,25 @@ public class RedissonMapReduceTest extends BaseTest {
         resultMap.delete();
     }
 
+    @Test
+    public void testCombiner() {
+        RMap<String, String> map = getMap();
+        for (int i = 0; i < 10000; i++) {
+            map.put("" + i, "ab cd fjks ab");
+        }
+        
+        Map<String, Integer> result = new HashMap<>();
+        result.put("ab", 20000);
+        result.put("cd", 10000);
+        result.put("fjks", 10000);
+        
+        RMapReduce<String, String, String, Integer> mapReduce = map.<String, Integer>mapReduce()
+                .mapper(new WordMapper())
+                .combiner(new WordReducer())
+                .reducer(new WordReducer());
+        assertThat(mapReduce.execute()).isEqualTo(result);
+    }
+
     private RMap<String, String> getMap() {
         RMap<String, String> map = null;
         if (RMapCache.class.isAssignableFrom(mapClass)) {
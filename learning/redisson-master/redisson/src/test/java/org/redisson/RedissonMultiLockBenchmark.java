@@ -0,0 +1,166 @@
+package org.redisson;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLock;
+import org.redisson.misc.RedissonPromise;
+
+/**
+ * Compares parallel {@link RedissonMultiLock} acquisition with previous 
+ * sequential implementation. Each lock emulates remote node with injected latency.
+ * <p>
+ * Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test 
+ * -Dexec.mainClass=org.redisson.RedissonMultiLockBenchmark</code>
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RedissonMultiLockBenchmark {
+
+    /**
+     * Acquires locks one by one as it was done by previous implementation.
+     */
+    static class SequentialMultiLock extends RedissonMultiLock {
+
+        SequentialMultiLock(RLock... locks) {
+            super(locks);
+        }
+
+        @Override
+        public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+            int failedLocksLimit = failedLocksLimit();
+            List<RLock> lockedLocks = new ArrayList<RLock>(locks.size());
+            for (ListIterator<RLock> iterator = locks.listIterator(); iterator.hasNext();) {
+                RLock lock = iterator.next();
+                if (lock.tryLock()) {
+                    lockedLocks.add(lock);
+                } else {
+                    if (failedLocksLimit == 0) {
+                        unlockInner(lockedLocks);
+                        return false;
+                    }
+                    failedLocksLimit--;
+                }
+            }
+            return true;
+        }
+
+    }
+
+    /**
+     * Lock stub which responds after defined delay.
+     */
+    static class LatencyLockHandler implements InvocationHandler {
+
+        private final ScheduledExecutorService scheduler;
+        private final long latency;
+
+        LatencyLockHandler(ScheduledExecutorService scheduler, long latency) {
+            this.scheduler = scheduler;
+            this.latency = latency;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("toString")) {
+                return "LatencyLock@" + System.identityHashCode(proxy);
+            }
+            if (method.getName().endsWith("Async")) {
+                final RedissonPromise<Object> promise = new RedissonPromise<Object>();
+                final Object result = method.getReturnType() == RFuture.class && method.getName().startsWith("unlock") ? null : true;
+                scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        promise.trySuccess(result);
+                    }
+                }, latency, TimeUnit.MICROSECONDS);
+                return promise;
+            }
+            
+            TimeUnit.MICROSECONDS.sleep(latency);
+            if (method.getReturnType() == boolean.class) {
+                return true;
+            }
+            return null;
+        }
+
+    }
+
+    @Param({"3", "5"})
+    public int locksAmount;
+
+    @Param({"200", "1000"})
+    public long latencyMicros;
+
+    private ScheduledExecutorService scheduler;
+    private RedissonMultiLock parallelLock;
+    private RedissonMultiLock sequentialLock;
+
+    @Setup
+    public void setup() {
+        scheduler = Executors.newScheduledThreadPool(locksAmount);
+        RLock[] locks = new RLock[locksAmount];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = (RLock) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {RLock.class}, 
+                                    new LatencyLockHandler(scheduler, latencyMicros));
+        }
+        parallelLock = new RedissonRedLock(locks);
+        sequentialLock = new SequentialMultiLock(locks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Benchmark
+    public boolean parallel() {
+        return parallelLock.tryLock();
+    }
+
+    @Benchmark
+    public boolean sequential() {
+        return sequentialLock.tryLock();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RedissonMultiLockBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
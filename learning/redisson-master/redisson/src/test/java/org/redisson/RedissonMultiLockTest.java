@@ -54,6 +54,96 @@ public class RedissonMultiLockTest {
         assertThat(redis1.stop()).isEqualTo(0);
     }
     
+    @Test
+    public void testPartiallyLocked() throws IOException, InterruptedException {
+        RedisProcess redis1 = redisTestMultilockInstance();
+        
+        RedissonClient client = createClient(redis1.getRedisServerAddressAndPort());
+        
+        RLock lock1 = client.getLock("lock1");
+        RLock lock2 = client.getLock("lock2");
+        RLock lock3 = client.getLock("lock3");
+        
+        Thread t = new Thread() {
+            public void run() {
+                lock2.lock();
+            };
+        };
+        t.start();
+        t.join();
+        
+        RedissonMultiLock lock = new RedissonMultiLock(lock1, lock2, lock3);
+        assertThat(lock.tryLock()).isFalse();
+        
+        long startTime = System.currentTimeMillis();
+        assertThat(lock.tryLock(500, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(1000L);
+        
+        await().atMost(1, TimeUnit.SECONDS).until(() -> !lock1.isLocked() && !lock3.isLocked());
+        
+        lock2.forceUnlock();
+        assertThat(lock.tryLock()).isTrue();
+        assertThat(lock1.isHeldByCurrentThread()).isTrue();
+        assertThat(lock2.isHeldByCurrentThread()).isTrue();
+        assertThat(lock3.isHeldByCurrentThread()).isTrue();
+        lock.unlock();
+        
+        client.shutdown();
+        
+        assertThat(redis1.stop()).isEqualTo(0);
+    }
+    
+    @Test
+    public void testInterruptedTryLock() throws IOException, InterruptedException {
+        RedisProcess redis1 = redisTestMultilockInstance();
+
+        RedissonClient client = createClient(redis1.getRedisServerAddressAndPort());
+
+        RLock lock1 = client.getLock("lock1");
+        RLock lock2 = client.getLock("lock2");
+        RLock lock3 = client.getLock("lock3");
+
+        Thread t = new Thread() {
+            public void run() {
+                lock2.lock();
+            };
+        };
+        t.start();
+        t.join();
+
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread t2 = new Thread() {
+            public void run() {
+                RedissonMultiLock lock = new RedissonMultiLock(lock1, lock2, lock3);
+                try {
+                    lock.tryLock(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+            };
+        };
+        t2.start();
+        Thread.sleep(500);
+
+        long startTime = System.currentTimeMillis();
+        t2.interrupt();
+        t2.join();
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(1000L);
+        assertThat(interrupted.get()).isTrue();
+
+        // acquired locks are released
+        await().atMost(1, TimeUnit.SECONDS).until(() -> !lock1.isLocked() && !lock3.isLocked());
+
+        // pending lock attempt doesn't acquire lock after release
+        lock2.forceUnlock();
+        Thread.sleep(500);
+        assertThat(lock2.isLocked()).isFalse();
+
+        client.shutdown();
+
+        assertThat(redis1.stop()).isEqualTo(0);
+    }
+
     @Test
     public void test() throws IOException, InterruptedException {
         RedisProcess redis1 = redisTestMultilockInstance();
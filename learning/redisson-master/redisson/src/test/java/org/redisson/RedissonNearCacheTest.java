@@ -0,0 +1,117 @@
+package org.redisson;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.redisson.api.NearCacheOptions;
+import org.redisson.api.RBucket;
+import org.redisson.api.RMap;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+
+public class RedissonNearCacheTest extends BaseTest {
+
+    private final NearCacheOptions options = NearCacheOptions.defaults().minAccessFrequency(1);
+    
+    @Test
+    public void testBucketInvalidation() throws InterruptedException {
+        RedissonClient redisson2 = createInstance();
+        
+        RBucket<String> bucket1 = redisson.getBucket("test", options);
+        RBucket<String> bucket2 = redisson2.getBucket("test", options);
+        
+        bucket1.set("1");
+        assertThat(bucket2.get()).isEqualTo("1");
+        assertThat(bucket2.get()).isEqualTo("1");
+        
+        bucket1.set("2");
+        assertThat(bucket1.get()).isEqualTo("2");
+        Thread.sleep(200);
+        assertThat(bucket2.get()).isEqualTo("2");
+        
+        bucket1.delete();
+        Thread.sleep(200);
+        assertThat(bucket2.get()).isNull();
+        
+        redisson2.shutdown();
+    }
+    
+    @Test
+    public void testMapInvalidation() throws InterruptedException {
+        RedissonClient redisson2 = createInstance();
+        
+        RMap<String, String> map1 = redisson.getMap("test", options);
+        RMap<String, String> map2 = redisson2.getMap("test", options);
+        
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("1", "11");
+        values.put("2", "22");
+        map1.putAll(values);
+        assertThat(map2.get("1")).isEqualTo("11");
+        assertThat(map2.get("2")).isEqualTo("22");
+        
+        map1.put("1", "33");
+        map1.fastRemove("2");
+        Thread.sleep(200);
+        assertThat(map2.get("1")).isEqualTo("33");
+        assertThat(map2.get("2")).isNull();
+        
+        map1.put("2", "44");
+        assertThat(map2.get("2")).isEqualTo("44");
+        map1.clear();
+        Thread.sleep(200);
+        assertThat(map2.get("1")).isNull();
+        assertThat(map2.get("2")).isNull();
+        
+        redisson2.shutdown();
+    }
+    
+    @Test
+    public void testMapCacheTimeToLive() throws InterruptedException {
+        RMapCache<String, String> map = redisson.getMapCache("test", 
+                NearCacheOptions.defaults().minAccessFrequency(1).timeToLive(500, TimeUnit.MILLISECONDS));
+        map.put("1", "11", 1, TimeUnit.SECONDS);
+        assertThat(map.get("1")).isEqualTo("11");
+        assertThat(map.get("1")).isEqualTo("11");
+        
+        Thread.sleep(1500);
+        assertThat(map.get("1")).isNull();
+    }
+    
+    @Test
+    public void testMapCacheEntryTimeToLive() throws InterruptedException {
+        RMapCache<String, String> map = redisson.getMapCache("test", options);
+        map.put("1", "11", 1, TimeUnit.SECONDS);
+        assertThat(map.get("1")).isEqualTo("11");
+        assertThat(map.get("1")).isEqualTo("11");
+        
+        Thread.sleep(1500);
+        assertThat(map.get("1")).isNull();
+    }
+    
+    @Test
+    public void testMapCacheEntryMaxIdle() throws InterruptedException {
+        RMapCache<String, String> map = redisson.getMapCache("test", options);
+        map.put("1", "11", 0, TimeUnit.SECONDS, 1, TimeUnit.SECONDS);
+        assertThat(map.get("1")).isEqualTo("11");
+        assertThat(map.get("1")).isEqualTo("11");
+        
+        Thread.sleep(1500);
+        assertThat(map.get("1")).isNull();
+    }
+    
+    @Test
+    public void testColdKeysNotCached() {
+        RMap<String, String> map = redisson.getMap("test", NearCacheOptions.defaults().minAccessFrequency(3));
+        map.put("1", "11");
+        assertThat(map.get("1")).isEqualTo("11");
+        
+        redisson.getMap("test").put("1", "22");
+        assertThat(map.get("1")).isEqualTo("22");
+    }
+    
+}
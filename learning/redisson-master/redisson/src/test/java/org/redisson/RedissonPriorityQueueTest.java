@@ -2,6 +2,7 @@ package org.redisson;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -10,7 +11,9 @@ import java.util.Queue;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.redisson.api.NaturalSortKeyComparator;
 import org.redisson.api.RPriorityQueue;
+import org.redisson.api.SortKeyComparator;
 
 public class RedissonPriorityQueueTest extends BaseTest {
 
@@ -236,5 +239,111 @@ public class RedissonPriorityQueueTest extends BaseTest {
         Assert.assertEquals(7, set.size());
     }
 
+    @Test
+    public void testSortKeyComparator() {
+        RPriorityQueue<Integer> queue = redisson.getPriorityQueue("queue");
+        assertThat(queue.trySetComparator(new NaturalSortKeyComparator<Integer>())).isTrue();
+        
+        queue.add(3);
+        queue.add(1);
+        queue.add(3);
+        queue.add(-2);
+        
+        assertThat(queue).containsExactly(-2, 1, 3, 3);
+        assertThat(queue.contains(3)).isTrue();
+        assertThat(queue.peek()).isEqualTo(-2);
+        assertThat(queue.poll()).isEqualTo(-2);
+        assertThat(queue.remove(3)).isTrue();
+        assertThat(queue.readAll()).containsExactly(1, 3);
+        assertThat(queue.poll()).isEqualTo(1);
+        assertThat(queue.poll()).isEqualTo(3);
+        assertThat(queue.poll()).isNull();
+    }
+    
+    @Test
+    public void testSortKeyComparatorMigration() {
+        RPriorityQueue<Integer> queue = redisson.getPriorityQueue("queue");
+        queue.add(3);
+        queue.add(1);
+        queue.add(3);
+        queue.add(2);
+        
+        assertThat(queue.trySetSortKeyComparator(new NaturalSortKeyComparator<Integer>())).isTrue();
+        
+        assertThat(queue.size()).isEqualTo(4);
+        queue.add(0);
+        assertThat(queue.readAll()).containsExactly(0, 1, 2, 3, 3);
+    }
+
+    public static class LengthSortKeyComparator implements SortKeyComparator<String>, Serializable {
+
+        private static final long serialVersionUID = -1415553467123093468L;
+
+        @Override
+        public int compare(String o1, String o2) {
+            return o1.length() - o2.length();
+        }
+
+        @Override
+        public byte[] getSortKey(String value) {
+            return new byte[] {(byte) value.length()};
+        }
+
+    }
+
+    @Test
+    public void testSortKeyComparatorIteratorRemove() {
+        RPriorityQueue<String> queue = redisson.getPriorityQueue("queue");
+        assertThat(queue.trySetComparator(new LengthSortKeyComparator())).isTrue();
+
+        queue.add("aa");
+        queue.add("bb");
+        queue.add("cc");
+        queue.add("d");
+
+        for (Iterator<String> iterator = queue.iterator(); iterator.hasNext();) {
+            if (iterator.next().equals("bb")) {
+                iterator.remove();
+            }
+        }
+        assertThat(queue.readAll()).containsExactly("d", "aa", "cc");
+
+        RedissonPriorityDeque<String> deque = (RedissonPriorityDeque<String>) redisson.<String>getPriorityDeque("queue");
+        for (Iterator<String> iterator = deque.descendingIterator(); iterator.hasNext();) {
+            if (iterator.next().equals("aa")) {
+                iterator.remove();
+            }
+        }
+        assertThat(queue.readAll()).containsExactly("d", "cc");
+    }
+
+    @Test
+    public void testSortKeyComparatorListOperations() {
+        RedissonPriorityQueue<Integer> queue = (RedissonPriorityQueue<Integer>) redisson.<Integer>getPriorityQueue("queue");
+        assertThat(queue.trySetComparator(new NaturalSortKeyComparator<Integer>())).isTrue();
+        queue.add(3);
+        queue.add(1);
+
+        assertThat(queue.get(1)).isEqualTo(3);
+        try {
+            queue.set(0, 2);
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // skip
+        }
+        try {
+            queue.indexOf(3);
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // skip
+        }
+        try {
+            queue.addAllAsync(Arrays.asList(4, 5));
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // skip
+        }
+        assertThat(queue.readAll()).containsExactly(1, 3);
+    }
 
 }
@@ -3,6 +3,8 @@ package org.redisson;
 import java.io.IOException;
 import java.io.NotSerializableException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -22,6 +24,7 @@ import org.redisson.api.RemoteInvocationOptions;
 import org.redisson.api.annotation.RRemoteAsync;
 import org.redisson.codec.FstCodec;
 import org.redisson.codec.SerializationCodec;
+import org.redisson.remote.ResponseQueues;
 import org.redisson.remote.RemoteServiceAckTimeoutException;
 import org.redisson.remote.RemoteServiceTimeoutException;
 
@@ -389,6 +392,129 @@ public class RedissonRemoteServiceTest extends BaseTest {
         }
     }
     
+    @Test
+    public void testSharedResponseQueueInvocations() {
+        RedissonClient r1 = createInstance();
+        r1.getRemoteService().register(RemoteInterface.class, new RemoteImpl(), 2);
+        
+        RedissonClient r2 = createInstance();
+        RemoteInvocationOptions options = RemoteInvocationOptions.defaults().useSharedResponseQueue();
+        RemoteInterface ri = r2.getRemoteService().get(RemoteInterface.class, options);
+        
+        ri.voidMethod("someName", 100L);
+        assertThat(ri.resultMethod(100L)).isEqualTo(200);
+
+        try {
+            ri.errorMethod();
+            Assert.fail();
+        } catch (IOException e) {
+            assertThat(e.getMessage()).isEqualTo("Checking error throw");
+        }
+        
+        RemoteInterface noAckRi = r2.getRemoteService().get(RemoteInterface.class, 
+                RemoteInvocationOptions.defaults().noAck().useSharedResponseQueue());
+        assertThat(noAckRi.resultMethod(21L)).isEqualTo(42);
+        
+        r1.shutdown();
+        r2.shutdown();
+    }
+    
+    @Test
+    public void testSharedResponseQueuePerClient() {
+        RedissonClient r1 = createInstance();
+        r1.getRemoteService().register(RemoteInterface.class, new RemoteImpl(), 2);
+        
+        RedissonClient r2 = createInstance();
+        RemoteInvocationOptions options = RemoteInvocationOptions.defaults().useSharedResponseQueue();
+        for (long i = 0; i < 20; i++) {
+            // each remote service instance uses the same response queue of client
+            RemoteInterface ri = r2.getRemoteService().get(RemoteInterface.class, options);
+            assertThat(ri.resultMethod(i)).isEqualTo(i*2);
+        }
+        
+        ResponseQueues queues = ((Redisson) r2).getConnectionManager().getResponseQueues();
+        assertThat(queues.get("redisson_rs", r2.getConfig().getCodec()))
+                    .isSameAs(queues.get("redisson_rs", r2.getConfig().getCodec()));
+        
+        r1.shutdown();
+        r2.shutdown();
+    }
+    
+    @Test
+    public void testSharedResponseQueueAsync() throws InterruptedException {
+        RedissonClient r1 = createInstance();
+        r1.getRemoteService().register(RemoteInterface.class, new RemoteImpl(), 4);
+        
+        RedissonClient r2 = createInstance();
+        RemoteInvocationOptions options = RemoteInvocationOptions.defaults().useSharedResponseQueue();
+        RemoteInterfaceAsync ri = r2.getRemoteService().get(RemoteInterfaceAsync.class, options);
+        
+        List<RFuture<Long>> futures = new ArrayList<RFuture<Long>>();
+        for (long i = 0; i < 100; i++) {
+            futures.add(ri.resultMethod(i));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).syncUninterruptibly().getNow()).isEqualTo(i*2);
+        }
+
+        r1.shutdown();
+        r2.shutdown();
+    }
+    
+    @Test
+    public void testSharedResponseQueueCancelAsync() throws InterruptedException {
+        RedissonClient r1 = createInstance();
+        AtomicInteger iterations = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        r1.getKeys().flushall();
+        r1.getRemoteService().register(RemoteInterface.class, new RemoteImpl(iterations), 1, executor);
+        
+        RedissonClient r2 = createInstance();
+        RemoteInvocationOptions options = RemoteInvocationOptions.defaults().useSharedResponseQueue();
+        RemoteInterfaceAsync ri = r2.getRemoteService().get(RemoteInterfaceAsync.class, options);
+        
+        RFuture<Void> f = ri.cancelMethod();
+        Thread.sleep(500);
+        assertThat(f.cancel(true)).isTrue();
+        
+        executor.shutdown();
+        r1.shutdown();
+        r2.shutdown();
+        
+        assertThat(iterations.get()).isLessThan(Integer.MAX_VALUE / 2);
+        
+        assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void testSharedResponseQueueCancelQueuedAsync() throws InterruptedException {
+        RedissonClient r1 = createInstance();
+        AtomicInteger iterations = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        r1.getKeys().flushall();
+        // second request is polled by free worker but waits for executor thread
+        r1.getRemoteService().register(RemoteInterface.class, new RemoteImpl(iterations), 2, executor);
+
+        RedissonClient r2 = createInstance();
+        RemoteInvocationOptions options = RemoteInvocationOptions.defaults().noAck().useSharedResponseQueue();
+        RemoteInterfaceAsync ri = r2.getRemoteService().get(RemoteInterfaceAsync.class, options);
+
+        RFuture<Void> f1 = ri.cancelMethod();
+        RFuture<Void> f2 = ri.timeoutMethod();
+        Thread.sleep(500);
+
+        long startTime = System.currentTimeMillis();
+        assertThat(f2.cancel(true)).isTrue();
+        assertThat(System.currentTimeMillis() - startTime).isLessThan(5000);
+        assertThat(f1.cancel(true)).isTrue();
+
+        executor.shutdown();
+        r1.shutdown();
+        r2.shutdown();
+
+        assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+    }
+
     @Test
     public void testInvocations() {
         RedissonClient r1 = createInstance();
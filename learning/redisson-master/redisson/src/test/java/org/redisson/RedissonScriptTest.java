@@ -7,10 +7,13 @@ import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.redisson.api.RBatch;
 import org.redisson.api.RFuture;
 import org.redisson.api.RScript;
 import org.redisson.api.RScript.Mode;
 import org.redisson.client.RedisException;
+import org.redisson.client.RedisNoScriptException;
+import org.redisson.client.codec.LongCodec;
 
 public class RedissonScriptTest extends BaseTest {
 
@@ -57,7 +60,7 @@ public class RedissonScriptTest extends BaseTest {
         try {
             redisson.getScript().evalSha(Mode.READ_ONLY, "282297a0228f48cd3fc6a55de6316f31422f5d17", RScript.ReturnType.VALUE, Collections.emptyList());
         } catch (Exception e) {
-            Assert.assertEquals(RedisException.class, e.getClass());
+            Assert.assertEquals(RedisNoScriptException.class, e.getClass());
         }
     }
 
@@ -103,5 +106,53 @@ public class RedissonScriptTest extends BaseTest {
         Assert.assertEquals("bar", r1.awaitUninterruptibly().getNow());
     }
 
+    @Test
+    public void testEvalAfterScriptFlush() {
+        redisson.getBucket("foo").set("bar");
+        RScript s = redisson.getScript();
+        String r = s.eval(Mode.READ_ONLY, "return redis.call('get', 'foo')", RScript.ReturnType.VALUE);
+        assertThat(r).isEqualTo("bar");
+        assertThat(s.scriptExists("282297a0228f48cd3fc6a55de6316f31422f5d17")).containsExactly(true);
+
+        s.scriptFlush();
+
+        String r1 = s.eval(Mode.READ_ONLY, "return redis.call('get', 'foo')", RScript.ReturnType.VALUE);
+        assertThat(r1).isEqualTo("bar");
+        assertThat(s.scriptExists("282297a0228f48cd3fc6a55de6316f31422f5d17")).containsExactly(true);
+    }
+
+    @Test
+    public void testBatchEvalAfterScriptFlush() {
+        redisson.getBucket("foo").set("bar");
+        redisson.getScript().scriptFlush();
+
+        RBatch batch = redisson.createBatch();
+        batch.getBucket("foo1").setAsync("bar1");
+        RFuture<String> r1 = batch.getScript().evalAsync(Mode.READ_ONLY, "return redis.call('get', 'foo')", RScript.ReturnType.VALUE);
+        RFuture<String> r2 = batch.getScript().evalAsync(Mode.READ_ONLY, "return redis.call('get', 'foo1')", RScript.ReturnType.VALUE);
+        List<?> res = batch.execute();
+
+        assertThat(res).hasSize(3);
+        assertThat(r1.getNow()).isEqualTo("bar");
+        assertThat(r2.getNow()).isEqualTo("bar1");
+    }
+
+    @Test
+    public void testBatchWritesAppliedInOrderAfterScriptFlush() {
+        redisson.getScript().scriptFlush();
+
+        RBatch batch = redisson.createBatch();
+        RFuture<Long> c1 = batch.getAtomicLong("counter").incrementAndGetAsync();
+        RFuture<Long> r = batch.getScript().evalAsync(Mode.READ_WRITE, LongCodec.INSTANCE, 
+                "return redis.call('incr', KEYS[1])", RScript.ReturnType.INTEGER, Collections.<Object>singletonList("counter"));
+        RFuture<Long> c2 = batch.getAtomicLong("counter").incrementAndGetAsync();
+        List<?> res = batch.execute();
+
+        assertThat(res).hasSize(3);
+        assertThat(c1.getNow()).isEqualTo(1);
+        assertThat(r.getNow()).isEqualTo(2);
+        assertThat(c2.getNow()).isEqualTo(3);
+        assertThat(redisson.getAtomicLong("counter").get()).isEqualTo(3);
+    }
 
 }
@@ -12,11 +12,60 @@ import java.util.concurrent.ExecutionException;
 import static org.assertj.core.api.Assertions.*;
 import org.junit.Assert;
 import org.junit.Test;
+import org.redisson.api.NaturalSortKeyComparator;
 import org.redisson.api.RFuture;
 import org.redisson.api.RSortedSet;
 
 public class RedissonSortedSetTest extends BaseTest {
 
+    @Test
+    public void testSortKeyComparator() {
+        RSortedSet<Integer> set = redisson.getSortedSet("simple");
+        assertThat(set.trySetComparator(new NaturalSortKeyComparator<Integer>())).isTrue();
+        
+        assertThat(set.add(5)).isTrue();
+        assertThat(set.add(-1)).isTrue();
+        assertThat(set.add(300)).isTrue();
+        assertThat(set.add(5)).isFalse();
+        assertThat(set.add(0)).isTrue();
+        
+        assertThat(set).containsExactly(-1, 0, 5, 300);
+        assertThat(set.first()).isEqualTo(-1);
+        assertThat(set.last()).isEqualTo(300);
+        assertThat(set.contains(5)).isTrue();
+        assertThat(set.contains(6)).isFalse();
+        
+        assertThat(set.remove(5)).isTrue();
+        assertThat(set.remove(5)).isFalse();
+        assertThat(set.size()).isEqualTo(3);
+        
+        RSortedSet<Integer> set2 = redisson.getSortedSet("simple");
+        assertThat(set2.readAll()).containsExactly(-1, 0, 300);
+    }
+    
+    @Test
+    public void testSortKeyComparatorMigration() {
+        RSortedSet<String> set = redisson.getSortedSet("simple");
+        for (int i = 0; i < 2500; i++) {
+            set.add("" + i);
+        }
+        
+        assertThat(set.trySetSortKeyComparator(new NaturalSortKeyComparator<String>())).isTrue();
+        assertThat(set.trySetSortKeyComparator(new NaturalSortKeyComparator<String>())).isFalse();
+        
+        assertThat(set.size()).isEqualTo(2500);
+        SortedSet<String> expected = new TreeSet<String>();
+        for (int i = 0; i < 2500; i++) {
+            expected.add("" + i);
+        }
+        assertThat(set).containsExactly(expected.toArray());
+        
+        assertThat(set.add("2501")).isTrue();
+        assertThat(set.add("0")).isFalse();
+        assertThat(set.size()).isEqualTo(2501);
+    }
+    
+
     @Test
     public void testReadAll() {
         RSortedSet<Integer> set = redisson.getSortedSet("simple");
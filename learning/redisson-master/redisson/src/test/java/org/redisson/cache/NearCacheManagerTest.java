@@ -0,0 +1,120 @@
+package org.redisson.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.redisson.api.NearCacheOptions;
+import org.redisson.client.codec.StringCodec;
+
+public class NearCacheManagerTest {
+
+    private byte[] keyHash(String key) {
+        return NearCache.hashKey(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private NearCache cache(NearCacheManager manager, String name, NearCacheOptions options) {
+        // created directly as getCache subscribes to invalidation channel
+        return new NearCache(manager, name, NearCache.hash(name), options);
+    }
+    
+    private Object read(NearCache cache, byte[] keyHash, String value) {
+        Object cachedValue = cache.get(keyHash, StringCodec.INSTANCE);
+        if (cachedValue != null) {
+            return cachedValue;
+        }
+        long version = cache.getVersion();
+        if (cache.shouldCache(keyHash, version)) {
+            cache.put(keyHash, StringCodec.INSTANCE, value, value.length(), version);
+        }
+        return value;
+    }
+    
+    @Test
+    public void testAdmission() {
+        NearCacheManager manager = new NearCacheManager(null, 0);
+        NearCache cache = cache(manager, "test", NearCacheOptions.defaults().minAccessFrequency(3));
+        byte[] keyHash = keyHash("key");
+        
+        read(cache, keyHash, "value");
+        read(cache, keyHash, "value");
+        assertThat(manager.size()).isZero();
+        read(cache, keyHash, "value");
+        assertThat(manager.size()).isEqualTo(1);
+        assertThat(cache.get(keyHash, StringCodec.INSTANCE)).isEqualTo("value");
+    }
+    
+    @Test
+    public void testMaxMemory() {
+        long maxMemory = 10 * 1024;
+        NearCacheManager manager = new NearCacheManager(null, maxMemory);
+        NearCache cache = cache(manager, "test", NearCacheOptions.defaults().minAccessFrequency(1));
+        
+        for (int i = 0; i < 1000; i++) {
+            byte[] keyHash = keyHash("key" + i);
+            read(cache, keyHash, "value" + i);
+            assertThat(manager.getWeight()).isLessThanOrEqualTo(maxMemory);
+        }
+        assertThat(manager.size()).isGreaterThan(0);
+    }
+    
+    @Test
+    public void testSecondChance() {
+        NearCacheManager manager = new NearCacheManager(null, 2 * (100 + 16 + NearCacheManager.ENTRY_OVERHEAD));
+        NearCache cache = cache(manager, "test", NearCacheOptions.defaults().minAccessFrequency(1));
+        String value = new String(new char[100]);
+        
+        byte[] hotKey = keyHash("hot");
+        read(cache, hotKey, value);
+        read(cache, keyHash("cold1"), value);
+        // marks hot key as accessed
+        assertThat(cache.get(hotKey, StringCodec.INSTANCE)).isNotNull();
+        read(cache, keyHash("cold2"), value);
+        
+        assertThat(cache.get(hotKey, StringCodec.INSTANCE)).isNotNull();
+        assertThat(cache.get(keyHash("cold1"), StringCodec.INSTANCE)).isNull();
+    }
+    
+    @Test
+    public void testInvalidationDuringLoad() {
+        NearCacheManager manager = new NearCacheManager(null, 0);
+        NearCache cache = cache(manager, "test", NearCacheOptions.defaults().minAccessFrequency(1));
+        byte[] keyHash = keyHash("key");
+        
+        long version = cache.getVersion();
+        cache.invalidateLocally(keyHash);
+        cache.put(keyHash, StringCodec.INSTANCE, "oldValue", 8, version);
+        assertThat(cache.get(keyHash, StringCodec.INSTANCE)).isNull();
+        assertThat(manager.size()).isZero();
+    }
+    
+    @Test
+    public void testObjectInvalidation() {
+        NearCacheManager manager = new NearCacheManager(null, 0);
+        NearCache cache1 = cache(manager, "test1", NearCacheOptions.defaults().minAccessFrequency(1));
+        NearCache cache2 = cache(manager, "test2", NearCacheOptions.defaults().minAccessFrequency(1));
+        byte[] keyHash = keyHash("key");
+        read(cache1, keyHash, "value1");
+        read(cache2, keyHash, "value2");
+        
+        cache1.invalidateLocally();
+        assertThat(cache1.get(keyHash, StringCodec.INSTANCE)).isNull();
+        assertThat(cache2.get(keyHash, StringCodec.INSTANCE)).isEqualTo("value2");
+        assertThat(manager.size()).isEqualTo(1);
+    }
+    
+    @Test
+    public void testTimeToLive() throws InterruptedException {
+        NearCacheManager manager = new NearCacheManager(null, 0);
+        NearCache cache = cache(manager, "test", NearCacheOptions.defaults().minAccessFrequency(1).timeToLive(50));
+        byte[] keyHash = keyHash("key");
+        read(cache, keyHash, "value");
+        assertThat(cache.get(keyHash, StringCodec.INSTANCE)).isEqualTo("value");
+        
+        Thread.sleep(100);
+        assertThat(cache.get(keyHash, StringCodec.INSTANCE)).isNull();
+        assertThat(manager.getWeight()).isZero();
+    }
+    
+}
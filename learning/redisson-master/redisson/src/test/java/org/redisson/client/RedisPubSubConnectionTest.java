@@ -0,0 +1,199 @@
+package org.redisson.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.client.protocol.pubsub.PubSubMessage;
+import org.redisson.client.protocol.pubsub.PubSubPatternMessage;
+import org.redisson.client.protocol.pubsub.PubSubStatusMessage;
+import org.redisson.client.protocol.pubsub.PubSubType;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class RedisPubSubConnectionTest {
+
+    private ExecutorService executor;
+    private EmbeddedChannel channel;
+    private RedisPubSubConnection connection;
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(4);
+        channel = new EmbeddedChannel();
+        connection = new RedisPubSubConnection(null, channel);
+    }
+
+    @After
+    public void after() {
+        channel.finish();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testChannelListeners() {
+        final List<String> received = new ArrayList<String>();
+        connection.addListener("ch1", new BaseRedisPubSubListener() {
+            @Override
+            public void onMessage(String channel, Object message) {
+                received.add("ch1:" + message);
+            }
+        });
+        connection.addListener("pattern*", new BaseRedisPubSubListener() {
+            @Override
+            public void onPatternMessage(String pattern, String channel, Object message) {
+                received.add(pattern + ":" + message);
+            }
+        });
+        final AtomicInteger global = new AtomicInteger();
+        connection.addListener(new BaseRedisPubSubListener() {
+            @Override
+            public void onMessage(String channel, Object message) {
+                global.incrementAndGet();
+            }
+        });
+
+        connection.onMessage(new PubSubMessage("ch1", "1"));
+        connection.onMessage(new PubSubMessage("ch2", "2"));
+        connection.onMessage(new PubSubPatternMessage("pattern*", "pattern1", "3"));
+
+        assertThat(received).containsExactly("ch1:1", "pattern*:3");
+        assertThat(global.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRemoveListener() {
+        final AtomicInteger counter = new AtomicInteger();
+        BaseRedisPubSubListener listener = new BaseRedisPubSubListener() {
+            @Override
+            public void onMessage(String channel, Object message) {
+                counter.incrementAndGet();
+            }
+        };
+        connection.addListener("ch1", listener);
+        connection.onMessage(new PubSubMessage("ch1", "1"));
+        connection.removeListener("ch1", listener);
+        connection.onMessage(new PubSubMessage("ch1", "2"));
+
+        assertThat(counter.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOneShotListener() {
+        final AtomicInteger counter = new AtomicInteger();
+        connection.addOneShotListener("ch1", new BaseRedisPubSubListener() {
+            @Override
+            public boolean onStatus(PubSubType type, String channel) {
+                counter.incrementAndGet();
+                return true;
+            }
+        });
+        connection.onMessage(new PubSubStatusMessage(PubSubType.SUBSCRIBE, "ch1"));
+        connection.onMessage(new PubSubStatusMessage(PubSubType.UNSUBSCRIBE, "ch1"));
+
+        assertThat(counter.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDispatchOrder() throws InterruptedException {
+        int channels = 8;
+        final int messages = 10000;
+        final CountDownLatch latch = new CountDownLatch(channels);
+        final List<List<Object>> received = new ArrayList<List<Object>>();
+        for (int i = 0; i < channels; i++) {
+            final List<Object> list = Collections.synchronizedList(new ArrayList<Object>());
+            received.add(list);
+            connection.addListener("ch" + i, new BaseRedisPubSubListener() {
+                @Override
+                public void onMessage(String channel, Object message) {
+                    list.add(message);
+                    if (list.size() == messages) {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+
+        for (int j = 0; j < messages; j++) {
+            for (int i = 0; i < channels; i++) {
+                connection.dispatch(executor, new PubSubMessage("ch" + i, j));
+            }
+        }
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        for (List<Object> list : received) {
+            for (int j = 0; j < messages; j++) {
+                assertThat(list.get(j)).isEqualTo(j);
+            }
+        }
+        assertThat(connection.getDispatchQueueSize()).isZero();
+        assertThat(connection.getMaxDispatchQueueSize()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testDispatchOrderAfterResubscribe() throws InterruptedException {
+        final int messages = 200;
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<Object> received = Collections.synchronizedList(new ArrayList<Object>());
+        connection.addListener("ch1", new BaseRedisPubSubListener() {
+            @Override
+            public void onMessage(String channel, Object message) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.add(message);
+            }
+
+            @Override
+            public boolean onStatus(PubSubType type, String channel) {
+                received.add(type);
+                if (received.size() == messages + 3) {
+                    latch.countDown();
+                }
+                return true;
+            }
+        });
+
+        for (int j = 0; j < messages / 2; j++) {
+            connection.dispatch(executor, new PubSubMessage("ch1", j));
+        }
+        connection.dispatch(executor, new PubSubStatusMessage(PubSubType.UNSUBSCRIBE, "ch1"));
+        connection.dispatch(executor, new PubSubStatusMessage(PubSubType.SUBSCRIBE, "ch1"));
+        for (int j = messages / 2; j < messages; j++) {
+            connection.dispatch(executor, new PubSubMessage("ch1", j));
+        }
+        connection.dispatch(executor, new PubSubStatusMessage(PubSubType.UNSUBSCRIBE, "ch1"));
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        List<Object> expected = new ArrayList<Object>();
+        for (int j = 0; j < messages / 2; j++) {
+            expected.add(j);
+        }
+        expected.add(PubSubType.UNSUBSCRIBE);
+        expected.add(PubSubType.SUBSCRIBE);
+        for (int j = messages / 2; j < messages; j++) {
+            expected.add(j);
+        }
+        expected.add(PubSubType.UNSUBSCRIBE);
+        assertThat(received).isEqualTo(expected);
+
+        // lane of unsubscribed channel is removed once drained
+        for (int i = 0; i < 100 && !connection.lanes.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(connection.lanes).isEmpty();
+    }
+
+}
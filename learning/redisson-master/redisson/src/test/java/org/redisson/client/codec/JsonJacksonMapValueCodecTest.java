@@ -35,7 +35,7 @@ public class JsonJacksonMapValueCodecTest {
     public void shouldDeserializeTheMapCorrectly() throws Exception {
         ByteBuf buf = new PooledByteBufAllocator(true).buffer();
         buf.writeBytes(new ObjectMapper().writeValueAsBytes(map));
-        assertThat(mapCodec.getMapValueDecoder().decode(buf, new State(false)))
+        assertThat(mapCodec.getMapValueDecoder().decode(buf, new State()))
                 .isInstanceOf(Map.class)
                 .isEqualTo(map);
     }
@@ -50,7 +50,7 @@ public class JsonJacksonMapValueCodecTest {
     public void shouldDeserializeTheStringCorrectly() throws Exception {
         ByteBuf buf = new PooledByteBufAllocator(true).buffer();
         buf.writeBytes(new ObjectMapper().writeValueAsBytes("axk"));
-        assertThat(stringCodec.getMapValueDecoder().decode(buf, new State(false)))
+        assertThat(stringCodec.getMapValueDecoder().decode(buf, new State()))
                 .isInstanceOf(String.class)
                 .isEqualTo("axk");
     }
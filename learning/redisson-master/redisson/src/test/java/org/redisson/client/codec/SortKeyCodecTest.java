@@ -0,0 +1,78 @@
+package org.redisson.client.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.redisson.api.NaturalSortKeyComparator;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class SortKeyCodecTest {
+
+    private static final Comparator<byte[]> UNSIGNED_COMPARATOR = new Comparator<byte[]>() {
+        @Override
+        public int compare(byte[] o1, byte[] o2) {
+            for (int i = 0; i < Math.min(o1.length, o2.length); i++) {
+                int cmp = (o1[i] & 0xFF) - (o2[i] & 0xFF);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return o1.length - o2.length;
+        }
+    };
+    
+    private <V> void assertOrder(List<V> values) {
+        NaturalSortKeyComparator<V> comparator = new NaturalSortKeyComparator<V>();
+        for (V v1 : values) {
+            for (V v2 : values) {
+                byte[] k1 = SortKeyCodec.encodeSortKey(comparator.getSortKey(v1));
+                byte[] k2 = SortKeyCodec.encodeSortKey(comparator.getSortKey(v2));
+                assertThat(Integer.signum(UNSIGNED_COMPARATOR.compare(k1, k2)))
+                    .isEqualTo(Integer.signum(comparator.compare(v1, v2)));
+            }
+        }
+    }
+    
+    @Test
+    public void testNumberOrder() {
+        Random random = new Random(1);
+        List<Long> longs = new ArrayList<Long>();
+        List<Double> doubles = new ArrayList<Double>();
+        Collections.addAll(longs, Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE);
+        Collections.addAll(doubles, Double.NEGATIVE_INFINITY, -1.5, -0.0, 0.0, 2.25, Double.POSITIVE_INFINITY, Double.NaN);
+        for (int i = 0; i < 50; i++) {
+            longs.add(random.nextLong());
+            doubles.add(random.nextGaussian() * 1000);
+        }
+        assertOrder(longs);
+        assertOrder(doubles);
+    }
+    
+    @Test
+    public void testStringOrder() {
+        List<String> values = new ArrayList<String>();
+        Collections.addAll(values, "", "a", "a\u0000", "a\u0000b", "a\u0001", "ab", "b", "￿", "\u0000");
+        assertOrder(values);
+    }
+    
+    @Test
+    public void testDecode() throws Exception {
+        byte[] sortKey = SortKeyCodec.encodeSortKey(new byte[] {1, 0, 2});
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeBytes(sortKey);
+        buf.writeBytes("000000000000000a".getBytes());
+        buf.writeBytes("value".getBytes());
+        
+        SortKeyCodec codec = new SortKeyCodec(StringCodec.INSTANCE);
+        assertThat(codec.getValueDecoder().decode(buf, null)).isEqualTo("value");
+    }
+    
+}
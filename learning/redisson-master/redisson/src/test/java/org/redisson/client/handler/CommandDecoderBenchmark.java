@@ -0,0 +1,153 @@
+package org.redisson.client.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.misc.RedissonPromise;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.ReplayingDecoder;
+import io.netty.util.CharsetUtil;
+
+/**
+ * Compares {@link CommandDecoder} with replaying decoding strategy 
+ * on multi-bulk reply which is received in fragments.
+ * <p>
+ * Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test 
+ * -Dexec.mainClass=org.redisson.client.handler.CommandDecoderBenchmark</code>
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CommandDecoderBenchmark {
+
+    /**
+     * Decodes whole reply from the beginning each time as it was done by
+     * previous <code>ReplayingDecoder</code> based implementation for nested replies.
+     */
+    static class ReplayingCommandDecoder extends ReplayingDecoder<Void> {
+
+        List<Object> result;
+        
+        @Override
+        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+            result = (List<Object>) decode(in);
+        }
+
+        private Object decode(ByteBuf in) throws Exception {
+            int code = in.readByte();
+            if (code == '$') {
+                int size = (int) CommandDecoder.readLong(in);
+                if (size == -1) {
+                    return null;
+                }
+                ByteBuf buf = in.readSlice(size);
+                in.skipBytes(2);
+                return StringCodec.INSTANCE.getValueDecoder().decode(buf, null);
+            }
+            if (code == '*') {
+                long size = CommandDecoder.readLong(in);
+                List<Object> parts = new ArrayList<Object>();
+                for (int i = 0; i < size; i++) {
+                    parts.add(decode(in));
+                }
+                return parts;
+            }
+            throw new IllegalStateException();
+        }
+
+    }
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"1460", "16384"})
+    public int chunkSize;
+
+    private ExecutorService executor;
+    private List<ByteBuf> chunks;
+    private EmbeddedChannel incrementalChannel;
+    private EmbeddedChannel replayingChannel;
+    private ReplayingCommandDecoder replayingDecoder;
+
+    @Setup
+    public void setup() {
+        StringBuilder response = new StringBuilder("*").append(size).append("\r\n");
+        for (int i = 0; i < size; i++) {
+            String value = "value" + i;
+            response.append("$").append(value.length()).append("\r\n").append(value).append("\r\n");
+        }
+        byte[] bytes = response.toString().getBytes(CharsetUtil.UTF_8);
+
+        chunks = new ArrayList<ByteBuf>();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            chunks.add(Unpooled.wrappedBuffer(bytes, i, Math.min(chunkSize, bytes.length - i)));
+        }
+
+        executor = Executors.newSingleThreadExecutor();
+        incrementalChannel = new EmbeddedChannel(new CommandsQueue(), new CommandDecoder(executor));
+        replayingDecoder = new ReplayingCommandDecoder();
+        replayingChannel = new EmbeddedChannel(replayingDecoder);
+    }
+
+    @TearDown
+    public void tearDown() {
+        incrementalChannel.finish();
+        replayingChannel.finish();
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Object incrementalDecoder() {
+        RedissonPromise<List<Object>> promise = new RedissonPromise<List<Object>>();
+        incrementalChannel.attr(CommandsQueue.CURRENT_COMMAND).set(
+                new CommandData<List<Object>, List<Object>>(promise, StringCodec.INSTANCE, RedisCommands.EVAL_LIST, new Object[] {}));
+        for (ByteBuf chunk : chunks) {
+            incrementalChannel.writeInbound(chunk.copy());
+        }
+        return promise.getNow();
+    }
+
+    @Benchmark
+    public Object replayingDecoder() {
+        for (ByteBuf chunk : chunks) {
+            replayingChannel.writeInbound(chunk.copy());
+        }
+        return replayingDecoder.result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CommandDecoderBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.redisson.client.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.CommandsData;
+import org.redisson.client.protocol.QueueCommand;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.decoder.ListScanResult;
+import org.redisson.misc.RPromise;
+import org.redisson.misc.RedissonPromise;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+
+public class CommandDecoderTest {
+
+    private ExecutorService executor;
+    private EmbeddedChannel channel;
+
+    @Before
+    public void before() {
+        executor = Executors.newSingleThreadExecutor();
+        channel = new EmbeddedChannel(new CommandsQueue(), new CommandDecoder(executor));
+    }
+
+    @After
+    public void after() {
+        channel.finish();
+        executor.shutdown();
+    }
+
+    private void send(QueueCommand command, String response, int chunkSize) {
+        channel.attr(CommandsQueue.CURRENT_COMMAND).set(command);
+        byte[] bytes = response.getBytes(CharsetUtil.UTF_8);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            channel.writeInbound(Unpooled.wrappedBuffer(bytes, i, Math.min(chunkSize, bytes.length - i)));
+        }
+    }
+
+    @Test
+    public void testFragmentedMap() {
+        StringBuilder response = new StringBuilder("*2000\r\n");
+        for (int i = 0; i < 1000; i++) {
+            response.append("$").append(("key" + i).length()).append("\r\nkey").append(i).append("\r\n");
+            response.append("$").append(("value" + i).length()).append("\r\nvalue").append(i).append("\r\n");
+        }
+
+        for (int chunkSize : Arrays.asList(1, 3, 7, 1024, response.length())) {
+            RPromise<Map<Object, Object>> promise = new RedissonPromise<Map<Object, Object>>();
+            send(new CommandData<Map<Object, Object>, Map<Object, Object>>(promise, StringCodec.INSTANCE, RedisCommands.HGETALL, new Object[] {"map"}), 
+                    response.toString(), chunkSize);
+
+            assertThat(promise.isSuccess()).isTrue();
+            Map<Object, Object> map = promise.getNow();
+            assertThat(map).hasSize(1000);
+            assertThat(map.get("key999")).isEqualTo("value999");
+            assertThat(channel.attr(CommandsQueue.CURRENT_COMMAND).get()).isNull();
+        }
+    }
+
+    @Test
+    public void testFragmentedNestedArray() {
+        String response = "*2\r\n$2\r\n17\r\n*3\r\n$1\r\na\r\n$0\r\n\r\n$-1\r\n";
+        for (int chunkSize = 1; chunkSize <= response.length(); chunkSize++) {
+            RPromise<ListScanResult<Object>> promise = new RedissonPromise<ListScanResult<Object>>();
+            send(new CommandData<ListScanResult<String>, ListScanResult<Object>>(promise, StringCodec.INSTANCE, RedisCommands.SCAN, new Object[] {0}), 
+                    response, chunkSize);
+
+            assertThat(promise.isSuccess()).isTrue();
+            assertThat(promise.getNow().getPos()).isEqualTo(17);
+            assertThat(promise.getNow().getValues()).containsExactly("a", "", null);
+        }
+    }
+
+    @Test
+    public void testFragmentedBatch() {
+        String response = ":1\r\n-ERR wrong type\r\n+OK\r\n$5\r\nvalue\r\n";
+        for (int chunkSize = 1; chunkSize <= response.length(); chunkSize++) {
+            List<CommandData<?, ?>> commands = new ArrayList<CommandData<?, ?>>();
+            RPromise<Long> incr = new RedissonPromise<Long>();
+            commands.add(new CommandData<Long, Long>(incr, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"counter"}));
+            RPromise<Long> incr2 = new RedissonPromise<Long>();
+            commands.add(new CommandData<Long, Long>(incr2, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"map"}));
+            RPromise<Void> set = new RedissonPromise<Void>();
+            commands.add(new CommandData<Void, Void>(set, StringCodec.INSTANCE, RedisCommands.SET, new Object[] {"key", "value"}));
+            RPromise<Object> get = new RedissonPromise<Object>();
+            commands.add(new CommandData<Object, Object>(get, StringCodec.INSTANCE, RedisCommands.GET, new Object[] {"key"}));
+
+            RPromise<Void> batchPromise = new RedissonPromise<Void>();
+            send(new CommandsData(batchPromise, commands), response, chunkSize);
+
+            assertThat(incr.getNow()).isEqualTo(1);
+            assertThat(incr2.cause()).isInstanceOf(RedisException.class);
+            assertThat(set.isSuccess()).isTrue();
+            assertThat(get.getNow()).isEqualTo("value");
+            assertThat(batchPromise.cause()).isInstanceOf(RedisException.class);
+        }
+    }
+
+    @Test
+    public void testBatchFailedWithFirstError() {
+        List<CommandData<?, ?>> commands = new ArrayList<CommandData<?, ?>>();
+        RPromise<Long> incr = new RedissonPromise<Long>();
+        commands.add(new CommandData<Long, Long>(incr, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"map"}));
+        RPromise<Long> incr2 = new RedissonPromise<Long>();
+        commands.add(new CommandData<Long, Long>(incr2, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"set"}));
+
+        RPromise<Void> batchPromise = new RedissonPromise<Void>();
+        send(new CommandsData(batchPromise, commands), "-ERR first\r\n-ERR second\r\n", 1024);
+
+        assertThat(incr2.cause()).isInstanceOf(RedisException.class);
+        assertThat(batchPromise.cause()).isSameAs(incr.cause());
+    }
+
+    @Test
+    public void testSequentialResponses() {
+        RPromise<Long> incr = new RedissonPromise<Long>();
+        channel.attr(CommandsQueue.CURRENT_COMMAND).set(new CommandData<Long, Long>(incr, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"counter"}));
+        channel.writeInbound(Unpooled.copiedBuffer(":10\r\n:11", CharsetUtil.UTF_8));
+        assertThat(incr.getNow()).isEqualTo(10);
+
+        RPromise<Long> incr2 = new RedissonPromise<Long>();
+        channel.attr(CommandsQueue.CURRENT_COMMAND).set(new CommandData<Long, Long>(incr2, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"counter"}));
+        channel.writeInbound(Unpooled.copiedBuffer("\r\n", CharsetUtil.UTF_8));
+        assertThat(incr2.getNow()).isEqualTo(11);
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.redisson.client.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.ByteBufEncoder;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.SerializationCodec;
+import org.redisson.misc.RedissonPromise;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+
+public class CommandEncoderTest {
+
+    private byte[] encode(Codec codec, Object value) {
+        EmbeddedChannel channel = new EmbeddedChannel(CommandEncoder.INSTANCE);
+        channel.writeOutbound(new CommandData<Void, Void>(new RedissonPromise<Void>(), codec, RedisCommands.SET, new Object[] {"key", value}));
+        ByteBuf buf = channel.readOutbound();
+        byte[] result = new byte[buf.readableBytes()];
+        buf.readBytes(result);
+        buf.release();
+        channel.finish();
+        return result;
+    }
+    
+    private byte[] expected(byte[] value) {
+        String prefix = "*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$" + value.length + "\r\n";
+        byte[] result = new byte[prefix.length() + value.length + 2];
+        System.arraycopy(prefix.getBytes(CharsetUtil.UTF_8), 0, result, 0, prefix.length());
+        System.arraycopy(value, 0, result, prefix.length(), value.length);
+        result[result.length - 2] = '\r';
+        result[result.length - 1] = '\n';
+        return result;
+    }
+    
+    @Test
+    public void testStringCodec() throws IOException {
+        assertThat(StringCodec.INSTANCE.getValueEncoder()).isInstanceOf(ByteBufEncoder.class);
+        String value = "значение-value";
+        assertThat(encode(StringCodec.INSTANCE, value)).isEqualTo(expected(StringCodec.INSTANCE.getValueEncoder().encode(value)));
+    }
+
+    @Test
+    public void testLongCodec() throws IOException {
+        assertThat(encode(LongCodec.INSTANCE, 123456789L)).isEqualTo(expected("123456789".getBytes()));
+        assertThat(encode(LongCodec.INSTANCE, -15)).isEqualTo(expected("-15".getBytes()));
+        assertThat(encode(LongCodec.INSTANCE, 200)).isEqualTo(expected("200".getBytes()));
+        assertThat(encode(LongCodec.INSTANCE, 0L)).isEqualTo(expected("0".getBytes()));
+        assertThat(encode(LongCodec.INSTANCE, Long.MAX_VALUE)).isEqualTo(expected(Long.toString(Long.MAX_VALUE).getBytes()));
+        assertThat(encode(LongCodec.INSTANCE, Long.MIN_VALUE)).isEqualTo(expected(Long.toString(Long.MIN_VALUE).getBytes()));
+        assertThat(encode(LongCodec.INSTANCE, -1000000000000L)).isEqualTo(expected("-1000000000000".getBytes()));
+        assertThat(encode(LongCodec.INSTANCE, "77")).isEqualTo(expected("77".getBytes()));
+    }
+
+    @Test
+    public void testWriteLong() {
+        ByteBuf buf = Unpooled.buffer(1);
+        for (long value : new long[] {0, 9, 10, 255, 256, 99999, -1, -256, Integer.MAX_VALUE + 1L, 999999999999999999L, 1000000000000000000L}) {
+            buf.clear();
+            CommandEncoder.writeLong(value, buf);
+            assertThat(buf.toString(CharsetUtil.UTF_8)).isEqualTo(Long.toString(value));
+        }
+        buf.release();
+    }
+
+    @Test
+    public void testJsonJacksonCodec() throws IOException {
+        JsonJacksonCodec codec = new JsonJacksonCodec();
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            value.append(i);
+        }
+        assertThat(encode(codec, value.toString())).isEqualTo(expected(codec.getValueEncoder().encode(value.toString())));
+    }
+
+    @Test
+    public void testSerializationCodec() throws IOException {
+        SerializationCodec codec = new SerializationCodec();
+        assertThat(encode(codec, 1234L)).isEqualTo(expected(codec.getValueEncoder().encode(1234L)));
+    }
+
+}
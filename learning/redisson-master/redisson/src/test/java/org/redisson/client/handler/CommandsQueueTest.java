@@ -0,0 +1,137 @@
+package org.redisson.client.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.RedisPubSubConnection;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.CommandData;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.misc.RPromise;
+import org.redisson.misc.RedissonPromise;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+
+public class CommandsQueueTest {
+
+    private ExecutorService executor;
+    private EmbeddedChannel channel;
+    private Object failedMessage;
+
+    @Before
+    public void before() {
+        executor = Executors.newSingleThreadExecutor();
+        ChannelOutboundHandlerAdapter failingHandler = new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+                if (msg == failedMessage) {
+                    promise.setFailure(new IOException("write failed"));
+                    return;
+                }
+                super.write(ctx, msg, promise);
+            }
+        };
+        channel = new EmbeddedChannel(failingHandler, new CommandsQueue(true), new CommandDecoder(executor));
+        new RedisPubSubConnection(null, channel);
+    }
+
+    @After
+    public void after() {
+        channel.finish();
+        executor.shutdown();
+    }
+
+    private CommandData<Object, Object> subscribe(String name) {
+        return new CommandData<Object, Object>(new RedissonPromise<Object>(), StringCodec.INSTANCE, RedisCommands.SUBSCRIBE, new Object[] {name});
+    }
+
+    @Test
+    public void testPipelinedResponseKeepsPubSubOrder() {
+        CommandData<Object, Object> subscribe1 = subscribe("channel1");
+        CommandData<Object, Object> subscribe2 = subscribe("channel2");
+        RPromise<Long> incr = new RedissonPromise<Long>();
+        CommandData<Long, Long> incrCommand = new CommandData<Long, Long>(incr, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"counter"});
+
+        channel.writeOutbound(incrCommand);
+        channel.writeOutbound(subscribe1);
+        channel.writeOutbound(subscribe2);
+        assertThat(channel.readOutbound()).isSameAs(incrCommand);
+        assertThat(channel.readOutbound()).isSameAs(subscribe1);
+        assertThat(channel.readOutbound()).isNull();
+        assertThat(channel.attr(CommandsQueue.CURRENT_COMMAND).get()).isSameAs(incrCommand);
+
+        channel.writeInbound(Unpooled.copiedBuffer(":1\r\n", CharsetUtil.UTF_8));
+        assertThat(incr.getNow()).isEqualTo(1);
+        // second subscription waits for confirmation of the first one
+        assertThat(channel.readOutbound()).isNull();
+        assertThat(channel.attr(CommandsQueue.CURRENT_COMMAND).get()).isNull();
+
+        channel.writeInbound(Unpooled.copiedBuffer("*3\r\n$9\r\nsubscribe\r\n$8\r\nchannel1\r\n:1\r\n", CharsetUtil.UTF_8));
+        assertThat(channel.readOutbound()).isSameAs(subscribe2);
+    }
+
+    @Test
+    public void testCommandWaitsForPubSubConfirmation() {
+        CommandData<Object, Object> subscribe1 = subscribe("channel1");
+        RPromise<Long> incr = new RedissonPromise<Long>();
+        CommandData<Long, Long> incrCommand = new CommandData<Long, Long>(incr, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"counter"});
+
+        channel.writeOutbound(subscribe1);
+        channel.writeOutbound(incrCommand);
+        assertThat(channel.readOutbound()).isSameAs(subscribe1);
+        assertThat(channel.readOutbound()).isNull();
+
+        channel.writeInbound(Unpooled.copiedBuffer("*3\r\n$9\r\nsubscribe\r\n$8\r\nchannel1\r\n:1\r\n", CharsetUtil.UTF_8));
+        assertThat(channel.readOutbound()).isSameAs(incrCommand);
+        assertThat(channel.attr(CommandsQueue.CURRENT_COMMAND).get()).isSameAs(incrCommand);
+
+        channel.writeInbound(Unpooled.copiedBuffer(":1\r\n", CharsetUtil.UTF_8));
+        assertThat(incr.getNow()).isEqualTo(1);
+        assertThat(channel.attr(CommandsQueue.CURRENT_COMMAND).get()).isNull();
+    }
+
+    @Test
+    public void testDisconnectFailsAllPipelinedCommands() {
+        RPromise<Long> incr1 = new RedissonPromise<Long>();
+        RPromise<Long> incr2 = new RedissonPromise<Long>();
+        channel.writeOutbound(new CommandData<Long, Long>(incr1, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"counter"}));
+        channel.writeOutbound(new CommandData<Long, Long>(incr2, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"counter"}));
+
+        channel.close();
+        assertThat(incr1.cause()).isInstanceOf(RedisConnectionException.class);
+        assertThat(incr2.cause()).isInstanceOf(RedisConnectionException.class);
+        assertThat(channel.attr(CommandsQueue.CURRENT_COMMAND).get()).isNull();
+    }
+
+    @Test
+    public void testFailedPubSubWriteKeepsPipelinedCommand() {
+        CommandData<Object, Object> subscribe1 = subscribe("channel1");
+        CommandData<Object, Object> subscribe2 = subscribe("channel2");
+        RPromise<Long> incr = new RedissonPromise<Long>();
+        CommandData<Long, Long> incrCommand = new CommandData<Long, Long>(incr, StringCodec.INSTANCE, RedisCommands.INCR, new Object[] {"counter"});
+        failedMessage = subscribe1;
+
+        channel.writeOutbound(incrCommand);
+        channel.write(subscribe1);
+        channel.writeOutbound(subscribe2);
+        assertThat(channel.readOutbound()).isSameAs(incrCommand);
+        assertThat(channel.readOutbound()).isSameAs(subscribe2);
+        assertThat(channel.attr(CommandsQueue.CURRENT_COMMAND).get()).isSameAs(incrCommand);
+
+        channel.writeInbound(Unpooled.copiedBuffer(":1\r\n", CharsetUtil.UTF_8));
+        assertThat(incr.getNow()).isEqualTo(1);
+    }
+
+}
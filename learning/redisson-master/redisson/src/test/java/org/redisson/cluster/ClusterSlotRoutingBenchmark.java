@@ -0,0 +1,146 @@
+package org.redisson.cluster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.redisson.config.Config;
+import org.redisson.config.MasterSlaveServersConfig;
+import org.redisson.connection.CRC16;
+import org.redisson.connection.MasterSlaveConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
+
+/**
+ * Measures per command slot routing: <code>calcSlot</code> followed by <code>getEntry</code>.
+ * Compares array based routing table and allocation-free CRC16
+ * with previous map based table and <code>substring</code>/<code>getBytes</code> slot calculation.
+ * <p>
+ * Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.redisson.cluster.ClusterSlotRoutingBenchmark</code>
+ *
+ * @author Nikita Koksharov
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClusterSlotRoutingBenchmark {
+
+    static class RoutingConnectionManager extends MasterSlaveConnectionManager {
+
+        private final List<Integer> usedSlots = new ArrayList<Integer>();
+
+        RoutingConnectionManager(Config config) {
+            super(config);
+            initTimer(new MasterSlaveServersConfig());
+        }
+
+        void addEntry(List<Integer> slots) {
+            addEntry(slots, new MasterSlaveEntry(Collections.<ClusterSlotRange>emptySet(), this, new MasterSlaveServersConfig()));
+            usedSlots.addAll(slots);
+        }
+
+        @Override
+        public void shutdown() {
+            // entries have no connected master
+            removeMaster(usedSlots);
+            super.shutdown();
+        }
+
+    }
+
+    @Param({"plain", "hashtag"})
+    public String keyType;
+
+    @Param({"3", "10"})
+    public int masters;
+
+    private String[] keys;
+    private int index;
+
+    private RoutingConnectionManager connectionManager;
+    private Map<Integer, MasterSlaveEntry> legacyEntries;
+
+    @Setup
+    public void setup() {
+        connectionManager = new RoutingConnectionManager(new Config());
+        int slotsPerMaster = MasterSlaveConnectionManager.MAX_SLOT / masters + 1;
+        for (int i = 0; i < masters; i++) {
+            List<Integer> slots = new ArrayList<Integer>();
+            for (int slot = i*slotsPerMaster; slot < Math.min((i+1)*slotsPerMaster, MasterSlaveConnectionManager.MAX_SLOT); slot++) {
+                slots.add(slot);
+            }
+            connectionManager.addEntry(slots);
+        }
+
+        legacyEntries = new ConcurrentHashMap<Integer, MasterSlaveEntry>();
+        for (int slot = 0; slot < MasterSlaveConnectionManager.MAX_SLOT; slot++) {
+            legacyEntries.put(slot, connectionManager.getEntry(slot));
+        }
+
+        Random random = new Random(1);
+        keys = new String[1024];
+        for (int i = 0; i < keys.length; i++) {
+            if ("hashtag".equals(keyType)) {
+                keys[i] = "redisson_map:{user:" + random.nextInt(100000) + "}:attributes";
+            } else {
+                keys[i] = "redisson_map:user:" + random.nextInt(100000);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionManager.shutdown();
+    }
+
+    private String nextKey() {
+        index = (index + 1) & (keys.length - 1);
+        return keys[index];
+    }
+
+    @Benchmark
+    public MasterSlaveEntry routingTable() {
+        int slot = ClusterConnectionManager.keySlot(nextKey());
+        return connectionManager.getEntry(slot);
+    }
+
+    @Benchmark
+    public MasterSlaveEntry legacyRouting() {
+        String key = nextKey();
+        int start = key.indexOf('{');
+        if (start != -1) {
+            int end = key.indexOf('}');
+            key = key.substring(start+1, end);
+        }
+        int slot = CRC16.crc16(key.getBytes()) % MasterSlaveConnectionManager.MAX_SLOT;
+        return legacyEntries.get(slot);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ClusterSlotRoutingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
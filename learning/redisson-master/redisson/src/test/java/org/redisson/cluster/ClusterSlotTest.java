@@ -0,0 +1,29 @@
+package org.redisson.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class ClusterSlotTest {
+
+    @Test
+    public void testHashTags() {
+        assertThat(ClusterConnectionManager.keySlot("{user1000}.following")).isEqualTo(ClusterConnectionManager.keySlot("user1000"));
+        assertThat(ClusterConnectionManager.keySlot("{user1000}.followers")).isEqualTo(ClusterConnectionManager.keySlot("user1000"));
+        // only first hash tag is used
+        assertThat(ClusterConnectionManager.keySlot("foo{bar}{zap}")).isEqualTo(ClusterConnectionManager.keySlot("bar"));
+        // '}' before '{' is ignored
+        assertThat(ClusterConnectionManager.keySlot("a}b{bar}")).isEqualTo(ClusterConnectionManager.keySlot("bar"));
+        assertThat(ClusterConnectionManager.keySlot("foo{{bar}}zap")).isEqualTo(ClusterConnectionManager.keySlot("{bar"));
+    }
+
+    @Test
+    public void testWholeKey() {
+        assertThat(ClusterConnectionManager.keySlot("123456789")).isEqualTo(0x31C3);
+        // empty hash tag means whole key is hashed
+        assertThat(ClusterConnectionManager.keySlot("foo{}{bar}")).isEqualTo(8363);
+        assertThat(ClusterConnectionManager.keySlot("foo{bar")).isNotEqualTo(ClusterConnectionManager.keySlot("bar"));
+        assertThat(ClusterConnectionManager.keySlot(null)).isEqualTo(0);
+    }
+
+}
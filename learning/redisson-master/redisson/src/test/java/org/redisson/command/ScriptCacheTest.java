@@ -0,0 +1,32 @@
+package org.redisson.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
+
+public class ScriptCacheTest {
+
+    @Test
+    public void testSha() {
+        ScriptCache cache = new ScriptCache();
+        String sha = cache.getSha("return redis.call('get', 'foo')");
+        assertThat(sha).isEqualTo("282297a0228f48cd3fc6a55de6316f31422f5d17");
+        assertThat(cache.getSha("return redis.call('get', 'foo')")).isSameAs(sha);
+        assertThat(cache.getScript(sha)).isEqualTo("return redis.call('get', 'foo')");
+        assertThat(cache.getScript("0000000000000000000000000000000000000000")).isNull();
+    }
+
+    @Test
+    public void testEvalShaCommand() {
+        ScriptCache cache = new ScriptCache();
+        RedisCommand<Object> command = cache.getEvalShaCommand(RedisCommands.EVAL_MAP_VALUE);
+        assertThat(command.getName()).isEqualTo("EVALSHA");
+        assertThat(command.getOutParamType()).isEqualTo(RedisCommands.EVAL_MAP_VALUE.getOutParamType());
+        assertThat(cache.getEvalShaCommand(RedisCommands.EVAL_MAP_VALUE)).isSameAs(command);
+        assertThat(cache.getEvalCommand(command)).isSameAs(RedisCommands.EVAL_MAP_VALUE);
+        assertThat(cache.getEvalCommand(RedisCommands.EVAL_MAP_VALUE)).isNull();
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.redisson.connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CRC16Test {
+
+    @Test
+    public void testKnownValue() {
+        // value from Redis Cluster specification
+        assertThat(CRC16.crc16("123456789", 0, 9)).isEqualTo(0x31C3);
+        assertThat(CRC16.crc16("123456789".getBytes(StandardCharsets.UTF_8))).isEqualTo(0x31C3);
+    }
+
+    @Test
+    public void testRange() {
+        String key = "user:{1000}:name";
+        assertThat(CRC16.crc16(key, 6, 10)).isEqualTo(CRC16.crc16("1000".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testUTF8() {
+        String[] keys = {"", "simple", "ключ", "キー", "😀emoji", "broken\uD83D", "\uDE00broken", "mixed-ü-€-😀"};
+        for (String key : keys) {
+            assertThat(CRC16.crc16(key, 0, key.length())).isEqualTo(CRC16.crc16(key.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            char[] chars = new char[random.nextInt(20)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) random.nextInt(Character.MAX_VALUE + 1);
+            }
+            String key = new String(chars);
+            assertThat(CRC16.crc16(key, 0, key.length())).isEqualTo(CRC16.crc16(key.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package org.redisson.executor;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -25,7 +26,9 @@ import static org.redisson.BaseTest.createConfig;
 import org.redisson.RedissonNode;
 import org.redisson.RedissonRuntimeEnvironment;
 import org.redisson.api.RExecutorService;
+import org.redisson.api.RFuture;
 import org.redisson.api.RScheduledExecutorService;
+import org.redisson.client.codec.ByteArrayCodec;
 import org.redisson.config.Config;
 import org.redisson.config.RedissonNodeConfig;
 
@@ -130,6 +133,69 @@ public class RedissonExecutorServiceTest extends BaseTest {
 
     }
     
+    @Test
+    public void testSubmitAll() throws InterruptedException, ExecutionException {
+        RExecutorService e = redisson.getExecutorService("test");
+        List<CallableTask> tasks = new ArrayList<CallableTask>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new CallableTask());
+        }
+        
+        List<RFuture<String>> futures = e.submitAll(tasks);
+        assertThat(futures).hasSize(tasks.size());
+        for (RFuture<String> future : futures) {
+            assertThat(future.get()).isEqualTo(CallableTask.RESULT);
+        }
+        
+        // class body is stored once
+        String classBodiesName = "{test:" + RemoteExecutorService.class.getName() + "}:class-bodies";
+        assertThat(redisson.getMap(classBodiesName, ByteArrayCodec.INSTANCE).size()).isEqualTo(1);
+        
+        Future<String> f = e.submit(new CallableTask());
+        assertThat(f.get()).isEqualTo(CallableTask.RESULT);
+    }
+
+    @Test
+    public void testClassBodyDeletedAfterUpload() throws InterruptedException, ExecutionException {
+        Config config = createConfig();
+        RedissonNodeConfig nodeConfig = new RedissonNodeConfig(config);
+        nodeConfig.setExecutorServiceWorkers(Collections.singletonMap("test3", 1));
+        RedissonNode node1 = RedissonNode.create(nodeConfig);
+        node1.start();
+
+        RExecutorService e = redisson.getExecutorService("test3");
+        assertThat(e.submit(new CallableTask()).get()).isEqualTo(CallableTask.RESULT);
+
+        String classBodiesName = "{test3:" + RemoteExecutorService.class.getName() + "}:class-bodies";
+        Thread.sleep(500);
+        assertThat(redisson.getMap(classBodiesName, ByteArrayCodec.INSTANCE).size()).isEqualTo(1);
+        redisson.getKeys().delete(classBodiesName);
+        node1.shutdown();
+
+        // new worker hasn't loaded task class before
+        RedissonNode node2 = RedissonNode.create(nodeConfig);
+        node2.start();
+
+        assertThat(e.submit(new CallableTask()).get()).isEqualTo(CallableTask.RESULT);
+
+        redisson.getKeys().delete(classBodiesName);
+        List<RFuture<String>> futures = e.submitAll(Arrays.asList(new CallableTask(), new CallableTask()));
+        for (RFuture<String> future : futures) {
+            assertThat(future.get()).isEqualTo(CallableTask.RESULT);
+        }
+
+        node2.shutdown();
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testRejectSubmitAll() throws InterruptedException, ExecutionException {
+        RExecutorService e = redisson.getExecutorService("test");
+        e.shutdown();
+        
+        assertThat(e.isShutdown()).isTrue();
+        e.submitAll(Arrays.asList(new CallableTask(), new CallableTask()));
+    }
+    
     @Test(expected = RejectedExecutionException.class)
     public void testRejectExecute() throws InterruptedException, ExecutionException {
         RExecutorService e = redisson.getExecutorService("test");
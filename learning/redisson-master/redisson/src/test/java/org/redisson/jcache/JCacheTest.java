@@ -7,6 +7,8 @@ import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -19,6 +21,7 @@ import javax.cache.configuration.MutableConfiguration;
 import javax.cache.event.CacheEntryEvent;
 import javax.cache.event.CacheEntryExpiredListener;
 import javax.cache.event.CacheEntryListenerException;
+import javax.cache.expiry.AccessedExpiryPolicy;
 import javax.cache.expiry.CreatedExpiryPolicy;
 import javax.cache.expiry.Duration;
 
@@ -29,6 +32,7 @@ import org.redisson.RedisRunner;
 import org.redisson.RedisRunner.FailedToStartRedisException;
 import org.redisson.RedisRunner.RedisProcess;
 import org.redisson.config.Config;
+import org.redisson.jcache.configuration.JCacheConfiguration;
 import org.redisson.jcache.configuration.RedissonConfiguration;
 
 public class JCacheTest extends BaseTest {
@@ -67,6 +71,46 @@ public class JCacheTest extends BaseTest {
         cache.close();
     }
 
+    @Test
+    public void testReadCommitted() {
+        JCacheConfiguration<String, String> jcacheConfig = new JCacheConfiguration<String, String>(null);
+        jcacheConfig.setReadCommitted(true);
+        Configuration<String, String> config = RedissonConfiguration.fromInstance(redisson, jcacheConfig);
+        Cache<String, String> cache = Caching.getCachingProvider().getCacheManager()
+                .createCache("test", config);
+        assertThat(cache.getConfiguration(JCacheConfiguration.class).isReadCommitted()).isTrue();
+        
+        cache.put("1", "2");
+        cache.put("3", "4");
+        assertThat(cache.get("1")).isEqualTo("2");
+        assertThat(cache.get("5")).isNull();
+        assertThat(cache.containsKey("3")).isTrue();
+        assertThat(cache.getAll(new HashSet<String>(Arrays.asList("1", "3", "5")))).containsOnlyKeys("1", "3");
+        
+        cache.close();
+    }
+
+    @Test
+    public void testReadCommittedZeroAccessExpiry() {
+        MutableConfiguration<String, String> mutableConfig = new MutableConfiguration<String, String>();
+        mutableConfig.setExpiryPolicyFactory(AccessedExpiryPolicy.factoryOf(Duration.ZERO));
+        JCacheConfiguration<String, String> jcacheConfig = new JCacheConfiguration<String, String>(mutableConfig);
+        jcacheConfig.setReadCommitted(true);
+        Configuration<String, String> config = RedissonConfiguration.fromInstance(redisson, jcacheConfig);
+        Cache<String, String> cache = Caching.getCachingProvider().getCacheManager()
+                .createCache("test", config);
+        
+        cache.put("1", "2");
+        cache.put("3", "4");
+        assertThat(cache.getAll(new HashSet<String>(Arrays.asList("5", "6")))).isEmpty();
+        assertThat(cache.getAll(new HashSet<String>(Arrays.asList("1", "5")))).containsOnlyKeys("1");
+        assertThat(cache.containsKey("1")).isFalse();
+        assertThat(cache.get("3")).isEqualTo("4");
+        assertThat(cache.containsKey("3")).isFalse();
+        
+        cache.close();
+    }
+
     @Test
     public void testExpiration() throws InterruptedException, IllegalArgumentException, URISyntaxException, FailedToStartRedisException, IOException {
         RedisProcess runner = new RedisRunner()
@@ -2,6 +2,9 @@ package org.redisson.misc;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
@@ -72,4 +75,25 @@ public class LRUCacheMapTest {
         assertThat(map.keySet()).containsOnly(4, 3);
     }
     
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        final Cache<Integer, Integer> map = new LRUCacheMap<Integer, Integer>(100, 0, 0);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 100000; j++) {
+                    int key = ThreadLocalRandom.current().nextInt(1000);
+                    if (map.get(key) == null) {
+                        map.put(key, key);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        
+        assertThat(map.size()).isLessThanOrEqualTo(100 + threads);
+    }
+    
 }
@@ -0,0 +1,174 @@
+package org.redisson.misc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+
+public class RedissonPromiseTest {
+
+    @Test
+    public void testSuccess() throws InterruptedException, ExecutionException {
+        RedissonPromise<String> promise = new RedissonPromise<String>();
+        assertThat(promise.isDone()).isFalse();
+        assertThat(promise.getNow()).isNull();
+        assertThat(promise.trySuccess("value")).isTrue();
+        assertThat(promise.trySuccess("value2")).isFalse();
+        assertThat(promise.tryFailure(new IllegalStateException())).isFalse();
+        
+        assertThat(promise.isDone()).isTrue();
+        assertThat(promise.isSuccess()).isTrue();
+        assertThat(promise.cause()).isNull();
+        assertThat(promise.get()).isEqualTo("value");
+    }
+    
+    @Test
+    public void testNullSuccess() {
+        RedissonPromise<String> promise = new RedissonPromise<String>();
+        assertThat(promise.trySuccess(null)).isTrue();
+        assertThat(promise.isSuccess()).isTrue();
+        assertThat(promise.getNow()).isNull();
+    }
+    
+    @Test
+    public void testFailure() throws InterruptedException {
+        RedissonPromise<String> promise = new RedissonPromise<String>();
+        IllegalStateException e = new IllegalStateException();
+        assertThat(promise.tryFailure(e)).isTrue();
+        assertThat(promise.isSuccess()).isFalse();
+        assertThat(promise.cause()).isSameAs(e);
+        try {
+            promise.get();
+            org.junit.Assert.fail();
+        } catch (ExecutionException ex) {
+            assertThat(ex.getCause()).isSameAs(e);
+        }
+    }
+    
+    @Test
+    public void testCancel() {
+        RedissonPromise<String> promise = new RedissonPromise<String>();
+        assertThat(promise.cancel(true)).isTrue();
+        assertThat(promise.isCancelled()).isTrue();
+        assertThat(promise.cause()).isInstanceOf(CancellationException.class);
+        assertThat(promise.trySuccess("value")).isFalse();
+        
+        RedissonPromise<String> uncancellable = new RedissonPromise<String>();
+        assertThat(uncancellable.setUncancellable()).isTrue();
+        assertThat(uncancellable.cancel(true)).isFalse();
+        assertThat(uncancellable.trySuccess("value")).isTrue();
+        assertThat(uncancellable.getNow()).isEqualTo("value");
+    }
+    
+    @Test
+    public void testListeners() {
+        final List<Integer> calls = new ArrayList<Integer>();
+        RedissonPromise<String> promise = new RedissonPromise<String>();
+        promise.addListener(new FutureListener<String>() {
+            @Override
+            public void operationComplete(Future<String> future) throws Exception {
+                assertThat(future.getNow()).isEqualTo("value");
+                calls.add(1);
+            }
+        });
+        FutureListener<String> removed = new FutureListener<String>() {
+            @Override
+            public void operationComplete(Future<String> future) throws Exception {
+                calls.add(-1);
+            }
+        };
+        promise.addListener(removed);
+        promise.addListener(new FutureListener<String>() {
+            @Override
+            public void operationComplete(Future<String> future) throws Exception {
+                calls.add(2);
+            }
+        });
+        promise.removeListener(removed);
+        promise.trySuccess("value");
+        
+        promise.addListener(new FutureListener<String>() {
+            @Override
+            public void operationComplete(Future<String> future) throws Exception {
+                calls.add(3);
+            }
+        });
+        
+        assertThat(calls).containsExactly(1, 2, 3);
+    }
+    
+    @Test
+    public void testNestedListeners() {
+        int size = 100000;
+        final List<RedissonPromise<Integer>> promises = new ArrayList<RedissonPromise<Integer>>();
+        for (int i = 0; i < size; i++) {
+            promises.add(new RedissonPromise<Integer>());
+        }
+        
+        final AtomicInteger counter = new AtomicInteger();
+        for (int i = 0; i < size - 1; i++) {
+            final int index = i;
+            promises.get(i).addListener(new FutureListener<Integer>() {
+                @Override
+                public void operationComplete(Future<Integer> future) throws Exception {
+                    counter.incrementAndGet();
+                    promises.get(index + 1).trySuccess(future.getNow() + 1);
+                }
+            });
+        }
+        
+        promises.get(0).trySuccess(0);
+        assertThat(counter.get()).isEqualTo(size - 1);
+        assertThat(promises.get(size - 1).getNow()).isEqualTo(size - 1);
+    }
+    
+    @Test
+    public void testAwait() throws InterruptedException {
+        final RedissonPromise<String> promise = new RedissonPromise<String>();
+        assertThat(promise.await(50, TimeUnit.MILLISECONDS)).isFalse();
+        
+        int waiters = 4;
+        final CountDownLatch latch = new CountDownLatch(waiters);
+        for (int i = 0; i < waiters; i++) {
+            Thread t = new Thread() {
+                @Override
+                public void run() {
+                    promise.awaitUninterruptibly();
+                    latch.countDown();
+                }
+            };
+            t.start();
+        }
+        
+        Thread.sleep(100);
+        assertThat(latch.getCount()).isEqualTo(waiters);
+        promise.trySuccess("value");
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+    
+    @Test
+    public void testAwaitUninterruptibly() {
+        RedissonPromise<String> promise = new RedissonPromise<String>();
+        Thread.currentThread().interrupt();
+        assertThat(promise.awaitUninterruptibly(50)).isFalse();
+        assertThat(Thread.interrupted()).isTrue();
+    }
+    
+    @Test(expected = InterruptedException.class)
+    public void testAwaitInterrupted() throws InterruptedException {
+        RedissonPromise<String> promise = new RedissonPromise<String>();
+        Thread.currentThread().interrupt();
+        promise.await();
+    }
+    
+}
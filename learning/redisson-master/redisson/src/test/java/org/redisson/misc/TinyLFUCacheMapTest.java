@@ -0,0 +1,76 @@
+package org.redisson.misc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.redisson.cache.Cache;
+import org.redisson.cache.TinyLFUCacheMap;
+
+public class TinyLFUCacheMapTest {
+
+    @Test
+    public void testMaxIdleTimeEviction() throws InterruptedException {
+        Cache<Integer, Integer> map = new TinyLFUCacheMap<Integer, Integer>(2, 0, 0);
+        map.put(1, 0, 0, TimeUnit.MILLISECONDS, 400, TimeUnit.MILLISECONDS);
+        assertThat(map.get(1)).isEqualTo(0);
+        Thread.sleep(200);
+        assertThat(map.get(1)).isEqualTo(0);
+        Thread.sleep(200);
+        assertThat(map.get(1)).isEqualTo(0);
+        Thread.sleep(200);
+        assertThat(map.get(1)).isEqualTo(0);
+        Thread.sleep(410);
+        assertThat(map.keySet()).isEmpty();
+    }
+
+    @Test
+    public void testTTLEviction() throws InterruptedException {
+        Cache<Integer, Integer> map = new TinyLFUCacheMap<Integer, Integer>(2, 0, 0);
+        map.put(1, 0, 500, TimeUnit.MILLISECONDS, 0, TimeUnit.MILLISECONDS);
+        assertThat(map.get(1)).isEqualTo(0);
+        Thread.sleep(100);
+        assertThat(map.get(1)).isEqualTo(0);
+        assertThat(map.keySet()).containsOnly(1);
+        Thread.sleep(500);
+        assertThat(map.keySet()).isEmpty();
+    }
+    
+    @Test
+    public void testScanResistance() {
+        Cache<Integer, Integer> map = new TinyLFUCacheMap<Integer, Integer>(100, 0, 0);
+        for (int i = 0; i < 50; i++) {
+            map.put(i, 0);
+            map.get(i);
+        }
+        
+        for (int i = 1000; i < 11000; i++) {
+            map.put(i, 0);
+            map.get(i % 50);
+        }
+        
+        for (int i = 0; i < 50; i++) {
+            assertThat(map.containsKey(i)).isTrue();
+        }
+        assertThat(map.size()).isEqualTo(100);
+    }
+    
+    @Test
+    public void testSizeEviction() throws InterruptedException {
+        Cache<Integer, Integer> map = new TinyLFUCacheMap<Integer, Integer>(2, 0, 0);
+        map.put(1, 0);
+        map.put(2, 0);
+        
+        assertThat(map.keySet()).containsOnly(1, 2);
+        
+        map.put(3, 0);
+        
+        assertThat(map.keySet()).contains(3).hasSize(2);
+        
+        map.put(4, 0);
+        
+        assertThat(map.keySet()).contains(4).hasSize(2);
+    }
+    
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright 2016 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.pubsub;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link AsyncSemaphore} with previous synchronized implementation 
+ * under contention. Each operation acquires permit and releases it from listener 
+ * as it's done by connection pool.
+ * <p>
+ * Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test 
+ * -Dexec.mainClass=org.redisson.pubsub.AsyncSemaphoreBenchmark</code>
+ * 
+ * @author Nikita Koksharov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AsyncSemaphoreBenchmark {
+
+    /**
+     * Previous implementation guarded by monitor.
+     */
+    static class SynchronizedAsyncSemaphore {
+
+        private int counter;
+        private final Set<Runnable> listeners = new LinkedHashSet<Runnable>();
+
+        SynchronizedAsyncSemaphore(int permits) {
+            counter = permits;
+        }
+
+        public void acquire(Runnable listener) {
+            boolean run = false;
+            synchronized (this) {
+                if (counter == 0) {
+                    listeners.add(listener);
+                    return;
+                }
+                if (counter > 0) {
+                    counter--;
+                    run = true;
+                }
+            }
+
+            if (run) {
+                listener.run();
+            }
+        }
+
+        public void release() {
+            Runnable runnable = null;
+            synchronized (this) {
+                counter++;
+                Iterator<Runnable> iter = listeners.iterator();
+                if (iter.hasNext()) {
+                    runnable = iter.next();
+                    iter.remove();
+                }
+            }
+
+            if (runnable != null) {
+                acquire(runnable);
+            }
+        }
+
+    }
+
+    @Param({"1", "16"})
+    public int permits;
+
+    @Param({"false", "true"})
+    public boolean fair;
+
+    private AsyncSemaphore semaphore;
+    private SynchronizedAsyncSemaphore synchronizedSemaphore;
+
+    @Setup
+    public void setup() {
+        semaphore = new AsyncSemaphore(permits, fair);
+        synchronizedSemaphore = new SynchronizedAsyncSemaphore(permits);
+    }
+
+    @Benchmark
+    public void lockFree() {
+        semaphore.acquire(new Runnable() {
+            @Override
+            public void run() {
+                semaphore.release();
+            }
+        });
+    }
+
+    @Benchmark
+    public void synchronizedMonitor() {
+        synchronizedSemaphore.acquire(new Runnable() {
+            @Override
+            public void run() {
+                synchronizedSemaphore.release();
+            }
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 128; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(AsyncSemaphoreBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+
+}
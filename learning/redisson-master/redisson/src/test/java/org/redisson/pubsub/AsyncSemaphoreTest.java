@@ -0,0 +1,110 @@
+package org.redisson.pubsub;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class AsyncSemaphoreTest {
+
+    @Test
+    public void testAcquireRelease() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1);
+        AtomicInteger runs = new AtomicInteger();
+        
+        semaphore.acquire(runs::incrementAndGet);
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(semaphore.getCounter()).isZero();
+
+        semaphore.acquire(runs::incrementAndGet);
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(semaphore.queueSize()).isEqualTo(1);
+        
+        semaphore.release();
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(semaphore.getCounter()).isZero();
+        assertThat(semaphore.queueSize()).isZero();
+        
+        semaphore.release();
+        assertThat(semaphore.getCounter()).isEqualTo(1);
+    }
+    
+    @Test
+    public void testRemove() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(0);
+        AtomicInteger runs = new AtomicInteger();
+        Runnable listener = runs::incrementAndGet;
+        
+        semaphore.acquire(listener);
+        assertThat(semaphore.remove(listener)).isTrue();
+        assertThat(semaphore.remove(listener)).isFalse();
+        
+        semaphore.release();
+        assertThat(runs.get()).isZero();
+        assertThat(semaphore.getCounter()).isEqualTo(1);
+    }
+    
+    @Test
+    public void testFairOrder() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1, true);
+        List<Integer> order = new ArrayList<>();
+        
+        semaphore.acquire(() -> order.add(0));
+        for (int i = 1; i < 5; i++) {
+            int index = i;
+            semaphore.acquire(() -> order.add(index));
+        }
+        for (int i = 0; i < 5; i++) {
+            semaphore.release();
+        }
+        
+        assertThat(order).containsExactly(0, 1, 2, 3, 4);
+        assertThat(semaphore.getCounter()).isEqualTo(1);
+    }
+    
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        testConcurrentAccess(false);
+        testConcurrentAccess(true);
+    }
+    
+    private void testConcurrentAccess(boolean fair) throws InterruptedException {
+        int permits = 4;
+        int threads = 16;
+        int iterations = 10000;
+        AsyncSemaphore semaphore = new AsyncSemaphore(permits, fair);
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger maxHolders = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threads * iterations);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < iterations; j++) {
+                    semaphore.acquire(() -> {
+                        int value = holders.incrementAndGet();
+                        maxHolders.accumulateAndGet(value, Math::max);
+                        holders.decrementAndGet();
+                        semaphore.release();
+                        latch.countDown();
+                    });
+                }
+            });
+        }
+        
+        assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        
+        assertThat(maxHolders.get()).isLessThanOrEqualTo(permits);
+        assertThat(semaphore.getCounter()).isEqualTo(permits);
+        assertThat(semaphore.queueSize()).isZero();
+    }
+    
+}
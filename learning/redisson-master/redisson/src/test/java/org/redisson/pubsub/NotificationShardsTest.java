@@ -0,0 +1,36 @@
+package org.redisson.pubsub;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class NotificationShardsTest {
+
+    private final String script = "if redis.call('exists', KEYS[1]) == 0 then "
+                                    + "redis.call('publish', KEYS[2], ARGV[1]); "
+                                    + "return 1; "
+                                + "end; "
+                                + "redis.call('publish', KEYS[3] .. ':' .. ARGV[2], value); "
+                                + "return 0;";
+    
+    @Test
+    public void testDisabled() {
+        NotificationShards shards = new NotificationShards(null, 0);
+        assertThat(shards.isEnabled()).isFalse();
+        assertThat(shards.script(script)).isSameAs(script);
+    }
+    
+    @Test
+    public void testScript() {
+        NotificationShards shards = new NotificationShards(null, 8);
+        String result = shards.script(script);
+        
+        assertThat(result).startsWith("local function redisson_notify(channel, message) ");
+        assertThat(result).contains("'" + NotificationShards.CHANNEL_PREFIX + "' .. (h % 8)");
+        assertThat(result).contains("redisson_notify(KEYS[2], ARGV[1]); ");
+        assertThat(result).contains("redisson_notify(KEYS[3] .. ':' .. ARGV[2], value); ");
+        assertThat(result).doesNotContain("redis.call('publish', KEYS");
+        assertThat(shards.script(script)).isSameAs(result);
+    }
+    
+}